@@ -0,0 +1,119 @@
+import java.util.Random;
+
+import graph.core.IEdge;
+import graph.core.IVertex;
+import graph.impl.AdjacencyListGraph;
+import graph.impl.AdjacencyMatrixGraph;
+/**
+ * This is a file that contains some code to test how the
+ * adjacency matrix graph grows, reuses the keys of removed
+ * vertices and compacts, and that removing one of several
+ * parallel edges keeps the vertices adjacent, by comparing
+ * it with an adjacency list graph.
+ */
+public class AdjacencyMatrixGrowthTest {
+   public static void main( String[] args ) throws Exception {
+      // two parallel edges, remove the second then the first
+      AdjacencyMatrixGraph<String,Integer> g = new AdjacencyMatrixGraph<String,Integer>();
+      IVertex<String> u = g.insertVertex( "U" );
+      IVertex<String> v = g.insertVertex( "V" );
+      IEdge<Integer> first = g.insertEdge( u, v, 1 );
+      IEdge<Integer> second = g.insertEdge( u, v, 2 );
+      g.removeEdge( second );
+      boolean kept = g.numEdges() == 1 && g.areAdjacent( u, v ) && g.areAdjacent( v, u );
+      g.insertEdge( v, u, 3 );
+      g.removeEdge( first );
+      kept &= g.areAdjacent( u, v ) && g.areAdjacent( v, u );
+      System.out.println( "Parallel edge removal keeps adjacency: " + ( kept ? "correct" : "incorrect" ) );
+
+      // a self loop is removed once with its vertex
+      IVertex<String> w = g.insertVertex( "W" );
+      g.insertEdge( w, w, 4 );
+      g.insertEdge( w, w, 5 );
+      g.insertEdge( w, u, 6 );
+      g.removeVertex( w );
+      System.out.println( "Vertex with self loops removed: "
+            + ( g.numVertices() == 2 && g.numEdges() == 1 ? "correct" : "incorrect" ) );
+
+      // random inserts and removals with many parallel edges, growing from
+      // a small matrix, reusing keys and compacting now and then
+      Random random = new Random( 3 );
+      AdjacencyMatrixGraph<Integer,Integer> m = new AdjacencyMatrixGraph<Integer,Integer>( 2 );
+      AdjacencyListGraph<Integer,Integer> l = new AdjacencyListGraph<Integer,Integer>();
+      int size = 120;
+      @SuppressWarnings( "unchecked" )
+      IVertex<Integer>[] mv = new IVertex[size], lv = new IVertex[size];
+      @SuppressWarnings( "unchecked" )
+      IEdge<Integer>[] me = new IEdge[4000], le = new IEdge[4000];
+      int[] src = new int[me.length], dst = new int[me.length];
+      int wrong = 0;
+      for ( int step = 0; step < 20000; step++ ) {
+         int op = random.nextInt( 10 );
+         int a = random.nextInt( size ), b = random.nextInt( 8 ) == 0 ? a : random.nextInt( size );
+         if ( mv[a] == null ) {
+            mv[a] = m.insertVertex( a );
+            lv[a] = l.insertVertex( a );
+         } else if ( op == 0 ) {
+            // removing a vertex frees its key for the next new vertex
+            m.removeVertex( mv[a] );
+            l.removeVertex( lv[a] );
+            mv[a] = lv[a] = null;
+            for ( int i = 0; i < me.length; i++ )
+               if ( me[i] != null && ( src[i] == a || dst[i] == a ) )
+                  me[i] = le[i] = null;
+         } else if ( op < 6 && mv[b] != null ) {
+            int i = random.nextInt( me.length );
+            if ( me[i] == null ) {
+               // few vertex pairs, so many of these edges are parallel
+               int c = a % 12, d = b % 12;
+               if ( mv[c] != null && mv[d] != null ) {
+                  me[i] = m.insertEdge( mv[c], mv[d], i );
+                  le[i] = l.insertEdge( lv[c], lv[d], i );
+                  src[i] = c;
+                  dst[i] = d;
+               }
+            }
+         } else if ( op < 9 ) {
+            int i = random.nextInt( me.length );
+            if ( me[i] != null ) {
+               m.removeEdge( me[i] );
+               l.removeEdge( le[i] );
+               me[i] = le[i] = null;
+            }
+         } else if ( step % 50 == 0 ) {
+            m.compact();
+         }
+         if ( mv[a] != null && mv[b] != null && m.areAdjacent( mv[a], mv[b] ) != l.areAdjacent( lv[a], lv[b] ) )
+            wrong++;
+      }
+      for ( int a = 0; a < size; a++ )
+         for ( int b = 0; b < size; b++ )
+            if ( mv[a] != null && mv[b] != null && m.areAdjacent( mv[a], mv[b] ) != l.areAdjacent( lv[a], lv[b] ) )
+               wrong++;
+      System.out.println( "Random changes: " + wrong + " wrong areAdjacent, "
+            + ( wrong == 0 && m.numEdges() == l.numEdges() && m.numVertices() == l.numVertices() ? "correct"
+                  : "incorrect" ) );
+
+      // 3000 vertices from a matrix for 1, with every other one removed and refilled
+      AdjacencyMatrixGraph<Integer,Integer> big = new AdjacencyMatrixGraph<Integer,Integer>( 1 );
+      @SuppressWarnings( "unchecked" )
+      IVertex<Integer>[] bv = new IVertex[3000];
+      for ( int i = 0; i < bv.length; i++ ) {
+         bv[i] = big.insertVertex( i );
+         if ( i > 0 )
+            big.insertEdge( bv[i - 1], bv[i], i );
+      }
+      for ( int i = 1; i < bv.length; i += 2 )
+         big.removeVertex( bv[i] );
+      for ( int i = 1; i < bv.length; i += 2 )
+         bv[i] = big.insertVertex( -i );
+      boolean fresh = true;
+      for ( int i = 1; i < bv.length; i += 2 )
+         fresh &= !big.areAdjacent( bv[i], bv[i - 1] ) && !big.areAdjacent( bv[i], bv[i] );
+      big.insertEdge( bv[0], bv[1], -1 );
+      big.compact();
+      fresh &= big.areAdjacent( bv[0], bv[1] ) && !big.areAdjacent( bv[1], bv[2] ) && big.numVertices() == 3000
+            && big.numEdges() == 1;
+      System.out.println( "Reused keys start without edges: " + ( fresh ? "correct" : "incorrect" ) );
+   }
+}
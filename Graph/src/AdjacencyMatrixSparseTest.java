@@ -0,0 +1,60 @@
+import graph.core.IEdge;
+import graph.core.IEdgeCursor;
+import graph.core.IVertex;
+import graph.impl.AdjacencyMatrixGraph;
+/**
+ * This is a file that contains some code to test the
+ * sparse rows of the adjacency matrix graph on a ring
+ * of 100000 vertices, and the switch to a dense matrix.
+ */
+public class AdjacencyMatrixSparseTest {
+   public static void main( String[] args ) throws Exception {
+      // a dense matrix would need 10^10 cells
+      int n = 100000;
+      AdjacencyMatrixGraph<Integer,Integer> g = new AdjacencyMatrixGraph<Integer,Integer>( n );
+      @SuppressWarnings( "unchecked" )
+      IVertex<Integer>[] v = new IVertex[n];
+      for ( int i = 0; i < n; i++ )
+         v[i] = g.insertVertex( i );
+      IEdge<Integer> last = null;
+      for ( int i = 0; i < n; i++ )
+         last = g.insertEdge( v[i], v[( i + 1 ) % n], i );
+      g.insertEdge( v[7], v[7], -1 );
+      System.out.println( "Ring of " + n + " is sparse: " + ( g.isSparse() ? "correct" : "incorrect" ) );
+
+      if ( g.areAdjacent( v[n - 1], v[0] ) && g.areAdjacent( v[500], v[499] ) && !g.areAdjacent( v[0], v[2] ) && g.areAdjacent( v[7], v[7] ) )
+         System.out.println( "areAdjacent: correct" );
+      else
+         System.out.println( "areAdjacent: incorrect" );
+
+      // the cursor sees both ring edges and the self loop twice
+      IEdgeCursor<Integer,Integer> c = g.newEdgeCursor();
+      c.reset( v[7] );
+      int count = 0;
+      while ( c.advance() )
+         count++;
+      System.out.println( "Cursor edges of vertex 7: " + count + ( count == 4 ? " correct" : " incorrect" ) );
+
+      g.removeEdge( last );
+      g.removeVertex( v[500] );
+      if ( !g.areAdjacent( v[n - 1], v[0] ) && !g.areAdjacent( v[499], v[500] ) && g.areAdjacent( v[501], v[502] ) )
+         System.out.println( "Removals: correct" );
+      else
+         System.out.println( "Removals: incorrect" );
+
+      // a small complete graph switches to a dense matrix
+      AdjacencyMatrixGraph<Integer,Integer> k = new AdjacencyMatrixGraph<Integer,Integer>( 64 );
+      @SuppressWarnings( "unchecked" )
+      IVertex<Integer>[] w = new IVertex[64];
+      for ( int i = 0; i < w.length; i++ )
+         w[i] = k.insertVertex( i );
+      boolean sparseAtFirst = k.isSparse();
+      for ( int i = 0; i < w.length; i++ )
+         for ( int j = i + 1; j < w.length; j++ )
+            k.insertEdge( w[i], w[j], i * w.length + j );
+      if ( sparseAtFirst && !k.isSparse() && k.areAdjacent( w[3], w[60] ) && k.numEdges() == 64 * 63 / 2 )
+         System.out.println( "Complete graph switched to dense: correct" );
+      else
+         System.out.println( "Complete graph switched to dense: incorrect" );
+   }
+}
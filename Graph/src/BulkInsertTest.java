@@ -0,0 +1,95 @@
+import java.util.Arrays;
+import java.util.Random;
+
+import graph.core.IBulkGraph;
+import graph.core.IEdge;
+import graph.core.IIntGraph;
+import graph.core.IVertex;
+import graph.core.IWeightedGraph;
+import graph.impl.AdjacencyListGraph;
+import graph.impl.AdjacencyMatrixGraph;
+import graph.impl.EdgeListGraph;
+/**
+ * This is a file that contains some code to test the batch
+ * inserts of the graph implementations: a batch gives the
+ * same graph and numbering as inserting the edges one by
+ * one, and a batch with a bad vertex number changes nothing.
+ */
+public class BulkInsertTest {
+   public static void main( String[] args ) throws Exception {
+      test( "AdjacencyListGraph", new AdjacencyListGraph<Integer,Integer>(), new AdjacencyListGraph<Integer,Integer>() );
+      test( "AdjacencyMatrixGraph", new AdjacencyMatrixGraph<Integer,Integer>(),
+            new AdjacencyMatrixGraph<Integer,Integer>() );
+      test( "EdgeListGraph", new EdgeListGraph<Integer,Integer>( true ), new EdgeListGraph<Integer,Integer>( true ) );
+   }
+
+   @SuppressWarnings( "unchecked" )
+   static <G extends IBulkGraph<Integer,Integer> & IIntGraph<Integer,Integer> & IWeightedGraph<Integer,Integer>> void test(
+         String name, G bulk, G single ) {
+      Random random = new Random( 17 );
+      int n = 300, m = 2000;
+      IVertex<Integer>[] v = bulk.insertVertices( Arrays.asList( range( n ) ) );
+      IVertex<Integer>[] w = single.insertVertices( Arrays.asList( range( n ) ) );
+
+      // some edges first, and a removal, so the batch extends a changed graph
+      IEdge<Integer> first = bulk.insertEdge( v[0], v[1], -1 );
+      bulk.insertEdge( v[2], v[3], -2 );
+      bulk.removeEdge( first );
+      single.insertEdge( w[2], w[3], -2 );
+
+      int[] src = new int[m], dst = new int[m];
+      Integer[] elements = new Integer[m];
+      for ( int i = 0; i < m; i++ ) {
+         src[i] = random.nextInt( n );
+         dst[i] = random.nextInt( n );
+         elements[i] = i;
+      }
+      bulk.insertEdges( src, dst, elements );
+      for ( int i = 0; i < m; i++ )
+         single.insertEdge( w[src[i]], w[dst[i]], elements[i] );
+      System.out.println( name + " batch equals single inserts: " + ( same( bulk, single ) ? "correct" : "incorrect" ) );
+
+      // the numbering of the batch stays right after more changes
+      bulk.insertEdge( v[5], v[6], -3 );
+      single.insertEdge( w[5], w[6], -3 );
+      bulk.removeVertex( v[7] );
+      single.removeVertex( w[7] );
+      System.out.println( name + " later changes: " + ( same( bulk, single ) ? "correct" : "incorrect" ) );
+
+      // a bad vertex number at the end rejects the whole batch
+      int before = bulk.numEdges();
+      boolean rejected = false;
+      try {
+         bulk.insertEdges( new int[] { 0, 1, 2 }, new int[] { 1, 2, bulk.numVertices() }, null );
+      } catch ( IllegalArgumentException e ) {
+         rejected = true;
+      }
+      System.out.println( name + " bad batch rejected: "
+            + ( rejected && bulk.numEdges() == before && !bulk.areAdjacent( v[0], v[1] ) ? "correct" : "incorrect" ) );
+   }
+
+   // same end points, elements and weights for every edge number
+   static boolean same( IIntGraph<Integer,Integer> a, IIntGraph<Integer,Integer> b ) {
+      if ( a.numVertices() != b.numVertices() || a.numEdges() != b.numEdges() )
+         return false;
+      IWeightedGraph<Integer,Integer> wa = (IWeightedGraph<Integer,Integer>) a;
+      for ( int e = 0; e < a.numEdges(); e++ ) {
+         IEdge<Integer> x = a.edge( e ), y = b.edge( e );
+         if ( a.edgeId( x ) != e || !x.element().equals( y.element() ) || wa.weight( x ) != x.element()
+               || !a.vertex( a.edgeSource( e ) ).element().equals( b.vertex( b.edgeSource( e ) ).element() )
+               || !a.vertex( a.edgeTarget( e ) ).element().equals( b.vertex( b.edgeTarget( e ) ).element() ) )
+            return false;
+      }
+      for ( int x = 0; x < a.numVertices(); x++ )
+         if ( a.degree( x ) != b.degree( x ) )
+            return false;
+      return true;
+   }
+
+   static Integer[] range( int n ) {
+      Integer[] r = new Integer[n];
+      for ( int i = 0; i < n; i++ )
+         r[i] = i;
+      return r;
+   }
+}
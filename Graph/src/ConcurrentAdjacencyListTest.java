@@ -0,0 +1,181 @@
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import graph.core.IEdge;
+import graph.core.IGraph;
+import graph.core.IGraphSnapshot;
+import graph.core.IIterator;
+import graph.core.IVertex;
+import graph.core.IWeightedGraph;
+import graph.impl.ConcurrentAdjacencyListGraph;
+/**
+ * This is a file that contains some code to test the
+ * concurrent adjacency list graph, first on the airport
+ * graph, then with readers running while a writer
+ * changes the graph, and then with snapshots.
+ */
+public class ConcurrentAdjacencyListTest {
+   public static void main( String[] args ) throws Exception {
+      IGraph<String,Integer> g = new ConcurrentAdjacencyListGraph<String,Integer>();
+      // create some vertices
+      IVertex<String> hnl = g.insertVertex( "HNL" );
+      IVertex<String> lax = g.insertVertex( "LAX" );
+      IVertex<String> sfo = g.insertVertex( "SFO" );
+      IVertex<String> ord = g.insertVertex( "ORD" );
+      IVertex<String> pvd = g.insertVertex( "PVD" );
+
+      // create some edges
+      g.insertEdge( hnl, lax, 2555 );
+      g.insertEdge( lax, sfo, 337 );
+      g.insertEdge( ord, sfo, 1843 );
+      IEdge<Integer> laxord = g.insertEdge( lax, ord, 1743 );
+      g.insertEdge( ord, pvd, 849 );
+
+      // sample test for areAdjacent
+      if ( g.areAdjacent( sfo, ord ) && !g.areAdjacent( hnl, ord ) )
+         System.out.println( "SFO and ORD adjacent, HNL and ORD not: correct" );
+      else
+         System.out.println( "SFO and ORD adjacent, HNL and ORD not: incorrect" );
+
+      // sample test for removeEdge and removeVertex
+      g.removeEdge( laxord );
+      g.removeVertex( sfo );
+      int count = 0;
+      for ( IIterator<IEdge<Integer>> it = g.incidentEdges( lax ); it.hasNext(); it.next() )
+         count++;
+      if ( count == 1 && !g.areAdjacent( lax, ord ) )
+         System.out.println( "Incident edges of LAX after removals: correct" );
+      else
+         System.out.println( "Incident edges of LAX after removals: incorrect" );
+
+      // readers check a ring while a writer adds and removes chords
+      final int n = 1000;
+      final ConcurrentAdjacencyListGraph<Integer,Integer> ring = new ConcurrentAdjacencyListGraph<Integer,Integer>();
+      final IVertex<Integer>[] vs = new IVertex[n];
+      for ( int i = 0; i < n; i++ )
+         vs[i] = ring.insertVertex( i );
+      for ( int i = 0; i < n; i++ )
+         ring.insertEdge( vs[i], vs[( i + 1 ) % n], i );
+
+      final AtomicBoolean done = new AtomicBoolean();
+      final AtomicInteger errors = new AtomicInteger();
+      Thread[] readers = new Thread[4];
+      for ( int r = 0; r < readers.length; r++ ) {
+         final int seed = r;
+         readers[r] = new Thread( () -> {
+            int i = seed;
+            while ( !done.get() ) {
+               i = ( i * 31 + 7 ) % n;
+               // the ring edges are never removed
+               if ( !ring.areAdjacent( vs[i], vs[( i + 1 ) % n] ) )
+                  errors.incrementAndGet();
+               int degree = 0;
+               for ( IIterator<IEdge<Integer>> it = ring.incidentEdges( vs[i] ); it.hasNext(); degree++ )
+                  ring.opposite( vs[i], it.next() );
+               if ( degree < 2 )
+                  errors.incrementAndGet();
+            }
+         } );
+         readers[r].start();
+      }
+      for ( int k = 0; k < 20000; k++ ) {
+         int a = k % n, b = ( k * 7 + n / 2 ) % n;
+         IEdge<Integer> chord = ring.insertEdge( vs[a], vs[b], -1 );
+         ring.removeEdge( chord );
+      }
+      done.set( true );
+      for ( Thread t : readers )
+         t.join();
+
+      count = 0;
+      for ( IIterator<IEdge<Integer>> it = ring.edges(); it.hasNext(); it.next() )
+         count++;
+      if ( errors.get() == 0 && count == n )
+         System.out.println( "Readers during updates: correct" );
+      else
+         System.out.println( "Readers during updates: incorrect (" + errors.get() + " errors, " + count + " edges)" );
+
+      // a snapshot keeps seeing the ring while the writer takes it apart
+      IGraphSnapshot<Integer,Integer> snap = ring.snapshot();
+      final AtomicInteger seen = new AtomicInteger();
+      Thread analytics = new Thread( () -> {
+         for ( int k = 0; k < 20; k++ ) {
+            int edges = 0;
+            for ( IIterator<IVertex<Integer>> it = snap.vertices(); it.hasNext(); )
+               for ( IIterator<IEdge<Integer>> e = snap.incidentEdges( it.next() ); e.hasNext(); e.next() )
+                  edges++;
+            if ( edges == 2 * n )
+               seen.incrementAndGet();
+         }
+      } );
+      analytics.start();
+      for ( int i = 0; i < n; i += 2 )
+         ring.removeVertex( vs[i] );
+      ring.insertEdge( vs[1], vs[3], -1 );
+      analytics.join();
+
+      if ( seen.get() == 20 && snap.areAdjacent( vs[0], vs[1] ) && !snap.areAdjacent( vs[1], vs[3] ) )
+         System.out.println( "Snapshot during updates: correct" );
+      else
+         System.out.println( "Snapshot during updates: incorrect" );
+
+      count = 0;
+      for ( IIterator<IEdge<Integer>> it = ring.edges(); it.hasNext(); it.next() )
+         count++;
+      if ( count == 1 && ring.areAdjacent( vs[1], vs[3] ) && snap.version() < ring.version() )
+         System.out.println( "Graph after updates: correct" );
+      else
+         System.out.println( "Graph after updates: incorrect" );
+
+      // replace does not wait for the snapshot, which keeps seeing the old elements
+      IEdge<Integer> e13 = ring.edges().next();
+      ring.replace( vs[1], -1 );
+      ring.replace( vs[1], -2 );
+      IVertex<Integer> late = ring.insertVertex( n );
+      ring.replace( late, -3 );
+      IVertex<Integer> old = null;
+      for ( IIterator<IVertex<Integer>> it = snap.vertices(); it.hasNext(); ) {
+         IVertex<Integer> x = it.next();
+         if ( x.equals( vs[1] ) )
+            old = x;
+      }
+      boolean replaced = old != null && old.element() == 1 && vs[1].element() == -2 && late.element() == -3
+            && ring.replace( e13, 5 ) == -1 && e13.element() == 5;
+      snap.close();
+      // with the snapshot closed the old elements can go, and later snapshots see the new ones
+      ring.replace( vs[1], -4 );
+      IGraphSnapshot<Integer,Integer> now = ring.snapshot();
+      boolean fresh = false;
+      for ( IIterator<IVertex<Integer>> it = now.vertices(); it.hasNext(); ) {
+         IVertex<Integer> x = it.next();
+         if ( x.equals( vs[1] ) )
+            fresh = x.element() == -4 && now.areAdjacent( x, vs[3] );
+      }
+      now.close();
+      if ( replaced && fresh )
+         System.out.println( "Replace with a snapshot open: correct" );
+      else
+         System.out.println( "Replace with a snapshot open: incorrect" );
+
+      // weights start from the element, and a snapshot keeps the weights of its version
+      IEdge<Integer> w13 = ring.insertEdge( vs[1], vs[3], 40 );
+      IEdge<Integer> w35 = ring.insertEdge( vs[3], vs[5], 7, 2.5 );
+      IGraphSnapshot<Integer,Integer> weighted = ring.snapshot();
+      ring.setWeight( w13, 0.25 );
+      ring.replace( w35, 9 );
+      double seen40 = -1, seen7 = -1;
+      for ( IIterator<IEdge<Integer>> it = weighted.edges(); it.hasNext(); ) {
+         IEdge<Integer> x = it.next();
+         if ( x.equals( w13 ) )
+            seen40 = ( (IWeightedGraph<Integer,Integer>) weighted ).weight( x );
+         if ( x.equals( w35 ) )
+            seen7 = ( (IWeightedGraph<Integer,Integer>) weighted ).weight( x );
+      }
+      weighted.close();
+      if ( seen40 == 40 && seen7 == 2.5 && ring.weight( w13 ) == 0.25 && ring.weight( w35 ) == 9
+            && w13.element() == 40 )
+         System.out.println( "Weights with a snapshot open: correct" );
+      else
+         System.out.println( "Weights with a snapshot open: incorrect" );
+   }
+}
@@ -0,0 +1,170 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import graph.algo.ComponentsResult;
+import graph.algo.ConnectedComponents;
+import graph.algo.TraversalResult;
+import graph.algo.Traversals;
+import graph.core.IGraph;
+import graph.core.IIntGraph;
+import graph.core.IVertex;
+import graph.impl.AdjacencyListGraph;
+import graph.impl.AdjacencyMatrixGraph;
+import graph.impl.EdgeListGraph;
+import graph.util.ConcurrentUnionFind;
+import graph.util.UnionFind;
+/**
+ * This is a file that contains some code to find the
+ * connected components of the airport graph after
+ * some of the flights are cancelled, of random multigraphs
+ * big enough to be split over four threads (checked against
+ * the BFS forest), and to use the union-find from many
+ * threads at once.
+ */
+public class ConnectedComponentsTest {
+   public static void main( String[] args ) throws Exception {
+      IGraph<String,Integer> g = new EdgeListGraph<String,Integer>();
+      // create some vertices
+      IVertex<String> hnl = g.insertVertex( "HNL" );
+      IVertex<String> lax = g.insertVertex( "LAX" );
+      IVertex<String> sfo = g.insertVertex( "SFO" );
+      IVertex<String> ord = g.insertVertex( "ORD" );
+      IVertex<String> dfw = g.insertVertex( "DFW" );
+      IVertex<String> lga = g.insertVertex( "LGA" );
+      IVertex<String> pvd = g.insertVertex( "PVD" );
+      IVertex<String> mia = g.insertVertex( "MIA" );
+
+      // create some edges (without LAX<->ORD and DFW<->LAX)
+      g.insertEdge( hnl, lax, 2555 );
+      g.insertEdge( lax, sfo, 337 );
+      g.insertEdge( dfw, lga, 1387 );
+      g.insertEdge( dfw, mia, 1120 );
+      g.insertEdge( lga, mia, 1099 );
+      g.insertEdge( lga, pvd, 142 );
+
+      ComponentsResult<String,Integer> c = ConnectedComponents.find( g );
+      if ( c.count() == 3 && c.size( hnl ) == 3 && c.size( pvd ) == 4 && c.size( ord ) == 1 )
+         System.out.println( "Components and sizes: correct" );
+      else
+         System.out.println( "Components and sizes: incorrect" );
+
+      // the components are numbered in vertex order
+      if ( c.component( hnl ) == 0 && c.component( ord ) == 1 && c.component( mia ) == 2 )
+         System.out.println( "Component numbers: correct" );
+      else
+         System.out.println( "Component numbers: incorrect" );
+
+      if ( c.connected( sfo, hnl ) && !c.connected( sfo, dfw ) )
+         System.out.println( "SFO and HNL connected, SFO and DFW not: correct" );
+      else
+         System.out.println( "SFO and HNL connected, SFO and DFW not: incorrect" );
+
+      ForkJoinPool pool = new ForkJoinPool( 4 );
+      random( "AdjacencyListGraph", new AdjacencyListGraph<Integer,Integer>(), pool );
+      random( "AdjacencyMatrixGraph", new AdjacencyMatrixGraph<Integer,Integer>(), pool );
+      random( "EdgeListGraph", new EdgeListGraph<Integer,Integer>(), pool );
+      pool.shutdown();
+
+      unionFind();
+   }
+
+   // a random multigraph with self loops, many small components and a big one
+   static void random( String name, IGraph<Integer,Integer> g, ForkJoinPool pool ) {
+      Random random = new Random( 5 );
+      int n = 40000, m = 50000;
+      @SuppressWarnings( "unchecked" )
+      IVertex<Integer>[] v = new IVertex[n];
+      for ( int i = 0; i < n; i++ )
+         v[i] = g.insertVertex( i );
+      for ( int i = 0; i < m; i++ ) {
+         int a = random.nextInt( n ), b = i % 100 == 0 ? a : random.nextInt( n );
+         g.insertEdge( v[a], v[b], i );
+         if ( i % 50 == 0 )
+            g.insertEdge( v[b], v[a], -i );
+      }
+      @SuppressWarnings( "unchecked" )
+      IIntGraph<Integer,Integer> ig = (IIntGraph<Integer,Integer>) g;
+      ComponentsResult<Integer,Integer> c = ConnectedComponents.find( ig, pool );
+
+      // the root of the BFS tree of every vertex
+      TraversalResult<Integer,Integer> forest = Traversals.bfs( ig );
+      int[] root = new int[n], order = forest.order(), distance = forest.distance();
+      for ( int i = 0, r = -1; i < forest.visitedCount(); i++ ) {
+         if ( distance[order[i]] == 0 )
+            r = order[i];
+         root[order[i]] = r;
+      }
+
+      // components and trees must be the same partition of the vertices
+      int[] component = c.component(), sizes = c.sizes();
+      int[] rootOf = new int[c.count()], treeSize = new int[n];
+      Arrays.fill( rootOf, -1 );
+      boolean ok = forest.visitedCount() == n;
+      int trees = 0;
+      for ( int x = 0; x < n; x++ ) {
+         if ( root[x] == x )
+            trees++;
+         treeSize[root[x]]++;
+         if ( rootOf[component[x]] == -1 )
+            rootOf[component[x]] = root[x];
+         ok &= rootOf[component[x]] == root[x];
+      }
+      for ( int x = 0; x < n; x++ )
+         ok &= sizes[component[x]] == treeSize[root[x]];
+      ok &= trees == c.count();
+      System.out.println( name + " components match the BFS forest: " + ( ok ? "correct" : "incorrect" ) );
+   }
+
+   // threads union random pairs while others ask connected, then compare with a serial union-find
+   static void unionFind() throws Exception {
+      int n = 100000, threads = 4, perThread = 60000;
+      ConcurrentUnionFind sets = new ConcurrentUnionFind( n );
+      int[][] pairs = new int[threads * perThread][2];
+      Random random = new Random( 3 );
+      for ( int[] p : pairs ) {
+         p[0] = random.nextInt( n );
+         p[1] = random.nextInt( n );
+      }
+      AtomicInteger errors = new AtomicInteger();
+      Thread[] workers = new Thread[threads];
+      for ( int t = 0; t < threads; t++ ) {
+         final int from = t * perThread;
+         workers[t] = new Thread( () -> {
+            for ( int i = from; i < from + perThread; i++ ) {
+               sets.union( pairs[i][0], pairs[i][1] );
+               // a pair this thread joined stays joined, whatever the others do
+               if ( !sets.connected( pairs[i][1], pairs[i][0] ) )
+                  errors.incrementAndGet();
+               // the root of a set is never larger than its elements
+               int a = pairs[( i * 7 ) % pairs.length][0];
+               if ( sets.find( a ) > a )
+                  errors.incrementAndGet();
+            }
+         } );
+      }
+      for ( Thread w : workers )
+         w.start();
+      for ( Thread w : workers )
+         w.join();
+
+      UnionFind serial = new UnionFind( n );
+      for ( int[] p : pairs )
+         serial.union( p[0], p[1] );
+      boolean same = errors.get() == 0;
+      for ( int x = 0; x < n; x++ ) {
+         // the root of a concurrent set is its smallest element
+         int r = sets.find( x );
+         same &= r <= x && serial.find( r ) == serial.find( x ) && sets.find( r ) == r;
+      }
+      for ( int[] p : pairs )
+         same &= sets.connected( p[0], p[1] );
+      // and sets that the serial union-find keeps apart are apart here too
+      for ( int i = 0; i < 1000; i++ ) {
+         int a = random.nextInt( n ), b = random.nextInt( n );
+         same &= sets.connected( a, b ) == ( serial.find( a ) == serial.find( b ) );
+      }
+      System.out.println( "union-find from " + threads + " threads: " + ( same ? "correct" : "incorrect" ) );
+   }
+}
@@ -0,0 +1,92 @@
+import graph.core.IEdge;
+import graph.core.IGraph;
+import graph.core.IIterator;
+import graph.core.IVertex;
+import graph.impl.AdjacencyListGraph;
+import graph.impl.CsrGraph;
+/**
+ * This is a file that contains some code to freeze the
+ * airport graph into a CSR graph and test its methods.
+ */
+public class CsrGraphTest {
+   public static void main( String[] args ) throws Exception {
+      IGraph<String,Integer> src = new AdjacencyListGraph<String,Integer>();
+      // create some vertices
+      IVertex<String> hnl = src.insertVertex( "HNL" );
+      IVertex<String> lax = src.insertVertex( "LAX" );
+      IVertex<String> sfo = src.insertVertex( "SFO" );
+      IVertex<String> ord = src.insertVertex( "ORD" );
+      IVertex<String> dfw = src.insertVertex( "DFW" );
+      IVertex<String> lga = src.insertVertex( "LGA" );
+      IVertex<String> pvd = src.insertVertex( "PVD" );
+      IVertex<String> mia = src.insertVertex( "MIA" );
+
+      // create some edges
+      src.insertEdge( hnl, lax, 2555 );
+      src.insertEdge( lax, sfo, 337 );
+      src.insertEdge( ord, sfo, 1843 );
+      src.insertEdge( lax, ord, 1743 );
+      src.insertEdge( dfw, lax, 1233 );
+      src.insertEdge( ord, pvd, 849 );
+      src.insertEdge( dfw, lga, 1387 );
+      src.insertEdge( dfw, mia, 1120 );
+      src.insertEdge( lga, mia, 1099 );
+      src.insertEdge( lga, pvd, 142 );
+
+      IGraph<String,Integer> g = new CsrGraph<String,Integer>( src );
+
+      // find the frozen vertices by their elements
+      IVertex<String> csfo = null, cord = null, chnl = null, cpvd = null;
+      int count = 0;
+      for ( IIterator<IVertex<String>> it = g.vertices(); it.hasNext(); count++ ) {
+         IVertex<String> v = it.next();
+         if ( v.element().equals( "SFO" ) ) csfo = v;
+         if ( v.element().equals( "ORD" ) ) cord = v;
+         if ( v.element().equals( "HNL" ) ) chnl = v;
+         if ( v.element().equals( "PVD" ) ) cpvd = v;
+      }
+      System.out.println( "vertices count: " + count + ( count == 8 ? " correct" : " incorrect" ) );
+
+      count = 0;
+      for ( IIterator<IEdge<Integer>> it = g.edges(); it.hasNext(); it.next() )
+         count++;
+      System.out.println( "edges count: " + count + ( count == 10 ? " correct" : " incorrect" ) );
+
+      // sample test for areAdjacent
+      if ( g.areAdjacent( csfo, cord ) && !g.areAdjacent( chnl, cord ) )
+         System.out.println( "SFO and ORD adjacent, HNL and ORD not: correct" );
+      else
+         System.out.println( "SFO and ORD adjacent, HNL and ORD not: incorrect" );
+
+      // sample test for incidentEdges and opposite
+      int total = 0;
+      for ( IIterator<IEdge<Integer>> it = g.incidentEdges( cord ); it.hasNext(); ) {
+         IEdge<Integer> e = it.next();
+         total += e.element();
+         if ( g.opposite( cord, e ).equals( cord ) )
+            System.out.println( "Opposite of ORD: incorrect" );
+      }
+      if ( total == 1843 + 1743 + 849 )
+         System.out.println( "Incident edges of ORD: correct" );
+      else
+         System.out.println( "Incident edges of ORD: incorrect" );
+
+      // the frozen graph can not be changed
+      try {
+         g.insertVertex( "JFK" );
+         System.out.println( "insertVertex on CSR graph: incorrect" );
+      } catch ( UnsupportedOperationException e ) {
+         System.out.println( "insertVertex on CSR graph rejected: correct" );
+      }
+      System.out.println( "Element of PVD is: " + cpvd.element() );
+
+      // a CSR graph returns new vertex handles, so freezing one again must
+      // look its vertices up by equality
+      CsrGraph<String,Integer> again = new CsrGraph<String,Integer>( g );
+      boolean same = again.numVertices() == 8 && again.numEdges() == 10;
+      for ( int e = 0; e < again.numEdges(); e++ )
+         same &= again.edgeSource( e ) == ( (CsrGraph<String,Integer>) g ).edgeSource( e )
+               && again.edgeTarget( e ) == ( (CsrGraph<String,Integer>) g ).edgeTarget( e );
+      System.out.println( "CSR graph of a CSR graph: " + ( same ? "correct" : "incorrect" ) );
+   }
+}
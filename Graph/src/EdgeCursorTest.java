@@ -0,0 +1,139 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import graph.core.IEdge;
+import graph.core.IEdgeCursor;
+import graph.core.IGraph;
+import graph.core.IIterator;
+import graph.core.IVertex;
+import graph.core.IVertexCursor;
+import graph.impl.AdjacencyListGraph;
+import graph.impl.AdjacencyMatrixGraph;
+import graph.impl.EdgeListGraph;
+/**
+ * This is a file that contains some code to test that the
+ * edge cursor of every graph implementation returns the
+ * same edges as incidentEdges, with parallel edges and
+ * self loops, after some of them are removed, and that
+ * the default cursors of IGraph do so for a graph that
+ * has none of its own.
+ */
+public class EdgeCursorTest {
+   public static void main( String[] args ) throws Exception {
+      test( "AdjacencyListGraph", new AdjacencyListGraph<Integer,Integer>() );
+      test( "AdjacencyMatrixGraph(dense)", new AdjacencyMatrixGraph<Integer,Integer>() );
+      test( "AdjacencyMatrixGraph(sparse)", new AdjacencyMatrixGraph<Integer,Integer>( 4096 ) );
+      test( "EdgeListGraph", new EdgeListGraph<Integer,Integer>() );
+      test( "EdgeListGraph(indexed)", new EdgeListGraph<Integer,Integer>( true ) );
+      Plain<Integer,Integer> plain = new Plain<Integer,Integer>( new AdjacencyListGraph<Integer,Integer>() );
+      test( "IGraph default", plain );
+
+      // the default vertex cursor visits every vertex once
+      IVertexCursor<Integer> vc = plain.newVertexCursor();
+      int count = 0;
+      while ( vc.advance() )
+         count += vc.vertex() != null ? 1 : 1000;
+      System.out.println( "IGraph default vertex cursor: " + ( count == 20 ? "correct" : "incorrect" ) );
+   }
+
+   // a graph that only has the methods IGraph requires
+   static class Plain<V,E> implements IGraph<V,E> {
+      private final IGraph<V,E> g;
+
+      Plain( IGraph<V,E> g ) {
+         this.g = g;
+      }
+
+      public IVertex<V>[] endVertices( IEdge<E> e ) {
+         return g.endVertices( e );
+      }
+
+      public IVertex<V> opposite( IVertex<V> v, IEdge<E> e ) {
+         return g.opposite( v, e );
+      }
+
+      public boolean areAdjacent( IVertex<V> v, IVertex<V> w ) {
+         return g.areAdjacent( v, w );
+      }
+
+      public V replace( IVertex<V> v, V o ) {
+         return g.replace( v, o );
+      }
+
+      public E replace( IEdge<E> e, E o ) {
+         return g.replace( e, o );
+      }
+
+      public IVertex<V> insertVertex( V o ) {
+         return g.insertVertex( o );
+      }
+
+      public IEdge<E> insertEdge( IVertex<V> v, IVertex<V> w, E o ) {
+         return g.insertEdge( v, w, o );
+      }
+
+      public V removeVertex( IVertex<V> v ) {
+         return g.removeVertex( v );
+      }
+
+      public E removeEdge( IEdge<E> e ) {
+         return g.removeEdge( e );
+      }
+
+      public IIterator<IEdge<E>> incidentEdges( IVertex<V> v ) {
+         return g.incidentEdges( v );
+      }
+
+      public IIterator<IVertex<V>> vertices() {
+         return g.vertices();
+      }
+
+      public IIterator<IEdge<E>> edges() {
+         return g.edges();
+      }
+   }
+
+   @SuppressWarnings( "unchecked" )
+   static void test( String name, IGraph<Integer,Integer> g ) {
+      Random random = new Random( 9 );
+      int n = 20;
+      IVertex<Integer>[] v = new IVertex[n];
+      for ( int i = 0; i < n; i++ )
+         v[i] = g.insertVertex( i );
+      // few vertices, so there are many parallel edges, and some self loops
+      IEdge<Integer>[] e = new IEdge[150];
+      for ( int i = 0; i < e.length; i++ ) {
+         int a = random.nextInt( n );
+         e[i] = g.insertEdge( v[a], v[random.nextInt( 10 ) == 0 ? a : random.nextInt( n )], i );
+      }
+      boolean ok = check( g, v );
+      for ( int i = 0; i < e.length; i += 3 )
+         g.removeEdge( e[i] );
+      ok &= check( g, v );
+      System.out.println( name + " cursor agrees with incidentEdges: " + ( ok ? "correct" : "incorrect" ) );
+   }
+
+   static boolean check( IGraph<Integer,Integer> g, IVertex<Integer>[] v ) {
+      IEdgeCursor<Integer,Integer> cursor = g.newEdgeCursor();
+      int degrees = 0, edges = 0;
+      for ( IVertex<Integer> x : v ) {
+         // count how often each edge is returned (a self loop twice)
+         Map<IEdge<Integer>,Integer> seen = new HashMap<IEdge<Integer>,Integer>();
+         for ( IIterator<IEdge<Integer>> it = g.incidentEdges( x ); it.hasNext(); degrees++ )
+            seen.merge( it.next(), 1, Integer::sum );
+         cursor.reset( x );
+         while ( cursor.advance() ) {
+            if ( cursor.opposite() != g.opposite( x, cursor.edge() ) )
+               return false;
+            seen.merge( cursor.edge(), -1, Integer::sum );
+         }
+         for ( Map.Entry<IEdge<Integer>,Integer> entry : seen.entrySet() )
+            if ( entry.getValue() != 0 )
+               return false;
+      }
+      for ( IIterator<IEdge<Integer>> it = g.edges(); it.hasNext(); it.next() )
+         edges++;
+      return degrees == 2 * edges;
+   }
+}
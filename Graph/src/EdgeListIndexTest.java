@@ -0,0 +1,92 @@
+import java.util.Arrays;
+import java.util.Random;
+
+import graph.core.IEdge;
+import graph.core.IIterator;
+import graph.core.IVertex;
+import graph.impl.EdgeListGraph;
+/**
+ * This is a file that contains some code to test that an
+ * edge list graph with the incidence index answers like
+ * one without it, before the index is built and while it
+ * is kept up to date by inserts and removals.
+ */
+public class EdgeListIndexTest {
+   public static void main( String[] args ) throws Exception {
+      Random random = new Random( 13 );
+      EdgeListGraph<Integer,Integer> plain = new EdgeListGraph<Integer,Integer>();
+      EdgeListGraph<Integer,Integer> indexed = new EdgeListGraph<Integer,Integer>( true );
+      int n = 40;
+      @SuppressWarnings( "unchecked" )
+      IVertex<Integer>[] pv = new IVertex[n], iv = new IVertex[n];
+      @SuppressWarnings( "unchecked" )
+      IEdge<Integer>[] pe = new IEdge[400], ie = new IEdge[400];
+      int[] src = new int[pe.length], dst = new int[pe.length];
+      for ( int i = 0; i < n; i++ ) {
+         pv[i] = plain.insertVertex( i );
+         iv[i] = indexed.insertVertex( i );
+      }
+
+      // the first rounds run before the index exists; checking builds it
+      boolean ok = true;
+      for ( int round = 0; round < 30; round++ ) {
+         for ( int k = 0; k < 40; k++ ) {
+            int i = random.nextInt( pe.length );
+            int a = random.nextInt( n ), b = random.nextInt( 10 ) == 0 ? a : random.nextInt( n );
+            if ( pe[i] != null ) {
+               plain.removeEdge( pe[i] );
+               indexed.removeEdge( ie[i] );
+               pe[i] = ie[i] = null;
+            } else if ( pv[a] != null && pv[b] != null ) {
+               pe[i] = plain.insertEdge( pv[a], pv[b], i );
+               ie[i] = indexed.insertEdge( iv[a], iv[b], i );
+               src[i] = a;
+               dst[i] = b;
+            }
+         }
+
+         // remove a vertex (through the index once it is built) or add it back
+         int x = random.nextInt( n );
+         if ( pv[x] != null ) {
+            plain.removeVertex( pv[x] );
+            indexed.removeVertex( iv[x] );
+            pv[x] = iv[x] = null;
+            for ( int i = 0; i < pe.length; i++ )
+               if ( pe[i] != null && ( src[i] == x || dst[i] == x ) )
+                  pe[i] = ie[i] = null;
+         } else {
+            pv[x] = plain.insertVertex( x );
+            iv[x] = indexed.insertVertex( x );
+         }
+         if ( round >= 3 )
+            ok &= same( plain, indexed, pv, iv );
+      }
+      System.out.println( "Indexed and plain edge list graphs agree: "
+            + ( ok && plain.numEdges() == indexed.numEdges() ? "correct" : "incorrect" ) );
+   }
+
+   static boolean same( EdgeListGraph<Integer,Integer> plain, EdgeListGraph<Integer,Integer> indexed,
+         IVertex<Integer>[] pv, IVertex<Integer>[] iv ) {
+      for ( int a = 0; a < pv.length; a++ ) {
+         if ( pv[a] == null )
+            continue;
+         if ( !Arrays.equals( elements( plain, pv[a] ), elements( indexed, iv[a] ) ) )
+            return false;
+         for ( int b = 0; b < pv.length; b++ )
+            if ( pv[b] != null && plain.areAdjacent( pv[a], pv[b] ) != indexed.areAdjacent( iv[a], iv[b] ) )
+               return false;
+      }
+      return true;
+   }
+
+   // the elements of the incident edges of v, sorted
+   static int[] elements( EdgeListGraph<Integer,Integer> g, IVertex<Integer> v ) {
+      int[] found = new int[0];
+      for ( IIterator<IEdge<Integer>> it = g.incidentEdges( v ); it.hasNext(); ) {
+         found = Arrays.copyOf( found, found.length + 1 );
+         found[found.length - 1] = it.next().element();
+      }
+      Arrays.sort( found );
+      return found;
+   }
+}
@@ -0,0 +1,81 @@
+import java.io.File;
+import java.nio.file.Files;
+
+import graph.core.IEdge;
+import graph.core.IIterator;
+import graph.core.IVertex;
+import graph.impl.AdjacencyListGraph;
+import graph.io.EdgeStreamLoader;
+/**
+ * This is a file that contains some code to load the
+ * airport graph from an edge list file and test the
+ * graph that was loaded.
+ */
+public class EdgeStreamLoaderTest {
+   public static void main( String[] args ) throws Exception {
+      File file = File.createTempFile( "airports", ".txt" );
+      file.deleteOnExit();
+      Files.write( file.toPath(), ( "# src dst distance\n"
+            + "HNL LAX 2555\n"
+            + "LAX SFO 337\n"
+            + "ORD\tSFO\t1843\n"
+            + "\n"
+            + "LAX ORD 1743\r\n"
+            + "DFW LAX 1233\n"
+            + "ORD PVD 849\n"
+            + "DFW LGA 1387\n"
+            + "DFW MIA 1120\n"
+            + "LGA MIA 1099\n"
+            + "LGA PVD 142" ).getBytes( "UTF-8" ) );
+
+      AdjacencyListGraph<String,Integer> g = new AdjacencyListGraph<String,Integer>();
+      IVertex<String> hnl = g.insertVertex( "HNL" );
+
+      // tiny chunks and a short queue, so lines are cut and the reader has to wait
+      long[] seen = new long[2];
+      EdgeStreamLoader<Integer> l = new EdgeStreamLoader<Integer>( g, Integer::valueOf, 2, 16, 1 );
+      long loaded = l.load( file.toPath(), ( edges, bytes, total, nanos ) -> {
+         seen[0] = edges;
+         seen[1] = bytes == total ? 1 : 0;
+      } );
+      if ( loaded == 10 && seen[0] == 10 && seen[1] == 1 )
+         System.out.println( "Edges loaded and progress: correct" );
+      else
+         System.out.println( "Edges loaded and progress: incorrect" );
+
+      int total = 0, count = 0;
+      for ( IIterator<IEdge<Integer>> it = g.edges(); it.hasNext(); count++ )
+         total += it.next().element();
+      if ( count == 10 && g.numVertices() == 8 && total == 2555 + 337 + 1843 + 1743 + 1233 + 849 + 1387 + 1120 + 1099 + 142 )
+         System.out.println( "Vertices, edges and distances: correct" );
+      else
+         System.out.println( "Vertices, edges and distances: incorrect" );
+
+      // the existing HNL vertex is used, and the keys find their vertices
+      if ( l.vertex( "HNL" ) == hnl && g.areAdjacent( l.vertex( "SFO" ), l.vertex( "ORD" ) ) )
+         System.out.println( "Vertices found by key: correct" );
+      else
+         System.out.println( "Vertices found by key: incorrect" );
+
+      // a weighted graph takes the third column as the weight, even with null elements
+      Files.write( file.toPath(), "JFK BOS 187.5\nBOS SFO 2704\nSFO JFK\n".getBytes( "UTF-8" ) );
+      AdjacencyListGraph<String,Integer> wg = new AdjacencyListGraph<String,Integer>();
+      new EdgeStreamLoader<Integer>( wg, null ).load( file.toPath(), null );
+      double weights = 0;
+      for ( IIterator<IEdge<Integer>> it = wg.edges(); it.hasNext(); )
+         weights += wg.weight( it.next() );
+      if ( wg.numEdges() == 3 && weights == 187.5 + 2704 + 1 )
+         System.out.println( "Weights from the third column: correct" );
+      else
+         System.out.println( "Weights from the third column: incorrect" );
+
+      // a line with one column stops the load
+      Files.write( file.toPath(), "JFK BOS 187\nJFK\n".getBytes( "UTF-8" ) );
+      try {
+         l.load( file.toPath(), null );
+         System.out.println( "Bad line rejected: incorrect" );
+      } catch ( IllegalArgumentException e ) {
+         System.out.println( "Bad line rejected: correct" );
+      }
+   }
+}
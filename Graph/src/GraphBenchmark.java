@@ -0,0 +1,175 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import graph.algo.Traversals;
+import graph.core.IEdge;
+import graph.core.IGraph;
+import graph.core.IIterator;
+import graph.core.IVertex;
+import graph.impl.AdjacencyListGraph;
+import graph.impl.AdjacencyMatrixGraph;
+import graph.impl.EdgeListGraph;
+/**
+ * This is a file that contains a small benchmark of the
+ * three graph implementations on random graphs.
+ *
+ * Usage: GraphBenchmark [vertices] [average degree] [iterations]
+ *
+ * Every operation is run a few times to warm up the JIT and then
+ * measured; the report gives the time per operation, the bytes
+ * allocated per operation (measured for the benchmark thread,
+ * like the GC profiler of JMH) and the number of collections.
+ */
+public class GraphBenchmark {
+   // the graph an operation runs on, with its vertices and edges
+   static class Fixture {
+      IGraph<Integer,Integer> g;
+      IVertex<Integer>[] vertices;
+      IEdge<Integer>[] edges;
+      int[] src, dst;
+   }
+
+   static int n, degree, iterations;
+
+   public static void main( String[] args ) throws Exception {
+      n = args.length > 0 ? Integer.parseInt( args[0] ) : 2000;
+      degree = args.length > 1 ? Integer.parseInt( args[1] ) : 8;
+      iterations = args.length > 2 ? Integer.parseInt( args[2] ) : 5;
+      System.out.println( "vertices: " + n + ", average degree: " + degree + ", iterations: " + iterations );
+      System.out.printf( "%-26s %-16s %14s %14s %6s%n", "implementation", "operation", "ns/op", "bytes/op", "gcs" );
+
+      // the recursive DFS of the implementations needs a deep stack
+      Thread t = new Thread( null, GraphBenchmark::runAll, "benchmark", 1L << 30 );
+      t.start();
+      t.join();
+   }
+
+   static void runAll() {
+      run( "AdjacencyListGraph", AdjacencyListGraph::new );
+      run( "AdjacencyMatrixGraph", () -> new AdjacencyMatrixGraph<Integer,Integer>() );
+      run( "EdgeListGraph", () -> new EdgeListGraph<Integer,Integer>() );
+      run( "EdgeListGraph(indexed)", () -> new EdgeListGraph<Integer,Integer>( true ) );
+   }
+
+   @SuppressWarnings( "unchecked" )
+   static void run( String name, Supplier<IGraph<Integer,Integer>> factory ) {
+      // random end points, the same for every implementation
+      Random random = new Random( 42 );
+      int m = n * degree / 2;
+      int[] src = new int[m], dst = new int[m];
+      for ( int i = 0; i < m; i++ ) {
+         src[i] = random.nextInt( n );
+         dst[i] = random.nextInt( n );
+      }
+
+      Supplier<Fixture> empty = () -> {
+         Fixture f = new Fixture();
+         f.g = factory.get();
+         f.vertices = new IVertex[n];
+         f.edges = new IEdge[m];
+         f.src = src;
+         f.dst = dst;
+         return f;
+      };
+      Supplier<Fixture> withVertices = () -> {
+         Fixture f = empty.get();
+         for ( int i = 0; i < n; i++ )
+            f.vertices[i] = f.g.insertVertex( i );
+         return f;
+      };
+      Supplier<Fixture> full = () -> {
+         Fixture f = withVertices.get();
+         for ( int i = 0; i < m; i++ )
+            f.edges[i] = f.g.insertEdge( f.vertices[src[i]], f.vertices[dst[i]], i );
+         return f;
+      };
+
+      bench( name, "insertVertex", n, empty, f -> {
+         for ( int i = 0; i < n; i++ )
+            f.vertices[i] = f.g.insertVertex( i );
+      } );
+      bench( name, "insertEdge", m, withVertices, f -> {
+         for ( int i = 0; i < m; i++ )
+            f.edges[i] = f.g.insertEdge( f.vertices[f.src[i]], f.vertices[f.dst[i]], i );
+      } );
+      int removals = Math.min( n, 100 );
+      bench( name, "removeVertex", removals, full, f -> {
+         for ( int i = 0; i < removals; i++ )
+            f.g.removeVertex( f.vertices[i] );
+      } );
+      bench( name, "areAdjacent", m, full, f -> {
+         int found = 0;
+         for ( int i = 0; i < m; i++ )
+            if ( f.g.areAdjacent( f.vertices[f.dst[i]], f.vertices[f.src[( i * 7 ) % m]] ) )
+               found++;
+         if ( found < 0 )
+            System.out.println( found );
+      } );
+      bench( name, "incidentEdges", n, full, f -> {
+         long sum = 0;
+         for ( int i = 0; i < n; i++ )
+            for ( IIterator<IEdge<Integer>> it = f.g.incidentEdges( f.vertices[i] ); it.hasNext(); )
+               sum += it.next().element();
+         if ( sum < 0 )
+            System.out.println( sum );
+      } );
+      bench( name, "DFS", n, full, f -> dfs( f.g ) );
+      bench( name, "BFS", n, full, f -> bfs( f.g ) );
+      bench( name, "Traversals.dfs", n, full, f -> Traversals.dfs( f.g ) );
+      bench( name, "Traversals.bfs", n, full, f -> Traversals.bfs( f.g ) );
+   }
+
+   // the DFS and BFS methods are not part of IGraph
+   static void dfs( IGraph<Integer,Integer> g ) {
+      if ( g instanceof AdjacencyListGraph )
+         ( (AdjacencyListGraph<Integer,Integer>) g ).DFS( g );
+      else if ( g instanceof AdjacencyMatrixGraph )
+         ( (AdjacencyMatrixGraph<Integer,Integer>) g ).DFS( g );
+      else
+         ( (EdgeListGraph<Integer,Integer>) g ).DFS( g );
+   }
+
+   static void bfs( IGraph<Integer,Integer> g ) {
+      if ( g instanceof AdjacencyListGraph )
+         ( (AdjacencyListGraph<Integer,Integer>) g ).BFS( g );
+      else if ( g instanceof AdjacencyMatrixGraph )
+         ( (AdjacencyMatrixGraph<Integer,Integer>) g ).BFS( g );
+      else
+         ( (EdgeListGraph<Integer,Integer>) g ).BFS( g );
+   }
+
+   /**
+    * Run {@code body} on a fresh fixture from {@code setup} for the warm up
+    * and measured iterations, and print the average per operation.
+    */
+   static void bench( String name, String op, int ops, Supplier<Fixture> setup, Consumer<Fixture> body ) {
+      com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+      long thread = Thread.currentThread().getId();
+      for ( int i = 0; i < iterations; i++ )
+         body.accept( setup.get() );
+
+      long time = 0, bytes = 0, gcs = 0;
+      for ( int i = 0; i < iterations; i++ ) {
+         Fixture f = setup.get();
+         long gc0 = gcCount();
+         long b0 = threads.getThreadAllocatedBytes( thread );
+         long t0 = System.nanoTime();
+         body.accept( f );
+         time += System.nanoTime() - t0;
+         bytes += threads.getThreadAllocatedBytes( thread ) - b0;
+         gcs += gcCount() - gc0;
+      }
+      long total = (long) ops * iterations;
+      System.out.printf( "%-26s %-16s %14.1f %14.1f %6d%n", name, op, (double) time / total, (double) bytes / total, gcs );
+   }
+
+   static long gcCount() {
+      long count = 0;
+      for ( GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans() )
+         count += Math.max( 0, gc.getCollectionCount() );
+      return count;
+   }
+}
@@ -0,0 +1,109 @@
+import java.io.File;
+
+import graph.core.IEdge;
+import graph.core.IGraph;
+import graph.core.IIterator;
+import graph.core.IVertex;
+import graph.core.IWeightedGraph;
+import graph.impl.EdgeListGraph;
+import graph.io.ElementCodecs;
+import graph.io.GraphFile;
+/**
+ * This is a file that contains some code to write the
+ * airport graph to a binary graph file, map it back in
+ * and test the methods of the mapped graph.
+ */
+public class GraphFileTest {
+   public static void main( String[] args ) throws Exception {
+      EdgeListGraph<String,Integer> src = new EdgeListGraph<String,Integer>();
+      // create some vertices
+      IVertex<String> hnl = src.insertVertex( "HNL" );
+      IVertex<String> lax = src.insertVertex( "LAX" );
+      IVertex<String> sfo = src.insertVertex( "SFO" );
+      IVertex<String> ord = src.insertVertex( "ORD" );
+      IVertex<String> dfw = src.insertVertex( "DFW" );
+      IVertex<String> lga = src.insertVertex( "LGA" );
+      IVertex<String> pvd = src.insertVertex( "PVD" );
+      IVertex<String> mia = src.insertVertex( "MIA" );
+
+      // create some edges
+      src.insertEdge( hnl, lax, 2555 );
+      src.insertEdge( lax, sfo, 337 );
+      src.insertEdge( ord, sfo, 1843 );
+      src.insertEdge( lax, ord, 1743 );
+      src.insertEdge( dfw, lax, 1233 );
+      src.insertEdge( ord, pvd, 849 );
+      src.insertEdge( dfw, lga, 1387 );
+      src.insertEdge( dfw, mia, 1120 );
+      src.insertEdge( lga, mia, 1099 );
+      src.insertEdge( lga, pvd, 142 );
+
+      File file = File.createTempFile( "airports", ".graph" );
+      file.deleteOnExit();
+      src.write( file.toPath(), ElementCodecs.STRING, ElementCodecs.INTEGER );
+      IGraph<String,Integer> g = GraphFile.open( file.toPath(), ElementCodecs.STRING, ElementCodecs.INTEGER );
+
+      // find the mapped vertices by their elements
+      IVertex<String> mord = null, msfo = null, mhnl = null;
+      int count = 0;
+      for ( IIterator<IVertex<String>> it = g.vertices(); it.hasNext(); count++ ) {
+         IVertex<String> v = it.next();
+         if ( v.element().equals( "ORD" ) ) mord = v;
+         if ( v.element().equals( "SFO" ) ) msfo = v;
+         if ( v.element().equals( "HNL" ) ) mhnl = v;
+      }
+      System.out.println( "vertices count: " + count + ( count == 8 ? " correct" : " incorrect" ) );
+
+      int total = 0;
+      count = 0;
+      for ( IIterator<IEdge<Integer>> it = g.edges(); it.hasNext(); count++ )
+         total += it.next().element();
+      if ( count == 10 && total == 2555 + 337 + 1843 + 1743 + 1233 + 849 + 1387 + 1120 + 1099 + 142 )
+         System.out.println( "Edges and distances: correct" );
+      else
+         System.out.println( "Edges and distances: incorrect" );
+
+      // sample test for areAdjacent
+      if ( g.areAdjacent( msfo, mord ) && !g.areAdjacent( mhnl, mord ) )
+         System.out.println( "SFO and ORD adjacent, HNL and ORD not: correct" );
+      else
+         System.out.println( "SFO and ORD adjacent, HNL and ORD not: incorrect" );
+
+      // sample test for incidentEdges
+      count = 0;
+      for ( IIterator<IEdge<Integer>> it = g.incidentEdges( mord ); it.hasNext(); it.next() )
+         count++;
+      System.out.println( "Incident edges of ORD: " + count + ( count == 3 ? " correct" : " incorrect" ) );
+
+      // weights: one changed, and one edge removed so the next one reuses its slot
+      IEdge<Integer> pvdLga = null, ordPvd = null;
+      for ( IIterator<IEdge<Integer>> it = src.edges(); it.hasNext(); ) {
+         IEdge<Integer> e = it.next();
+         if ( e.element() == 142 ) pvdLga = e;
+         if ( e.element() == 849 ) ordPvd = e;
+      }
+      src.setWeight( pvdLga, 0.5 );
+      src.removeEdge( ordPvd );
+      src.insertEdge( hnl, sfo, 2398, 7.25 );
+      src.write( file.toPath(), ElementCodecs.STRING, ElementCodecs.INTEGER );
+      IWeightedGraph<String,Integer> wg = GraphFile.open( file.toPath(), ElementCodecs.STRING, ElementCodecs.INTEGER );
+
+      boolean ok = true;
+      count = 0;
+      for ( IIterator<IEdge<Integer>> it = wg.edges(); it.hasNext(); count++ ) {
+         IEdge<Integer> e = it.next();
+         double expected = e.element() == 142 ? 0.5 : e.element() == 2398 ? 7.25 : e.element();
+         ok &= wg.weight( e ) == expected && e.element() != 849;
+      }
+      boolean readOnly = false;
+      try {
+         wg.setWeight( wg.edges().next(), 1 );
+      } catch ( UnsupportedOperationException e ) {
+         readOnly = true;
+      }
+      if ( ok && count == 10 && readOnly )
+         System.out.println( "Mapped weights: correct" );
+      else
+         System.out.println( "Mapped weights: incorrect" );
+   }
+}
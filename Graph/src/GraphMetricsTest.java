@@ -0,0 +1,120 @@
+import java.lang.management.ManagementFactory;
+
+import javax.management.ObjectName;
+
+import graph.core.IGraph;
+import graph.core.IVertex;
+import graph.impl.AdjacencyListGraph;
+import graph.impl.AdjacencyMatrixGraph;
+import graph.impl.EdgeListGraph;
+import graph.util.GraphMetrics;
+/**
+ * This is a file that contains some code to test the
+ * metrics of the graph implementations: what DFS, BFS
+ * and areAdjacent count on the airport graph, that a
+ * graph without metrics counts nothing, and the JMX view.
+ */
+public class GraphMetricsTest {
+   public static void main( String[] args ) throws Exception {
+      // areAdjacent(HNL, PVD) walks the one edge of HNL, no list, or every edge
+      test( "AdjacencyListGraph", new AdjacencyListGraph<String,Integer>(), 1 );
+      test( "AdjacencyMatrixGraph", new AdjacencyMatrixGraph<String,Integer>(), 0 );
+      test( "EdgeListGraph", new EdgeListGraph<String,Integer>(), 5 );
+
+      // growing a matrix rebuilds it
+      AdjacencyMatrixGraph<Integer,Integer> matrix = new AdjacencyMatrixGraph<Integer,Integer>();
+      GraphMetrics metrics = new GraphMetrics();
+      matrix.setMetrics( metrics );
+      for ( int i = 0; i < 1000; i++ )
+         matrix.insertVertex( i );
+      System.out.println( "matrix rebuilds: " + ( metrics.snapshot().matrixRebuilds() > 0 ? "correct" : "incorrect" ) );
+
+      // the same counters through JMX
+      metrics.visited( 3, 4 );
+      ObjectName name = metrics.register( "GraphMetricsTest" );
+      Object visited = ManagementFactory.getPlatformMBeanServer().getAttribute( name, "VerticesVisited" );
+      ManagementFactory.getPlatformMBeanServer().invoke( name, "reset", null, null );
+      GraphMetrics.unregister( "GraphMetricsTest" );
+      System.out.println( "JMX: " + ( Long.valueOf( 3 ).equals( visited ) && metrics.getVerticesVisited() == 0
+            && !ManagementFactory.getPlatformMBeanServer().isRegistered( name ) ? "correct" : "incorrect" ) );
+   }
+
+   static void test( String name, IGraph<String,Integer> g, long walked ) {
+      // create some vertices
+      IVertex<String> hnl = g.insertVertex( "HNL" );
+      IVertex<String> lax = g.insertVertex( "LAX" );
+      IVertex<String> sfo = g.insertVertex( "SFO" );
+      IVertex<String> ord = g.insertVertex( "ORD" );
+      IVertex<String> pvd = g.insertVertex( "PVD" );
+
+      // create some edges
+      g.insertEdge( hnl, lax, 2555 );
+      g.insertEdge( lax, sfo, 337 );
+      g.insertEdge( ord, sfo, 1843 );
+      g.insertEdge( lax, ord, 1743 );
+      g.insertEdge( ord, pvd, 849 );
+
+      // without metrics nothing is counted
+      GraphMetrics metrics = new GraphMetrics();
+      dfs( g );
+      setMetrics( g, metrics );
+
+      // every vertex is visited once and every edge is scanned from both ends
+      GraphMetrics.Snapshot before = metrics.snapshot();
+      dfs( g );
+      GraphMetrics.Snapshot d = metrics.snapshot().minus( before );
+      System.out.println( name + " DFS: " + d.verticesVisited() + " vertices, " + d.edgesScanned() + " edges "
+            + ( before.verticesVisited() == 0 && d.verticesVisited() == 5 && d.edgesScanned() == 10
+                  && d.dfsRuns() == 1 && d.dfsNanos() > 0 ? "correct" : "incorrect" ) );
+
+      before = metrics.snapshot();
+      bfs( g );
+      GraphMetrics.Snapshot b = metrics.snapshot().minus( before );
+      System.out.println( name + " BFS: " + b.verticesVisited() + " vertices, " + b.edgesScanned() + " edges "
+            + ( b.verticesVisited() == 5 && b.edgesScanned() == 10 && b.bfsRuns() == 1 && b.dfsRuns() == 0
+                  ? "correct" : "incorrect" ) );
+
+      before = metrics.snapshot();
+      boolean adjacent = g.areAdjacent( hnl, pvd );
+      GraphMetrics.Snapshot a = metrics.snapshot().minus( before );
+      System.out.println( name + " areAdjacent: " + a.adjacencyEntriesWalked() + " entries walked "
+            + ( !adjacent && a.adjacencyChecks() == 1 && a.adjacencyEntriesWalked() == walked ? "correct"
+                  : "incorrect" ) );
+
+      // detached metrics stop counting
+      setMetrics( g, null );
+      before = metrics.snapshot();
+      dfs( g );
+      g.areAdjacent( lax, sfo );
+      System.out.println( name + " detached: " + ( metrics.snapshot().minus( before ).toString()
+            .equals( before.minus( before ).toString() ) ? "correct" : "incorrect" ) );
+   }
+
+   // the metrics, DFS and BFS methods are not part of IGraph
+   static void setMetrics( IGraph<String,Integer> g, GraphMetrics metrics ) {
+      if ( g instanceof AdjacencyListGraph )
+         ( (AdjacencyListGraph<String,Integer>) g ).setMetrics( metrics );
+      else if ( g instanceof AdjacencyMatrixGraph )
+         ( (AdjacencyMatrixGraph<String,Integer>) g ).setMetrics( metrics );
+      else
+         ( (EdgeListGraph<String,Integer>) g ).setMetrics( metrics );
+   }
+
+   static void dfs( IGraph<String,Integer> g ) {
+      if ( g instanceof AdjacencyListGraph )
+         ( (AdjacencyListGraph<String,Integer>) g ).DFS( g );
+      else if ( g instanceof AdjacencyMatrixGraph )
+         ( (AdjacencyMatrixGraph<String,Integer>) g ).DFS( g );
+      else
+         ( (EdgeListGraph<String,Integer>) g ).DFS( g );
+   }
+
+   static void bfs( IGraph<String,Integer> g ) {
+      if ( g instanceof AdjacencyListGraph )
+         ( (AdjacencyListGraph<String,Integer>) g ).BFS( g );
+      else if ( g instanceof AdjacencyMatrixGraph )
+         ( (AdjacencyMatrixGraph<String,Integer>) g ).BFS( g );
+      else
+         ( (EdgeListGraph<String,Integer>) g ).BFS( g );
+   }
+}
@@ -0,0 +1,71 @@
+import graph.algo.IncrementalConnectivity;
+import graph.core.IEdge;
+import graph.core.IVertex;
+import graph.impl.AdjacencyListGraph;
+/**
+ * This is a file that contains some code to keep track
+ * of which airports of the airport graph are connected
+ * while flights are added and cancelled.
+ */
+public class IncrementalConnectivityTest {
+   public static void main( String[] args ) throws Exception {
+      IncrementalConnectivity<String,Integer> g = new IncrementalConnectivity<String,Integer>( new AdjacencyListGraph<String,Integer>() );
+      // create some vertices
+      IVertex<String> hnl = g.insertVertex( "HNL" );
+      IVertex<String> lax = g.insertVertex( "LAX" );
+      IVertex<String> sfo = g.insertVertex( "SFO" );
+      IVertex<String> ord = g.insertVertex( "ORD" );
+      IVertex<String> dfw = g.insertVertex( "DFW" );
+      IVertex<String> lga = g.insertVertex( "LGA" );
+      IVertex<String> pvd = g.insertVertex( "PVD" );
+      IVertex<String> mia = g.insertVertex( "MIA" );
+
+      // create some edges
+      IEdge<Integer> hnlLax = g.insertEdge( hnl, lax, 2555 );
+      g.insertEdge( lax, sfo, 337 );
+      g.insertEdge( ord, sfo, 1843 );
+      g.insertEdge( lax, ord, 1743 );
+      IEdge<Integer> dfwLax = g.insertEdge( dfw, lax, 1233 );
+      g.insertEdge( ord, pvd, 849 );
+      g.insertEdge( dfw, lga, 1387 );
+      g.insertEdge( dfw, mia, 1120 );
+      g.insertEdge( lga, mia, 1099 );
+      g.insertEdge( lga, pvd, 142 );
+
+      if ( g.count() == 1 && g.connected( hnl, mia ) )
+         System.out.println( "All airports connected: correct" );
+      else
+         System.out.println( "All airports connected: incorrect" );
+
+      // HNL is cut off
+      g.removeEdge( hnlLax );
+      if ( g.count() == 2 && !g.connected( hnl, lax ) && g.connected( lax, mia ) )
+         System.out.println( "HNL cut off: correct" );
+      else
+         System.out.println( "HNL cut off: incorrect" );
+
+      // without ORD, LAX still reaches PVD through DFW and LGA
+      g.removeVertex( ord );
+      if ( g.count() == 2 && g.connected( sfo, pvd ) )
+         System.out.println( "ORD removed, SFO and PVD connected: correct" );
+      else
+         System.out.println( "ORD removed, SFO and PVD connected: incorrect" );
+
+      // now the west coast is cut off from the east coast
+      g.removeEdge( dfwLax );
+      if ( g.count() == 3 && g.connected( sfo, lax ) && !g.connected( sfo, pvd ) && g.connected( pvd, mia ) )
+         System.out.println( "DFW<->LAX cancelled, west and east split: correct" );
+      else
+         System.out.println( "DFW<->LAX cancelled, west and east split: incorrect" );
+
+      // a new flight joins them again
+      g.insertEdge( sfo, lga, 2580 );
+      if ( g.count() == 2 && g.connected( lax, mia ) )
+         System.out.println( "SFO<->LGA added: correct" );
+      else
+         System.out.println( "SFO<->LGA added: incorrect" );
+
+      // all of this was done without searching the whole graph again
+      System.out.println( "Rebuilds: " + g.rebuilds() + ( g.rebuilds() == 1 ? " correct" : " incorrect" ) );
+   }
+}
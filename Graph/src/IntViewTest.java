@@ -0,0 +1,93 @@
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import graph.core.IEdge;
+import graph.core.IGraph;
+import graph.core.IIntGraph;
+import graph.core.IIterator;
+import graph.core.IVertex;
+import graph.impl.AdjacencyListGraph;
+import graph.impl.AdjacencyMatrixGraph;
+import graph.impl.EdgeListGraph;
+/**
+ * This is a file that contains some code to test that the
+ * numbered view of the graph implementations stays dense
+ * and agrees with the graph after removals change it.
+ */
+public class IntViewTest {
+   public static void main( String[] args ) throws Exception {
+      test( "AdjacencyListGraph", new AdjacencyListGraph<Integer,Integer>() );
+      test( "AdjacencyMatrixGraph", new AdjacencyMatrixGraph<Integer,Integer>() );
+      test( "EdgeListGraph", new EdgeListGraph<Integer,Integer>() );
+   }
+
+   @SuppressWarnings( "unchecked" )
+   static void test( String name, IGraph<Integer,Integer> g ) {
+      Random random = new Random( 5 );
+      int n = 60;
+      IVertex<Integer>[] v = new IVertex[n];
+      for ( int i = 0; i < n; i++ )
+         v[i] = g.insertVertex( i );
+      IEdge<Integer>[] e = new IEdge[200];
+      for ( int i = 0; i < e.length; i++ )
+         e[i] = g.insertEdge( v[random.nextInt( n )], v[random.nextInt( n )], i );
+
+      IIntGraph<Integer,Integer> ig = (IIntGraph<Integer,Integer>) g;
+      boolean ok = check( g, ig );
+
+      // remove some edges and vertices, reading the view in between
+      Set<IVertex<Integer>> removed = new HashSet<IVertex<Integer>>();
+      for ( int round = 0; round < 5; round++ ) {
+         for ( int i = round; i < e.length; i += 17 )
+            if ( e[i] != null && !removed.contains( g.endVertices( e[i] )[0] )
+                  && !removed.contains( g.endVertices( e[i] )[1] ) ) {
+               g.removeEdge( e[i] );
+               e[i] = null;
+            }
+         IVertex<Integer> x = v[random.nextInt( n )];
+         if ( removed.add( x ) ) {
+            for ( int i = 0; i < e.length; i++ )
+               if ( e[i] != null && ( g.endVertices( e[i] )[0] == x || g.endVertices( e[i] )[1] == x ) )
+                  e[i] = null;
+            g.removeVertex( x );
+         }
+         ok &= check( g, ig );
+      }
+      System.out.println( name + " int view after removals: " + ( ok ? "correct" : "incorrect" ) );
+   }
+
+   // the numbers are dense and every int method agrees with the graph
+   static boolean check( IGraph<Integer,Integer> g, IIntGraph<Integer,Integer> ig ) {
+      Set<Integer> vertexIds = new HashSet<Integer>();
+      for ( IIterator<IVertex<Integer>> it = g.vertices(); it.hasNext(); ) {
+         IVertex<Integer> x = it.next();
+         int id = ig.vertexId( x );
+         if ( id < 0 || id >= ig.numVertices() || !vertexIds.add( id ) || ig.vertex( id ) != x )
+            return false;
+
+         // the neighbors of a vertex are the opposites of its incident edges
+         int degree = 0;
+         for ( IIterator<IEdge<Integer>> ei = g.incidentEdges( x ); ei.hasNext(); ei.next() )
+            degree++;
+         if ( ig.degree( id ) != degree )
+            return false;
+         for ( int i = 0; i < degree; i++ ) {
+            IEdge<Integer> edge = ig.edge( ig.incidentEdge( id, i ) );
+            if ( ig.vertex( ig.neighbor( id, i ) ) != g.opposite( x, edge ) )
+               return false;
+         }
+      }
+      Set<Integer> edgeIds = new HashSet<Integer>();
+      for ( IIterator<IEdge<Integer>> it = g.edges(); it.hasNext(); ) {
+         IEdge<Integer> edge = it.next();
+         int id = ig.edgeId( edge );
+         if ( id < 0 || id >= ig.numEdges() || !edgeIds.add( id ) || ig.edge( id ) != edge )
+            return false;
+         IVertex<Integer>[] ends = g.endVertices( edge );
+         if ( ig.vertex( ig.edgeSource( id ) ) != ends[0] || ig.vertex( ig.edgeTarget( id ) ) != ends[1] )
+            return false;
+      }
+      return vertexIds.size() == ig.numVertices() && edgeIds.size() == ig.numEdges();
+   }
+}
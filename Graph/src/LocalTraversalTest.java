@@ -0,0 +1,123 @@
+import graph.core.BFSLabel;
+import graph.core.DFSLabel;
+import graph.core.IEdge;
+import graph.core.IGraph;
+import graph.core.IIterator;
+import graph.core.IVertex;
+import graph.impl.AdjacencyListGraph;
+import graph.impl.AdjacencyMatrixGraph;
+import graph.impl.EdgeListGraph;
+/**
+ * This is a file that contains some code to test that
+ * a new search in the graph implementations starts with
+ * all labels unexplored without resetting them one by one,
+ * using the airport graph and a second, separate graph.
+ */
+public class LocalTraversalTest {
+   public static void main( String[] args ) throws Exception {
+      test( "AdjacencyListGraph", new AdjacencyListGraph<String,Integer>() );
+      test( "AdjacencyMatrixGraph", new AdjacencyMatrixGraph<String,Integer>() );
+      test( "EdgeListGraph", new EdgeListGraph<String,Integer>() );
+   }
+
+   static void test( String name, IGraph<String,Integer> g ) {
+      // create some vertices
+      IVertex<String> hnl = g.insertVertex( "HNL" );
+      IVertex<String> lax = g.insertVertex( "LAX" );
+      IVertex<String> sfo = g.insertVertex( "SFO" );
+      IVertex<String> ord = g.insertVertex( "ORD" );
+      IVertex<String> pvd = g.insertVertex( "PVD" );
+      // and some that are not connected to them
+      IVertex<String> cdg = g.insertVertex( "CDG" );
+      IVertex<String> ams = g.insertVertex( "AMS" );
+
+      // create some edges
+      g.insertEdge( hnl, lax, 2555 );
+      g.insertEdge( lax, sfo, 337 );
+      g.insertEdge( ord, sfo, 1843 );
+      g.insertEdge( lax, ord, 1743 );
+      g.insertEdge( ord, pvd, 849 );
+      IEdge<Integer> cdgAms = g.insertEdge( cdg, ams, 398 );
+
+      // a full search labels everything
+      dfs( g );
+      boolean all = true;
+      for ( IIterator<IVertex<String>> it = g.vertices(); it.hasNext(); )
+         all &= dLabel( g, it.next() ) == DFSLabel.VISITED;
+
+      // a search from CDG after a reset only sees CDG and AMS
+      resetAndDfs( g, cdg );
+      boolean local = dLabel( g, cdg ) == DFSLabel.VISITED && dLabel( g, ams ) == DFSLabel.VISITED
+            && dLabel( g, lax ) == DFSLabel.UNEXPLORED && dLabel( g, cdgAms ) == DFSLabel.DISCOVERY;
+      System.out.println( name + " DFS from CDG after reset: " + ( all && local ? "correct" : "incorrect" ) );
+
+      // breadth first search: the cycle LAX-SFO-ORD gives one cross edge
+      bfs( g );
+      int discovery = 0, cross = 0;
+      for ( IIterator<IEdge<Integer>> it = g.edges(); it.hasNext(); ) {
+         BFSLabel l = bLabel( g, it.next() );
+         if ( l == BFSLabel.DISCOVERY )
+            discovery++;
+         if ( l == BFSLabel.CROSS )
+            cross++;
+      }
+      System.out.println( name + " BFS: " + discovery + " discovery, " + cross + " cross edges "
+            + ( discovery == 5 && cross == 1 ? "correct" : "incorrect" ) );
+   }
+
+   // the DFS and BFS methods are not part of IGraph
+   static void dfs( IGraph<String,Integer> g ) {
+      if ( g instanceof AdjacencyListGraph )
+         ( (AdjacencyListGraph<String,Integer>) g ).DFS( g );
+      else if ( g instanceof AdjacencyMatrixGraph )
+         ( (AdjacencyMatrixGraph<String,Integer>) g ).DFS( g );
+      else
+         ( (EdgeListGraph<String,Integer>) g ).DFS( g );
+   }
+
+   static void resetAndDfs( IGraph<String,Integer> g, IVertex<String> v ) {
+      if ( g instanceof AdjacencyListGraph ) {
+         ( (AdjacencyListGraph<String,Integer>) g ).resetLabels();
+         ( (AdjacencyListGraph<String,Integer>) g ).DFS( g, v );
+      } else if ( g instanceof AdjacencyMatrixGraph ) {
+         ( (AdjacencyMatrixGraph<String,Integer>) g ).resetLabels();
+         ( (AdjacencyMatrixGraph<String,Integer>) g ).DFS( g, v );
+      } else {
+         ( (EdgeListGraph<String,Integer>) g ).resetDLabels();
+         ( (EdgeListGraph<String,Integer>) g ).DFS( g, v );
+      }
+   }
+
+   static void bfs( IGraph<String,Integer> g ) {
+      if ( g instanceof AdjacencyListGraph )
+         ( (AdjacencyListGraph<String,Integer>) g ).BFS( g );
+      else if ( g instanceof AdjacencyMatrixGraph )
+         ( (AdjacencyMatrixGraph<String,Integer>) g ).BFS( g );
+      else
+         ( (EdgeListGraph<String,Integer>) g ).BFS( g );
+   }
+
+   static DFSLabel dLabel( IGraph<String,Integer> g, IVertex<String> v ) {
+      if ( g instanceof AdjacencyListGraph )
+         return ( (AdjacencyListGraph<String,Integer>) g ).getLabel( v );
+      else if ( g instanceof AdjacencyMatrixGraph )
+         return ( (AdjacencyMatrixGraph<String,Integer>) g ).getLabel( v );
+      return ( (EdgeListGraph<String,Integer>) g ).getDLabel( v );
+   }
+
+   static DFSLabel dLabel( IGraph<String,Integer> g, IEdge<Integer> e ) {
+      if ( g instanceof AdjacencyListGraph )
+         return ( (AdjacencyListGraph<String,Integer>) g ).getLabel( e );
+      else if ( g instanceof AdjacencyMatrixGraph )
+         return ( (AdjacencyMatrixGraph<String,Integer>) g ).getLabel( e );
+      return ( (EdgeListGraph<String,Integer>) g ).getDLabel( e );
+   }
+
+   static BFSLabel bLabel( IGraph<String,Integer> g, IEdge<Integer> e ) {
+      if ( g instanceof AdjacencyListGraph )
+         return ( (AdjacencyListGraph<String,Integer>) g ).getBLabel( e );
+      else if ( g instanceof AdjacencyMatrixGraph )
+         return ( (AdjacencyMatrixGraph<String,Integer>) g ).getBLabel( e );
+      return ( (EdgeListGraph<String,Integer>) g ).getBLabel( e );
+   }
+}
@@ -0,0 +1,108 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import graph.algo.MinimumSpanningTree;
+import graph.algo.SpanningTreeResult;
+import graph.core.IEdge;
+import graph.core.IGraph;
+import graph.core.IIntGraph;
+import graph.core.IIterator;
+import graph.core.IVertex;
+import graph.impl.AdjacencyListGraph;
+/**
+ * This is a file that contains some code to find the
+ * minimum spanning tree of the airport graph with the
+ * three algorithms, and of a big random multigraph with
+ * many equal weights, split over four threads.
+ */
+public class MinimumSpanningTreeTest {
+   public static void main( String[] args ) throws Exception {
+      IGraph<String,Integer> g = new AdjacencyListGraph<String,Integer>();
+      // create some vertices
+      IVertex<String> hnl = g.insertVertex( "HNL" );
+      IVertex<String> lax = g.insertVertex( "LAX" );
+      IVertex<String> sfo = g.insertVertex( "SFO" );
+      IVertex<String> ord = g.insertVertex( "ORD" );
+      IVertex<String> dfw = g.insertVertex( "DFW" );
+      IVertex<String> lga = g.insertVertex( "LGA" );
+      IVertex<String> pvd = g.insertVertex( "PVD" );
+      IVertex<String> mia = g.insertVertex( "MIA" );
+
+      // create some edges
+      g.insertEdge( hnl, lax, 2555 );
+      g.insertEdge( lax, sfo, 337 );
+      g.insertEdge( ord, sfo, 1843 );
+      g.insertEdge( lax, ord, 1743 );
+      g.insertEdge( dfw, lax, 1233 );
+      g.insertEdge( ord, pvd, 849 );
+      g.insertEdge( dfw, lga, 1387 );
+      g.insertEdge( dfw, mia, 1120 );
+      g.insertEdge( lga, mia, 1099 );
+      g.insertEdge( lga, pvd, 142 );
+
+      // every flight but ORD<->SFO, LAX<->ORD and DFW<->LGA
+      int expected = 2555 + 337 + 1233 + 849 + 1120 + 1099 + 142;
+      check( "Kruskal", MinimumSpanningTree.kruskal( g ), expected );
+      check( "Prim", MinimumSpanningTree.prim( g ), expected );
+      check( "Boruvka", MinimumSpanningTree.boruvka( g ), expected );
+
+      // without HNL<->LAX there are two trees
+      g.removeEdge( g.incidentEdges( hnl ).next() );
+      SpanningTreeResult<String,Integer> forest = MinimumSpanningTree.prim( g );
+      if ( forest.size() == 6 && forest.weight() == expected - 2555 )
+         System.out.println( "Spanning forest: correct" );
+      else
+         System.out.println( "Spanning forest: incorrect" );
+
+      random();
+   }
+
+   // Kruskal and Boruvka break ties by edge number, so they pick the same edges
+   static void random() {
+      Random random = new Random( 23 );
+      int n = 30000, m = 120000;
+      AdjacencyListGraph<Integer,Integer> h = new AdjacencyListGraph<Integer,Integer>();
+      @SuppressWarnings( "unchecked" )
+      IVertex<Integer>[] v = new IVertex[n];
+      for ( int i = 0; i < n; i++ )
+         v[i] = h.insertVertex( i );
+      double[] weights = new double[m];
+      for ( int i = 0; i < m; i++ ) {
+         // the last hundred vertices stay apart, some edges are self loops
+         int a = random.nextInt( n - 100 ), b = i % 97 == 0 ? a : random.nextInt( n - 100 );
+         // only four weights, so almost every edge ties with many others
+         weights[i] = random.nextInt( 4 );
+         h.insertEdge( v[a], v[b], i );
+      }
+      IIntGraph<Integer,Integer> ig = h;
+
+      ForkJoinPool pool = new ForkJoinPool( 4 );
+      SpanningTreeResult<Integer,Integer> k = MinimumSpanningTree.kruskal( ig, weights );
+      SpanningTreeResult<Integer,Integer> b = MinimumSpanningTree.boruvka( ig, weights, pool );
+      SpanningTreeResult<Integer,Integer> p = MinimumSpanningTree.prim( ig, weights );
+      pool.shutdown();
+
+      int[] ke = k.edgeIds().clone(), be = b.edgeIds().clone();
+      Arrays.sort( ke );
+      Arrays.sort( be );
+      if ( Arrays.equals( ke, be ) && k.weight() == b.weight() )
+         System.out.println( "Kruskal and Boruvka pick the same edges: correct" );
+      else
+         System.out.println( "Kruskal and Boruvka pick the same edges: incorrect" );
+      if ( p.weight() == k.weight() && p.size() == k.size() && k.size() < n - 100 )
+         System.out.println( "Prim forest of the same weight: correct" );
+      else
+         System.out.println( "Prim forest of the same weight: incorrect" );
+   }
+
+   static void check( String name, SpanningTreeResult<String,Integer> t, int expected ) {
+      int total = 0;
+      for ( IIterator<IEdge<Integer>> it = t.edges().iterator(); it.hasNext(); )
+         total += it.next().element();
+      if ( t.size() == 7 && t.weight() == expected && total == expected )
+         System.out.println( name + " tree weight " + t.weight() + ": correct" );
+      else
+         System.out.println( name + " tree weight " + t.weight() + ": incorrect" );
+   }
+}
@@ -0,0 +1,115 @@
+import java.util.Random;
+
+import graph.algo.HopDistanceResult;
+import graph.algo.MultiSourceBFS;
+import graph.algo.Traversals;
+import graph.core.IIntGraph;
+import graph.core.IVertex;
+import graph.impl.AdjacencyListGraph;
+import graph.impl.CsrGraph;
+/**
+ * This is a file that contains some code to test the
+ * multi-source BFS against one BFS per source, on the
+ * airport graph, on a random graph with more sources
+ * than fit in one batch, and on a long path.
+ */
+public class MultiSourceBFSTest {
+   public static void main( String[] args ) throws Exception {
+      AdjacencyListGraph<String,Integer> g = new AdjacencyListGraph<String,Integer>();
+
+      // create some vertices
+      IVertex<String> hnl = g.insertVertex( "HNL" );
+      IVertex<String> lax = g.insertVertex( "LAX" );
+      IVertex<String> sfo = g.insertVertex( "SFO" );
+      IVertex<String> ord = g.insertVertex( "ORD" );
+      IVertex<String> pvd = g.insertVertex( "PVD" );
+      IVertex<String> cdg = g.insertVertex( "CDG" );
+
+      // create some edges
+      g.insertEdge( hnl, lax, 2555 );
+      g.insertEdge( lax, sfo, 337 );
+      g.insertEdge( ord, sfo, 1843 );
+      g.insertEdge( lax, ord, 1743 );
+      g.insertEdge( ord, pvd, 849 );
+
+      @SuppressWarnings( "unchecked" )
+      IVertex<String>[] sources = new IVertex[] { hnl, pvd, cdg };
+      HopDistanceResult<String,Integer> r = MultiSourceBFS.distances( g, sources );
+      boolean ok = r.distance( 0, pvd ) == 3 && r.distance( 0, sfo ) == 2 && r.distance( 1, hnl ) == 3
+            && r.distance( 1, pvd ) == 0 && r.distance( 2, cdg ) == 0 && r.distance( 2, lax ) == -1
+            && r.distance( 0, cdg ) == -1;
+      System.out.println( "airport distances: " + ( ok ? "correct" : "incorrect" ) );
+
+      // a random graph in two parts, and 150 sources (three batches) with repeats
+      Random random = new Random( 11 );
+      int n = 2000;
+      AdjacencyListGraph<Integer,Integer> h = new AdjacencyListGraph<Integer,Integer>();
+      @SuppressWarnings( "unchecked" )
+      IVertex<Integer>[] v = new IVertex[n];
+      for ( int i = 0; i < n; i++ )
+         v[i] = h.insertVertex( i );
+      for ( int i = 0; i < 3 * n; i++ ) {
+         int a = random.nextInt( n ), b = random.nextInt( n );
+         if ( ( a < n / 2 ) == ( b < n / 2 ) )
+            h.insertEdge( v[a], v[b], i );
+      }
+      IIntGraph<Integer,Integer> ig = CsrGraph.intView( h );
+      int[] s = new int[150];
+      for ( int i = 0; i < s.length; i++ )
+         s[i] = random.nextInt( n );
+      s[149] = s[0];
+
+      int[][] distance = MultiSourceBFS.distances( ig, s ).distances();
+      boolean same = true;
+      for ( int i = 0; i < s.length; i++ ) {
+         int[] expected = Traversals.bfs( ig, s[i] ).distance();
+         for ( int x = 0; x < n; x++ )
+            same &= distance[i][x] == expected[x];
+      }
+      System.out.println( "random distances: " + ( same ? "correct" : "incorrect" ) );
+
+      // streaming gives every reached vertex once, with distances that never decrease
+      long[] count = new long[1];
+      int[] last = new int[s.length];
+      boolean[] ordered = { true };
+      MultiSourceBFS.search( ig, s, ( i, x, d ) -> {
+         count[0]++;
+         ordered[0] &= d >= last[i] && d == distance[i][x];
+         last[i] = d;
+      } );
+      long reached = 0;
+      for ( int[] row : distance )
+         for ( int d : row )
+            if ( d >= 0 )
+               reached++;
+      System.out.println( "streamed distances: " + ( ordered[0] && count[0] == reached ? "correct" : "incorrect" ) );
+
+      // a long path, where the levels are many and the frontiers tiny
+      int length = 200000;
+      AdjacencyListGraph<Integer,Integer> path = new AdjacencyListGraph<Integer,Integer>();
+      IVertex<Integer> prev = path.insertVertex( 0 );
+      for ( int i = 1; i < length; i++ ) {
+         IVertex<Integer> x = path.insertVertex( i );
+         path.insertEdge( prev, x, i );
+         prev = x;
+      }
+      IIntGraph<Integer,Integer> ip = CsrGraph.intView( path );
+      int[] ends = new int[64];
+      for ( int i = 0; i < ends.length; i++ )
+         ends[i] = i * ( length / ends.length );
+      long start = System.nanoTime();
+      long[] sum = new long[1];
+      MultiSourceBFS.search( ip, ends, ( i, x, d ) -> sum[0] += d );
+      long millis = ( System.nanoTime() - start ) / 1000000;
+      // every source sees distances 0..a and 0..b on its two sides, with a + b = length - 1
+      long expected = 0;
+      for ( int e : ends ) {
+         long a = e, b = length - 1 - e;
+         expected += a * ( a + 1 ) / 2 + b * ( b + 1 ) / 2;
+      }
+      int[] row = MultiSourceBFS.distances( ip, new int[] { ends[5] } ).distances()[0];
+      boolean pathOk = sum[0] == expected && row[0] == ends[5] && row[length - 1] == length - 1 - ends[5];
+      // scanning the whole path at every level would take minutes
+      System.out.println( "long path: " + ( pathOk && millis < 10000 ? "correct" : "incorrect (" + millis + " ms)" ) );
+   }
+}
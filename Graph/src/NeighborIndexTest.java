@@ -0,0 +1,91 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import graph.core.IEdge;
+import graph.core.IIterator;
+import graph.core.IVertex;
+import graph.impl.AdjacencyListGraph;
+import graph.util.GraphMetrics;
+/**
+ * This is a file that contains some code to test the
+ * neighbor index of the adjacency list graph: two hubs get
+ * more than 32 incident edges, with parallel edges and a self loop,
+ * and lose them again until they are below 16, twice, and
+ * areAdjacent is checked against the edge list throughout.
+ */
+public class NeighborIndexTest {
+   public static void main( String[] args ) throws Exception {
+      Random random = new Random( 13 );
+      AdjacencyListGraph<Integer,Integer> g = new AdjacencyListGraph<Integer,Integer>();
+      GraphMetrics metrics = new GraphMetrics();
+      g.setMetrics( metrics );
+      List<IVertex<Integer>> vs = new ArrayList<IVertex<Integer>>();
+      IVertex<Integer> hub = g.insertVertex( -1 ), other = g.insertVertex( -2 );
+      vs.add( hub );
+      vs.add( other );
+      for ( int i = 0; i < 30; i++ )
+         vs.add( g.insertVertex( i ) );
+
+      boolean ok = true, indexed = true, dropped = true;
+      for ( int round = 0; round < 2; round++ ) {
+         // grow both hubs past the threshold, one check after every insert
+         List<IEdge<Integer>> edges = new ArrayList<IEdge<Integer>>();
+         edges.add( g.insertEdge( hub, other, 0 ) );
+         edges.add( g.insertEdge( hub, hub, 0 ) );
+         for ( int i = 0; i < 60; i++ ) {
+            IVertex<Integer> leaf = vs.get( 2 + random.nextInt( 30 ) );
+            edges.add( g.insertEdge( i % 2 == 0 ? hub : other, leaf, i ) );
+            // every third edge gets a parallel twin
+            if ( i % 3 == 0 )
+               edges.add( g.insertEdge( leaf, i % 2 == 0 ? hub : other, i ) );
+            ok &= check( g, vs );
+         }
+         edges.add( g.insertEdge( other, hub, 0 ) );
+
+         // both hubs are indexed now, so nothing is walked
+         long walked = metrics.snapshot().adjacencyEntriesWalked();
+         indexed &= g.areAdjacent( hub, other ) && metrics.snapshot().adjacencyEntriesWalked() == walked;
+
+         // take the edges away in random order, one check after every removal
+         Collections.shuffle( edges, random );
+         for ( IEdge<Integer> e : edges ) {
+            g.removeEdge( e );
+            ok &= check( g, vs );
+         }
+
+         // with the hubs back to degree 0 the lists are walked again
+         IEdge<Integer> last = g.insertEdge( hub, other, 0 );
+         walked = metrics.snapshot().adjacencyEntriesWalked();
+         dropped &= g.areAdjacent( hub, other ) && metrics.snapshot().adjacencyEntriesWalked() > walked;
+         g.removeEdge( last );
+      }
+
+      // removing a leaf of an indexed hub takes it out of the index
+      for ( int i = 0; i < 40; i++ )
+         g.insertEdge( hub, vs.get( 2 + i % 30 ), i );
+      g.removeVertex( vs.remove( 2 ) );
+      ok &= check( g, vs );
+
+      System.out.println( "areAdjacent while the hubs grow and shrink: " + ( ok ? "correct" : "incorrect" ) );
+      System.out.println( "Index used above the threshold: " + ( indexed ? "correct" : "incorrect" ) );
+      System.out.println( "Index dropped below half of it: " + ( dropped ? "correct" : "incorrect" ) );
+   }
+
+   // areAdjacent of every pair agrees with a walk over all the edges
+   static boolean check( AdjacencyListGraph<Integer,Integer> g, List<IVertex<Integer>> vs ) {
+      int n = vs.size();
+      boolean[][] adjacent = new boolean[n][n];
+      for ( IIterator<IEdge<Integer>> it = g.edges(); it.hasNext(); ) {
+         IVertex<Integer>[] ends = g.endVertices( it.next() );
+         int a = vs.indexOf( ends[0] ), b = vs.indexOf( ends[1] );
+         adjacent[a][b] = adjacent[b][a] = true;
+      }
+      for ( int a = 0; a < n; a++ )
+         for ( int b = 0; b < n; b++ )
+            if ( g.areAdjacent( vs.get( a ), vs.get( b ) ) != adjacent[a][b] )
+               return false;
+      return true;
+   }
+}
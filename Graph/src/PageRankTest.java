@@ -0,0 +1,78 @@
+import graph.algo.PageRank;
+import graph.algo.ScoreResult;
+import graph.core.IGraph;
+import graph.core.IVertex;
+import graph.impl.AdjacencyListGraph;
+/**
+ * This is a file that contains some code to rank the
+ * airports of the airport graph with PageRank.
+ */
+public class PageRankTest {
+   public static void main( String[] args ) throws Exception {
+      IGraph<String,Integer> g = new AdjacencyListGraph<String,Integer>();
+      // create some vertices
+      IVertex<String> hnl = g.insertVertex( "HNL" );
+      IVertex<String> lax = g.insertVertex( "LAX" );
+      IVertex<String> sfo = g.insertVertex( "SFO" );
+      IVertex<String> ord = g.insertVertex( "ORD" );
+      IVertex<String> dfw = g.insertVertex( "DFW" );
+      IVertex<String> lga = g.insertVertex( "LGA" );
+      IVertex<String> pvd = g.insertVertex( "PVD" );
+      IVertex<String> mia = g.insertVertex( "MIA" );
+      // an airport without flights
+      IVertex<String> jfk = g.insertVertex( "JFK" );
+
+      // create some edges
+      g.insertEdge( hnl, lax, 2555 );
+      g.insertEdge( lax, sfo, 337 );
+      g.insertEdge( ord, sfo, 1843 );
+      g.insertEdge( lax, ord, 1743 );
+      g.insertEdge( dfw, lax, 1233 );
+      g.insertEdge( ord, pvd, 849 );
+      g.insertEdge( dfw, lga, 1387 );
+      g.insertEdge( dfw, mia, 1120 );
+      g.insertEdge( lga, mia, 1099 );
+      g.insertEdge( lga, pvd, 142 );
+
+      ScoreResult<String,Integer> r = PageRank.rank( g );
+      double sum = 0;
+      for ( double s : r.scores() )
+         sum += s;
+      if ( r.converged() && Math.abs( sum - 1 ) < 1e-9 )
+         System.out.println( "Converged after " + r.iterations() + " sweeps, ranks sum to 1: correct" );
+      else
+         System.out.println( "Converged after " + r.iterations() + " sweeps, ranks sum to 1: incorrect" );
+
+      // LAX has the most flights, JFK none
+      boolean order = true;
+      for ( double s : r.scores() )
+         order &= s <= r.score( lax ) && s >= r.score( jfk );
+      if ( order && r.score( hnl ) < r.score( sfo ) && r.score( jfk ) > 0 )
+         System.out.println( "LAX ranks highest, JFK lowest: correct" );
+      else
+         System.out.println( "LAX ranks highest, JFK lowest: incorrect" );
+
+      // with distances as weights, HNL gets most of the rank of LAX
+      ScoreResult<String,Integer> w = PageRank.rank( g, d -> d );
+      if ( w.score( hnl ) > r.score( hnl ) && w.score( hnl ) > w.score( sfo ) )
+         System.out.println( "Weighted ranks: correct" );
+      else
+         System.out.println( "Weighted ranks: incorrect" );
+
+      // C only has an edge of weight 0, so it is dangling instead of dividing by 0
+      IGraph<String,Integer> z = new AdjacencyListGraph<String,Integer>();
+      IVertex<String> a = z.insertVertex( "A" );
+      IVertex<String> b = z.insertVertex( "B" );
+      IVertex<String> c = z.insertVertex( "C" );
+      z.insertEdge( a, b, 1 );
+      z.insertEdge( b, c, 0 );
+      ScoreResult<String,Integer> zr = PageRank.rank( z, d -> d );
+      sum = 0;
+      for ( double s : zr.scores() )
+         sum += s;
+      if ( zr.converged() && Math.abs( sum - 1 ) < 1e-9 && zr.score( b ) > zr.score( c ) )
+         System.out.println( "Zero weight edges: correct" );
+      else
+         System.out.println( "Zero weight edges: incorrect" );
+   }
+}
@@ -0,0 +1,79 @@
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import graph.algo.TraversalResult;
+import graph.algo.Traversals;
+import graph.core.IIntGraph;
+import graph.core.IVertex;
+import graph.impl.AdjacencyListGraph;
+/**
+ * This is a file that contains some code to test the
+ * parallel breadth first search against the serial one on
+ * sparse and dense random graphs, and one with a long chain
+ * attached, which all switch to bottom-up steps and back,
+ * using a pool of four threads.
+ */
+public class ParallelBFSTest {
+   public static void main( String[] args ) throws Exception {
+      ForkJoinPool pool = new ForkJoinPool( 4 );
+      test( "sparse", pool, 20000, 2, 0 );
+      test( "dense", pool, 20000, 32, 0 );
+      test( "dense with chain", pool, 20000, 24, 3000 );
+      pool.shutdown();
+   }
+
+   static void test( String name, ForkJoinPool pool, int n, int degree, int chain ) {
+      Random random = new Random( n + degree + chain );
+      AdjacencyListGraph<Integer,Integer> g = new AdjacencyListGraph<Integer,Integer>();
+      @SuppressWarnings( "unchecked" )
+      IVertex<Integer>[] v = new IVertex[n + chain];
+      for ( int i = 0; i < v.length; i++ )
+         v[i] = g.insertVertex( i );
+      int m = 0;
+      for ( int i = 0; i < n * degree / 2; i++ )
+         g.insertEdge( v[random.nextInt( n )], v[random.nextInt( n )], m++ );
+      // a chain hanging off vertex 0 keeps the frontier small for many levels
+      for ( int i = n; i < n + chain; i++ )
+         g.insertEdge( v[i - 1 == n - 1 ? 0 : i - 1], v[i], m++ );
+
+      IIntGraph<Integer,Integer> ig = g;
+      boolean ok = true;
+      for ( int run = 0; run < 3; run++ ) {
+         int s = random.nextInt( n );
+         TraversalResult<Integer,Integer> serial = Traversals.bfs( ig, s );
+         TraversalResult<Integer,Integer> parallel = Traversals.parallelBfs( ig, s, pool );
+         ok &= check( ig, s, serial, parallel );
+      }
+      System.out.println( "parallel BFS, " + name + ": " + ( ok ? "correct" : "incorrect" ) );
+   }
+
+   // same distances as the serial search, and every parent is a real tree edge
+   static boolean check( IIntGraph<Integer,Integer> g, int s, TraversalResult<Integer,Integer> serial,
+         TraversalResult<Integer,Integer> parallel ) {
+      int[] d = parallel.distance(), expected = serial.distance();
+      int[] parent = parallel.parent(), parentEdge = parallel.parentEdge();
+      if ( parallel.visitedCount() != serial.visitedCount() )
+         return false;
+      for ( int x = 0; x < g.numVertices(); x++ ) {
+         if ( d[x] != expected[x] )
+            return false;
+         if ( d[x] <= 0 )
+            continue;
+         int p = parent[x], e = parentEdge[x];
+         if ( p < 0 || d[p] != d[x] - 1 || e < 0 || g.opposite( x, e ) != p )
+            return false;
+      }
+
+      // the visit order holds every reached vertex once, by level
+      boolean[] seen = new boolean[g.numVertices()];
+      int[] order = parallel.order();
+      if ( order[0] != s )
+         return false;
+      for ( int i = 0; i < parallel.visitedCount(); i++ ) {
+         if ( seen[order[i]] || ( i > 0 && d[order[i]] < d[order[i - 1]] ) )
+            return false;
+         seen[order[i]] = true;
+      }
+      return true;
+   }
+}
@@ -0,0 +1,70 @@
+import graph.algo.ShortestPathResult;
+import graph.algo.ShortestPaths;
+import graph.core.IEdge;
+import graph.core.IGraph;
+import graph.core.IIterator;
+import graph.core.IList;
+import graph.core.IVertex;
+import graph.impl.AdjacencyListGraph;
+/**
+ * This is a file that contains some code to find the
+ * shortest flights in the airport graph, with both
+ * kinds of priority queue.
+ */
+public class ShortestPathsTest {
+   public static void main( String[] args ) throws Exception {
+      IGraph<String,Integer> g = new AdjacencyListGraph<String,Integer>();
+      // create some vertices
+      IVertex<String> hnl = g.insertVertex( "HNL" );
+      IVertex<String> lax = g.insertVertex( "LAX" );
+      IVertex<String> sfo = g.insertVertex( "SFO" );
+      IVertex<String> ord = g.insertVertex( "ORD" );
+      IVertex<String> dfw = g.insertVertex( "DFW" );
+      IVertex<String> lga = g.insertVertex( "LGA" );
+      IVertex<String> pvd = g.insertVertex( "PVD" );
+      IVertex<String> mia = g.insertVertex( "MIA" );
+
+      // create some edges
+      g.insertEdge( hnl, lax, 2555 );
+      g.insertEdge( lax, sfo, 337 );
+      g.insertEdge( ord, sfo, 1843 );
+      g.insertEdge( lax, ord, 1743 );
+      g.insertEdge( dfw, lax, 1233 );
+      g.insertEdge( ord, pvd, 849 );
+      g.insertEdge( dfw, lga, 1387 );
+      g.insertEdge( dfw, mia, 1120 );
+      g.insertEdge( lga, mia, 1099 );
+      g.insertEdge( lga, pvd, 142 );
+
+      // sample test for single source shortest paths (weights are the elements)
+      ShortestPathResult<String,Integer> r = ShortestPaths.dijkstra( g, hnl );
+      if ( r.distance( pvd ) == 2555 + 1743 + 849 && r.distance( mia ) == 2555 + 1233 + 1120 )
+         System.out.println( "Distances from HNL: correct" );
+      else
+         System.out.println( "Distances from HNL: incorrect" );
+
+      // sample test for the path itself
+      IList<IEdge<Integer>> path = r.pathTo( pvd );
+      StringBuilder flights = new StringBuilder();
+      for ( IIterator<IEdge<Integer>> it = path.iterator(); it.hasNext(); )
+         flights.append( it.next().element() ).append( ' ' );
+      if ( flights.toString().equals( "2555 1743 849 " ) )
+         System.out.println( "Path from HNL to PVD: correct" );
+      else
+         System.out.println( "Path from HNL to PVD: incorrect (" + flights + ")" );
+
+      // sample test for point to point with the radix heap
+      ShortestPathResult<String,Integer> rr = ShortestPaths.radixDijkstra( g, sfo, mia, e -> e );
+      if ( rr.distance( mia ) == 337 + 1233 + 1120 && rr.parent( mia ) == dfw )
+         System.out.println( "Radix heap SFO to MIA: correct" );
+      else
+         System.out.println( "Radix heap SFO to MIA: incorrect" );
+
+      // sample test for a weight extractor: count flights instead of miles
+      ShortestPathResult<String,Integer> hops = ShortestPaths.dijkstra( g, hnl, e -> 1 );
+      if ( hops.distance( pvd ) == 3 && hops.distance( hnl ) == 0 )
+         System.out.println( "Hops from HNL: correct" );
+      else
+         System.out.println( "Hops from HNL: incorrect" );
+   }
+}
@@ -0,0 +1,73 @@
+import graph.algo.TraversalResult;
+import graph.algo.Traversals;
+import graph.core.IGraph;
+import graph.core.IVertex;
+import graph.impl.AdjacencyListGraph;
+import graph.impl.EdgeListGraph;
+/**
+ * This is a file that contains some code to test the
+ * iterative depth first and breadth first searches in
+ * graph.algo on the airport graph and on a long chain.
+ */
+public class TraversalsTest {
+   public static void main( String[] args ) throws Exception {
+      IGraph<String,Integer> g = new EdgeListGraph<String,Integer>();
+      // create some vertices
+      IVertex<String> hnl = g.insertVertex( "HNL" );
+      IVertex<String> lax = g.insertVertex( "LAX" );
+      IVertex<String> sfo = g.insertVertex( "SFO" );
+      IVertex<String> ord = g.insertVertex( "ORD" );
+      IVertex<String> dfw = g.insertVertex( "DFW" );
+      IVertex<String> lga = g.insertVertex( "LGA" );
+      IVertex<String> pvd = g.insertVertex( "PVD" );
+      IVertex<String> mia = g.insertVertex( "MIA" );
+
+      // create some edges
+      g.insertEdge( hnl, lax, 2555 );
+      g.insertEdge( lax, sfo, 337 );
+      g.insertEdge( ord, sfo, 1843 );
+      g.insertEdge( lax, ord, 1743 );
+      g.insertEdge( dfw, lax, 1233 );
+      g.insertEdge( ord, pvd, 849 );
+      g.insertEdge( dfw, lga, 1387 );
+      g.insertEdge( dfw, mia, 1120 );
+      g.insertEdge( lga, mia, 1099 );
+      g.insertEdge( lga, pvd, 142 );
+
+      // sample test for breadth first search distances
+      TraversalResult<String,Integer> bfs = Traversals.bfs( g, hnl );
+      if ( bfs.distance( pvd ) == 3 && bfs.distance( lax ) == 1 && bfs.visitedCount() == 8 )
+         System.out.println( "BFS distances from HNL: correct" );
+      else
+         System.out.println( "BFS distances from HNL: incorrect" );
+      if ( bfs.parent( lax ) == hnl && bfs.parent( hnl ) == null )
+         System.out.println( "BFS parents from HNL: correct" );
+      else
+         System.out.println( "BFS parents from HNL: incorrect" );
+
+      // sample test for depth first search
+      TraversalResult<String,Integer> dfs = Traversals.dfs( g );
+      if ( dfs.visitedCount() == 8 && dfs.order()[0] == 0 )
+         System.out.println( "DFS visits all vertices: correct" );
+      else
+         System.out.println( "DFS visits all vertices: incorrect" );
+
+      // a chain this long overflows the recursive DFS
+      IGraph<Integer,Integer> chain = new AdjacencyListGraph<Integer,Integer>();
+      IVertex<Integer> first = chain.insertVertex( 0 ), prev = first;
+      for ( int i = 1; i < 200000; i++ ) {
+         IVertex<Integer> v = chain.insertVertex( i );
+         chain.insertEdge( prev, v, i );
+         prev = v;
+      }
+      try {
+         TraversalResult<Integer,Integer> deep = Traversals.dfs( chain, first );
+         if ( deep.distance( prev ) == 199999 )
+            System.out.println( "DFS on long chain: correct" );
+         else
+            System.out.println( "DFS on long chain: incorrect" );
+      } catch ( StackOverflowError e ) {
+         System.out.println( "DFS on long chain: incorrect (stack overflow)" );
+      }
+   }
+}
@@ -0,0 +1,100 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import graph.algo.VertexOrdering;
+import graph.core.IEdge;
+import graph.core.IGraph;
+import graph.core.IIterator;
+import graph.core.IVertex;
+import graph.impl.AdjacencyListGraph;
+import graph.impl.CsrGraph;
+/**
+ * This is a file that contains some code to renumber a
+ * grid of vertices that were inserted in random order and
+ * test that the neighbors end up closer together.
+ */
+public class VertexOrderingTest {
+   public static void main( String[] args ) throws Exception {
+      // a 30x30 grid with the vertices inserted in random order
+      int side = 30, n = side * side;
+      Integer[] cells = new Integer[n];
+      for ( int i = 0; i < n; i++ )
+         cells[i] = i;
+      Collections.shuffle( Arrays.asList( cells ), new Random( 7 ) );
+      AdjacencyListGraph<Integer,Integer> g = new AdjacencyListGraph<Integer,Integer>();
+      @SuppressWarnings( "unchecked" )
+      IVertex<Integer>[] v = new IVertex[n];
+      for ( Integer c : cells )
+         v[c] = g.insertVertex( c );
+      int m = 0;
+      for ( int r = 0; r < side; r++ )
+         for ( int c = 0; c < side; c++ ) {
+            int x = r * side + c;
+            if ( c + 1 < side )
+               g.insertEdge( v[x], v[x + 1], m++ );
+            if ( r + 1 < side )
+               g.insertEdge( v[x], v[x + side], m++ );
+         }
+
+      double before = VertexOrdering.averageNeighborGap( g );
+      int[] rcm = VertexOrdering.reverseCuthillMcKee( g );
+      int[] bfs = VertexOrdering.bfsOrder( g );
+      int[] degree = VertexOrdering.degreeDescending( g );
+      if ( isPermutation( rcm ) && isPermutation( bfs ) && isPermutation( degree ) )
+         System.out.println( "Orders are permutations: correct" );
+      else
+         System.out.println( "Orders are permutations: incorrect" );
+
+      // the corners come last by degree
+      if ( g.degree( degree[0] ) == 4 && g.degree( degree[n - 1] ) == 2 )
+         System.out.println( "Degree order: correct" );
+      else
+         System.out.println( "Degree order: incorrect" );
+
+      double after = VertexOrdering.averageNeighborGap( g, rcm );
+      System.out.printf( "Average neighbor gap %.1f -> %.1f (RCM), %.1f (BFS): %s%n", before, after,
+            VertexOrdering.averageNeighborGap( g, bfs ), after < side && before > 5 * side ? "correct" : "incorrect" );
+
+      // the renumbered CSR graph has the same edges, and the gap it measures
+      CsrGraph<Integer,Integer> csr = VertexOrdering.csr( g, rcm );
+      if ( csr.numVertices() == n && csr.numEdges() == m && sameEdges( csr, m )
+            && VertexOrdering.averageNeighborGap( csr ) == after && csr.vertex( 0 ).element().equals( g.vertex( rcm[0] ).element() ) )
+         System.out.println( "Renumbered CSR graph: correct" );
+      else
+         System.out.println( "Renumbered CSR graph: incorrect" );
+
+      // rebuilding gives the vertex list in the new order
+      AdjacencyListGraph<Integer,Integer> copy = VertexOrdering.rebuild( g, rcm, new AdjacencyListGraph<Integer,Integer>() );
+      if ( copy.numEdges() == m && sameEdges( copy, m ) && VertexOrdering.averageNeighborGap( copy ) == after )
+         System.out.println( "Rebuilt graph: correct" );
+      else
+         System.out.println( "Rebuilt graph: incorrect" );
+   }
+
+   static boolean isPermutation( int[] order ) {
+      int[] sorted = order.clone();
+      Arrays.sort( sorted );
+      for ( int i = 0; i < sorted.length; i++ )
+         if ( sorted[i] != i )
+            return false;
+      return true;
+   }
+
+   // every edge element 0..m-1 is there once, between the right grid cells
+   static boolean sameEdges( IGraph<Integer,Integer> g, int m ) {
+      boolean[] found = new boolean[m];
+      for ( IIterator<IEdge<Integer>> it = g.edges(); it.hasNext(); ) {
+         IEdge<Integer> e = it.next();
+         IVertex<Integer>[] ends = g.endVertices( e );
+         int d = Math.abs( ends[0].element() - ends[1].element() );
+         if ( found[e.element()] || ( d != 1 && d != 30 ) )
+            return false;
+         found[e.element()] = true;
+      }
+      for ( boolean f : found )
+         if ( !f )
+            return false;
+      return true;
+   }
+}
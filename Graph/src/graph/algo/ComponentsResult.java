@@ -0,0 +1,73 @@
+package graph.algo;
+
+import graph.core.IIntGraph;
+import graph.core.IVertex;
+
+/**
+ * Connected components of a graph. Components are numbered 0..k-1 in the
+ * order of their first vertex in the graph's {@link IIntGraph} view.
+ */
+public class ComponentsResult<V,E> {
+	// the graph that was searched
+	private final IIntGraph<V,E> graph;
+
+	// component of every vertex, and the number of vertices of every component
+	final int[] component;
+	final int[] sizes;
+
+	ComponentsResult(IIntGraph<V,E> graph, int[] component, int[] sizes) {
+		this.graph = graph;
+		this.component = component;
+		this.sizes = sizes;
+	}
+
+	/**
+	 * Get the numbered view of the graph that was searched. Its vertex numbers
+	 * are the indices of {@link #component()}.
+	 */
+	public IIntGraph<V,E> graph() {
+		return graph;
+	}
+
+	/**
+	 * Get the component of every vertex, by vertex number.
+	 */
+	public int[] component() {
+		return component;
+	}
+
+	/**
+	 * Get the number of vertices in every component.
+	 */
+	public int[] sizes() {
+		return sizes;
+	}
+
+	/**
+	 * Get the number of components.
+	 */
+	public int count() {
+		return sizes.length;
+	}
+
+	/**
+	 * Get the component of vertex {@code v}.
+	 */
+	public int component(IVertex<V> v) {
+		return component[graph.vertexId(v)];
+	}
+
+	/**
+	 * Get the number of vertices in the component of {@code v}.
+	 */
+	public int size(IVertex<V> v) {
+		return sizes[component(v)];
+	}
+
+	/**
+	 * Check whether {@code v} and {@code w} are in the same component.
+	 */
+	public boolean connected(IVertex<V> v, IVertex<V> w) {
+		return component(v) == component(w);
+	}
+}
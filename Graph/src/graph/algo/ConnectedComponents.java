@@ -0,0 +1,125 @@
+package graph.algo;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import graph.core.IGraph;
+import graph.core.IIntGraph;
+import graph.impl.CsrGraph;
+import graph.util.ConcurrentUnionFind;
+
+/**
+ * Connected components with a lock-free union-find. The edges are split into
+ * chunks that the threads of a fork/join pool union in parallel; no search
+ * and no recursion over the graph is needed, so any number of edges and any
+ * depth of graph can be handled.
+ */
+public class ConnectedComponents {
+	// number of edges or vertices one task handles before splitting no further
+	static final int GRAIN = 1 << 14;
+
+	private ConnectedComponents() {
+	}
+
+	/**
+	 * Find the connected components of {@code g}, using the common fork/join pool.
+	 * @param g The graph. It must not be changed while this runs.
+	 * @return The component of every vertex and the size of every component.
+	 */
+	public static <V,E> ComponentsResult<V,E> find(IGraph<V,E> g) {
+		return find(CsrGraph.intView(g), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Find the connected components of the numbered graph {@code g}.
+	 * @param g The graph. It must not be changed while this runs.
+	 * @param pool The pool to run in.
+	 * @return The component of every vertex and the size of every component.
+	 */
+	public static <V,E> ComponentsResult<V,E> find(IIntGraph<V,E> g, ForkJoinPool pool) {
+		int n = g.numVertices();
+		int m = g.numEdges();
+		// make sure a lazily built int view exists before the tasks read it
+		if (m > 0)
+			g.edgeSource(0);
+
+		ConcurrentUnionFind sets = new ConcurrentUnionFind(n);
+		pool.invoke(new UnionEdges<V,E>(g, sets, 0, m));
+
+		// the root of every set is its smallest vertex
+		int[] component = new int[n];
+		pool.invoke(new FindRoots(sets, component, 0, n));
+
+		// number the components in the order of their roots
+		int count = 0;
+		for (int v = 0; v < n; v++)
+			if (component[v] == v)
+				component[v] = -1 - count++;
+		int[] sizes = new int[count];
+		for (int v = 0; v < n; v++) {
+			// a root comes before the other vertices of its set, so its
+			// number is already final when they are reached
+			int root = component[v];
+			int c = root < 0 ? -1 - root : component[root];
+			component[v] = c;
+			sizes[c]++;
+		}
+		return new ComponentsResult<V,E>(g, component, sizes);
+	}
+
+	/**
+	 * Union the end vertices of the edges {@code lo..hi-1}.
+	 */
+	@SuppressWarnings("serial")
+	private static class UnionEdges<V,E> extends RecursiveAction {
+		private final IIntGraph<V,E> g;
+		private final ConcurrentUnionFind sets;
+		private final int lo, hi;
+
+		UnionEdges(IIntGraph<V,E> g, ConcurrentUnionFind sets, int lo, int hi) {
+			this.g = g;
+			this.sets = sets;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo > GRAIN) {
+				int mid = (lo + hi) >>> 1;
+				invokeAll(new UnionEdges<V,E>(g, sets, lo, mid), new UnionEdges<V,E>(g, sets, mid, hi));
+				return;
+			}
+			for (int e = lo; e < hi; e++)
+				sets.union(g.edgeSource(e), g.edgeTarget(e));
+		}
+	}
+
+	/**
+	 * Store the root of every vertex {@code lo..hi-1} in {@code roots}.
+	 */
+	@SuppressWarnings("serial")
+	private static class FindRoots extends RecursiveAction {
+		private final ConcurrentUnionFind sets;
+		private final int[] roots;
+		private final int lo, hi;
+
+		FindRoots(ConcurrentUnionFind sets, int[] roots, int lo, int hi) {
+			this.sets = sets;
+			this.roots = roots;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo > GRAIN) {
+				int mid = (lo + hi) >>> 1;
+				invokeAll(new FindRoots(sets, roots, lo, mid), new FindRoots(sets, roots, mid, hi));
+				return;
+			}
+			for (int v = lo; v < hi; v++)
+				roots[v] = sets.find(v);
+		}
+	}
+}
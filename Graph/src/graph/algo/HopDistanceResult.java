@@ -0,0 +1,56 @@
+package graph.algo;
+
+import graph.core.IIntGraph;
+import graph.core.IVertex;
+
+/**
+ * Hop distances from several sources to every vertex of a graph, as found by
+ * {@link MultiSourceBFS}.
+ */
+public class HopDistanceResult<V,E> {
+	// the graph that was searched
+	private final IIntGraph<V,E> graph;
+
+	// vertex number of every source
+	final int[] sources;
+
+	// distance[i][v] is the number of edges from source i to v, or -1 if v is not reached
+	final int[][] distance;
+
+	HopDistanceResult(IIntGraph<V,E> graph, int[] sources, int[][] distance) {
+		this.graph = graph;
+		this.sources = sources;
+		this.distance = distance;
+	}
+
+	/**
+	 * Get the numbered view of the graph that was searched. Its vertex numbers
+	 * are the column indices of {@link #distances()}.
+	 */
+	public IIntGraph<V,E> graph() {
+		return graph;
+	}
+
+	/**
+	 * Get the vertex number of every source.
+	 */
+	public int[] sources() {
+		return sources;
+	}
+
+	/**
+	 * Get the distance matrix: one row for every source, indexed by vertex
+	 * number, with -1 for vertices the source does not reach.
+	 */
+	public int[][] distances() {
+		return distance;
+	}
+
+	/**
+	 * Get the number of edges from source {@code i} to {@code v}, or -1 if
+	 * {@code v} is not reached from it.
+	 */
+	public int distance(int i, IVertex<V> v) {
+		return distance[i][graph.vertexId(v)];
+	}
+}
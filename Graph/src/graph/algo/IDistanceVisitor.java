@@ -0,0 +1,16 @@
+package graph.algo;
+
+/**
+ * Receives the hop distances found by {@link MultiSourceBFS}, one vertex and
+ * source at a time, in order of increasing distance for each source.
+ */
+@FunctionalInterface
+public interface IDistanceVisitor {
+	/**
+	 * Called once for every vertex reached from a source.
+	 * @param source The index of the source in the array of sources.
+	 * @param v The vertex number.
+	 * @param distance The number of edges on a shortest path from the source to {@code v}.
+	 */
+	public void visit(int source, int v, int distance);
+}
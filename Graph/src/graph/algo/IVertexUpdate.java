@@ -0,0 +1,16 @@
+package graph.algo;
+
+/**
+ * Computes the new value of a vertex in a sweep of {@link SparseMatrix#sweep},
+ * from the sum over its row of the matrix times the old values.
+ */
+@FunctionalInterface
+public interface IVertexUpdate {
+	/**
+	 * Get the new value of vertex {@code v}.
+	 * @param v The vertex number.
+	 * @param sum The sum of {@code a[v][u] * x[u]} over the row of {@code v}.
+	 * @return The new value.
+	 */
+	public double apply(int v, double sum);
+}
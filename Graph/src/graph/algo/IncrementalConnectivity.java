@@ -0,0 +1,323 @@
+package graph.algo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import graph.core.IEdge;
+import graph.core.IEdgeCursor;
+import graph.core.IGraph;
+import graph.core.IIterator;
+import graph.core.IVertex;
+import graph.core.IVertexCursor;
+import graph.util.UnionFind;
+
+/**
+ * A graph that keeps track of its connected components while it is changed,
+ * so {@link #connected} can be asked between updates without searching the
+ * whole graph. It wraps another graph and passes all the calls on to it.
+ *
+ * The components are kept in a {@link UnionFind}:
+ * <ul>
+ * <li>inserting an edge unions the sets of its end vertices;</li>
+ * <li>removing an edge or a vertex may split a component. Searches start
+ *     from the vertices that lost an edge, in turns, one vertex each, until
+ *     at most one search has not run out of vertices. Every search that ran
+ *     out has found a whole new component, which gets new union-find
+ *     elements. Searches that meet are merged, so removing an edge on a cycle
+ *     ends as soon as the cycle is closed;</li>
+ * <li>if the searches visit more than the search budget, the union-find is
+ *     rebuilt from the whole graph on the next query instead.</li>
+ * </ul>
+ * The old elements of vertices that moved to a new component stay in the
+ * union-find; when there are more of them than vertices, the union-find is
+ * rebuilt as well.
+ *
+ * The wrapped graph must only be changed through this graph.
+ */
+public class IncrementalConnectivity<V,E> implements IGraph<V,E> {
+	public static final int SEARCH_BUDGET = 1 << 12;
+
+	private final IGraph<V,E> graph;
+	private final int budget;
+
+	// the components, and the union-find element of every vertex
+	private UnionFind sets;
+	private HashMap<IVertex<V>,Integer> elements;
+
+	// number of components
+	private int count;
+
+	// number of union-find elements that no vertex uses any more
+	private int garbage;
+
+	// whether the union-find must be rebuilt before the next query
+	private boolean stale;
+	private long rebuilds = 0;
+
+	/**
+	 * Keep track of the components of {@code graph}, with a search budget of
+	 * {@link #SEARCH_BUDGET} vertices.
+	 */
+	public IncrementalConnectivity(IGraph<V,E> graph) {
+		this(graph, SEARCH_BUDGET);
+	}
+
+	/**
+	 * Keep track of the components of {@code graph}.
+	 * @param graph The graph to wrap.
+	 * @param budget The number of vertices the searches after a removal may
+	 *        visit before the union-find is rebuilt instead.
+	 */
+	public IncrementalConnectivity(IGraph<V,E> graph, int budget) {
+		this.graph = graph;
+		this.budget = budget;
+		rebuild();
+	}
+
+	/**
+	 * Check whether {@code v} and {@code w} are in the same component.
+	 */
+	public boolean connected(IVertex<V> v, IVertex<V> w) {
+		if (stale)
+			rebuild();
+		return sets.find(element(v)) == sets.find(element(w));
+	}
+
+	/**
+	 * Get the number of components.
+	 */
+	public int count() {
+		if (stale)
+			rebuild();
+		return count;
+	}
+
+	/**
+	 * Get the number of times the union-find was built from the whole graph,
+	 * including the first time.
+	 */
+	public long rebuilds() {
+		return rebuilds;
+	}
+
+	private int element(IVertex<V> v) {
+		Integer x = elements.get(v);
+		if (x == null)
+			throw new RuntimeException("Error: vertex is not in the graph.");
+		return x;
+	}
+
+	/**
+	 * Build the union-find from the whole graph.
+	 */
+	private void rebuild() {
+		sets = new UnionFind(0);
+		elements = new HashMap<IVertex<V>,Integer>();
+		for (IIterator<IVertex<V>> it = graph.vertices(); it.hasNext();)
+			elements.put(it.next(), sets.add());
+		count = elements.size();
+		for (IIterator<IEdge<E>> it = graph.edges(); it.hasNext();) {
+			IVertex<V>[] ends = graph.endVertices(it.next());
+			if (sets.union(element(ends[0]), element(ends[1])))
+				count--;
+		}
+		garbage = 0;
+		stale = false;
+		rebuilds++;
+	}
+
+	/**
+	 * Find out how the component that held {@code seeds} split, after an edge
+	 * or vertex was removed, and give the new components new elements. If the
+	 * searches go over the budget, mark the union-find stale instead.
+	 * @param seeds The vertices that lost an edge; all were in one component.
+	 */
+	private void split(List<IVertex<V>> seeds) {
+		int k = seeds.size();
+		// search of every seed; searches that meet are merged like a union-find
+		int[] group = new int[k];
+		ArrayList<ArrayDeque<IVertex<V>>> queue = new ArrayList<ArrayDeque<IVertex<V>>>(k);
+		HashMap<IVertex<V>,Integer> label = new HashMap<IVertex<V>,Integer>();
+		for (int i = 0; i < k; i++) {
+			group[i] = i;
+			queue.add(new ArrayDeque<IVertex<V>>());
+			queue.get(i).add(seeds.get(i));
+			label.put(seeds.get(i), i);
+		}
+
+		int unfinished = k;
+		int visited = k;
+		while (unfinished > 1) {
+			for (int i = 0; i < k && unfinished > 1; i++) {
+				if (group[i] != i || queue.get(i).isEmpty())
+					continue;
+				// expand one vertex of search i
+				int g = i;
+				IVertex<V> x = queue.get(g).poll();
+				for (IIterator<IEdge<E>> it = graph.incidentEdges(x); it.hasNext();) {
+					IVertex<V> y = graph.opposite(x, it.next());
+					Integer l = label.get(y);
+					if (l == null) {
+						if (++visited > budget) {
+							stale = true;
+							return;
+						}
+						label.put(y, g);
+						queue.get(g).add(y);
+						continue;
+					}
+					int h = find(group, l);
+					if (h != g) {
+						// the searches met; a search that ran out cannot be met
+						int keep = queue.get(g).size() >= queue.get(h).size() ? g : h;
+						int other = keep == g ? h : g;
+						group[other] = keep;
+						queue.get(keep).addAll(queue.get(other));
+						queue.set(other, null);
+						unfinished--;
+						g = keep;
+					}
+				}
+				if (queue.get(g).isEmpty())
+					unfinished--;
+			}
+		}
+
+		// every search that ran out found a new component; if they all ran
+		// out, the first keeps the old elements
+		boolean[] moved = new boolean[k];
+		int groups = 0;
+		for (int i = 0; i < k; i++)
+			if (group[i] == i) {
+				moved[i] = queue.get(i).isEmpty() && (unfinished == 1 || groups > 0);
+				groups++;
+			}
+		count += groups - 1;
+
+		int[] root = new int[k];
+		for (Map.Entry<IVertex<V>,Integer> entry : label.entrySet()) {
+			int g = find(group, entry.getValue());
+			if (!moved[g])
+				continue;
+			int x = sets.add();
+			if (root[g] == 0)
+				root[g] = x + 1;
+			else
+				sets.union(root[g] - 1, x);
+			entry.setValue(x);
+			elements.put(entry.getKey(), x);
+			garbage++;
+		}
+		if (garbage > elements.size())
+			stale = true;
+	}
+
+	private static int find(int[] group, int i) {
+		while (group[i] != i)
+			i = group[i];
+		return i;
+	}
+
+	@Override
+	public IVertex<V> insertVertex(V o) {
+		IVertex<V> v = graph.insertVertex(o);
+		if (!stale) {
+			elements.put(v, sets.add());
+			count++;
+		}
+		return v;
+	}
+
+	@Override
+	public IEdge<E> insertEdge(IVertex<V> v, IVertex<V> w, E o) {
+		IEdge<E> e = graph.insertEdge(v, w, o);
+		if (!stale && sets.union(element(v), element(w)))
+			count--;
+		return e;
+	}
+
+	@Override
+	public E removeEdge(IEdge<E> e) {
+		IVertex<V>[] ends = graph.endVertices(e);
+		E o = graph.removeEdge(e);
+		if (!stale && !ends[0].equals(ends[1]))
+			split(Arrays.asList(ends));
+		return o;
+	}
+
+	@Override
+	public V removeVertex(IVertex<V> v) {
+		// the neighbours are the vertices that lose an edge
+		LinkedHashSet<IVertex<V>> neighbors = new LinkedHashSet<IVertex<V>>();
+		for (IIterator<IEdge<E>> it = graph.incidentEdges(v); it.hasNext();) {
+			IVertex<V> w = graph.opposite(v, it.next());
+			if (!w.equals(v))
+				neighbors.add(w);
+		}
+		V o = graph.removeVertex(v);
+		if (!stale) {
+			elements.remove(v);
+			garbage++;
+			if (neighbors.isEmpty())
+				count--;
+			else
+				split(new ArrayList<IVertex<V>>(neighbors));
+		}
+		return o;
+	}
+
+	@Override
+	public IVertex<V>[] endVertices(IEdge<E> e) {
+		return graph.endVertices(e);
+	}
+
+	@Override
+	public IVertex<V> opposite(IVertex<V> v, IEdge<E> e) {
+		return graph.opposite(v, e);
+	}
+
+	@Override
+	public boolean areAdjacent(IVertex<V> v, IVertex<V> w) {
+		return graph.areAdjacent(v, w);
+	}
+
+	@Override
+	public V replace(IVertex<V> v, V o) {
+		return graph.replace(v, o);
+	}
+
+	@Override
+	public E replace(IEdge<E> e, E o) {
+		return graph.replace(e, o);
+	}
+
+	@Override
+	public IIterator<IEdge<E>> incidentEdges(IVertex<V> v) {
+		return graph.incidentEdges(v);
+	}
+
+	@Override
+	public IIterator<IVertex<V>> vertices() {
+		return graph.vertices();
+	}
+
+	@Override
+	public IIterator<IEdge<E>> edges() {
+		return graph.edges();
+	}
+
+	@Override
+	public IEdgeCursor<V,E> newEdgeCursor() {
+		return graph.newEdgeCursor();
+	}
+
+	@Override
+	public IVertexCursor<V> newVertexCursor() {
+		return graph.newVertexCursor();
+	}
+}
@@ -0,0 +1,336 @@
+package graph.algo;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.ToDoubleFunction;
+
+import graph.core.IGraph;
+import graph.core.IIntGraph;
+import graph.core.IWeightedGraph;
+import graph.impl.CsrGraph;
+import graph.util.ConcurrentUnionFind;
+import graph.util.IndexedDHeap;
+import graph.util.IndirectSort;
+import graph.util.UnionFind;
+
+/**
+ * Minimum spanning forests of any {@link IGraph}, with three algorithms that
+ * give trees of the same weight:
+ * <ul>
+ * <li>{@code kruskal} sorts the edges by weight with a radix sort on the
+ *     primitive weights and adds them with a {@link UnionFind}; it is the
+ *     fastest on small and sparse graphs;</li>
+ * <li>{@code prim} grows one tree at a time from an {@link IndexedDHeap},
+ *     which suits dense graphs;</li>
+ * <li>{@code boruvka} lets every component pick its cheapest edge in
+ *     parallel rounds on a fork/join pool, which pays off on large graphs.</li>
+ * </ul>
+ * The weights are read like in {@link ShortestPaths}: from
+ * {@link IWeightedGraph#weight} (or the element, if it is a number) by
+ * default, or through a weight extractor. Negative weights are allowed.
+ * Kruskal and Boruvka order edges of equal weight by edge number, so they
+ * choose the same edges; Prim may choose other edges of the same weight.
+ */
+public class MinimumSpanningTree {
+	// number of edges or vertices one task handles before splitting no further
+	static final int GRAIN = 1 << 14;
+
+	private MinimumSpanningTree() {
+	}
+
+	/**
+	 * Kruskal's algorithm, with the weights of a weighted graph or the numeric
+	 * edge elements as weights.
+	 * @param g The graph.
+	 * @return The edges of a minimum spanning forest and their total weight.
+	 */
+	public static <V,E> SpanningTreeResult<V,E> kruskal(IGraph<V,E> g) {
+		IIntGraph<V,E> ig = CsrGraph.intView(g);
+		return kruskal(ig, ShortestPaths.weights(g, ig));
+	}
+
+	/**
+	 * Kruskal's algorithm.
+	 * @param g The graph.
+	 * @param weight Gives the weight of an edge from its element.
+	 * @return The edges of a minimum spanning forest and their total weight.
+	 */
+	public static <V,E> SpanningTreeResult<V,E> kruskal(IGraph<V,E> g, ToDoubleFunction<? super E> weight) {
+		IIntGraph<V,E> ig = CsrGraph.intView(g);
+		return kruskal(ig, ShortestPaths.weights(ig, weight));
+	}
+
+	/**
+	 * Kruskal's algorithm on the numbered graph.
+	 * @param g The graph.
+	 * @param weights The weight of every edge, by edge number.
+	 * @return The edges of a minimum spanning forest and their total weight.
+	 */
+	public static <V,E> SpanningTreeResult<V,E> kruskal(IIntGraph<V,E> g, double[] weights) {
+		// the sort is stable, so ties stay in edge order
+		int[] order = IndirectSort.sort(weights);
+		int n = g.numVertices();
+		UnionFind sets = new UnionFind(n);
+		int[] tree = new int[Math.max(n - 1, 0)];
+		int size = 0;
+		double total = 0;
+		for (int i = 0; i < order.length && size < tree.length; i++) {
+			int e = order[i];
+			if (sets.union(g.edgeSource(e), g.edgeTarget(e))) {
+				tree[size++] = e;
+				total += weights[e];
+			}
+		}
+		return new SpanningTreeResult<V,E>(g, trim(tree, size), total);
+	}
+
+	/**
+	 * Prim's algorithm, with the weights of a weighted graph or the numeric
+	 * edge elements as weights.
+	 * @param g The graph.
+	 * @return The edges of a minimum spanning forest and their total weight.
+	 */
+	public static <V,E> SpanningTreeResult<V,E> prim(IGraph<V,E> g) {
+		IIntGraph<V,E> ig = CsrGraph.intView(g);
+		return prim(ig, ShortestPaths.weights(g, ig));
+	}
+
+	/**
+	 * Prim's algorithm.
+	 * @param g The graph.
+	 * @param weight Gives the weight of an edge from its element.
+	 * @return The edges of a minimum spanning forest and their total weight.
+	 */
+	public static <V,E> SpanningTreeResult<V,E> prim(IGraph<V,E> g, ToDoubleFunction<? super E> weight) {
+		IIntGraph<V,E> ig = CsrGraph.intView(g);
+		return prim(ig, ShortestPaths.weights(ig, weight));
+	}
+
+	/**
+	 * Prim's algorithm on the numbered graph with an indexed d-ary heap. A new
+	 * tree is started from every vertex that the earlier trees did not reach.
+	 * @param g The graph.
+	 * @param weights The weight of every edge, by edge number.
+	 * @return The edges of a minimum spanning forest and their total weight.
+	 */
+	public static <V,E> SpanningTreeResult<V,E> prim(IIntGraph<V,E> g, double[] weights) {
+		check(weights);
+		int n = g.numVertices();
+		IndexedDHeap heap = new IndexedDHeap(n, ShortestPaths.HEAP_ARITY);
+		boolean[] inTree = new boolean[n];
+		// the cheapest edge from the tree to every vertex in the heap
+		int[] cheapest = new int[n];
+		int[] tree = new int[Math.max(n - 1, 0)];
+		int size = 0;
+		double total = 0;
+		for (int root = 0; root < n; root++) {
+			if (inTree[root])
+				continue;
+			cheapest[root] = -1;
+			heap.insert(root, 0);
+			while (!heap.isEmpty()) {
+				int v = heap.pollMin();
+				inTree[v] = true;
+				int c = cheapest[v];
+				if (c >= 0) {
+					tree[size++] = c;
+					total += weights[c];
+				}
+				for (int i = 0, d = g.degree(v); i < d; i++) {
+					int w = g.neighbor(v, i);
+					if (inTree[w])
+						continue;
+					int e = g.incidentEdge(v, i);
+					if (!heap.contains(w)) {
+						cheapest[w] = e;
+						heap.insert(w, weights[e]);
+					} else if (cheaper(weights, e, cheapest[w])) {
+						cheapest[w] = e;
+						heap.decreaseKey(w, weights[e]);
+					}
+				}
+			}
+		}
+		return new SpanningTreeResult<V,E>(g, trim(tree, size), total);
+	}
+
+	/**
+	 * Boruvka's algorithm on the common fork/join pool, with the weights of a
+	 * weighted graph or the numeric edge elements as weights.
+	 * @param g The graph. It must not be changed while this runs.
+	 * @return The edges of a minimum spanning forest and their total weight.
+	 */
+	public static <V,E> SpanningTreeResult<V,E> boruvka(IGraph<V,E> g) {
+		IIntGraph<V,E> ig = CsrGraph.intView(g);
+		return boruvka(ig, ShortestPaths.weights(g, ig), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Boruvka's algorithm on the common fork/join pool.
+	 * @param g The graph. It must not be changed while this runs.
+	 * @param weight Gives the weight of an edge from its element.
+	 * @return The edges of a minimum spanning forest and their total weight.
+	 */
+	public static <V,E> SpanningTreeResult<V,E> boruvka(IGraph<V,E> g, ToDoubleFunction<? super E> weight) {
+		IIntGraph<V,E> ig = CsrGraph.intView(g);
+		return boruvka(ig, ShortestPaths.weights(ig, weight), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Parallel Boruvka's algorithm on the numbered graph. In every round each
+	 * component finds its cheapest outgoing edge, with all edges scanned in
+	 * parallel, and then the components are merged along those edges; the
+	 * number of components at least halves every round.
+	 * @param g The graph. It must not be changed while this runs.
+	 * @param weights The weight of every edge, by edge number.
+	 * @param pool The pool to run in.
+	 * @return The edges of a minimum spanning forest, by edge number, and their total weight.
+	 */
+	public static <V,E> SpanningTreeResult<V,E> boruvka(IIntGraph<V,E> g, double[] weights, ForkJoinPool pool) {
+		check(weights);
+		int n = g.numVertices();
+		int m = g.numEdges();
+		// make sure a lazily built int view exists before the tasks read it
+		if (m > 0)
+			g.edgeSource(0);
+
+		ConcurrentUnionFind sets = new ConcurrentUnionFind(n);
+		boolean[] chosen = new boolean[m];
+		int size = 0;
+		while (true) {
+			// cheapest edge (plus one, 0 for none) leaving every component, by root
+			AtomicIntegerArray cheapest = new AtomicIntegerArray(n);
+			pool.invoke(new FindCheapest<V,E>(g, weights, sets, cheapest, 0, m));
+			int merged = pool.invoke(new MergeComponents<V,E>(g, sets, cheapest, chosen, 0, n));
+			if (merged == 0)
+				break;
+			size += merged;
+		}
+
+		int[] tree = new int[size];
+		double total = 0;
+		for (int e = 0, i = 0; e < m; e++)
+			if (chosen[e]) {
+				tree[i++] = e;
+				total += weights[e];
+			}
+		return new SpanningTreeResult<V,E>(g, tree, total);
+	}
+
+	/**
+	 * Find the cheapest edge that leaves every component, among the edges
+	 * {@code lo..hi-1}.
+	 */
+	@SuppressWarnings("serial")
+	private static class FindCheapest<V,E> extends RecursiveAction {
+		private final IIntGraph<V,E> g;
+		private final double[] weights;
+		private final ConcurrentUnionFind sets;
+		private final AtomicIntegerArray cheapest;
+		private final int lo, hi;
+
+		FindCheapest(IIntGraph<V,E> g, double[] weights, ConcurrentUnionFind sets, AtomicIntegerArray cheapest,
+				int lo, int hi) {
+			this.g = g;
+			this.weights = weights;
+			this.sets = sets;
+			this.cheapest = cheapest;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo > GRAIN) {
+				int mid = (lo + hi) >>> 1;
+				invokeAll(new FindCheapest<V,E>(g, weights, sets, cheapest, lo, mid),
+						new FindCheapest<V,E>(g, weights, sets, cheapest, mid, hi));
+				return;
+			}
+			for (int e = lo; e < hi; e++) {
+				int a = sets.find(g.edgeSource(e));
+				int b = sets.find(g.edgeTarget(e));
+				if (a != b) {
+					offer(a, e);
+					offer(b, e);
+				}
+			}
+		}
+
+		private void offer(int root, int e) {
+			while (true) {
+				int c = cheapest.get(root);
+				if (c != 0 && !cheaper(weights, e, c - 1))
+					return;
+				if (cheapest.compareAndSet(root, c, e + 1))
+					return;
+			}
+		}
+	}
+
+	/**
+	 * Merge the components with roots among {@code lo..hi-1} along their
+	 * cheapest edges, and count the edges that joined two components.
+	 */
+	@SuppressWarnings("serial")
+	private static class MergeComponents<V,E> extends RecursiveTask<Integer> {
+		private final IIntGraph<V,E> g;
+		private final ConcurrentUnionFind sets;
+		private final AtomicIntegerArray cheapest;
+		private final boolean[] chosen;
+		private final int lo, hi;
+
+		MergeComponents(IIntGraph<V,E> g, ConcurrentUnionFind sets, AtomicIntegerArray cheapest, boolean[] chosen,
+				int lo, int hi) {
+			this.g = g;
+			this.sets = sets;
+			this.cheapest = cheapest;
+			this.chosen = chosen;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected Integer compute() {
+			if (hi - lo > GRAIN) {
+				int mid = (lo + hi) >>> 1;
+				MergeComponents<V,E> left = new MergeComponents<V,E>(g, sets, cheapest, chosen, lo, mid);
+				left.fork();
+				int right = new MergeComponents<V,E>(g, sets, cheapest, chosen, mid, hi).compute();
+				return left.join() + right;
+			}
+			// the cheapest edges form a forest, because ties are broken by edge
+			// number; an edge picked by both its components joins them only once
+			int merged = 0;
+			for (int v = lo; v < hi; v++) {
+				int e = cheapest.get(v) - 1;
+				if (e >= 0 && sets.union(g.edgeSource(e), g.edgeTarget(e))) {
+					chosen[e] = true;
+					merged++;
+				}
+			}
+			return merged;
+		}
+	}
+
+	// whether edge e comes before edge f in the order of weights, then edge numbers
+	static boolean cheaper(double[] weights, int e, int f) {
+		return weights[e] < weights[f] || weights[e] == weights[f] && e < f;
+	}
+
+	static void check(double[] weights) {
+		for (int e = 0; e < weights.length; e++)
+			if (Double.isNaN(weights[e]))
+				throw new IllegalArgumentException("Error: edge " + e + " has weight " + weights[e] + ".");
+	}
+
+	static int[] trim(int[] tree, int size) {
+		if (size == tree.length)
+			return tree;
+		int[] t = new int[size];
+		System.arraycopy(tree, 0, t, 0, size);
+		return t;
+	}
+}
@@ -0,0 +1,142 @@
+package graph.algo;
+
+import java.util.Arrays;
+
+import graph.core.IGraph;
+import graph.core.IIntGraph;
+import graph.core.IVertex;
+import graph.impl.CsrGraph;
+
+/**
+ * Breadth first search from many sources at once (Then et al., "The More the
+ * Merrier: Efficient Multi-Source Graph Traversal").
+ *
+ * The sources are taken in batches of 64. Every vertex has three bit sets in a
+ * {@code long}: the sources that have seen it, the sources whose frontier it is
+ * in, and the sources that reach it in the next level. One scan of the edges
+ * of a frontier vertex then advances the searches of all the sources it is a
+ * frontier of, so the edges are read once per level and batch instead of once
+ * per source. A level only scans the frontier and the vertices its edges
+ * reach, not the whole graph, and a vertex is in the frontier at most once per
+ * source, so a batch costs at most one edge scan per source however many
+ * levels the search takes.
+ *
+ * Graphs that implement {@link IIntGraph} are searched directly; any other
+ * graph is first frozen into a {@link CsrGraph}.
+ */
+public class MultiSourceBFS {
+	// number of sources searched together, one per bit of a long
+	public static final int BATCH = 64;
+
+	private MultiSourceBFS() {
+	}
+
+	/**
+	 * Hop distances from every source to every vertex.
+	 * @param g The graph to search. It must not be changed while this runs.
+	 * @param sources The vertices to start at.
+	 * @return One row of distances for every source.
+	 */
+	public static <V,E> HopDistanceResult<V,E> distances(IGraph<V,E> g, IVertex<V>[] sources) {
+		IIntGraph<V,E> ig = CsrGraph.intView(g);
+		int[] s = new int[sources.length];
+		for (int i = 0; i < s.length; i++)
+			s[i] = ig.vertexId(sources[i]);
+		return distances(ig, s);
+	}
+
+	/**
+	 * Hop distances from every source to every vertex of the numbered graph.
+	 * The matrix takes {@code sources.length * numVertices()} ints; use
+	 * {@link #search} to handle the distances without keeping them all.
+	 */
+	public static <V,E> HopDistanceResult<V,E> distances(IIntGraph<V,E> g, int[] sources) {
+		int[][] distance = new int[sources.length][g.numVertices()];
+		for (int[] row : distance)
+			Arrays.fill(row, -1);
+		search(g, sources, (i, v, d) -> distance[i][v] = d);
+		return new HopDistanceResult<V,E>(g, sources.clone(), distance);
+	}
+
+	/**
+	 * Search the numbered graph from every source and pass each distance to
+	 * {@code visitor} as soon as it is found. Only three longs and two ints
+	 * per vertex are kept, however many sources there are.
+	 * @param g The graph to search.
+	 * @param sources The vertex numbers to start at. A vertex may appear more than once.
+	 * @param visitor Receives every reached vertex of every source.
+	 */
+	public static <V,E> void search(IIntGraph<V,E> g, int[] sources, IDistanceVisitor visitor) {
+		int n = g.numVertices();
+		for (int s : sources)
+			if (s < 0 || s >= n)
+				throw new IllegalArgumentException("Error: there is no vertex " + s + ".");
+
+		long[] seen = new long[n], visit = new long[n], next = new long[n];
+		int[] frontier = new int[n], touched = new int[n];
+		for (int base = 0; base < sources.length; base += BATCH) {
+			// a search leaves visit and next clear
+			if (base > 0)
+				Arrays.fill(seen, 0);
+			search(g, sources, base, Math.min(BATCH, sources.length - base), seen, visit, next, frontier, touched,
+					visitor);
+		}
+	}
+
+	/**
+	 * Search from the {@code count} sources starting at {@code base}, which get
+	 * bits 0 to {@code count - 1}. The bit sets must be clear, and
+	 * {@code visit} and {@code next} are left clear. {@code frontier} and
+	 * {@code touched} are scratch lists with room for every vertex.
+	 */
+	private static <V,E> void search(IIntGraph<V,E> g, int[] sources, int base, int count, long[] seen,
+			long[] visit, long[] next, int[] frontier, int[] touched, IDistanceVisitor visitor) {
+		int size = 0;
+		for (int i = 0; i < count; i++) {
+			int s = sources[base + i];
+			if (visit[s] == 0)
+				frontier[size++] = s;
+			seen[s] |= 1L << i;
+			visit[s] |= 1L << i;
+			visitor.visit(base + i, s, 0);
+		}
+
+		// every level only looks at the frontier, its edges and the vertices
+		// they reach, so a long thin graph costs no more than its edges
+		for (int level = 1; size > 0; level++) {
+			// push the frontier bits of every vertex to its neighbors, and list
+			// the neighbors the first time they get a bit
+			int reached = 0;
+			for (int k = 0; k < size; k++) {
+				int v = frontier[k];
+				long bits = visit[v];
+				visit[v] = 0;
+				for (int i = 0, d = g.degree(v); i < d; i++) {
+					int w = g.neighbor(v, i);
+					if (next[w] == 0)
+						touched[reached++] = w;
+					next[w] |= bits;
+				}
+			}
+
+			// keep the sources that reach a vertex for the first time; the new
+			// frontier is written over the list it is read from
+			size = 0;
+			for (int k = 0; k < reached; k++) {
+				int w = touched[k];
+				long bits = next[w] & ~seen[w];
+				next[w] = 0;
+				if (bits == 0)
+					continue;
+				visit[w] = bits;
+				seen[w] |= bits;
+				touched[size++] = w;
+				for (; bits != 0; bits &= bits - 1)
+					visitor.visit(base + Long.numberOfTrailingZeros(bits), w, level);
+			}
+			int[] t = frontier;
+			frontier = touched;
+			touched = t;
+		}
+	}
+}
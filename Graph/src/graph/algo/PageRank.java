@@ -0,0 +1,129 @@
+package graph.algo;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+
+import graph.core.IGraph;
+import graph.core.IIntGraph;
+import graph.impl.CsrGraph;
+
+/**
+ * PageRank of the vertices of a graph, by power iteration on a
+ * {@link SparseMatrix}. Every sweep pulls the rank of a vertex from its
+ * neighbours, so each task writes only its own rows and no locks or atomics
+ * are needed. The rank of vertices without edges (dangling vertices) is spread
+ * evenly over all vertices, so the ranks always sum to 1.
+ *
+ * The iteration stops when a sweep changes the ranks by less than the
+ * tolerance in total (L1 distance), or after the maximum number of sweeps.
+ */
+public class PageRank {
+	public static final double DAMPING = 0.85;
+	public static final double TOLERANCE = 1e-9;
+	public static final int MAX_ITERATIONS = 100;
+
+	private PageRank() {
+	}
+
+	/**
+	 * PageRank of an unweighted graph, with the default damping, tolerance and
+	 * maximum number of sweeps, on the common fork/join pool.
+	 * @param g The graph. It must not be changed while this runs.
+	 * @return The rank of every vertex.
+	 */
+	public static <V,E> ScoreResult<V,E> rank(IGraph<V,E> g) {
+		IIntGraph<V,E> ig = CsrGraph.intView(g);
+		return rank(ig, SparseMatrix.adjacency(ig), DAMPING, TOLERANCE, MAX_ITERATIONS, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Weighted PageRank: a random surfer follows an edge with a probability
+	 * proportional to its weight.
+	 * @param g The graph. It must not be changed while this runs.
+	 * @param weight Gives the weight of an edge from its element; none may be negative.
+	 * @return The rank of every vertex.
+	 */
+	public static <V,E> ScoreResult<V,E> rank(IGraph<V,E> g, ToDoubleFunction<? super E> weight) {
+		IIntGraph<V,E> ig = CsrGraph.intView(g);
+		double[] weights = ShortestPaths.weights(ig, weight);
+		for (int e = 0; e < weights.length; e++)
+			if (!(weights[e] >= 0))
+				throw new IllegalArgumentException("Error: edge " + e + " has weight " + weights[e] + ".");
+		return rank(ig, SparseMatrix.adjacency(ig, weights), DAMPING, TOLERANCE, MAX_ITERATIONS,
+				ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * PageRank on an adjacency matrix of the numbered graph, which can be kept
+	 * and reused for other runs.
+	 * @param g The graph the matrix was made from.
+	 * @param adjacency The adjacency matrix of {@code g}.
+	 * @param damping The probability of following an edge rather than jumping
+	 *        to a random vertex.
+	 * @param tolerance The L1 change below which the ranks have converged.
+	 * @param maxIterations The maximum number of sweeps.
+	 * @param pool The pool to run in.
+	 * @return The rank of every vertex.
+	 */
+	public static <V,E> ScoreResult<V,E> rank(IIntGraph<V,E> g, SparseMatrix adjacency, double damping,
+			double tolerance, int maxIterations, ForkJoinPool pool) {
+		if (!(damping >= 0 && damping <= 1))
+			throw new IllegalArgumentException("Error: damping must be between 0 and 1.");
+		int n = adjacency.size();
+		if (n != g.numVertices())
+			throw new IllegalArgumentException("Error: matrix does not match the graph.");
+		if (n == 0)
+			return new ScoreResult<V,E>(g, new double[0], 0, true);
+
+		// the dangling vertices are the ones whose column sums to 0, which
+		// includes the ones whose edges all have weight 0
+		double[] sums = adjacency.columnSums();
+		int count = 0;
+		int[] dangling = new int[n];
+		for (int v = 0; v < n; v++)
+			if (sums[v] == 0)
+				dangling[count++] = v;
+		dangling = Arrays.copyOf(dangling, count);
+
+		SparseMatrix transition = adjacency.normalizeColumns();
+		double[] x = new double[n];
+		double[] y = new double[n];
+		Arrays.fill(x, 1.0 / n);
+		Update update = new Update(damping);
+		int iterations = 0;
+		boolean converged = false;
+		while (iterations < maxIterations && !converged) {
+			double lost = 0;
+			for (int v : dangling)
+				lost += x[v];
+			update.base = (1 - damping + damping * lost) / n;
+			converged = transition.sweep(x, y, update, pool) < tolerance;
+			iterations++;
+			double[] t = x;
+			x = y;
+			y = t;
+		}
+		return new ScoreResult<V,E>(g, x, iterations, converged);
+	}
+
+	/**
+	 * The PageRank step: the jump and dangling share plus the damped rank
+	 * pulled from the neighbours.
+	 */
+	private static class Update implements IVertexUpdate {
+		private final double damping;
+
+		// share of every vertex in the random jumps and the dangling rank of this sweep
+		double base;
+
+		Update(double damping) {
+			this.damping = damping;
+		}
+
+		@Override
+		public double apply(int v, double sum) {
+			return base + damping * sum;
+		}
+	}
+}
@@ -0,0 +1,229 @@
+package graph.algo;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import graph.core.IIntGraph;
+
+/**
+ * Level synchronous parallel breadth first search that switches between
+ * top-down and bottom-up steps (Beamer, Asanovic and Patterson, "Direction
+ * Optimizing Breadth-First Search").
+ *
+ * A top-down step scans the edges of the frontier and claims unvisited
+ * neighbors with an atomic bit set. A bottom-up step scans the unvisited
+ * vertices and looks for any neighbor in the frontier, which is much cheaper
+ * once the frontier holds a large part of the graph.
+ *
+ * The frontier of each level is the slice of the result's visit order that was
+ * filled by the previous level, so no level lists are copied.
+ */
+class ParallelBFS<V,E> {
+	// switch to bottom-up when the frontier has more than 1/ALPHA of the unexplored edges
+	private static final int ALPHA = 14;
+
+	// switch back to top-down when the frontier has less than 1/BETA of the vertices
+	private static final int BETA = 24;
+
+	// number of vertices one task handles before splitting no further
+	private static final int GRAIN = 1024;
+
+	private final IIntGraph<V,E> g;
+	private final TraversalResult<V,E> r;
+	private final int n;
+
+	// one bit per vertex, set when the vertex is claimed
+	private final AtomicLongArray visited;
+
+	// frontier of the current level as a bit set (bottom-up steps only)
+	private long[] front;
+
+	// next free position in r.order
+	private final AtomicInteger tail = new AtomicInteger();
+
+	// distance of the current frontier
+	private int level;
+
+	ParallelBFS(IIntGraph<V,E> g) {
+		this.g = g;
+		this.r = new TraversalResult<V,E>(g);
+		this.n = g.numVertices();
+		this.visited = new AtomicLongArray((n + 63) >>> 6);
+	}
+
+	/**
+	 * Search from vertex {@code s} using the threads of {@code pool}.
+	 */
+	TraversalResult<V,E> run(int s, ForkJoinPool pool) {
+		// make sure a lazily built int view exists before the tasks read it
+		long unexplored = 0;
+		for (int v = 0; v < n; v++)
+			unexplored += g.degree(v);
+
+		claim(s);
+		r.distance[s] = 0;
+		r.order[0] = s;
+		tail.set(1);
+
+		int lo = 0, hi = 1;
+		long frontierEdges = g.degree(s);
+		unexplored -= frontierEdges;
+		boolean bottomUp = false;
+		while (lo < hi) {
+			int frontierSize = hi - lo;
+
+			// choose the direction of this step
+			if (!bottomUp && frontierEdges > unexplored / ALPHA) {
+				bottomUp = true;
+				front = new long[visited.length()];
+				for (int i = lo; i < hi; i++)
+					front[r.order[i] >>> 6] |= 1L << r.order[i];
+			} else if (bottomUp && frontierSize < n / BETA) {
+				bottomUp = false;
+			}
+
+			if (bottomUp)
+				frontierEdges = pool.invoke(new BottomUpStep(0, n));
+			else
+				frontierEdges = pool.invoke(new TopDownStep(lo, hi));
+			unexplored -= frontierEdges;
+			level++;
+
+			lo = hi;
+			hi = tail.get();
+			r.count = hi;
+
+			// the new frontier as a bit set for the next bottom-up step
+			if (bottomUp) {
+				Arrays.fill(front, 0);
+				for (int i = lo; i < hi; i++)
+					front[r.order[i] >>> 6] |= 1L << r.order[i];
+			}
+		}
+		return r;
+	}
+
+	/**
+	 * Set the visited bit of {@code v}.
+	 * @return {@code true} if this call set it, {@code false} if it was already set.
+	 */
+	private boolean claim(int v) {
+		int word = v >>> 6;
+		long bit = 1L << v;
+		long old;
+		do {
+			old = visited.get(word);
+			if ((old & bit) != 0)
+				return false;
+		} while (!visited.compareAndSet(word, old, old | bit));
+		return true;
+	}
+
+	/**
+	 * Append the vertices in {@code buffer} to the visit order.
+	 */
+	private void publish(int[] buffer, int size) {
+		if (size > 0)
+			System.arraycopy(buffer, 0, r.order, tail.getAndAdd(size), size);
+	}
+
+	/**
+	 * Top-down step over the frontier vertices {@code r.order[lo..hi)}.
+	 * Returns the sum of the degrees of the vertices it discovered.
+	 */
+	@SuppressWarnings("serial")
+	private class TopDownStep extends RecursiveTask<Long> {
+		private final int lo, hi;
+
+		TopDownStep(int lo, int hi) {
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected Long compute() {
+			if (hi - lo > GRAIN) {
+				int mid = (lo + hi) >>> 1;
+				TopDownStep left = new TopDownStep(lo, mid);
+				left.fork();
+				long right = new TopDownStep(mid, hi).compute();
+				return right + left.join();
+			}
+
+			int[] found = new int[64];
+			int size = 0;
+			long edges = 0;
+			for (int i = lo; i < hi; i++) {
+				int v = r.order[i];
+				for (int j = 0, d = g.degree(v); j < d; j++) {
+					int w = g.neighbor(v, j);
+					if (claim(w)) {
+						r.parent[w] = v;
+						r.parentEdge[w] = g.incidentEdge(v, j);
+						r.distance[w] = level + 1;
+						edges += g.degree(w);
+						if (size == found.length)
+							found = Arrays.copyOf(found, size * 2);
+						found[size++] = w;
+					}
+				}
+			}
+			publish(found, size);
+			return edges;
+		}
+	}
+
+	/**
+	 * Bottom-up step over the vertices {@code lo..hi)}. Ranges are split on
+	 * multiples of 64, so every task owns whole words of the bit sets.
+	 * Returns the sum of the degrees of the vertices it discovered.
+	 */
+	@SuppressWarnings("serial")
+	private class BottomUpStep extends RecursiveTask<Long> {
+		private final int lo, hi;
+
+		BottomUpStep(int lo, int hi) {
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected Long compute() {
+			if (hi - lo > GRAIN) {
+				int mid = ((lo + hi) >>> 1) & ~63;
+				BottomUpStep left = new BottomUpStep(lo, mid);
+				left.fork();
+				long right = new BottomUpStep(mid, hi).compute();
+				return right + left.join();
+			}
+
+			int[] found = new int[64];
+			int size = 0;
+			long edges = 0;
+			for (int v = lo; v < hi; v++) {
+				if ((visited.get(v >>> 6) & (1L << v)) != 0)
+					continue;
+				// look for a parent in the frontier
+				for (int j = 0, d = g.degree(v); j < d; j++) {
+					int u = g.neighbor(v, j);
+					if ((front[u >>> 6] & (1L << u)) != 0) {
+						claim(v);
+						r.parent[v] = u;
+						r.parentEdge[v] = g.incidentEdge(v, j);
+						r.distance[v] = level + 1;
+						edges += d;
+						if (size == found.length)
+							found = Arrays.copyOf(found, size * 2);
+						found[size++] = v;
+						break;
+					}
+				}
+			}
+			publish(found, size);
+			return edges;
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package graph.algo;
+
+import graph.core.IIntGraph;
+import graph.core.IVertex;
+
+/**
+ * Scores of the vertices of a graph from an iterative algorithm such as
+ * {@link PageRank}, with how the iteration ended.
+ */
+public class ScoreResult<V,E> {
+	// the graph that was scored
+	private final IIntGraph<V,E> graph;
+
+	// score of every vertex
+	final double[] scores;
+
+	// number of sweeps done, and whether the last one changed less than the tolerance
+	final int iterations;
+	final boolean converged;
+
+	ScoreResult(IIntGraph<V,E> graph, double[] scores, int iterations, boolean converged) {
+		this.graph = graph;
+		this.scores = scores;
+		this.iterations = iterations;
+		this.converged = converged;
+	}
+
+	/**
+	 * Get the numbered view of the graph that was scored. Its vertex numbers
+	 * are the indices of {@link #scores()}.
+	 */
+	public IIntGraph<V,E> graph() {
+		return graph;
+	}
+
+	/**
+	 * Get the score of every vertex, by vertex number.
+	 */
+	public double[] scores() {
+		return scores;
+	}
+
+	/**
+	 * Get the score of {@code v}.
+	 */
+	public double score(IVertex<V> v) {
+		return scores[graph.vertexId(v)];
+	}
+
+	/**
+	 * Get the number of sweeps that were done.
+	 */
+	public int iterations() {
+		return iterations;
+	}
+
+	/**
+	 * Check whether the scores converged before the maximum number of sweeps.
+	 */
+	public boolean converged() {
+		return converged;
+	}
+}
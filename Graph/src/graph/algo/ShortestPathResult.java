@@ -0,0 +1,113 @@
+package graph.algo;
+
+import java.util.Arrays;
+
+import graph.core.IEdge;
+import graph.core.IIntGraph;
+import graph.core.IList;
+import graph.core.IVertex;
+import graph.util.DLinkedList;
+
+/**
+ * Result of a shortest path search: the distance from the source to every
+ * vertex and the tree of shortest paths, in arrays indexed by the vertex
+ * numbers of the graph's {@link IIntGraph} view.
+ *
+ * After a point-to-point search only the vertices that were settled before
+ * the target have their final distance; the target always does.
+ */
+public class ShortestPathResult<V,E> {
+	// the graph that was searched
+	private final IIntGraph<V,E> graph;
+
+	// the source vertex
+	private final int source;
+
+	// length of the shortest path found (infinity if unreached)
+	final double[] distance;
+
+	// previous vertex on that path and the edge leading to it (-1 for the
+	// source and unreached vertices)
+	final int[] parent;
+	final int[] parentEdge;
+
+	ShortestPathResult(IIntGraph<V,E> graph, int source) {
+		this.graph = graph;
+		this.source = source;
+		int n = graph.numVertices();
+		distance = new double[n];
+		parent = new int[n];
+		parentEdge = new int[n];
+		Arrays.fill(distance, Double.POSITIVE_INFINITY);
+		Arrays.fill(parent, -1);
+		Arrays.fill(parentEdge, -1);
+	}
+
+	/**
+	 * Get the numbered view of the graph that was searched. Its vertex and edge
+	 * numbers are the indices of the arrays in this result.
+	 */
+	public IIntGraph<V,E> graph() {
+		return graph;
+	}
+
+	/**
+	 * Get the distance from the source to every vertex, or infinity for
+	 * vertices that were not reached.
+	 */
+	public double[] distance() {
+		return distance;
+	}
+
+	/**
+	 * Get the previous vertex on the shortest path to every vertex, or -1.
+	 */
+	public int[] parent() {
+		return parent;
+	}
+
+	/**
+	 * Get the last edge on the shortest path to every vertex, or -1.
+	 */
+	public int[] parentEdge() {
+		return parentEdge;
+	}
+
+	/**
+	 * Check whether vertex {@code v} was reached from the source.
+	 */
+	public boolean reached(IVertex<V> v) {
+		return distance[graph.vertexId(v)] < Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Get the length of the shortest path from the source to {@code v}.
+	 * @return The distance, or infinity if {@code v} was not reached.
+	 */
+	public double distance(IVertex<V> v) {
+		return distance[graph.vertexId(v)];
+	}
+
+	/**
+	 * Get the previous vertex on the shortest path to {@code v}.
+	 * @return The vertex, or {@code null} for the source and unreached vertices.
+	 */
+	public IVertex<V> parent(IVertex<V> v) {
+		int p = parent[graph.vertexId(v)];
+		return p < 0 ? null : graph.vertex(p);
+	}
+
+	/**
+	 * Get the edges of the shortest path from the source to {@code v}, in order.
+	 * @return The edges (empty for the source), or {@code null} if {@code v} was not reached.
+	 */
+	public IList<IEdge<E>> pathTo(IVertex<V> v) {
+		int w = graph.vertexId(v);
+		if (distance[w] == Double.POSITIVE_INFINITY)
+			return null;
+		IList<IEdge<E>> path = new DLinkedList<IEdge<E>>();
+		for (; w != source; w = parent[w])
+			path.insertFirst(graph.edge(parentEdge[w]));
+		return path;
+	}
+}
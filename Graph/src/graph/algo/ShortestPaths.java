@@ -0,0 +1,233 @@
+package graph.algo;
+
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+import graph.core.IGraph;
+import graph.core.IIntGraph;
+import graph.core.IVertex;
+import graph.core.IWeightedGraph;
+import graph.impl.CsrGraph;
+import graph.util.IndexedDHeap;
+import graph.util.RadixHeap;
+import graph.util.WeightColumn;
+
+/**
+ * Dijkstra's shortest paths on any {@link IGraph}, in two flavours:
+ * <ul>
+ * <li>{@code dijkstra} uses an {@link IndexedDHeap} with decrease-key and
+ *     works with any non-negative double weights;</li>
+ * <li>{@code radixDijkstra} uses a {@link RadixHeap} and needs non-negative
+ *     integer weights, which makes it faster on graphs with many vertices.</li>
+ * </ul>
+ * The weights are read once into a primitive array indexed by edge number,
+ * either from the edge elements through a weight extractor or, by default, from
+ * {@link IWeightedGraph#weight} (or the element, if it is a number). The search
+ * itself runs on the graph's {@link IIntGraph} view, like {@link Traversals}.
+ *
+ * Point-to-point searches stop as soon as the target is settled.
+ */
+public class ShortestPaths {
+	// arity of the heap; 4 keeps the heap shallow while a node's children
+	// still share a cache line
+	static final int HEAP_ARITY = 4;
+
+	private ShortestPaths() {
+	}
+
+	/**
+	 * Shortest paths from {@code s} to all vertices, with the weights of a
+	 * weighted graph or the numeric edge elements as weights.
+	 * @param g The graph to search.
+	 * @param s The source vertex.
+	 * @return The distances and the shortest path tree.
+	 */
+	public static <V,E> ShortestPathResult<V,E> dijkstra(IGraph<V,E> g, IVertex<V> s) {
+		IIntGraph<V,E> ig = CsrGraph.intView(g);
+		return dijkstra(ig, weights(g, ig), ig.vertexId(s), -1);
+	}
+
+	/**
+	 * Shortest paths from {@code s} to all vertices.
+	 * @param g The graph to search.
+	 * @param s The source vertex.
+	 * @param weight Gives the weight of an edge from its element.
+	 * @return The distances and the shortest path tree.
+	 */
+	public static <V,E> ShortestPathResult<V,E> dijkstra(IGraph<V,E> g, IVertex<V> s, ToDoubleFunction<? super E> weight) {
+		IIntGraph<V,E> ig = CsrGraph.intView(g);
+		return dijkstra(ig, weights(ig, weight), ig.vertexId(s), -1);
+	}
+
+	/**
+	 * Shortest path from {@code s} to {@code t}.
+	 * @param g The graph to search.
+	 * @param s The source vertex.
+	 * @param t The target vertex.
+	 * @param weight Gives the weight of an edge from its element.
+	 * @return The result; {@code pathTo(t)} is the shortest path.
+	 */
+	public static <V,E> ShortestPathResult<V,E> dijkstra(IGraph<V,E> g, IVertex<V> s, IVertex<V> t,
+			ToDoubleFunction<? super E> weight) {
+		IIntGraph<V,E> ig = CsrGraph.intView(g);
+		return dijkstra(ig, weights(ig, weight), ig.vertexId(s), ig.vertexId(t));
+	}
+
+	/**
+	 * Dijkstra's algorithm on the numbered graph with an indexed d-ary heap.
+	 * @param g The graph to search.
+	 * @param weights The weight of every edge, by edge number; none may be negative.
+	 * @param s The source vertex.
+	 * @param t The target vertex, or -1 to find the paths to all vertices.
+	 * @return The distances and the shortest path tree.
+	 */
+	public static <V,E> ShortestPathResult<V,E> dijkstra(IIntGraph<V,E> g, double[] weights, int s, int t) {
+		for (int e = 0; e < weights.length; e++)
+			if (!(weights[e] >= 0))
+				throw new IllegalArgumentException("Error: edge " + e + " has weight " + weights[e] + ".");
+
+		ShortestPathResult<V,E> r = new ShortestPathResult<V,E>(g, s);
+		double[] distance = r.distance;
+		int[] parent = r.parent;
+		int[] parentEdge = r.parentEdge;
+		IndexedDHeap heap = new IndexedDHeap(g.numVertices(), HEAP_ARITY);
+		distance[s] = 0;
+		heap.insert(s, 0);
+		while (!heap.isEmpty()) {
+			int v = heap.pollMin();
+			if (v == t)
+				break;
+			double dv = distance[v];
+			for (int i = 0, d = g.degree(v); i < d; i++) {
+				int e = g.incidentEdge(v, i);
+				double dw = dv + weights[e];
+				int w = g.neighbor(v, i);
+				if (dw < distance[w]) {
+					distance[w] = dw;
+					parent[w] = v;
+					parentEdge[w] = e;
+					if (heap.contains(w))
+						heap.decreaseKey(w, dw);
+					else
+						heap.insert(w, dw);
+				}
+			}
+		}
+		return r;
+	}
+
+	/**
+	 * Shortest paths from {@code s} to all vertices, with integer weights.
+	 * @param g The graph to search.
+	 * @param s The source vertex.
+	 * @param weight Gives the weight of an edge from its element.
+	 * @return The distances and the shortest path tree.
+	 */
+	public static <V,E> ShortestPathResult<V,E> radixDijkstra(IGraph<V,E> g, IVertex<V> s, ToLongFunction<? super E> weight) {
+		IIntGraph<V,E> ig = CsrGraph.intView(g);
+		return radixDijkstra(ig, longWeights(ig, weight), ig.vertexId(s), -1);
+	}
+
+	/**
+	 * Shortest path from {@code s} to {@code t}, with integer weights.
+	 * @param g The graph to search.
+	 * @param s The source vertex.
+	 * @param t The target vertex.
+	 * @param weight Gives the weight of an edge from its element.
+	 * @return The result; {@code pathTo(t)} is the shortest path.
+	 */
+	public static <V,E> ShortestPathResult<V,E> radixDijkstra(IGraph<V,E> g, IVertex<V> s, IVertex<V> t,
+			ToLongFunction<? super E> weight) {
+		IIntGraph<V,E> ig = CsrGraph.intView(g);
+		return radixDijkstra(ig, longWeights(ig, weight), ig.vertexId(s), ig.vertexId(t));
+	}
+
+	/**
+	 * Dijkstra's algorithm on the numbered graph with a radix heap. The
+	 * distances are computed exactly as longs and stored in the result as doubles.
+	 * @param g The graph to search.
+	 * @param weights The weight of every edge, by edge number; none may be negative.
+	 * @param s The source vertex.
+	 * @param t The target vertex, or -1 to find the paths to all vertices.
+	 * @return The distances and the shortest path tree.
+	 */
+	public static <V,E> ShortestPathResult<V,E> radixDijkstra(IIntGraph<V,E> g, long[] weights, int s, int t) {
+		for (int e = 0; e < weights.length; e++)
+			if (weights[e] < 0)
+				throw new IllegalArgumentException("Error: edge " + e + " has weight " + weights[e] + ".");
+
+		ShortestPathResult<V,E> r = new ShortestPathResult<V,E>(g, s);
+		int[] parent = r.parent;
+		int[] parentEdge = r.parentEdge;
+		long[] distance = new long[g.numVertices()];
+		Arrays.fill(distance, Long.MAX_VALUE);
+		RadixHeap heap = new RadixHeap();
+		distance[s] = 0;
+		heap.push(s, 0);
+		while (!heap.isEmpty()) {
+			int v = heap.pop();
+			long dv = heap.lastKey();
+			// skip entries left behind by a shorter path found later
+			if (dv > distance[v])
+				continue;
+			if (v == t)
+				break;
+			for (int i = 0, d = g.degree(v); i < d; i++) {
+				int e = g.incidentEdge(v, i);
+				long dw = dv + weights[e];
+				int w = g.neighbor(v, i);
+				if (dw < distance[w]) {
+					distance[w] = dw;
+					parent[w] = v;
+					parentEdge[w] = e;
+					heap.push(w, dw);
+				}
+			}
+		}
+
+		for (int v = 0; v < distance.length; v++)
+			if (distance[v] != Long.MAX_VALUE)
+				r.distance[v] = distance[v];
+		return r;
+	}
+
+	/**
+	 * Read the weight of every edge of the numbered graph from its element.
+	 * @return The weights, by edge number.
+	 */
+	public static <V,E> double[] weights(IIntGraph<V,E> g, ToDoubleFunction<? super E> weight) {
+		double[] weights = new double[g.numEdges()];
+		for (int e = 0; e < weights.length; e++)
+			weights[e] = weight.applyAsDouble(g.edge(e).element());
+		return weights;
+	}
+
+	/**
+	 * Read the integer weight of every edge of the numbered graph from its element.
+	 * @return The weights, by edge number.
+	 */
+	public static <V,E> long[] longWeights(IIntGraph<V,E> g, ToLongFunction<? super E> weight) {
+		long[] weights = new long[g.numEdges()];
+		for (int e = 0; e < weights.length; e++)
+			weights[e] = weight.applyAsLong(g.edge(e).element());
+		return weights;
+	}
+
+	/**
+	 * Read the default weight of every edge: its weight in a weighted graph, or
+	 * its element if that is a number, or 1.
+	 */
+	static <V,E> double[] weights(IGraph<V,E> g, IIntGraph<V,E> ig) {
+		double[] weights = new double[ig.numEdges()];
+		if (g instanceof IWeightedGraph) {
+			IWeightedGraph<V,E> wg = (IWeightedGraph<V,E>) g;
+			for (int e = 0; e < weights.length; e++)
+				weights[e] = wg.weight(ig.edge(e));
+		} else {
+			for (int e = 0; e < weights.length; e++)
+				weights[e] = WeightColumn.weightOf(ig.edge(e).element());
+		}
+		return weights;
+	}
+}
@@ -0,0 +1,65 @@
+package graph.algo;
+
+import graph.core.IEdge;
+import graph.core.IIntGraph;
+import graph.core.IList;
+import graph.util.DLinkedList;
+
+/**
+ * Minimum spanning forest of a graph: one minimum spanning tree for every
+ * connected component.
+ */
+public class SpanningTreeResult<V,E> {
+	// the graph that was searched
+	private final IIntGraph<V,E> graph;
+
+	// numbers of the tree edges, in the order they were chosen, and their total weight
+	final int[] edges;
+	final double weight;
+
+	SpanningTreeResult(IIntGraph<V,E> graph, int[] edges, double weight) {
+		this.graph = graph;
+		this.edges = edges;
+		this.weight = weight;
+	}
+
+	/**
+	 * Get the numbered view of the graph that was searched. Its edge numbers
+	 * are the ones in {@link #edgeIds()}.
+	 */
+	public IIntGraph<V,E> graph() {
+		return graph;
+	}
+
+	/**
+	 * Get the numbers of the tree edges, in the order they were chosen.
+	 */
+	public int[] edgeIds() {
+		return edges;
+	}
+
+	/**
+	 * Get the tree edges, in the order they were chosen.
+	 */
+	public IList<IEdge<E>> edges() {
+		IList<IEdge<E>> list = new DLinkedList<IEdge<E>>();
+		for (int e : edges)
+			list.insertLast(graph.edge(e));
+		return list;
+	}
+
+	/**
+	 * Get the number of tree edges, which is the number of vertices minus the
+	 * number of connected components.
+	 */
+	public int size() {
+		return edges.length;
+	}
+
+	/**
+	 * Get the total weight of the tree edges.
+	 */
+	public double weight() {
+		return weight;
+	}
+}
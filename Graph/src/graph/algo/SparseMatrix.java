@@ -0,0 +1,167 @@
+package graph.algo;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import graph.core.IIntGraph;
+
+/**
+ * The adjacency matrix of a graph in compressed sparse row form, for iterative
+ * algorithms that sweep all the edges many times (PageRank, Katz and the like).
+ * The graph is copied into primitive arrays once; a sweep then reads only
+ * these arrays, so it creates no iterators or handles, and it runs in parallel
+ * on a fork/join pool with the rows split between the tasks.
+ *
+ * Row {@code v} holds an entry for every incidence of {@code v}, in the order
+ * of the graph's {@link IIntGraph} view, so the matrix of an undirected graph
+ * is symmetric and parallel edges add up.
+ */
+public class SparseMatrix {
+	// number of rows one task handles before splitting no further
+	static final int GRAIN = 1 << 12;
+
+	// number of rows (and columns)
+	private final int n;
+
+	// the entries of row v are offsets[v]..offsets[v+1]-1
+	private final int[] offsets;
+	private final int[] columns;
+
+	// value of every entry (null if they are all 1)
+	private final double[] values;
+
+	private SparseMatrix(int n, int[] offsets, int[] columns, double[] values) {
+		this.n = n;
+		this.offsets = offsets;
+		this.columns = columns;
+		this.values = values;
+	}
+
+	/**
+	 * Get the adjacency matrix of {@code g}, with 1 for every edge.
+	 * @param g The graph. It must not be changed while this runs.
+	 */
+	public static SparseMatrix adjacency(IIntGraph<?,?> g) {
+		return adjacency(g, null);
+	}
+
+	/**
+	 * Get the adjacency matrix of {@code g}, weighted with {@code weights}.
+	 * @param g The graph. It must not be changed while this runs.
+	 * @param weights The weight of every edge, by edge number, or null for 1 everywhere.
+	 */
+	public static SparseMatrix adjacency(IIntGraph<?,?> g, double[] weights) {
+		int n = g.numVertices();
+		int[] offsets = new int[n + 1];
+		for (int v = 0; v < n; v++)
+			offsets[v + 1] = offsets[v] + g.degree(v);
+		int[] columns = new int[offsets[n]];
+		double[] values = weights == null ? null : new double[offsets[n]];
+		for (int v = 0, k = 0; v < n; v++)
+			for (int i = 0, d = g.degree(v); i < d; i++, k++) {
+				columns[k] = g.neighbor(v, i);
+				if (values != null)
+					values[k] = weights[g.incidentEdge(v, i)];
+			}
+		return new SparseMatrix(n, offsets, columns, values);
+	}
+
+	/**
+	 * Get the number of rows, which is the number of vertices.
+	 */
+	public int size() {
+		return n;
+	}
+
+	/**
+	 * Get the number of stored entries.
+	 */
+	public int entries() {
+		return columns.length;
+	}
+
+	/**
+	 * Get the sum of every column.
+	 */
+	public double[] columnSums() {
+		double[] sums = new double[n];
+		for (int k = 0; k < columns.length; k++)
+			sums[columns[k]] += values == null ? 1 : values[k];
+		return sums;
+	}
+
+	/**
+	 * Get a copy of this matrix with every column divided by its sum, so the
+	 * columns that do not sum to 0 sum to 1 (a transition matrix). A column
+	 * that sums to 0 is all zeros in the copy, even if it has entries.
+	 */
+	public SparseMatrix normalizeColumns() {
+		double[] sums = columnSums();
+		double[] scaled = new double[columns.length];
+		for (int k = 0; k < columns.length; k++) {
+			double sum = sums[columns[k]];
+			scaled[k] = sum == 0 ? 0 : (values == null ? 1 : values[k]) / sum;
+		}
+		return new SparseMatrix(n, offsets, columns, scaled);
+	}
+
+	/**
+	 * Do one sweep {@code y[v] = update(v, sum of a[v][u] * x[u])} for all
+	 * vertices {@code v}, in parallel. {@code x} and {@code y} are the two
+	 * buffers of the iteration; the caller swaps them between sweeps.
+	 * @param x The old values; they are only read.
+	 * @param y The new values; they are only written.
+	 * @param update Gives the new value of a vertex. It is called from the
+	 *        threads of the pool, for every vertex once.
+	 * @param pool The pool to run in.
+	 * @return The L1 distance between {@code y} and {@code x}, for convergence checks.
+	 */
+	public double sweep(double[] x, double[] y, IVertexUpdate update, ForkJoinPool pool) {
+		if (x.length != n || y.length != n)
+			throw new IllegalArgumentException("Error: vectors must have " + n + " values.");
+		return pool.invoke(new Sweep(x, y, update, 0, n));
+	}
+
+	/**
+	 * Sweep the rows {@code lo..hi-1} and add up their changes.
+	 */
+	@SuppressWarnings("serial")
+	private class Sweep extends RecursiveTask<Double> {
+		private final double[] x, y;
+		private final IVertexUpdate update;
+		private final int lo, hi;
+
+		Sweep(double[] x, double[] y, IVertexUpdate update, int lo, int hi) {
+			this.x = x;
+			this.y = y;
+			this.update = update;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected Double compute() {
+			if (hi - lo > GRAIN) {
+				int mid = (lo + hi) >>> 1;
+				Sweep left = new Sweep(x, y, update, lo, mid);
+				left.fork();
+				double right = new Sweep(x, y, update, mid, hi).compute();
+				return left.join() + right;
+			}
+			double change = 0;
+			for (int v = lo; v < hi; v++) {
+				double sum = 0;
+				if (values == null)
+					for (int k = offsets[v], end = offsets[v + 1]; k < end; k++)
+						sum += x[columns[k]];
+				else
+					for (int k = offsets[v], end = offsets[v + 1]; k < end; k++)
+						sum += values[k] * x[columns[k]];
+				double value = update.apply(v, sum);
+				y[v] = value;
+				change += Math.abs(value - x[v]);
+			}
+			return change;
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package graph.algo;
+
+import java.util.Arrays;
+
+import graph.core.IEdge;
+import graph.core.IIntGraph;
+import graph.core.IVertex;
+
+/**
+ * Result of a depth first or breadth first search. The state of the search is
+ * kept in arrays indexed by the vertex numbers of the graph's {@link IIntGraph}
+ * view, so the graph itself is never changed.
+ */
+public class TraversalResult<V,E> {
+	// the graph that was searched
+	private final IIntGraph<V,E> graph;
+
+	// parent vertex and the edge leading to it (-1 for roots and unreached vertices)
+	final int[] parent;
+	final int[] parentEdge;
+
+	// number of edges from the root of the search tree (-1 if unreached)
+	final int[] distance;
+
+	// reached vertices in the order they were visited
+	final int[] order;
+	int count = 0;
+
+	TraversalResult(IIntGraph<V,E> graph) {
+		this.graph = graph;
+		int n = graph.numVertices();
+		parent = new int[n];
+		parentEdge = new int[n];
+		distance = new int[n];
+		order = new int[n];
+		Arrays.fill(parent, -1);
+		Arrays.fill(parentEdge, -1);
+		Arrays.fill(distance, -1);
+	}
+
+	/**
+	 * Get the numbered view of the graph that was searched. Its vertex and edge
+	 * numbers are the indices of the arrays in this result.
+	 */
+	public IIntGraph<V,E> graph() {
+		return graph;
+	}
+
+	/**
+	 * Get the parent of every vertex in the search tree, or -1 for roots and
+	 * vertices that were not reached.
+	 */
+	public int[] parent() {
+		return parent;
+	}
+
+	/**
+	 * Get the edge from every vertex to its parent (a discovery edge), or -1.
+	 */
+	public int[] parentEdge() {
+		return parentEdge;
+	}
+
+	/**
+	 * Get the number of edges between every vertex and the root of its search
+	 * tree, or -1 for vertices that were not reached.
+	 */
+	public int[] distance() {
+		return distance;
+	}
+
+	/**
+	 * Get the reached vertices in the order they were visited.
+	 */
+	public int[] order() {
+		return Arrays.copyOf(order, count);
+	}
+
+	/**
+	 * Get the number of vertices that were reached.
+	 */
+	public int visitedCount() {
+		return count;
+	}
+
+	/**
+	 * Check whether vertex {@code v} was reached.
+	 */
+	public boolean visited(IVertex<V> v) {
+		return distance[graph.vertexId(v)] >= 0;
+	}
+
+	/**
+	 * Get the number of edges between {@code v} and the root of its search tree.
+	 * @return The distance, or -1 if {@code v} was not reached.
+	 */
+	public int distance(IVertex<V> v) {
+		return distance[graph.vertexId(v)];
+	}
+
+	/**
+	 * Get the parent of {@code v} in the search tree.
+	 * @return The parent, or {@code null} for roots and unreached vertices.
+	 */
+	public IVertex<V> parent(IVertex<V> v) {
+		int p = parent[graph.vertexId(v)];
+		return p < 0 ? null : graph.vertex(p);
+	}
+
+	/**
+	 * Check whether {@code e} is a discovery edge, i.e. an edge of the search tree.
+	 */
+	public boolean isDiscoveryEdge(IEdge<E> e) {
+		int id = graph.edgeId(e);
+		return parentEdge[graph.edgeSource(id)] == id || parentEdge[graph.edgeTarget(id)] == id;
+	}
+}
@@ -0,0 +1,193 @@
+package graph.algo;
+
+import java.util.concurrent.ForkJoinPool;
+
+import graph.core.IGraph;
+import graph.core.IIntGraph;
+import graph.core.IVertex;
+import graph.impl.CsrGraph;
+
+/**
+ * Depth first and breadth first search that work on any {@link IGraph}.
+ *
+ * The searches use an explicit stack or queue instead of recursion, so deep
+ * graphs cannot overflow the call stack, and keep their state in a
+ * {@link TraversalResult} instead of labels stored in the vertices, so several
+ * searches can run on the same graph at the same time.
+ *
+ * Graphs that implement {@link IIntGraph} are searched directly; any other
+ * graph is first frozen into a {@link CsrGraph}.
+ */
+public class Traversals {
+
+	private Traversals() {
+	}
+
+	/**
+	 * Depth first search of the whole graph, starting a new search tree at every
+	 * vertex that is still unreached (in vertex order).
+	 * @param g The graph to search.
+	 * @return The search forest.
+	 */
+	public static <V,E> TraversalResult<V,E> dfs(IGraph<V,E> g) {
+		return dfs(CsrGraph.intView(g));
+	}
+
+	/**
+	 * Depth first search of the connected component of {@code s}.
+	 * @param g The graph to search.
+	 * @param s The vertex to start at.
+	 * @return The search tree.
+	 */
+	public static <V,E> TraversalResult<V,E> dfs(IGraph<V,E> g, IVertex<V> s) {
+		IIntGraph<V,E> ig = CsrGraph.intView(g);
+		return dfs(ig, ig.vertexId(s));
+	}
+
+	/**
+	 * Depth first search of the whole numbered graph.
+	 */
+	public static <V,E> TraversalResult<V,E> dfs(IIntGraph<V,E> g) {
+		TraversalResult<V,E> r = new TraversalResult<V,E>(g);
+		int[] stack = new int[g.numVertices()];
+		int[] next = new int[g.numVertices()];
+		for (int v = 0; v < g.numVertices(); v++)
+			if (r.distance[v] < 0)
+				dfs(g, v, r, stack, next);
+		return r;
+	}
+
+	/**
+	 * Depth first search of the numbered graph from vertex {@code s}.
+	 */
+	public static <V,E> TraversalResult<V,E> dfs(IIntGraph<V,E> g, int s) {
+		TraversalResult<V,E> r = new TraversalResult<V,E>(g);
+		dfs(g, s, r, new int[g.numVertices()], new int[g.numVertices()]);
+		return r;
+	}
+
+	/**
+	 * Depth first search from {@code s}. Every vertex is pushed once, when it is
+	 * visited, together with the index of the next incident edge to try.
+	 */
+	private static <V,E> void dfs(IIntGraph<V,E> g, int s, TraversalResult<V,E> r, int[] stack, int[] next) {
+		int top = 0;
+		r.distance[s] = 0;
+		r.order[r.count++] = s;
+		stack[0] = s;
+		next[0] = 0;
+		while (top >= 0) {
+			int v = stack[top];
+			int i = next[top];
+			if (i == g.degree(v)) {
+				// all edges of v have been explored, go back
+				top--;
+				continue;
+			}
+			next[top] = i + 1;
+			int w = g.neighbor(v, i);
+			if (r.distance[w] < 0) {
+				// discovery edge: visit w
+				r.parent[w] = v;
+				r.parentEdge[w] = g.incidentEdge(v, i);
+				r.distance[w] = r.distance[v] + 1;
+				r.order[r.count++] = w;
+				stack[++top] = w;
+				next[top] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Breadth first search of the whole graph, starting a new search tree at
+	 * every vertex that is still unreached (in vertex order).
+	 * @param g The graph to search.
+	 * @return The search forest.
+	 */
+	public static <V,E> TraversalResult<V,E> bfs(IGraph<V,E> g) {
+		return bfs(CsrGraph.intView(g));
+	}
+
+	/**
+	 * Breadth first search of the connected component of {@code s}.
+	 * @param g The graph to search.
+	 * @param s The vertex to start at.
+	 * @return The search tree; {@code distance} holds the number of edges on a
+	 *    shortest path from {@code s}.
+	 */
+	public static <V,E> TraversalResult<V,E> bfs(IGraph<V,E> g, IVertex<V> s) {
+		IIntGraph<V,E> ig = CsrGraph.intView(g);
+		return bfs(ig, ig.vertexId(s));
+	}
+
+	/**
+	 * Breadth first search of the whole numbered graph.
+	 */
+	public static <V,E> TraversalResult<V,E> bfs(IIntGraph<V,E> g) {
+		TraversalResult<V,E> r = new TraversalResult<V,E>(g);
+		for (int v = 0; v < g.numVertices(); v++)
+			if (r.distance[v] < 0)
+				bfs(g, v, r);
+		return r;
+	}
+
+	/**
+	 * Breadth first search of the numbered graph from vertex {@code s}.
+	 */
+	public static <V,E> TraversalResult<V,E> bfs(IIntGraph<V,E> g, int s) {
+		TraversalResult<V,E> r = new TraversalResult<V,E>(g);
+		bfs(g, s, r);
+		return r;
+	}
+
+	/**
+	 * Breadth first search from {@code s}. The visit order array doubles as the
+	 * queue: vertices are appended when discovered and taken from {@code head}.
+	 */
+	private static <V,E> void bfs(IIntGraph<V,E> g, int s, TraversalResult<V,E> r) {
+		int head = r.count;
+		r.distance[s] = 0;
+		r.order[r.count++] = s;
+		while (head < r.count) {
+			int v = r.order[head++];
+			for (int i = 0, d = g.degree(v); i < d; i++) {
+				int w = g.neighbor(v, i);
+				if (r.distance[w] < 0) {
+					r.parent[w] = v;
+					r.parentEdge[w] = g.incidentEdge(v, i);
+					r.distance[w] = r.distance[v] + 1;
+					r.order[r.count++] = w;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Parallel breadth first search of the connected component of {@code s},
+	 * using the common fork/join pool. See {@link #parallelBfs(IIntGraph, int, ForkJoinPool)}.
+	 * @param g The graph to search. It must not be changed during the search.
+	 * @param s The vertex to start at.
+	 * @return The search tree.
+	 */
+	public static <V,E> TraversalResult<V,E> parallelBfs(IGraph<V,E> g, IVertex<V> s) {
+		IIntGraph<V,E> ig = CsrGraph.intView(g);
+		return parallelBfs(ig, ig.vertexId(s), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Parallel breadth first search of the numbered graph from vertex {@code s}.
+	 * Each level is processed by the threads of {@code pool}, switching between
+	 * top-down and bottom-up steps depending on the size of the frontier.
+	 *
+	 * The distances are the same as those of {@link #bfs(IIntGraph, int)}, but
+	 * which of several possible parents a vertex gets, and the order of the
+	 * vertices within a level, depend on thread timing.
+	 * @param g The graph to search. It must not be changed during the search.
+	 * @param s The vertex to start at.
+	 * @param pool The pool to run the search in.
+	 * @return The search tree.
+	 */
+	public static <V,E> TraversalResult<V,E> parallelBfs(IIntGraph<V,E> g, int s, ForkJoinPool pool) {
+		return new ParallelBFS<V,E>(g).run(s, pool);
+	}
+}
@@ -0,0 +1,277 @@
+package graph.algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import graph.core.IEdge;
+import graph.core.IGraph;
+import graph.core.IIntGraph;
+import graph.core.IVertex;
+import graph.core.IWeightedGraph;
+import graph.impl.CsrGraph;
+
+/**
+ * Vertex orders that put neighbours close together, so that a traversal of
+ * the renumbered graph reads memory that is close together as well. An order
+ * is an array {@code order} in which {@code order[i]} is the vertex (by number
+ * in the graph's {@link IIntGraph} view) that gets the new number {@code i}.
+ * <ul>
+ * <li>{@code reverseCuthillMcKee} does a breadth first search from a vertex
+ *     far out in every component, visiting neighbours by increasing degree,
+ *     and reverses the result; it keeps the gaps between neighbour numbers
+ *     (the bandwidth of the adjacency matrix) small;</li>
+ * <li>{@code bfsOrder} numbers the vertices in breadth first order;</li>
+ * <li>{@code degreeDescending} puts the vertices with the most edges, which
+ *     most traversals touch most often, first.</li>
+ * </ul>
+ * A graph is renumbered with {@link #csr} (as a {@link CsrGraph}) or
+ * {@link #rebuild} (into any empty graph), and {@link #averageNeighborGap}
+ * measures the locality before and after.
+ */
+public class VertexOrdering {
+	// maximum number of searches for a start vertex far out in a component
+	static final int PERIPHERAL_SEARCHES = 4;
+
+	private VertexOrdering() {
+	}
+
+	/**
+	 * Get the reverse Cuthill-McKee order of {@code g}.
+	 */
+	public static int[] reverseCuthillMcKee(IIntGraph<?,?> g) {
+		int[] order = new Search(g).order(true);
+		for (int i = 0, j = order.length - 1; i < j; i++, j--) {
+			int t = order[i];
+			order[i] = order[j];
+			order[j] = t;
+		}
+		return order;
+	}
+
+	/**
+	 * Get the breadth first order of {@code g}, with a new search from the
+	 * smallest vertex of every component.
+	 */
+	public static int[] bfsOrder(IIntGraph<?,?> g) {
+		return new Search(g).order(false);
+	}
+
+	/**
+	 * Get the vertices of {@code g} by decreasing degree; vertices of the same
+	 * degree stay in the order of their numbers.
+	 */
+	public static int[] degreeDescending(IIntGraph<?,?> g) {
+		int n = g.numVertices();
+		int max = 0;
+		for (int v = 0; v < n; v++)
+			max = Math.max(max, g.degree(v));
+		// counting sort by max - degree
+		int[] first = new int[max + 2];
+		for (int v = 0; v < n; v++)
+			first[max - g.degree(v) + 1]++;
+		for (int d = 0; d <= max; d++)
+			first[d + 1] += first[d];
+		int[] order = new int[n];
+		for (int v = 0; v < n; v++)
+			order[first[max - g.degree(v)]++] = v;
+		return order;
+	}
+
+	/**
+	 * Get the new number of every vertex in {@code order}, by old number.
+	 */
+	public static int[] ranks(int[] order) {
+		int[] rank = new int[order.length];
+		for (int i = 0; i < order.length; i++)
+			rank[order[i]] = i;
+		return rank;
+	}
+
+	/**
+	 * Get the average difference between the numbers of the two end vertices
+	 * of an edge, over all the incidences of {@code g}.
+	 */
+	public static double averageNeighborGap(IIntGraph<?,?> g) {
+		return averageNeighborGap(g, null);
+	}
+
+	/**
+	 * Get the average difference between the numbers of the two end vertices
+	 * of an edge, over all the incidences of {@code g}, if {@code g} were
+	 * renumbered in {@code order}.
+	 * @param order The order, or null for the current numbers.
+	 */
+	public static double averageNeighborGap(IIntGraph<?,?> g, int[] order) {
+		int[] rank = order == null ? null : ranks(order);
+		long gaps = 0, count = 0;
+		for (int v = 0, n = g.numVertices(); v < n; v++)
+			for (int i = 0, d = g.degree(v); i < d; i++) {
+				int w = g.neighbor(v, i);
+				gaps += rank == null ? Math.abs(v - w) : Math.abs(rank[v] - rank[w]);
+				count++;
+			}
+		return count == 0 ? 0 : (double) gaps / count;
+	}
+
+	/**
+	 * Freeze {@code g} into a CSR graph numbered in {@code order}.
+	 * @param g The graph.
+	 * @param order An order of the vertex numbers of {@code CsrGraph.intView(g)}.
+	 * @return The renumbered CSR graph.
+	 */
+	public static <V,E> CsrGraph<V,E> csr(IGraph<V,E> g, int[] order) {
+		CsrGraph<V,E> csr = g instanceof CsrGraph ? (CsrGraph<V,E>) g : new CsrGraph<V,E>(g);
+		return csr.reorder(order);
+	}
+
+	/**
+	 * Copy {@code g} into the empty graph {@code target}, inserting the
+	 * vertices in {@code order} and the edges in the order of their earlier
+	 * end vertex, so the vertex and edge lists of {@code target} are in the new
+	 * order. If both graphs are weighted, the weights are copied as well.
+	 * @param g The graph.
+	 * @param order An order of the vertex numbers of {@code CsrGraph.intView(g)}.
+	 * @param target The graph to insert into.
+	 * @return {@code target}.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V,E,G extends IGraph<V,E>> G rebuild(IGraph<V,E> g, int[] order, G target) {
+		IIntGraph<V,E> ig = CsrGraph.intView(g);
+		int n = ig.numVertices();
+		if (order.length != n)
+			throw new IllegalArgumentException("Error: order must have " + n + " vertices.");
+		int[] rank = ranks(order);
+		ArrayList<IVertex<V>> copies = new ArrayList<IVertex<V>>(n);
+		for (int i = 0; i < n; i++)
+			copies.add(target.insertVertex(ig.vertex(order[i]).element()));
+
+		boolean weighted = g instanceof IWeightedGraph && target instanceof IWeightedGraph;
+		for (int i = 0; i < n; i++) {
+			int v = order[i];
+			for (int k = 0, d = ig.degree(v); k < d; k++) {
+				int w = ig.neighbor(v, k);
+				// every edge once, from its earlier end vertex (a self loop
+				// is in the list twice, so once from each incidence of the pair)
+				if (rank[w] < i || w == v && k + 1 < d && ig.incidentEdge(v, k + 1) == ig.incidentEdge(v, k))
+					continue;
+				IEdge<E> e = ig.edge(ig.incidentEdge(v, k));
+				if (weighted)
+					((IWeightedGraph<V,E>) target).insertEdge(copies.get(i), copies.get(rank[w]), e.element(),
+							((IWeightedGraph<V,E>) g).weight(e));
+				else
+					target.insertEdge(copies.get(i), copies.get(rank[w]), e.element());
+			}
+		}
+		return target;
+	}
+
+	/**
+	 * Breadth first searches over a whole graph, with marks that are reset by
+	 * bumping a stamp.
+	 */
+	private static class Search {
+		private final IIntGraph<?,?> g;
+		private final int n;
+
+		// vertex v was reached by the search with stamp seen[v]
+		private final int[] seen;
+		private int stamp = 0;
+
+		private final int[] queue;
+
+		// (degree, vertex) pairs to sort the neighbours of a vertex
+		private long[] pairs = new long[16];
+
+		Search(IIntGraph<?,?> g) {
+			this.g = g;
+			n = g.numVertices();
+			seen = new int[n];
+			queue = new int[n];
+		}
+
+		/**
+		 * Search every component in turn.
+		 * @param cuthillMcKee Start far out and visit neighbours by increasing degree.
+		 */
+		int[] order(boolean cuthillMcKee) {
+			int[] order = new int[n];
+			boolean[] visited = new boolean[n];
+			int count = 0;
+			for (int s = 0; s < n; s++) {
+				if (visited[s])
+					continue;
+				int head = count;
+				int root = cuthillMcKee ? peripheral(s) : s;
+				visited[root] = true;
+				order[count++] = root;
+				while (head < count) {
+					int v = order[head++];
+					int from = count;
+					for (int i = 0, d = g.degree(v); i < d; i++) {
+						int w = g.neighbor(v, i);
+						if (!visited[w]) {
+							visited[w] = true;
+							order[count++] = w;
+						}
+					}
+					if (cuthillMcKee)
+						sortByDegree(order, from, count);
+				}
+			}
+			return order;
+		}
+
+		/**
+		 * Find a vertex far out in the component of {@code s}: search from the
+		 * vertex of smallest degree in the last level of the previous search,
+		 * while that makes the search deeper (George and Liu).
+		 */
+		private int peripheral(int s) {
+			int v = s;
+			int depth = -1;
+			for (int k = 0; k < PERIPHERAL_SEARCHES; k++) {
+				// breadth first search from v, level by level
+				seen[v] = ++stamp;
+				queue[0] = v;
+				int head = 0, tail = 1, levels = 0, last = 0;
+				while (head < tail) {
+					last = head;
+					levels++;
+					for (int end = tail; head < end; head++) {
+						int x = queue[head];
+						for (int i = 0, d = g.degree(x); i < d; i++) {
+							int w = g.neighbor(x, i);
+							if (seen[w] != stamp) {
+								seen[w] = stamp;
+								queue[tail++] = w;
+							}
+						}
+					}
+				}
+				if (levels <= depth)
+					break;
+				depth = levels;
+				int next = queue[last];
+				for (int i = last + 1; i < tail; i++)
+					if (g.degree(queue[i]) < g.degree(next))
+						next = queue[i];
+				if (next == v)
+					break;
+				v = next;
+			}
+			return v;
+		}
+
+		private void sortByDegree(int[] order, int from, int to) {
+			if (to - from < 2)
+				return;
+			if (to - from > pairs.length)
+				pairs = new long[to - from];
+			for (int i = from; i < to; i++)
+				pairs[i - from] = ((long) g.degree(order[i]) << 32) | order[i];
+			Arrays.sort(pairs, 0, to - from);
+			for (int i = from; i < to; i++)
+				order[i] = (int) pairs[i - from];
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package graph.core;
+
+import java.util.Collection;
+
+/**
+ * A graph that can insert many vertices or edges in one call. The work that
+ * {@link IGraph#insertVertex(Object)} and {@link IGraph#insertEdge(IVertex, IVertex, Object)}
+ * repeat for every element (growing storage, numbering vertices) is done once per batch.
+ */
+public interface IBulkGraph<V,E> extends IGraph<V,E> {
+	/**
+	 * Insert a new vertex for every element of {@code elements}.
+	 * @param elements The elements to be stored in the new vertices.
+	 * @return The vertices that were created, in the order of {@code elements}.
+	 */
+	public IVertex<V>[] insertVertices(Collection<? extends V> elements);
+
+	/**
+	 * Insert an edge from vertex {@code src[i]} to vertex {@code dst[i]} with
+	 * element {@code elements[i]} for every {@code i}. Vertices are given by their
+	 * numbers in the graph's {@link IIntGraph} view, as they are before this call.
+	 * The new edges get the edge numbers following the existing ones, in order.
+	 * @param src The first vertex of every edge.
+	 * @param dst The second vertex of every edge.
+	 * @param elements The element of every edge, or {@code null} for no elements.
+	 */
+	public void insertEdges(int[] src, int[] dst, E[] elements);
+}
@@ -0,0 +1,41 @@
+package graph.core;
+
+/**
+ * Reusable cursor over the edges incident on a vertex. Unlike
+ * {@link IGraph#incidentEdges(IVertex)} it does not create any objects while it
+ * is used, so one cursor can serve a whole traversal:
+ * <pre>
+ * IEdgeCursor&lt;V,E&gt; c = g.newEdgeCursor();
+ * c.reset(v);
+ * while (c.advance()) {
+ *    IVertex&lt;V&gt; w = c.opposite();
+ *    ...
+ * }
+ * </pre>
+ * The graph must not be changed while a cursor is in use.
+ */
+public interface IEdgeCursor<V,E> {
+	/**
+	 * Position the cursor before the first edge incident on {@code v}.
+	 * @param v The vertex whose edges should be visited.
+	 */
+	public void reset(IVertex<V> v);
+
+	/**
+	 * Move to the next incident edge.
+	 * @return {@code true} if there is one, {@code false} if all edges have been visited.
+	 */
+	public boolean advance();
+
+	/**
+	 * Get the current edge.
+	 * @return The edge the cursor is on.
+	 */
+	public IEdge<E> edge();
+
+	/**
+	 * Get the vertex at the other end of the current edge.
+	 * @return The vertex opposite the vertex given to {@link #reset(IVertex)}.
+	 */
+	public IVertex<V> opposite();
+}
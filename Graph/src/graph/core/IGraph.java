@@ -92,4 +92,25 @@ public interface IGraph<V,E> {
      * @return An iterator that can iterate over all the edges in the graph.
      */
     public IIterator<IEdge<E>> edges();
+    
+    /**
+     * Create a cursor that can visit the edges incident on any vertex without
+     * creating objects. See {@link IEdgeCursor}. The default cursor walks
+     * {@link #incidentEdges(IVertex)}; the implementations override it with
+     * one that does not create objects.
+     * @return A new cursor; call {@code reset} before using it.
+     */
+    public default IEdgeCursor<V,E> newEdgeCursor() {
+        return new IteratorEdgeCursor<V,E>(this);
+    }
+    
+    /**
+     * Create a cursor that can visit all the vertices without creating objects.
+     * See {@link IVertexCursor}. The default cursor walks {@link #vertices()};
+     * the implementations override it with one that does not create objects.
+     * @return A new cursor, positioned before the first vertex.
+     */
+    public default IVertexCursor<V> newVertexCursor() {
+        return new IteratorVertexCursor<V>(this);
+    }
 }
\ No newline at end of file
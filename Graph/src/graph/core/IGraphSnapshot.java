@@ -0,0 +1,25 @@
+package graph.core;
+
+/**
+ * Read-only view of an {@link IVersionedGraph} at one version. The methods
+ * that change the graph throw {@link UnsupportedOperationException}.
+ *
+ * Vertices and edges are the same objects as in the graph, or handles that
+ * are equal to them and show the elements of the snapshot's version, so they
+ * can be passed between the graph and its snapshots. A snapshot must not be
+ * used after it is closed.
+ */
+public interface IGraphSnapshot<V,E> extends IGraph<V,E>, AutoCloseable {
+	/**
+	 * Get the version this snapshot shows.
+	 * @return The version of the graph when the snapshot was taken.
+	 */
+	public long version();
+
+	/**
+	 * Release the snapshot, so the graph can drop the vertices and edges that
+	 * were removed since this version.
+	 */
+	@Override
+	public void close();
+}
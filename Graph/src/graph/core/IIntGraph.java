@@ -0,0 +1,108 @@
+package graph.core;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Primitive view of a graph. Vertices are numbered 0..{@code numVertices()-1}
+ * and edges 0..{@code numEdges()-1}, so algorithms can keep their state in
+ * plain arrays and walk the graph without creating any objects.
+ *
+ * In a graph that can be changed the numbers are only valid until the next
+ * insert or remove; use {@link #vertexId(IVertex)} and {@link #vertex(int)}
+ * to move between numbers and vertices.
+ */
+public interface IIntGraph<V,E> {
+	/**
+	 * Get the number of vertices in the graph.
+	 * @return The number of vertices.
+	 */
+	public int numVertices();
+
+	/**
+	 * Get the number of edges in the graph.
+	 * @return The number of edges.
+	 */
+	public int numEdges();
+
+	/**
+	 * Find the number of vertex {@code v}.
+	 * @param v A vertex of this graph.
+	 * @return The number of {@code v}.
+	 */
+	public int vertexId(IVertex<V> v);
+
+	/**
+	 * Find the number of edge {@code e}.
+	 * @param e An edge of this graph.
+	 * @return The number of {@code e}.
+	 */
+	public int edgeId(IEdge<E> e);
+
+	/**
+	 * Find the vertex with number {@code v}.
+	 * @param v A vertex number.
+	 * @return The vertex.
+	 */
+	public IVertex<V> vertex(int v);
+
+	/**
+	 * Find the edge with number {@code e}.
+	 * @param e An edge number.
+	 * @return The edge.
+	 */
+	public IEdge<E> edge(int e);
+
+	/**
+	 * Get the number of edges incident on vertex {@code v}. A self loop is counted twice.
+	 * @param v A vertex number.
+	 * @return The degree of {@code v}.
+	 */
+	public int degree(int v);
+
+	/**
+	 * Get the vertex at the other end of the {@code i}-th edge incident on {@code v}.
+	 * @param v A vertex number.
+	 * @param i An index between 0 and {@code degree(v)-1}.
+	 * @return The number of the neighbor.
+	 */
+	public int neighbor(int v, int i);
+
+	/**
+	 * Get the {@code i}-th edge incident on {@code v}. This is the edge that
+	 * leads to {@code neighbor(v, i)}.
+	 * @param v A vertex number.
+	 * @param i An index between 0 and {@code degree(v)-1}.
+	 * @return The number of the edge.
+	 */
+	public int incidentEdge(int v, int i);
+
+	/**
+	 * Get the first end vertex of edge {@code e}.
+	 * @param e An edge number.
+	 * @return The number of the vertex the edge was inserted from.
+	 */
+	public int edgeSource(int e);
+
+	/**
+	 * Get the second end vertex of edge {@code e}.
+	 * @param e An edge number.
+	 * @return The number of the vertex the edge was inserted to.
+	 */
+	public int edgeTarget(int e);
+
+	/**
+	 * Find the vertex that is opposite {@code v} along edge {@code e}.
+	 * @param v A vertex number.
+	 * @param e The number of an edge incident on {@code v}.
+	 * @return The number of the opposite vertex.
+	 */
+	public int opposite(int v, int e);
+
+	/**
+	 * Call {@code action} with the number of every neighbor of {@code v}, once
+	 * for each incident edge.
+	 * @param v A vertex number.
+	 * @param action The action to perform.
+	 */
+	public void forEachNeighbor(int v, IntConsumer action);
+}
@@ -0,0 +1,21 @@
+package graph.core;
+
+/**
+ * A graph that keeps a version number and can hand out snapshots: read-only
+ * views of the graph as it was at one version. Taking a snapshot does not copy
+ * the graph, and the graph can keep changing while snapshots are read.
+ */
+public interface IVersionedGraph<V,E> extends IGraph<V,E> {
+	/**
+	 * Get the current version of the graph. Every insert and remove makes a new version.
+	 * @return The current version.
+	 */
+	public long version();
+
+	/**
+	 * Take a snapshot of the current version. It keeps the vertices and edges it
+	 * can see from being freed, so it should be closed when it is not needed any more.
+	 * @return A read-only view of the graph at the current version.
+	 */
+	public IGraphSnapshot<V,E> snapshot();
+}
@@ -0,0 +1,25 @@
+package graph.core;
+
+/**
+ * Reusable cursor over all the vertices of a graph. Like {@link IEdgeCursor}
+ * it does not create any objects while it is used.
+ * The graph must not be changed while a cursor is in use.
+ */
+public interface IVertexCursor<V> {
+	/**
+	 * Position the cursor before the first vertex.
+	 */
+	public void reset();
+
+	/**
+	 * Move to the next vertex.
+	 * @return {@code true} if there is one, {@code false} if all vertices have been visited.
+	 */
+	public boolean advance();
+
+	/**
+	 * Get the current vertex.
+	 * @return The vertex the cursor is on.
+	 */
+	public IVertex<V> vertex();
+}
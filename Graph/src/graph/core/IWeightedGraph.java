@@ -0,0 +1,38 @@
+package graph.core;
+
+/**
+ * A graph whose edges carry a weight stored as a primitive {@code double},
+ * next to the edge element. Weighted algorithms can read the weights without
+ * unboxing an element for every edge.
+ *
+ * An edge inserted with {@link IGraph#insertEdge(IVertex, IVertex, Object)}
+ * gets the value of its element as weight if the element is a {@link Number},
+ * and weight 1 otherwise; replacing the element with a number sets the weight
+ * to it as well.
+ */
+public interface IWeightedGraph<V,E> extends IGraph<V,E> {
+	/**
+	 * Get the weight of an edge.
+	 * @param e An edge.
+	 * @return The weight of {@code e}.
+	 */
+	public double weight(IEdge<E> e);
+
+	/**
+	 * Change the weight of an edge. The element of the edge is not changed.
+	 * @param e The edge whose weight should be changed.
+	 * @param weight The new weight.
+	 * @return The old weight of {@code e}.
+	 */
+	public double setWeight(IEdge<E> e, double weight);
+
+	/**
+	 * Insert a new edge with element {@code o} and the given weight.
+	 * @param v The first vertex to connect.
+	 * @param w The second vertex to connect.
+	 * @param o The element to store in this edge.
+	 * @param weight The weight of the edge.
+	 * @return The new edge that is created.
+	 */
+	public IEdge<E> insertEdge(IVertex<V> v, IVertex<V> w, E o, double weight);
+}
@@ -0,0 +1,42 @@
+package graph.core;
+
+/**
+ * Edge cursor for graphs that have no cursor of their own: it walks the
+ * iterator of {@link IGraph#incidentEdges(IVertex)}, so unlike the cursors of
+ * the implementations it creates that iterator on every {@code reset}.
+ */
+class IteratorEdgeCursor<V,E> implements IEdgeCursor<V,E> {
+	private final IGraph<V,E> g;
+	private IVertex<V> vertex;
+	private IIterator<IEdge<E>> it;
+	private IEdge<E> edge;
+
+	IteratorEdgeCursor(IGraph<V,E> g) {
+		this.g = g;
+	}
+
+	@Override
+	public void reset(IVertex<V> v) {
+		vertex = v;
+		it = g.incidentEdges(v);
+		edge = null;
+	}
+
+	@Override
+	public boolean advance() {
+		if (it == null || !it.hasNext())
+			return false;
+		edge = it.next();
+		return true;
+	}
+
+	@Override
+	public IEdge<E> edge() {
+		return edge;
+	}
+
+	@Override
+	public IVertex<V> opposite() {
+		return g.opposite(vertex, edge);
+	}
+}
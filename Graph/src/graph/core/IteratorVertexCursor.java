@@ -0,0 +1,35 @@
+package graph.core;
+
+/**
+ * Vertex cursor for graphs that have no cursor of their own: it walks the
+ * iterator of {@link IGraph#vertices()}, which it creates on every {@code reset}.
+ */
+class IteratorVertexCursor<V> implements IVertexCursor<V> {
+	private final IGraph<V,?> g;
+	private IIterator<IVertex<V>> it;
+	private IVertex<V> vertex;
+
+	IteratorVertexCursor(IGraph<V,?> g) {
+		this.g = g;
+		reset();
+	}
+
+	@Override
+	public void reset() {
+		it = g.vertices();
+		vertex = null;
+	}
+
+	@Override
+	public boolean advance() {
+		if (!it.hasNext())
+			return false;
+		vertex = it.next();
+		return true;
+	}
+
+	@Override
+	public IVertex<V> vertex() {
+		return vertex;
+	}
+}
@@ -1,16 +1,33 @@
 package graph.impl;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.IntConsumer;
+
 import graph.core.BFSLabel;
 import graph.core.DFSLabel;
+import graph.core.IBulkGraph;
 import graph.core.IEdge;
+import graph.core.IEdgeCursor;
 import graph.core.IGraph;
+import graph.core.IIntGraph;
 import graph.core.IIterator;
 import graph.core.IList;
 import graph.core.INode;
 import graph.core.IVertex;
+import graph.core.IVertexCursor;
+import graph.core.IWeightedGraph;
+import graph.io.GraphFile;
+import graph.io.IElementCodec;
 import graph.util.DLinkedList;
+import graph.util.GraphMetrics;
+import graph.util.IntCountMap;
+import graph.util.ListVertexCursor;
+import graph.util.WeightColumn;
 
-public class AdjacencyListGraph<V,E> implements IGraph<V,E> {
+public class AdjacencyListGraph<V,E> implements IBulkGraph<V,E>, IIntGraph<V,E>, IWeightedGraph<V,E> {
 	/**
 	 * Inner class to represent a vertex in an adjacency list graph implementation
 	 */
@@ -21,17 +38,31 @@ public class AdjacencyListGraph<V,E> implements IGraph<V,E> {
 		// label for breath first search
 		BFSLabel bfsLabel;
 		
+		// epochs in which the labels were set (see dfsEpoch and bfsEpoch)
+		int dfsStamp, bfsStamp;
+		
 		// reference to a node in the vertex list
 		INode<IVertex<V>> node;
 		
 		// element stored in this vertex
 		V element;
 		
+		// number of this vertex in the int view
+		int id;
+		
 		// incident edges list
 		IList<IEdge<E>> incidentEdges;
 		
+		// key of this vertex in the neighbor indexes (never changes)
+		final int key;
+		
+		// keys of the neighbors, with one count per incident edge
+		// (only built once the degree passes NEIGHBOR_INDEX_DEGREE)
+		IntCountMap neighbors;
+		
 		public AdjacencyListVertex(V element) {
 			this.element = element;
+			key = nextKey++;
 			// create new (empty) list of incident edges
 			incidentEdges = new DLinkedList<IEdge<E>>();
 		}
@@ -61,12 +92,21 @@ public class AdjacencyListGraph<V,E> implements IGraph<V,E> {
 		// label for breath first search
 		BFSLabel bfsLabel;
 		
+		// epochs in which the labels were set (see dfsEpoch and bfsEpoch)
+		int dfsStamp, bfsStamp;
+		
 		// reference to a node in the edge list and adjacencyList
 		INode<IEdge<E>> node, startIE, endIE;
 
 		// element stored in this edge
 		E element;
 		
+		// number of this edge in the int view
+		int id;
+		
+		// slot of this edge's weight in the weight column
+		int slot;
+		
 		// the start and end vertices that this edge connects
 		AdjacencyListVertex start, end;
 		
@@ -87,11 +127,33 @@ public class AdjacencyListGraph<V,E> implements IGraph<V,E> {
 		}
 	}
 	
+	// degree above which a vertex gets a neighbor index, so that
+	// areAdjacent does not have to walk its incident edges list
+	static final int NEIGHBOR_INDEX_DEGREE = 32;
+
 	// vertex list
 	private IList<IVertex<V>> vertices;
 
 	// edge list
 	private IList<IEdge<E>> edges;
+
+	// weights of the edges
+	private final WeightColumn weights = new WeightColumn();
+
+	// int view of this graph (rebuilt after the graph changes)
+	private CsrGraph<V,E> index;
+	private IVertex<V>[] vertexById;
+	private IEdge<E>[] edgeById;
+
+	// current DFS and BFS epochs; a label only counts if it was set in the
+	// current epoch, so a new epoch makes all labels UNEXPLORED at once
+	private int dfsEpoch = 1, bfsEpoch = 1;
+
+	// counters for searches and adjacency tests, or null when not measured
+	private GraphMetrics metrics;
+
+	// key for the next vertex
+	private int nextKey = 0;
 	
 	/**
 	 * Constructor
@@ -122,14 +184,15 @@ public class AdjacencyListGraph<V,E> implements IGraph<V,E> {
 
 	@Override
 	public IVertex<V> opposite(IVertex<V> v, IEdge<E> e) {
-		// find end points of Edge e
-		IVertex<V>[] endpoints = endVertices(e);
+		// need to cast Edge type to AdjacencyListEdge
+		AdjacencyListEdge edge = (AdjacencyListEdge) e;
 
 		// return the end point that is not v
-		if (endpoints[0].equals(v)) {
-			return endpoints[1];
-		} else if (endpoints[1].equals(v)) {
-			return endpoints[0];
+		// (read the fields directly rather than building the endVertices array)
+		if (edge.start.equals(v)) {
+			return edge.end;
+		} else if (edge.end.equals(v)) {
+			return edge.start;
 		}
 
 		// Problem! e is not connected to v.
@@ -142,28 +205,35 @@ public class AdjacencyListGraph<V,E> implements IGraph<V,E> {
 		AdjacencyListVertex vertexV = (AdjacencyListVertex) v;
 		AdjacencyListVertex vertexW = (AdjacencyListVertex) w;
 		
-		// choose smaller one and iterate through all the edges in the incident sequence
-		IIterator<IEdge<E>> it;
-		if(vertexV.incidentEdges.size() <= vertexW.incidentEdges.size()) {
-			it = vertexV.incidentEdges.iterator();
-		} else {
-			it = vertexW.incidentEdges.iterator();
+		// choose smaller one
+		AdjacencyListVertex smaller = vertexV, other = vertexW;
+		if(vertexV.incidentEdges.size() > vertexW.incidentEdges.size()) {
+			smaller = vertexW;
+			other = vertexV;
+		}
+
+		// a vertex with a high degree has a neighbor index
+		if (smaller.neighbors != null) {
+			if (metrics != null)
+				metrics.adjacency(0);
+			return smaller.neighbors.contains(other.key);
 		}
 		
-		while (it.hasNext()) {
+		// otherwise iterate through all the edges in the incident sequence
+		IIterator<IEdge<E>> it = smaller.incidentEdges.iterator();
+		int walked = 0;
+		boolean found = false;
+		while (!found && it.hasNext()) {
 			// must cast Object type to EdgeListEdge type
 			AdjacencyListEdge edge = (AdjacencyListEdge) it.next();
+			walked++;
 
-			// edge connects v -> w (so they are adjacent)
-			if ((edge.start.equals(v)) && (edge.end.equals(w)))
-				return true;
-
-			// edge connects w -> v (so they are adjacent)
-			if ((edge.end.equals(v)) && (edge.start.equals(w)))
-				return true;
+			// edge connects v -> w or w -> v (so they are adjacent)
+			found = (edge.start.equals(v) && edge.end.equals(w)) || (edge.end.equals(v) && edge.start.equals(w));
 		}
-		// no edge was found that connects v to w.
-		return false;
+		if (metrics != null)
+			metrics.adjacency(walked);
+		return found;
 	}
 
 	@Override
@@ -184,11 +254,27 @@ public class AdjacencyListGraph<V,E> implements IGraph<V,E> {
 		AdjacencyListEdge edge = (AdjacencyListEdge) e;
 		E temp = edge.element;
 		edge.element = o;
+		if (o instanceof Number)
+			weights.set(edge.slot, ((Number) o).doubleValue());
 		return temp;
 	}
 
+	@Override
+	public double weight(IEdge<E> e) {
+		return weights.get(((AdjacencyListEdge) e).slot);
+	}
+
+	@Override
+	public double setWeight(IEdge<E> e, double weight) {
+		return weights.set(((AdjacencyListEdge) e).slot, weight);
+	}
+
 	@Override
 	public IVertex<V> insertVertex(V o) {
+		// the int view is out of date
+		index = null;
+		vertexById = null;
+
 		// create new vertex
 		AdjacencyListVertex vertex = new AdjacencyListVertex(o);
 
@@ -209,21 +295,39 @@ public class AdjacencyListGraph<V,E> implements IGraph<V,E> {
 
 	@Override
 	public IEdge<E> insertEdge(IVertex<V> v, IVertex<V> w, E o) {
+		return insertEdge(v, w, o, WeightColumn.weightOf(o));
+	}
+
+	@Override
+	public IEdge<E> insertEdge(IVertex<V> v, IVertex<V> w, E o, double weight) {
+		// the int view is out of date
+		index = null;
+		vertexById = null;
+
 		// need to cast Vertex type to AdjacencyListVertex
-		AdjacencyListVertex vertexV = (AdjacencyListVertex) v;
-		AdjacencyListVertex vertexW = (AdjacencyListVertex) w;
-		
+		return link((AdjacencyListVertex) v, (AdjacencyListVertex) w, o, weight);
+	}
+
+	/**
+	 * Create an edge between {@code vertexV} and {@code vertexW} and add it to
+	 * the lists, leaving the int view to the caller.
+	 */
+	private AdjacencyListEdge link(AdjacencyListVertex vertexV, AdjacencyListVertex vertexW, E o, double weight) {
 		// create new edge object
 		AdjacencyListEdge edge = new AdjacencyListEdge(vertexV, vertexW, o);
+		edge.slot = weights.allocate(weight);
 
 		// insert into the edge list and store the reference to the node
 		// in the edge object
 		INode<IEdge<E>> n = edges.insertLast(edge);
 		edge.node = n;
 		
-		// insert into the incident edges list
+		// insert into the incident edges list, keeping the neighbor
+		// indexes up to date (one incidence at a time, for self loops)
 		INode<IEdge<E>> startIE = vertexV.incidentEdges.insertLast(edge);
+		addNeighbor(vertexV, vertexW);
 		INode<IEdge<E>> endIE = vertexW.incidentEdges.insertLast(edge);
+		addNeighbor(vertexW, vertexV);
 		
 		// reference to adjacency list in vertex
 		edge.startIE = startIE;
@@ -233,13 +337,50 @@ public class AdjacencyListGraph<V,E> implements IGraph<V,E> {
 		return edge;
 	}
 
+	@SuppressWarnings("unchecked")
+	@Override
+	public IVertex<V>[] insertVertices(Collection<? extends V> elements) {
+		IVertex<V>[] created = new IVertex[elements.size()];
+		int i = 0;
+		for (V o : elements)
+			created[i++] = insertVertex(o);
+		return created;
+	}
+
+	@Override
+	public void insertEdges(int[] src, int[] dst, E[] elements) {
+		// look up all the end points before the first insert, and check them all
+		number();
+		BulkEdges.check(src, dst, elements, vertexById.length);
+		weights.ensureCapacity(src.length);
+
+		// the vertex numbers stay the same and the new edges are numbered after
+		// the old ones, so the numbering is extended instead of being redone
+		int m = edgeById.length;
+		IEdge<E>[] byId = Arrays.copyOf(edgeById, m + src.length);
+		for (int i = 0; i < src.length; i++) {
+			E o = elements == null ? null : elements[i];
+			AdjacencyListEdge edge = link((AdjacencyListVertex) vertexById[src[i]],
+					(AdjacencyListVertex) vertexById[dst[i]], o, WeightColumn.weightOf(o));
+			edge.id = m + i;
+			byId[m + i] = edge;
+		}
+		edgeById = byId;
+		index = null;
+	}
+
 	@Override
 	public V removeVertex(IVertex<V> v) {
+		// the int view is out of date
+		index = null;
+		vertexById = null;
+
 		// get incident edges and remove those
 		IList<IEdge<E>> incidentEdges = ((AdjacencyListVertex)v).incidentEdges;
 
+		// (removeEdge takes each edge off this list)
 		while(!incidentEdges.isEmpty()) {
-			removeEdge(incidentEdges.remove(incidentEdges.first()));
+			removeEdge(incidentEdges.first().element());
 		}
 		
 		// now we can remove the vertex from the vertex list
@@ -252,17 +393,109 @@ public class AdjacencyListGraph<V,E> implements IGraph<V,E> {
 
 	@Override
 	public E removeEdge(IEdge<E> e) {
+		// the int view is out of date
+		index = null;
+		vertexById = null;
+
 		// remove edge from edge list and return its element
 		AdjacencyListEdge edge = (AdjacencyListEdge) e;
 		edges.remove(edge.node);
+		weights.release(edge.slot);
+		
+		// and from the incident edges lists of both end vertices
+		edge.start.incidentEdges.remove(edge.startIE);
+		edge.end.incidentEdges.remove(edge.endIE);
+		removeNeighbor(edge.start, edge.end);
+		removeNeighbor(edge.end, edge.start);
 		return edge.element;
 	}
 
+	/**
+	 * Record that {@code w} is a neighbor of {@code v} once more, building the
+	 * neighbor index of {@code v} when its degree passes the threshold.
+	 */
+	private void addNeighbor(AdjacencyListVertex v, AdjacencyListVertex w) {
+		if (v.neighbors != null) {
+			v.neighbors.increment(w.key);
+		} else if (v.incidentEdges.size() > NEIGHBOR_INDEX_DEGREE) {
+			// the new incidence is already in the list, so this counts it too
+			v.neighbors = new IntCountMap(v.incidentEdges.size());
+			for (IIterator<IEdge<E>> it = v.incidentEdges.iterator(); it.hasNext();) {
+				AdjacencyListEdge edge = (AdjacencyListEdge) it.next();
+				v.neighbors.increment((edge.start == v ? edge.end : edge.start).key);
+			}
+		}
+	}
+
+	/**
+	 * Record that one edge between {@code v} and {@code w} is gone, dropping
+	 * the neighbor index of {@code v} when its degree falls well below the threshold.
+	 */
+	private void removeNeighbor(AdjacencyListVertex v, AdjacencyListVertex w) {
+		if (v.neighbors == null)
+			return;
+		if (v.incidentEdges.size() < NEIGHBOR_INDEX_DEGREE / 2)
+			v.neighbors = null;
+		else
+			v.neighbors.decrement(w.key);
+	}
+
 	@Override
 	public IIterator<IEdge<E>> incidentEdges(IVertex<V> v) {
 		return ((AdjacencyListVertex)v).incidentEdges.iterator();
 	}
 
+	/**
+	 * Edge cursor that walks the nodes of a vertex's incident edges list.
+	 */
+	private class AdjacencyListEdgeCursor implements IEdgeCursor<V,E> {
+		// the vertex whose edges are visited
+		AdjacencyListVertex vertex;
+		
+		// current node in its incident edges list
+		INode<IEdge<E>> node;
+		boolean started;
+
+		@Override
+		public void reset(IVertex<V> v) {
+			vertex = (AdjacencyListVertex) v;
+			node = null;
+			started = false;
+		}
+
+		@Override
+		public boolean advance() {
+			if (!started) {
+				node = vertex.incidentEdges.first();
+				started = true;
+			} else if (node != null) {
+				node = vertex.incidentEdges.next(node);
+			}
+			return node != null;
+		}
+
+		@Override
+		public IEdge<E> edge() {
+			return node.element();
+		}
+
+		@Override
+		public IVertex<V> opposite() {
+			AdjacencyListEdge edge = (AdjacencyListEdge) node.element();
+			return edge.start == vertex ? edge.end : edge.start;
+		}
+	}
+
+	@Override
+	public IEdgeCursor<V,E> newEdgeCursor() {
+		return new AdjacencyListEdgeCursor();
+	}
+
+	@Override
+	public IVertexCursor<V> newVertexCursor() {
+		return new ListVertexCursor<V>(vertices);
+	}
+
 	@Override
 	public IIterator<IVertex<V>> vertices() {
 		return vertices.iterator();
@@ -272,24 +505,206 @@ public class AdjacencyListGraph<V,E> implements IGraph<V,E> {
 	public IIterator<IEdge<E>> edges() {
 		return edges.iterator();
 	}
+
+	/**
+	 * Number the vertices and edges in list order, if the graph changed
+	 * since they were last numbered.
+	 */
+	@SuppressWarnings("unchecked")
+	private void number() {
+		if (vertexById == null) {
+			IVertex<V>[] byId = new IVertex[vertices.size()];
+			int i = 0;
+			for (IIterator<IVertex<V>> it = vertices.iterator(); it.hasNext(); i++) {
+				AdjacencyListVertex vertex = (AdjacencyListVertex) it.next();
+				vertex.id = i;
+				byId[i] = vertex;
+			}
+
+			edgeById = new IEdge[edges.size()];
+			i = 0;
+			for (IIterator<IEdge<E>> it = edges.iterator(); it.hasNext(); i++) {
+				AdjacencyListEdge edge = (AdjacencyListEdge) it.next();
+				edge.id = i;
+				edgeById[i] = edge;
+			}
+			vertexById = byId;
+		}
+	}
+
+	/**
+	 * Get the int view of the graph, rebuilding it if the graph changed
+	 * since it was last built.
+	 */
+	private CsrGraph<V,E> index() {
+		if (index == null) {
+			number();
+			int m = edgeById.length;
+			int[] start = new int[m];
+			int[] end = new int[m];
+			for (int i = 0; i < m; i++) {
+				AdjacencyListEdge edge = (AdjacencyListEdge) edgeById[i];
+				start[i] = edge.start.id;
+				end[i] = edge.end.id;
+			}
+			index = new CsrGraph<V,E>(vertexById.length, m, start, end, null, null);
+			if (metrics != null)
+				metrics.indexRebuild();
+		}
+		return index;
+	}
+
+	@Override
+	public int numVertices() {
+		return vertices.size();
+	}
+
+	@Override
+	public int numEdges() {
+		return edges.size();
+	}
+
+	@Override
+	public int vertexId(IVertex<V> v) {
+		number();
+		return ((AdjacencyListVertex) v).id;
+	}
+
+	@Override
+	public int edgeId(IEdge<E> e) {
+		number();
+		return ((AdjacencyListEdge) e).id;
+	}
+
+	@Override
+	public IVertex<V> vertex(int v) {
+		number();
+		return vertexById[v];
+	}
+
+	@Override
+	public IEdge<E> edge(int e) {
+		number();
+		return edgeById[e];
+	}
+
+	@Override
+	public int degree(int v) {
+		return index().degree(v);
+	}
+
+	@Override
+	public int neighbor(int v, int i) {
+		return index().neighbor(v, i);
+	}
+
+	@Override
+	public int incidentEdge(int v, int i) {
+		return index().incidentEdge(v, i);
+	}
+
+	@Override
+	public int edgeSource(int e) {
+		// only needs the numbering, not the CSR arrays
+		number();
+		return ((AdjacencyListEdge) edgeById[e]).start.id;
+	}
+
+	@Override
+	public int edgeTarget(int e) {
+		number();
+		return ((AdjacencyListEdge) edgeById[e]).end.id;
+	}
+
+	@Override
+	public int opposite(int v, int e) {
+		return index().opposite(v, e);
+	}
+
+	@Override
+	public void forEachNeighbor(int v, IntConsumer action) {
+		index().forEachNeighbor(v, action);
+	}
+
+	/**
+	 * Write this graph to {@code path} in the binary format of {@link GraphFile},
+	 * so it can later be memory mapped with {@link GraphFile#open}.
+	 */
+	public void write(Path path, IElementCodec<? super V> vertexCodec, IElementCodec<? super E> edgeCodec)
+			throws IOException {
+		GraphFile.write(this, path, vertexCodec, edgeCodec);
+	}
 	
 	/**
-	 * labeling of the edges of g as discovery edges and back edges
+	 * Count the cost of searches, adjacency tests and int view rebuilds in
+	 * {@code metrics}, or stop counting if it is null.
 	 */
-	public void DFS(IGraph<V, E> g) {
-		for(IIterator<IVertex<V>> uIterator = g.vertices(); uIterator.hasNext();) {
-			IVertex<V> u = uIterator.next();
-			setLabel(u, DFSLabel.UNEXPLORED);
+	public void setMetrics(GraphMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * The metrics this graph counts in, or null if it does not count.
+	 */
+	public GraphMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Make all DFS labels UNEXPLORED, in constant time, by starting a new
+	 * epoch. Call it before {@code DFS(g, v)} to search from {@code v} alone;
+	 * the search then only costs the part of the graph it reaches.
+	 */
+	public void resetLabels() {
+		if (++dfsEpoch == 0) {
+			// the epoch wrapped around, so old stamps could match again
+			clearStamps(true);
+			dfsEpoch = 1;
 		}
-		for(IIterator<IEdge<E>> eIterator = g.edges(); eIterator.hasNext();) {
-			IEdge<E> e = eIterator.next();
-			setLabel(e, DFSLabel.UNEXPLORED);
+	}
+
+	/**
+	 * Make all BFS labels UNEXPLORED, in constant time, by starting a new
+	 * epoch. Call it before {@code BFS(g, s)} to search from {@code s} alone.
+	 */
+	public void resetBLabels() {
+		if (++bfsEpoch == 0) {
+			clearStamps(false);
+			bfsEpoch = 1;
 		}
+	}
+
+	// set the DFS or BFS stamps of all vertices and edges back to 0
+	private void clearStamps(boolean dfs) {
+		for (IIterator<IVertex<V>> it = vertices.iterator(); it.hasNext();) {
+			AdjacencyListVertex v = (AdjacencyListVertex) it.next();
+			if (dfs)
+				v.dfsStamp = 0;
+			else
+				v.bfsStamp = 0;
+		}
+		for (IIterator<IEdge<E>> it = edges.iterator(); it.hasNext();) {
+			AdjacencyListEdge e = (AdjacencyListEdge) it.next();
+			if (dfs)
+				e.dfsStamp = 0;
+			else
+				e.bfsStamp = 0;
+		}
+	}
+
+	/**
+	 * labeling of the edges of g as discovery edges and back edges
+	 */
+	public void DFS(IGraph<V, E> g) {
+		long start = metrics != null ? System.nanoTime() : 0;
+		resetLabels();
 		for(IIterator<IVertex<V>> vIterator = g.vertices(); vIterator.hasNext();) {
 			IVertex<V> v = vIterator.next();
 			if(getLabel(v) == DFSLabel.UNEXPLORED)
-				DFS(g, v);
+				dfs(g, v);
 		}
+		if (metrics != null)
+			metrics.dfs(System.nanoTime() - start);
 	}
 	
 	/**
@@ -297,20 +712,31 @@ public class AdjacencyListGraph<V,E> implements IGraph<V,E> {
 	 * discovery edges and back edges
 	 */
 	public void DFS(IGraph<V, E> g, IVertex<V> v) {
+		long start = metrics != null ? System.nanoTime() : 0;
+		dfs(g, v);
+		if (metrics != null)
+			metrics.dfs(System.nanoTime() - start);
+	}
+
+	// the search of DFS(g, v), without the timing
+	private void dfs(IGraph<V, E> g, IVertex<V> v) {
 		setLabel(v, DFSLabel.VISITED);
+		int scanned = 0;
 		for(IIterator<IEdge<E>> eIterator = g.incidentEdges(v); eIterator.hasNext();) {
 			IEdge<E> e = eIterator.next();
+			scanned++;
 			if(getLabel(e) == DFSLabel.UNEXPLORED) {
 				IVertex<V> w = g.opposite(v, e);
 				if(getLabel(w) == DFSLabel.UNEXPLORED) {
 					setLabel(e, DFSLabel.DISCOVERY);
-					DFS(g, w);
+					dfs(g, w);
 				} else {
 					setLabel(e, DFSLabel.BACK);
 				}
 			}
 		}
-		
+		if (metrics != null)
+			metrics.visited(1, scanned);
 	}
 		
 	/**
@@ -321,6 +747,7 @@ public class AdjacencyListGraph<V,E> implements IGraph<V,E> {
 		// must cast to EdgeList vertex
 		AdjacencyListVertex v = (AdjacencyListVertex) u;
 		v.dfsLabel = l;
+		v.dfsStamp = dfsEpoch;
 	}
 		
 	/**
@@ -329,7 +756,8 @@ public class AdjacencyListGraph<V,E> implements IGraph<V,E> {
 	public void setLabel(IEdge<E> e, DFSLabel l) {
 		// must cast to EdgeList edge
 		AdjacencyListEdge ed = (AdjacencyListEdge) e;
-		ed.dfsLabel = l;	
+		ed.dfsLabel = l;
+		ed.dfsStamp = dfsEpoch;
 	}
 		
 	/**
@@ -338,7 +766,7 @@ public class AdjacencyListGraph<V,E> implements IGraph<V,E> {
 	public DFSLabel getLabel(IVertex<V> v) {
 		// must cast to EdgeList vertex
 		AdjacencyListVertex ve = (AdjacencyListVertex) v;
-		return ve.dfsLabel;
+		return ve.dfsStamp == dfsEpoch ? ve.dfsLabel : DFSLabel.UNEXPLORED;
 	}
 
 	/**
@@ -347,26 +775,22 @@ public class AdjacencyListGraph<V,E> implements IGraph<V,E> {
 	public DFSLabel getLabel(IEdge<E> e) {
 		// must cast to EdgeList edge
 		AdjacencyListEdge ed = (AdjacencyListEdge) e;
-		return ed.dfsLabel;
+		return ed.dfsStamp == dfsEpoch ? ed.dfsLabel : DFSLabel.UNEXPLORED;
 	}
 	
 	/**
 	 * labeling of the edges of g as discovery edges and back edges
 	 */
 	public void BFS(IGraph<V, E> g) {
-		for(IIterator<IVertex<V>> uIterator = g.vertices(); uIterator.hasNext();) {
-			IVertex<V> u = uIterator.next();
-			setBLabel(u, BFSLabel.UNEXPLORED);
-		}
-		for(IIterator<IEdge<E>> eIterator = g.edges(); eIterator.hasNext();) {
-			IEdge<E> e = eIterator.next();
-			setBLabel(e, BFSLabel.UNEXPLORED);
-		}
+		long start = metrics != null ? System.nanoTime() : 0;
+		resetBLabels();
 		for(IIterator<IVertex<V>> vIterator = g.vertices(); vIterator.hasNext();) {
 			IVertex<V> v = vIterator.next();
 			if(getBLabel(v) == BFSLabel.UNEXPLORED)
-				DFS(g, v);
+				bfs(g, v);
 		}
+		if (metrics != null)
+			metrics.bfs(System.nanoTime() - start);
 	}
 	
 	/**
@@ -374,37 +798,43 @@ public class AdjacencyListGraph<V,E> implements IGraph<V,E> {
 	 * discovery edges and back edges
 	 */
 	public void BFS(IGraph<V, E> g, IVertex<V> s) {
-		IList<IVertex<V>>[] l = new DLinkedList[1];
-		l[0].insertLast(s);
+		long start = metrics != null ? System.nanoTime() : 0;
+		bfs(g, s);
+		if (metrics != null)
+			metrics.bfs(System.nanoTime() - start);
+	}
+
+	// the search of BFS(g, s), without the timing
+	private void bfs(IGraph<V, E> g, IVertex<V> s) {
+		// the vertices of the current level and of the next one
+		IList<IVertex<V>> level = new DLinkedList<IVertex<V>>();
+		level.insertLast(s);
 		setBLabel(s, BFSLabel.VISITED);
-		int i = 0;
-		while(!l[i].isEmpty()) {
-			IList<IVertex<V>>[] newL = new DLinkedList[i+2];
-			for(int j = 0; j <= i; j++) {
-				newL[j] = l[j];
-			}
-			l = newL;
-			
-			for(IIterator<IVertex<V>> vIterator = l[i].iterator(); vIterator.hasNext();) {
+		int visited = 0, scanned = 0;
+		while(!level.isEmpty()) {
+			IList<IVertex<V>> next = new DLinkedList<IVertex<V>>();
+			for(IIterator<IVertex<V>> vIterator = level.iterator(); vIterator.hasNext();) {
 				IVertex<V> v = vIterator.next();
+				visited++;
 				for(IIterator<IEdge<E>> eIterator = g.incidentEdges(v); eIterator.hasNext();) {
 					IEdge<E> e = eIterator.next();
+					scanned++;
 					if(getBLabel(e) == BFSLabel.UNEXPLORED) {
 						IVertex<V> w = opposite(v, e);
 						if(getBLabel(w) == BFSLabel.UNEXPLORED) {
 							setBLabel(e, BFSLabel.DISCOVERY);
 							setBLabel(w, BFSLabel.VISITED);
-							l[i+1].insertLast(w);
+							next.insertLast(w);
 						} else {
 							setBLabel(e, BFSLabel.CROSS);
 						}
 					}
 				}
 			}
-			i++;
+			level = next;
 		}
-		
-		
+		if (metrics != null)
+			metrics.visited(visited, scanned);
 	}
 	
 	/**
@@ -415,6 +845,7 @@ public class AdjacencyListGraph<V,E> implements IGraph<V,E> {
 		// must cast to EdgeList vertex
 		AdjacencyListVertex v = (AdjacencyListVertex) u;
 		v.bfsLabel = l;
+		v.bfsStamp = bfsEpoch;
 	}
 		
 	/**
@@ -423,7 +854,8 @@ public class AdjacencyListGraph<V,E> implements IGraph<V,E> {
 	public void setBLabel(IEdge<E> e, BFSLabel l) {
 		// must cast to EdgeList edge
 		AdjacencyListEdge ed = (AdjacencyListEdge) e;
-		ed.bfsLabel = l;	
+		ed.bfsLabel = l;
+		ed.bfsStamp = bfsEpoch;
 	}
 	
 	/**
@@ -432,7 +864,7 @@ public class AdjacencyListGraph<V,E> implements IGraph<V,E> {
 	public BFSLabel getBLabel(IVertex<V> v) {
 		// must cast to EdgeList vertex
 		AdjacencyListVertex ve = (AdjacencyListVertex) v;
-		return ve.bfsLabel;
+		return ve.bfsStamp == bfsEpoch ? ve.bfsLabel : BFSLabel.UNEXPLORED;
 	}
 
 	/**
@@ -441,7 +873,7 @@ public class AdjacencyListGraph<V,E> implements IGraph<V,E> {
 	public BFSLabel getBLabel(IEdge<E> e) {
 		// must cast to EdgeList edge
 		AdjacencyListEdge ed = (AdjacencyListEdge) e;
-		return ed.bfsLabel;
+		return ed.bfsStamp == bfsEpoch ? ed.bfsLabel : BFSLabel.UNEXPLORED;
 	}
 
 }
@@ -1,16 +1,46 @@
 package graph.impl;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.IntConsumer;
+
 import graph.core.BFSLabel;
 import graph.core.DFSLabel;
+import graph.core.IBulkGraph;
 import graph.core.IEdge;
+import graph.core.IEdgeCursor;
 import graph.core.IGraph;
+import graph.core.IIntGraph;
 import graph.core.IIterator;
 import graph.core.IList;
 import graph.core.INode;
 import graph.core.IVertex;
+import graph.core.IVertexCursor;
+import graph.core.IWeightedGraph;
+import graph.io.GraphFile;
+import graph.io.IElementCodec;
+import graph.util.CursorIterator;
 import graph.util.DLinkedList;
+import graph.util.GraphMetrics;
+import graph.util.IntObjectMap;
+import graph.util.ListVertexCursor;
+import graph.util.WeightColumn;
 
-public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
+/**
+ * Graph that stores its edges in an adjacency matrix indexed by vertex keys,
+ * so {@code areAdjacent} takes constant time.
+ *
+ * The matrix is stored in one of two ways, chosen by the number of edges per
+ * cell: a dense {@code IEdge[][]} array, or sparse rows that each map the
+ * columns that hold an edge to the edge with an open addressing hash map. The
+ * graph switches to sparse rows when the matrix has more than
+ * {@code SPARSE_RATIO} cells per edge or key, so a sparse graph needs memory
+ * in proportion to its vertices and edges, and back to the dense array when
+ * it has fewer than {@code DENSE_RATIO} cells per edge or key.
+ */
+public class AdjacencyMatrixGraph<V,E> implements IBulkGraph<V,E>, IIntGraph<V,E>, IWeightedGraph<V,E> {
 	/**
 	 * Inner class to represent a vertex in an adjacency matrix graph implementation
 	 */
@@ -21,6 +51,9 @@ public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
 		// label for breath first search
 		BFSLabel bfsLabel;
 		
+		// epochs in which the labels were set (see dfsEpoch and bfsEpoch)
+		int dfsStamp, bfsStamp;
+		
 		// reference to a node in the vertex list
 		INode<IVertex<V>> node;
 		
@@ -30,10 +63,13 @@ public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
 		// element stored in this vertex
 		V element;
 		
+		// number of this vertex in the int view
+		int id;
+		
 		public AdjacencyMatrixVertex(V element) {
 			this.element = element;
-			// give its key
-			this.index = maxIndex;
+			// give its key (reusing the key of a removed vertex if there is one)
+			this.index = nextIndex();
 		}
 		
 		@Override
@@ -61,15 +97,28 @@ public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
 		// label for breath first search
 		BFSLabel bfsLabel;
 		
+		// epochs in which the labels were set (see dfsEpoch and bfsEpoch)
+		int dfsStamp, bfsStamp;
+		
 		// reference to a node in the edge list
 		INode<IEdge<E>> node;
 		
 		// element stored in this edge
 		E element;
 		
+		// number of this edge in the int view
+		int id;
+		
+		// slot of this edge's weight in the weight column
+		int slot;
+		
 		// the start and end vertices that this edge connects
 		AdjacencyMatrixVertex start, end;
 		
+		// the other edges between the same two vertices; the matrix cell
+		// holds the first edge of this chain
+		AdjacencyMatrixEdge prevParallel, nextParallel;
+		
 		// constructor to set the three fields
 		public AdjacencyMatrixEdge(AdjacencyMatrixVertex start, AdjacencyMatrixVertex end, E element) {
 			this.start = start;
@@ -93,20 +142,186 @@ public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
 	
 	// edge list
 	private IList<IEdge<E>> edges;
+
+	// weights of the edges
+	private final WeightColumn weights = new WeightColumn();
+
+	// int view of this graph (rebuilt after the graph changes)
+	private CsrGraph<V,E> index;
+	private IVertex<V>[] vertexById;
+	private IEdge<E>[] edgeById;
+
+	// current DFS and BFS epochs; a label only counts if it was set in the
+	// current epoch, so a new epoch makes all labels UNEXPLORED at once
+	private int dfsEpoch = 1, bfsEpoch = 1;
+
+	// counters for searches and adjacency tests, or null when not measured
+	private GraphMetrics metrics;
+	
+	// default number of rows and columns of a new matrix
+	private static final int DEFAULT_CAPACITY = 16;
 	
-	// adjacency array
+	// the matrix switches to sparse rows above this many cells per edge or
+	// key, and back to a dense array below the smaller ratio
+	private static final int SPARSE_RATIO = 32;
+	private static final int DENSE_RATIO = 8;
+	
+	// adjacency array; it has room for capacity vertices, of which keys
+	// 0..maxIndex-1 have been handed out
 	private int maxIndex = 0;
+	private int capacity;
 	private IEdge<E>[][] adjacencyMatrix;
 	
+	// rows of the matrix when it is sparse (then adjacencyMatrix is null);
+	// the row of a key is null while it holds no edges
+	private IntObjectMap<IEdge<E>>[] sparseRows;
+	
+	// keys of removed vertices, ready to be given to new vertices
+	private int[] freeIndices = new int[DEFAULT_CAPACITY];
+	private int freeCount = 0;
+	
 	/**
 	 * Constructor
 	 */
-	@SuppressWarnings("unchecked")
 	public AdjacencyMatrixGraph() {
+		this(DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Constructor for a graph that can hold {@code capacity} vertices
+	 * before the matrix has to grow.
+	 */
+	public AdjacencyMatrixGraph(int capacity) {
 		// create new (empty) lists of edges and vertices
 		vertices = new DLinkedList<IVertex<V>>();
 		edges = new DLinkedList<IEdge<E>>();
-		adjacencyMatrix = new IEdge[maxIndex][maxIndex];
+		capacity = Math.max(capacity, 1);
+		store(capacity, denseFits(capacity, 0, true));
+	}
+	
+	/**
+	 * Find a key for a new vertex. Keys of removed vertices are reused first,
+	 * otherwise the next unused key is taken, doubling the matrix when it is full.
+	 */
+	private int nextIndex() {
+		if (freeCount > 0)
+			return freeIndices[--freeCount];
+		if (maxIndex == capacity)
+			resize(Math.max(DEFAULT_CAPACITY, capacity * 2));
+		return maxIndex++;
+	}
+	
+	/**
+	 * Make sure the matrix has room for {@code capacity} vertex keys, so that
+	 * many vertices can be inserted without the matrix growing in between.
+	 * @param capacity The number of vertex keys needed.
+	 */
+	public void ensureCapacity(int capacity) {
+		if (capacity > this.capacity)
+			resize(Math.max(capacity, this.capacity * 2));
+	}
+	
+	/**
+	 * Copy the matrix into a new one with {@code capacity} rows and columns,
+	 * which is sparse or dense depending on the number of edges. The keys of
+	 * the vertices stay the same.
+	 */
+	@SuppressWarnings("unchecked")
+	private void resize(int capacity) {
+		if (adjacencyMatrix != null && denseFits(capacity, edges.size(), true)) {
+			IEdge<E>[][] e = new IEdge[capacity][capacity];
+			for (int y = 0; y < maxIndex; y++)
+				System.arraycopy(adjacencyMatrix[y], 0, e[y], 0, maxIndex);
+			adjacencyMatrix = e;
+			this.capacity = capacity;
+			if (metrics != null)
+				metrics.matrixRebuild();
+		} else if (adjacencyMatrix == null && !denseFits(capacity, edges.size(), false)) {
+			sparseRows = Arrays.copyOf(sparseRows, capacity);
+			this.capacity = capacity;
+		} else {
+			store(capacity, adjacencyMatrix == null);
+		}
+	}
+	
+	/**
+	 * Check whether a dense matrix with {@code capacity} rows suits {@code m}
+	 * edges. The ratio depends on the current form, so that the graph does not
+	 * switch back and forth around one size.
+	 */
+	private static boolean denseFits(long capacity, long m, boolean dense) {
+		return capacity * capacity <= (dense ? SPARSE_RATIO : DENSE_RATIO) * (m + capacity);
+	}
+	
+	/**
+	 * Store the matrix again, in {@code capacity} rows of the given form,
+	 * from the edge list. The chains of parallel edges stay as they are, and
+	 * only their first edges are put in the cells.
+	 */
+	@SuppressWarnings("unchecked")
+	private void store(int capacity, boolean dense) {
+		if (metrics != null)
+			metrics.matrixRebuild();
+		this.capacity = capacity;
+		adjacencyMatrix = dense ? new IEdge[capacity][capacity] : null;
+		sparseRows = dense ? null : new IntObjectMap[capacity];
+		for (IIterator<IEdge<E>> it = edges.iterator(); it.hasNext();) {
+			AdjacencyMatrixEdge edge = (AdjacencyMatrixEdge) it.next();
+			if (edge.prevParallel == null) {
+				setCell(edge.start.index, edge.end.index, edge);
+				setCell(edge.end.index, edge.start.index, edge);
+			}
+		}
+	}
+	
+	/**
+	 * Check whether the matrix is stored as sparse rows.
+	 */
+	public boolean isSparse() {
+		return adjacencyMatrix == null;
+	}
+	
+	// the edge in row x and column y, or null
+	private IEdge<E> getCell(int x, int y) {
+		if (adjacencyMatrix != null)
+			return adjacencyMatrix[x][y];
+		IntObjectMap<IEdge<E>> row = sparseRows[x];
+		return row == null ? null : row.get(y);
+	}
+	
+	// put an edge in row x and column y, or clear the cell if e is null
+	private void setCell(int x, int y, IEdge<E> e) {
+		if (adjacencyMatrix != null) {
+			adjacencyMatrix[x][y] = e;
+			return;
+		}
+		IntObjectMap<IEdge<E>> row = sparseRows[x];
+		if (e != null) {
+			if (row == null)
+				row = sparseRows[x] = new IntObjectMap<IEdge<E>>(1);
+			row.put(y, e);
+		} else if (row != null) {
+			row.remove(y);
+			if (row.size() == 0)
+				sparseRows[x] = null;
+		}
+	}
+	
+	/**
+	 * Give the vertices the keys 0..n-1 (in vertex list order) and shrink the
+	 * matrix to fit them, giving back the rows and columns of removed vertices.
+	 */
+	public void compact() {
+		// renumber the vertices
+		int n = 0;
+		for (IIterator<IVertex<V>> it = vertices.iterator(); it.hasNext();)
+			((AdjacencyMatrixVertex) it.next()).index = n++;
+		maxIndex = n;
+		freeCount = 0;
+		
+		// recreate matrix
+		n = Math.max(n, 1);
+		store(n, denseFits(n, edges.size(), adjacencyMatrix != null));
 	}
 	
 	@Override
@@ -128,16 +343,17 @@ public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
 
 	@Override
 	public IVertex<V> opposite(IVertex<V> v, IEdge<E> e) {
-		// find end points of Edge e
-		IVertex<V>[] endpoints = endVertices(e);
-		
+		// need to cast Edge type to AdjacencyMatrixEdge
+		AdjacencyMatrixEdge edge = (AdjacencyMatrixEdge) e;
+
 		// return the end point that is not v
-		if (endpoints[0].equals(v)) {
-			return endpoints[1];
-		} else if (endpoints[1].equals(v)) {
-			return endpoints[0];
+		// (read the fields directly rather than building the endVertices array)
+		if (edge.start.equals(v)) {
+			return edge.end;
+		} else if (edge.end.equals(v)) {
+			return edge.start;
 		}
-		
+
 		// Problem! e is not connected to v.
 		throw new RuntimeException("Error: cannot find opposite vertex.");
 	}
@@ -151,11 +367,12 @@ public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
 		int keyV = vertexV.index;
 		int keyW = vertexW.index;
 		
-		// matrix connects same edge (so they are adjacent)
-		if(adjacencyMatrix[keyV][keyW].equals(adjacencyMatrix[keyW][keyV]))
-			return true;
-		// matrix connects different edges (so they are not adjacent)
-		return false;
+		// the matrix answers without walking any incidence list
+		if (metrics != null)
+			metrics.adjacency(0);
+
+		// matrix holds an edge between them (so they are adjacent)
+		return getCell(keyV, keyW) != null;
 	}
 
 	@Override
@@ -176,12 +393,27 @@ public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
 		AdjacencyMatrixEdge edge = (AdjacencyMatrixEdge) e;
 		E temp = edge.element;
 		edge.element = o;
+		if (o instanceof Number)
+			weights.set(edge.slot, ((Number) o).doubleValue());
 		return temp;
 	}
 
-	@SuppressWarnings("unchecked")
+	@Override
+	public double weight(IEdge<E> e) {
+		return weights.get(((AdjacencyMatrixEdge) e).slot);
+	}
+
+	@Override
+	public double setWeight(IEdge<E> e, double weight) {
+		return weights.set(((AdjacencyMatrixEdge) e).slot, weight);
+	}
+
 	@Override
 	public IVertex<V> insertVertex(V o) {
+		// the int view is out of date
+		index = null;
+		vertexById = null;
+
 		// create new vertex
 		AdjacencyMatrixVertex vertex = new AdjacencyMatrixVertex(o);
 		
@@ -193,54 +425,113 @@ public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
 		// to make it easier to remove the vertex later
 		vertex.node = node;
 		
-		// recreate matrix
-		maxIndex++;
-		IEdge<E>[][] e = new IEdge[maxIndex][maxIndex];
-		IIterator<IEdge<E>> it = edges.iterator();
-		IVertex<V>[] endpoints;
-		IEdge<E> edge;
-		int x, y;
-		while(it.hasNext()) {
-			edge = it.next();
-			endpoints = endVertices(edge);
-			y = ((AdjacencyMatrixVertex)endpoints[0]).index;
-			x = ((AdjacencyMatrixVertex)endpoints[1]).index;
-			e[y][x] = edge;
-		}
-		adjacencyMatrix = e;
-		
 		// return the new vertex that was created
 		return vertex;
 	}
 
 	@Override
 	public IEdge<E> insertEdge(IVertex<V> v, IVertex<V> w, E o) {
+		return insertEdge(v, w, o, WeightColumn.weightOf(o));
+	}
+
+	@Override
+	public IEdge<E> insertEdge(IVertex<V> v, IVertex<V> w, E o, double weight) {
+		// the int view is out of date
+		index = null;
+		vertexById = null;
+
 		// need to cast vertex type to AdjacencyMatrixVertex
-		AdjacencyMatrixVertex vertexV = (AdjacencyMatrixVertex) v;
-		AdjacencyMatrixVertex vertexW = (AdjacencyMatrixVertex) w;
+		AdjacencyMatrixEdge edge = link((AdjacencyMatrixVertex) v, (AdjacencyMatrixVertex) w, o, weight);
+		
+		// enough edges for a dense matrix
+		if (adjacencyMatrix == null && denseFits(capacity, edges.size(), false))
+			store(capacity, true);
+		
+		// return the new edge that was created
+		return edge;
+	}
+
+	/**
+	 * Create an edge between {@code vertexV} and {@code vertexW} and add it to
+	 * the edge list and the matrix, leaving the int view and the form of the
+	 * matrix to the caller.
+	 */
+	private AdjacencyMatrixEdge link(AdjacencyMatrixVertex vertexV, AdjacencyMatrixVertex vertexW, E o,
+			double weight) {
 		// create new edge object
 		AdjacencyMatrixEdge edge = new AdjacencyMatrixEdge(vertexV , vertexW, o);
+		edge.slot = weights.allocate(weight);
 		
 		// insert into the edge list and store the reference to te node
 		// in the edge object
 		INode<IEdge<E>> n = edges.insertLast(edge);
 		edge.node = n;
 		
-		// add edge to matrix
-		adjacencyMatrix[vertexV.index][vertexW.index] = edge;
-		adjacencyMatrix[vertexW.index][vertexV.index] = edge;
-		
-		// return the new edge that was created
+		// add edge to matrix, in front of the edges already between v and w
+		edge.nextParallel = (AdjacencyMatrixEdge) getCell(vertexV.index, vertexW.index);
+		if (edge.nextParallel != null)
+			edge.nextParallel.prevParallel = edge;
+		setCell(vertexV.index, vertexW.index, edge);
+		setCell(vertexW.index, vertexV.index, edge);
 		return edge;
 	}
 
+	@SuppressWarnings("unchecked")
+	@Override
+	public IVertex<V>[] insertVertices(Collection<? extends V> elements) {
+		// grow the matrix once for the whole batch
+		ensureCapacity(maxIndex + Math.max(0, elements.size() - freeCount));
+
+		IVertex<V>[] created = new IVertex[elements.size()];
+		int i = 0;
+		for (V o : elements)
+			created[i++] = insertVertex(o);
+		return created;
+	}
+
+	@Override
+	public void insertEdges(int[] src, int[] dst, E[] elements) {
+		// look up all the end points before the first insert, and check them all
+		number();
+		BulkEdges.check(src, dst, elements, vertexById.length);
+		weights.ensureCapacity(src.length);
+
+		// the vertex numbers stay the same and the new edges are numbered after
+		// the old ones, so the numbering is extended instead of being redone
+		int m = edgeById.length;
+		IEdge<E>[] byId = Arrays.copyOf(edgeById, m + src.length);
+		for (int i = 0; i < src.length; i++) {
+			E o = elements == null ? null : elements[i];
+			AdjacencyMatrixEdge edge = link((AdjacencyMatrixVertex) vertexById[src[i]],
+					(AdjacencyMatrixVertex) vertexById[dst[i]], o, WeightColumn.weightOf(o));
+			edge.id = m + i;
+			byId[m + i] = edge;
+		}
+		edgeById = byId;
+		index = null;
+
+		// switch to a dense matrix at most once for the whole batch
+		if (adjacencyMatrix == null && denseFits(capacity, edges.size(), false))
+			store(capacity, true);
+	}
+
 	@Override
 	public V removeVertex(IVertex<V> v) {
+		// the int view is out of date
+		index = null;
+		vertexById = null;
+
 		// first find all incident edges and remove those
 		IList<IEdge<E>> incidentEdges = new DLinkedList<IEdge<E>>();
 		IIterator<IEdge<E>> it = incidentEdges(v);
-		while( it.hasNext() )
-			incidentEdges.insertLast(it.next());
+		IEdge<E> last = null;
+		while( it.hasNext() ) {
+			IEdge<E> e = it.next();
+			// a self loop is listed twice, but can only be removed once
+			if (e != last)
+				incidentEdges.insertLast(e);
+			last = e;
+		}
 		
 		while (!incidentEdges.isEmpty())
 			removeEdge(incidentEdges.remove(incidentEdges.first()));
@@ -249,21 +540,10 @@ public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
 		AdjacencyMatrixVertex vertex = (AdjacencyMatrixVertex) v;
 		vertices.remove(vertex.node);
 		
-		@SuppressWarnings("unchecked")
-		IEdge<E>[][] e = new IEdge[maxIndex][maxIndex];
-		System.out.println(maxIndex);
-		IIterator<IEdge<E>> itE = edges.iterator();
-		IVertex<V>[] endpoints;
-		IEdge<E> edge;
-		int x, y;
-		while(itE.hasNext()) {
-			edge = itE.next();
-			endpoints = endVertices(edge);
-			y = ((AdjacencyMatrixVertex)endpoints[0]).index;
-			x = ((AdjacencyMatrixVertex)endpoints[1]).index;
-			e[y][x] = edge;
-		}
-		adjacencyMatrix = e;
+		// its row and column are empty now, so its key can be reused
+		if (freeCount == freeIndices.length)
+			freeIndices = Arrays.copyOf(freeIndices, freeCount * 2);
+		freeIndices[freeCount++] = vertex.index;
 
 		// return the element of the vertex that was removed
 		return vertex.element;
@@ -271,30 +551,117 @@ public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
 
 	@Override
 	public E removeEdge(IEdge<E> e) {
+		// the int view is out of date
+		index = null;
+		vertexById = null;
+
 		// remove edge from edge list and return its element
 		AdjacencyMatrixEdge edge = (AdjacencyMatrixEdge) e;
 		edges.remove(edge.node);
+		weights.release(edge.slot);
+		
+		// take it out of its chain of parallel edges; if it was the first,
+		// the next one (or nothing) goes in the matrix instead
+		if (edge.prevParallel != null) {
+			edge.prevParallel.nextParallel = edge.nextParallel;
+		} else {
+			setCell(edge.start.index, edge.end.index, edge.nextParallel);
+			setCell(edge.end.index, edge.start.index, edge.nextParallel);
+		}
+		if (edge.nextParallel != null)
+			edge.nextParallel.prevParallel = edge.prevParallel;
+		edge.prevParallel = edge.nextParallel = null;
+		
+		// too few edges left for a dense matrix
+		if (adjacencyMatrix != null && !denseFits(capacity, edges.size(), true))
+			store(capacity, false);
 		return edge.element;
 	}
 
 	@Override
 	public IIterator<IEdge<E>> incidentEdges(IVertex<V> v) {
-		// strategy:
-		// find all edges that are connected to v and
-		// add them to "list".
-		// Later, use the iterator() method in List to
-		// get an iterator over these edges.
-		IList<IEdge<E>> list = new DLinkedList<IEdge<E>>();
-
-		IIterator<IEdge<E>> it = edges.iterator();
-		while (it.hasNext()) {
-			AdjacencyMatrixEdge edge = (AdjacencyMatrixEdge) it.next();
-			if (edge.start.equals(v))
-				list.insertLast(edge);
-			if (edge.end.equals(v))
-				list.insertLast(edge);
+		// walk the vertex's row instead of copying the matching edges to a list
+		return new CursorIterator<V,E>(new AdjacencyMatrixEdgeCursor(), v);
+	}
+
+	/**
+	 * Edge cursor that scans the vertex's row of the matrix (the slots of the
+	 * row's map, when the matrix is sparse), and follows the chain of parallel
+	 * edges in every cell it finds.
+	 */
+	private class AdjacencyMatrixEdgeCursor implements IEdgeCursor<V,E> {
+		// the vertex whose edges are visited
+		AdjacencyMatrixVertex vertex;
+
+		// current column of the vertex's row, and edge of its chain
+		int column;
+		AdjacencyMatrixEdge edge;
+
+		// a self loop is visited twice
+		boolean loopPending;
+
+		@Override
+		public void reset(IVertex<V> v) {
+			vertex = (AdjacencyMatrixVertex) v;
+			column = -1;
+			edge = null;
+			loopPending = false;
+		}
+
+		@Override
+		public boolean advance() {
+			if (loopPending) {
+				loopPending = false;
+				return true;
+			}
+			if (edge != null && edge.nextParallel != null) {
+				edge = edge.nextParallel;
+				loopPending = edge.start == edge.end;
+				return true;
+			}
+			if (adjacencyMatrix == null) {
+				IntObjectMap<IEdge<E>> row = sparseRows[vertex.index];
+				if (row == null)
+					return false;
+				while (++column < row.capacity()) {
+					if (row.keyAt(column) >= 0) {
+						edge = (AdjacencyMatrixEdge) row.valueAt(column);
+						loopPending = edge.start == edge.end;
+						return true;
+					}
+				}
+				return false;
+			}
+			IEdge<E>[] row = adjacencyMatrix[vertex.index];
+			while (++column < maxIndex) {
+				if (row[column] != null) {
+					edge = (AdjacencyMatrixEdge) row[column];
+					loopPending = edge.start == edge.end;
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public IEdge<E> edge() {
+			return edge;
+		}
+
+		@Override
+		public IVertex<V> opposite() {
+			return edge.start == vertex ? edge.end : edge.start;
 		}
-		return list.iterator();
+	}
+
+	@Override
+	public IEdgeCursor<V,E> newEdgeCursor() {
+		return new AdjacencyMatrixEdgeCursor();
+	}
+
+	@Override
+	public IVertexCursor<V> newVertexCursor() {
+		return new ListVertexCursor<V>(vertices);
 	}
 
 	@Override
@@ -306,24 +673,206 @@ public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
 	public IIterator<IEdge<E>> edges() {
 		return edges.iterator();
 	}
+
+	/**
+	 * Number the vertices and edges in list order, if the graph changed
+	 * since they were last numbered.
+	 */
+	@SuppressWarnings("unchecked")
+	private void number() {
+		if (vertexById == null) {
+			IVertex<V>[] byId = new IVertex[vertices.size()];
+			int i = 0;
+			for (IIterator<IVertex<V>> it = vertices.iterator(); it.hasNext(); i++) {
+				AdjacencyMatrixVertex vertex = (AdjacencyMatrixVertex) it.next();
+				vertex.id = i;
+				byId[i] = vertex;
+			}
+
+			edgeById = new IEdge[edges.size()];
+			i = 0;
+			for (IIterator<IEdge<E>> it = edges.iterator(); it.hasNext(); i++) {
+				AdjacencyMatrixEdge edge = (AdjacencyMatrixEdge) it.next();
+				edge.id = i;
+				edgeById[i] = edge;
+			}
+			vertexById = byId;
+		}
+	}
+
+	/**
+	 * Get the int view of the graph, rebuilding it if the graph changed
+	 * since it was last built.
+	 */
+	private CsrGraph<V,E> index() {
+		if (index == null) {
+			number();
+			int m = edgeById.length;
+			int[] start = new int[m];
+			int[] end = new int[m];
+			for (int i = 0; i < m; i++) {
+				AdjacencyMatrixEdge edge = (AdjacencyMatrixEdge) edgeById[i];
+				start[i] = edge.start.id;
+				end[i] = edge.end.id;
+			}
+			index = new CsrGraph<V,E>(vertexById.length, m, start, end, null, null);
+			if (metrics != null)
+				metrics.indexRebuild();
+		}
+		return index;
+	}
+
+	@Override
+	public int numVertices() {
+		return vertices.size();
+	}
+
+	@Override
+	public int numEdges() {
+		return edges.size();
+	}
+
+	@Override
+	public int vertexId(IVertex<V> v) {
+		number();
+		return ((AdjacencyMatrixVertex) v).id;
+	}
+
+	@Override
+	public int edgeId(IEdge<E> e) {
+		number();
+		return ((AdjacencyMatrixEdge) e).id;
+	}
+
+	@Override
+	public IVertex<V> vertex(int v) {
+		number();
+		return vertexById[v];
+	}
+
+	@Override
+	public IEdge<E> edge(int e) {
+		number();
+		return edgeById[e];
+	}
+
+	@Override
+	public int degree(int v) {
+		return index().degree(v);
+	}
+
+	@Override
+	public int neighbor(int v, int i) {
+		return index().neighbor(v, i);
+	}
+
+	@Override
+	public int incidentEdge(int v, int i) {
+		return index().incidentEdge(v, i);
+	}
+
+	@Override
+	public int edgeSource(int e) {
+		// only needs the numbering, not the CSR arrays
+		number();
+		return ((AdjacencyMatrixEdge) edgeById[e]).start.id;
+	}
+
+	@Override
+	public int edgeTarget(int e) {
+		number();
+		return ((AdjacencyMatrixEdge) edgeById[e]).end.id;
+	}
+
+	@Override
+	public int opposite(int v, int e) {
+		return index().opposite(v, e);
+	}
+
+	@Override
+	public void forEachNeighbor(int v, IntConsumer action) {
+		index().forEachNeighbor(v, action);
+	}
+
+	/**
+	 * Write this graph to {@code path} in the binary format of {@link GraphFile},
+	 * so it can later be memory mapped with {@link GraphFile#open}.
+	 */
+	public void write(Path path, IElementCodec<? super V> vertexCodec, IElementCodec<? super E> edgeCodec)
+			throws IOException {
+		GraphFile.write(this, path, vertexCodec, edgeCodec);
+	}
 	
 	/**
-	 * labeling of the edges of g as discovery edges and back edges
+	 * Count the cost of searches, adjacency tests and int view rebuilds in
+	 * {@code metrics}, or stop counting if it is null.
 	 */
-	public void DFS(IGraph<V, E> g) {
-		for(IIterator<IVertex<V>> uIterator = g.vertices(); uIterator.hasNext();) {
-			IVertex<V> u = uIterator.next();
-			setLabel(u, DFSLabel.UNEXPLORED);
+	public void setMetrics(GraphMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * The metrics this graph counts in, or null if it does not count.
+	 */
+	public GraphMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Make all DFS labels UNEXPLORED, in constant time, by starting a new
+	 * epoch. Call it before {@code DFS(g, v)} to search from {@code v} alone;
+	 * the search then only costs the part of the graph it reaches.
+	 */
+	public void resetLabels() {
+		if (++dfsEpoch == 0) {
+			// the epoch wrapped around, so old stamps could match again
+			clearStamps(true);
+			dfsEpoch = 1;
 		}
-		for(IIterator<IEdge<E>> eIterator = g.edges(); eIterator.hasNext();) {
-			IEdge<E> e = eIterator.next();
-			setLabel(e, DFSLabel.UNEXPLORED);
+	}
+
+	/**
+	 * Make all BFS labels UNEXPLORED, in constant time, by starting a new
+	 * epoch. Call it before {@code BFS(g, s)} to search from {@code s} alone.
+	 */
+	public void resetBLabels() {
+		if (++bfsEpoch == 0) {
+			clearStamps(false);
+			bfsEpoch = 1;
 		}
+	}
+
+	// set the DFS or BFS stamps of all vertices and edges back to 0
+	private void clearStamps(boolean dfs) {
+		for (IIterator<IVertex<V>> it = vertices.iterator(); it.hasNext();) {
+			AdjacencyMatrixVertex v = (AdjacencyMatrixVertex) it.next();
+			if (dfs)
+				v.dfsStamp = 0;
+			else
+				v.bfsStamp = 0;
+		}
+		for (IIterator<IEdge<E>> it = edges.iterator(); it.hasNext();) {
+			AdjacencyMatrixEdge e = (AdjacencyMatrixEdge) it.next();
+			if (dfs)
+				e.dfsStamp = 0;
+			else
+				e.bfsStamp = 0;
+		}
+	}
+
+	/**
+	 * labeling of the edges of g as discovery edges and back edges
+	 */
+	public void DFS(IGraph<V, E> g) {
+		long start = metrics != null ? System.nanoTime() : 0;
+		resetLabels();
 		for(IIterator<IVertex<V>> vIterator = g.vertices(); vIterator.hasNext();) {
 			IVertex<V> v = vIterator.next();
 			if(getLabel(v) == DFSLabel.UNEXPLORED)
-				DFS(g, v);
+				dfs(g, v);
 		}
+		if (metrics != null)
+			metrics.dfs(System.nanoTime() - start);
 	}
 	
 	/**
@@ -331,20 +880,31 @@ public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
 	 * discovery edges and back edges
 	 */
 	public void DFS(IGraph<V, E> g, IVertex<V> v) {
+		long start = metrics != null ? System.nanoTime() : 0;
+		dfs(g, v);
+		if (metrics != null)
+			metrics.dfs(System.nanoTime() - start);
+	}
+
+	// the search of DFS(g, v), without the timing
+	private void dfs(IGraph<V, E> g, IVertex<V> v) {
 		setLabel(v, DFSLabel.VISITED);
+		int scanned = 0;
 		for(IIterator<IEdge<E>> eIterator = g.incidentEdges(v); eIterator.hasNext();) {
 			IEdge<E> e = eIterator.next();
+			scanned++;
 			if(getLabel(e) == DFSLabel.UNEXPLORED) {
 				IVertex<V> w = g.opposite(v, e);
 				if(getLabel(w) == DFSLabel.UNEXPLORED) {
 					setLabel(e, DFSLabel.DISCOVERY);
-					DFS(g, w);
+					dfs(g, w);
 				} else {
 					setLabel(e, DFSLabel.BACK);
 				}
 			}
 		}
-		
+		if (metrics != null)
+			metrics.visited(1, scanned);
 	}
 		
 	/**
@@ -355,6 +915,7 @@ public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
 		// must cast to EdgeList vertex
 		AdjacencyMatrixVertex v = (AdjacencyMatrixVertex) u;
 		v.dfsLabel = l;
+		v.dfsStamp = dfsEpoch;
 	}
 		
 	/**
@@ -363,7 +924,8 @@ public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
 	public void setLabel(IEdge<E> e, DFSLabel l) {
 		// must cast to EdgeList edge
 		AdjacencyMatrixEdge ed = (AdjacencyMatrixEdge) e;
-		ed.dfsLabel = l;	
+		ed.dfsLabel = l;
+		ed.dfsStamp = dfsEpoch;
 	}
 		
 	/**
@@ -372,7 +934,7 @@ public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
 	public DFSLabel getLabel(IVertex<V> v) {
 		// must cast to EdgeList vertex
 		AdjacencyMatrixVertex ve = (AdjacencyMatrixVertex) v;
-		return ve.dfsLabel;
+		return ve.dfsStamp == dfsEpoch ? ve.dfsLabel : DFSLabel.UNEXPLORED;
 	}
 
 	/**
@@ -381,26 +943,22 @@ public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
 	public DFSLabel getLabel(IEdge<E> e) {
 		// must cast to EdgeList edge
 		AdjacencyMatrixEdge ed = (AdjacencyMatrixEdge) e;
-		return ed.dfsLabel;
+		return ed.dfsStamp == dfsEpoch ? ed.dfsLabel : DFSLabel.UNEXPLORED;
 	}
 	
 	/**
 	 * labeling of the edges of g as discovery edges and back edges
 	 */
 	public void BFS(IGraph<V, E> g) {
-		for(IIterator<IVertex<V>> uIterator = g.vertices(); uIterator.hasNext();) {
-			IVertex<V> u = uIterator.next();
-			setBLabel(u, BFSLabel.UNEXPLORED);
-		}
-		for(IIterator<IEdge<E>> eIterator = g.edges(); eIterator.hasNext();) {
-			IEdge<E> e = eIterator.next();
-			setBLabel(e, BFSLabel.UNEXPLORED);
-		}
+		long start = metrics != null ? System.nanoTime() : 0;
+		resetBLabels();
 		for(IIterator<IVertex<V>> vIterator = g.vertices(); vIterator.hasNext();) {
 			IVertex<V> v = vIterator.next();
 			if(getBLabel(v) == BFSLabel.UNEXPLORED)
-				DFS(g, v);
+				bfs(g, v);
 		}
+		if (metrics != null)
+			metrics.bfs(System.nanoTime() - start);
 	}
 	
 	/**
@@ -408,37 +966,43 @@ public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
 	 * discovery edges and back edges
 	 */
 	public void BFS(IGraph<V, E> g, IVertex<V> s) {
-		IList<IVertex<V>>[] l = new DLinkedList[1];
-		l[0].insertLast(s);
+		long start = metrics != null ? System.nanoTime() : 0;
+		bfs(g, s);
+		if (metrics != null)
+			metrics.bfs(System.nanoTime() - start);
+	}
+
+	// the search of BFS(g, s), without the timing
+	private void bfs(IGraph<V, E> g, IVertex<V> s) {
+		// the vertices of the current level and of the next one
+		IList<IVertex<V>> level = new DLinkedList<IVertex<V>>();
+		level.insertLast(s);
 		setBLabel(s, BFSLabel.VISITED);
-		int i = 0;
-		while(!l[i].isEmpty()) {
-			IList<IVertex<V>>[] newL = new DLinkedList[i+2];
-			for(int j = 0; j <= i; j++) {
-				newL[j] = l[j];
-			}
-			l = newL;
-			
-			for(IIterator<IVertex<V>> vIterator = l[i].iterator(); vIterator.hasNext();) {
+		int visited = 0, scanned = 0;
+		while(!level.isEmpty()) {
+			IList<IVertex<V>> next = new DLinkedList<IVertex<V>>();
+			for(IIterator<IVertex<V>> vIterator = level.iterator(); vIterator.hasNext();) {
 				IVertex<V> v = vIterator.next();
+				visited++;
 				for(IIterator<IEdge<E>> eIterator = g.incidentEdges(v); eIterator.hasNext();) {
 					IEdge<E> e = eIterator.next();
+					scanned++;
 					if(getBLabel(e) == BFSLabel.UNEXPLORED) {
 						IVertex<V> w = opposite(v, e);
 						if(getBLabel(w) == BFSLabel.UNEXPLORED) {
 							setBLabel(e, BFSLabel.DISCOVERY);
 							setBLabel(w, BFSLabel.VISITED);
-							l[i+1].insertLast(w);
+							next.insertLast(w);
 						} else {
 							setBLabel(e, BFSLabel.CROSS);
 						}
 					}
 				}
 			}
-			i++;
+			level = next;
 		}
-		
-		
+		if (metrics != null)
+			metrics.visited(visited, scanned);
 	}
 	
 	/**
@@ -449,6 +1013,7 @@ public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
 		// must cast to EdgeList vertex
 		AdjacencyMatrixVertex v = (AdjacencyMatrixVertex) u;
 		v.bfsLabel = l;
+		v.bfsStamp = bfsEpoch;
 	}
 		
 	/**
@@ -457,7 +1022,8 @@ public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
 	public void setBLabel(IEdge<E> e, BFSLabel l) {
 		// must cast to EdgeList edge
 		AdjacencyMatrixEdge ed = (AdjacencyMatrixEdge) e;
-		ed.bfsLabel = l;	
+		ed.bfsLabel = l;
+		ed.bfsStamp = bfsEpoch;
 	}
 	
 	/**
@@ -466,7 +1032,7 @@ public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
 	public BFSLabel getBLabel(IVertex<V> v) {
 		// must cast to EdgeList vertex
 		AdjacencyMatrixVertex ve = (AdjacencyMatrixVertex) v;
-		return ve.bfsLabel;
+		return ve.bfsStamp == bfsEpoch ? ve.bfsLabel : BFSLabel.UNEXPLORED;
 	}
 
 	/**
@@ -475,6 +1041,6 @@ public class AdjacencyMatrixGraph<V,E> implements IGraph<V,E> {
 	public BFSLabel getBLabel(IEdge<E> e) {
 		// must cast to EdgeList edge
 		AdjacencyMatrixEdge ed = (AdjacencyMatrixEdge) e;
-		return ed.bfsLabel;
+		return ed.bfsStamp == bfsEpoch ? ed.bfsLabel : BFSLabel.UNEXPLORED;
 	}
 }
@@ -0,0 +1,23 @@
+package graph.impl;
+
+/**
+ * Checks shared by the {@code insertEdges} methods of the implementations, so
+ * that a bad batch is rejected before any of its edges is inserted.
+ */
+final class BulkEdges {
+
+	private BulkEdges() {
+	}
+
+	/**
+	 * Check that the arrays have the same length and that every end point is
+	 * one of the {@code n} vertex numbers.
+	 */
+	static void check(int[] src, int[] dst, Object[] elements, int n) {
+		if (src.length != dst.length || (elements != null && elements.length != src.length))
+			throw new IllegalArgumentException("Error: src, dst and elements must have the same length.");
+		for (int i = 0; i < src.length; i++)
+			if (src[i] < 0 || src[i] >= n || dst[i] < 0 || dst[i] >= n)
+				throw new IllegalArgumentException("Error: edge " + i + " has an end point that is not a vertex.");
+	}
+}
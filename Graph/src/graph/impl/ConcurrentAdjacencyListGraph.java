@@ -0,0 +1,946 @@
+package graph.impl;
+
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import graph.core.IEdge;
+import graph.core.IEdgeCursor;
+import graph.core.IGraphSnapshot;
+import graph.core.IIterator;
+import graph.core.IVersionedGraph;
+import graph.core.IVertex;
+import graph.core.IVertexCursor;
+import graph.core.IWeightedGraph;
+import graph.util.WeightColumn;
+
+/**
+ * Adjacency list graph that many threads can use at once, with snapshots.
+ *
+ * Every insert and remove makes a new version of the graph. Vertices and edges
+ * are stamped with the version that created them and the version that removed
+ * them, and stay in the vertex, edge and incident edge tables until no snapshot
+ * can see them any more. A read at version {@code s} only sees the entries that
+ * were created at or before {@code s} and not removed by then.
+ *
+ * The tables are append-only: the writer fills a free slot and then publishes
+ * the new size, and replaces the whole table when it has to grow or drop dead
+ * entries. Readers therefore never take a lock; they read the version, then the
+ * table, and see a consistent graph as of that version. Writers are serialized
+ * by one lock, which readers never hold, so writers never wait for readers, and
+ * each change becomes visible at once when the version is published.
+ *
+ * Elements are versioned the same way: {@code replace} makes a new version and
+ * keeps the element it replaced for as long as a snapshot may read it. A
+ * snapshot therefore hands out handles on the vertices and edges, which read
+ * the element of its version; they are equal to the vertices and edges of the
+ * graph and can be passed to it.
+ *
+ * The weight of an edge is a primitive {@code double} kept next to its element
+ * and versioned with it, so {@code setWeight} does not change what open
+ * snapshots see either.
+ */
+public class ConcurrentAdjacencyListGraph<V,E> implements IVersionedGraph<V,E>, IWeightedGraph<V,E> {
+	// removal version of a vertex or edge that is still in the graph
+	private static final long ALIVE = Long.MAX_VALUE;
+
+	/**
+	 * An element of a vertex or edge and the weight of an edge, with the
+	 * version that set them.
+	 */
+	private static class Element {
+		final long version;
+		final Object value;
+		final double weight;
+
+		// the element this one replaced, or null once no snapshot can read it
+		Element older;
+
+		Element(long version, Object value, double weight, Element older) {
+			this.version = version;
+			this.value = value;
+			this.weight = weight;
+			this.older = older;
+		}
+	}
+
+	/**
+	 * A vertex or edge with the versions it was created and removed at, and
+	 * its elements.
+	 */
+	private static class Versioned {
+		final long created;
+		volatile long removed = ALIVE;
+
+		// newest element first
+		volatile Element element;
+
+		Versioned(long created, Object element, double weight) {
+			this.created = created;
+			this.element = new Element(created, element, weight, null);
+		}
+
+		boolean visible(long version) {
+			return created <= version && version < removed;
+		}
+
+		// the element at version s (an entry has one from its creation on)
+		Element at(long s) {
+			Element x = element;
+			while (x.version > s)
+				x = x.older;
+			return x;
+		}
+
+		// drop the elements that no version from horizon on can read
+		void trim(long horizon) {
+			for (Element x = element; x != null; x = x.older)
+				if (x.version <= horizon) {
+					x.older = null;
+					return;
+				}
+		}
+	}
+
+	/**
+	 * Append-only table of vertices or edges. Readers take the table once and
+	 * read its size once, and the writer never changes the slots below that size.
+	 */
+	private static class Table {
+		final Versioned[] items;
+		volatile int size;
+
+		// the entries removed at or before this version have been dropped
+		final long purged;
+
+		// number of removed entries still in the table (only used by the writer)
+		int dead;
+
+		Table(int capacity, long purged) {
+			items = new Versioned[capacity];
+			this.purged = purged;
+		}
+	}
+
+	/**
+	 * Inner class to represent a vertex in a concurrent adjacency list graph
+	 */
+	private class ConcurrentVertex extends Versioned implements IVertex<V> {
+		// incident edges table (a self loop is in it twice)
+		volatile Table incidence = new Table(4, 0);
+
+		public ConcurrentVertex(V element, long created) {
+			// vertices have no weight
+			super(created, element, 0);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public V element() {
+			return (V) element.value;
+		}
+
+		// equal to the snapshot handles on this vertex
+		@SuppressWarnings("unchecked")
+		@Override
+		public boolean equals(Object o) {
+			return o == this || (o instanceof ConcurrentAdjacencyListGraph.SnapshotVertex
+					&& ((SnapshotVertex) o).vertex == this);
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(this);
+		}
+
+		public String toString() {
+			return String.valueOf(element());
+		}
+	}
+
+	/**
+	 * Inner class to represent an edge in a concurrent adjacency list graph
+	 */
+	private class ConcurrentEdge extends Versioned implements IEdge<E> {
+		// the start and end vertices that this edge connects
+		final ConcurrentVertex start, end;
+
+		public ConcurrentEdge(ConcurrentVertex start, ConcurrentVertex end, E element, double weight, long created) {
+			super(created, element, weight);
+			this.start = start;
+			this.end = end;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public E element() {
+			return (E) element.value;
+		}
+
+		// equal to the snapshot handles on this edge
+		@SuppressWarnings("unchecked")
+		@Override
+		public boolean equals(Object o) {
+			return o == this || (o instanceof ConcurrentAdjacencyListGraph.SnapshotEdge
+					&& ((SnapshotEdge) o).edge == this);
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(this);
+		}
+
+		public String toString() {
+			return String.valueOf(element());
+		}
+	}
+
+	/**
+	 * A vertex as a snapshot sees it: the vertex of the graph, with the element
+	 * of the snapshot's version.
+	 */
+	private class SnapshotVertex implements IVertex<V> {
+		final ConcurrentVertex vertex;
+		final long s;
+
+		SnapshotVertex(ConcurrentVertex vertex, long s) {
+			this.vertex = vertex;
+			this.s = s;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public V element() {
+			return (V) vertex.at(s).value;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public boolean equals(Object o) {
+			return vertex.equals(o) || (o instanceof ConcurrentAdjacencyListGraph.SnapshotVertex
+					&& ((SnapshotVertex) o).vertex == vertex);
+		}
+
+		@Override
+		public int hashCode() {
+			return vertex.hashCode();
+		}
+
+		public String toString() {
+			return String.valueOf(element());
+		}
+	}
+
+	/**
+	 * An edge as a snapshot sees it, like {@link SnapshotVertex}.
+	 */
+	private class SnapshotEdge implements IEdge<E> {
+		final ConcurrentEdge edge;
+		final long s;
+
+		SnapshotEdge(ConcurrentEdge edge, long s) {
+			this.edge = edge;
+			this.s = s;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public E element() {
+			return (E) edge.at(s).value;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public boolean equals(Object o) {
+			return edge.equals(o) || (o instanceof ConcurrentAdjacencyListGraph.SnapshotEdge
+					&& ((SnapshotEdge) o).edge == edge);
+		}
+
+		@Override
+		public int hashCode() {
+			return edge.hashCode();
+		}
+
+		public String toString() {
+			return String.valueOf(element());
+		}
+	}
+
+	// vertex and edge tables
+	private volatile Table vertices = new Table(16, 0);
+	private volatile Table edges = new Table(16, 0);
+
+	// last published version
+	private volatile long version;
+
+	// serializes the writers; readers never take it
+	private final ReentrantLock writer = new ReentrantLock();
+
+	// number of open snapshots of every version (guarded by itself)
+	private final TreeMap<Long,Integer> pinned = new TreeMap<Long,Integer>();
+
+	/**
+	 * Constructor
+	 */
+	public ConcurrentAdjacencyListGraph() {
+	}
+
+	@Override
+	public long version() {
+		return version;
+	}
+
+	@Override
+	public IGraphSnapshot<V,E> snapshot() {
+		// pin under the same lock the writer reads the pins with, so the writer
+		// either sees the pin or has already published a version >= s
+		long s;
+		synchronized (pinned) {
+			s = version;
+			Integer count = pinned.get(s);
+			pinned.put(s, count == null ? 1 : count + 1);
+		}
+		return new Snapshot(s);
+	}
+
+	/**
+	 * Oldest version that a snapshot can still read.
+	 */
+	private long horizon() {
+		synchronized (pinned) {
+			return pinned.isEmpty() ? version : Math.min(version, pinned.firstKey());
+		}
+	}
+
+	/**
+	 * The vertex of the graph behind {@code v}, which may be a snapshot handle.
+	 */
+	@SuppressWarnings("unchecked")
+	private ConcurrentVertex vertex(IVertex<V> v) {
+		return v instanceof ConcurrentAdjacencyListGraph.SnapshotVertex ? ((SnapshotVertex) v).vertex
+				: (ConcurrentVertex) v;
+	}
+
+	/**
+	 * The edge of the graph behind {@code e}, which may be a snapshot handle.
+	 */
+	@SuppressWarnings("unchecked")
+	private ConcurrentEdge edge(IEdge<E> e) {
+		return e instanceof ConcurrentAdjacencyListGraph.SnapshotEdge ? ((SnapshotEdge) e).edge : (ConcurrentEdge) e;
+	}
+
+	/**
+	 * The entry itself for a read at the current version ({@code s} negative),
+	 * or a handle that reads the elements of version {@code s}.
+	 */
+	private Object handle(Versioned x, long s) {
+		if (s < 0)
+			return x;
+		return x instanceof ConcurrentAdjacencyListGraph.ConcurrentVertex
+				? new SnapshotVertex((ConcurrentVertex) x, s) : new SnapshotEdge((ConcurrentEdge) x, s);
+	}
+
+	@Override
+	public IVertex<V>[] endVertices(IEdge<E> e) {
+		ConcurrentEdge edge = edge(e);
+
+		@SuppressWarnings("unchecked")
+		IVertex<V>[] endpoints = new IVertex[2];
+		endpoints[0] = edge.start;
+		endpoints[1] = edge.end;
+		return endpoints;
+	}
+
+	@Override
+	public IVertex<V> opposite(IVertex<V> v, IEdge<E> e) {
+		// the end points of an edge never change, so any version will do
+		ConcurrentEdge edge = edge(e);
+		ConcurrentVertex vertex = vertex(v);
+		if (edge.start == vertex) {
+			return edge.end;
+		} else if (edge.end == vertex) {
+			return edge.start;
+		}
+
+		// Problem! e is not connected to v.
+		throw new RuntimeException("Error: cannot find opposite vertex.");
+	}
+
+	@Override
+	public boolean areAdjacent(IVertex<V> v, IVertex<V> w) {
+		return areAdjacent(v, w, -1);
+	}
+
+	/**
+	 * Find whether {@code v} and {@code w} are adjacent at version {@code s},
+	 * or at the current version if {@code s} is negative.
+	 */
+	private boolean areAdjacent(IVertex<V> v, IVertex<V> w, long s) {
+		ConcurrentVertex vertexV = vertex(v);
+		ConcurrentVertex vertexW = vertex(w);
+
+		// search the shorter table (an edge is in both or in neither)
+		if (vertexV.incidence.size > vertexW.incidence.size) {
+			ConcurrentVertex t = vertexV;
+			vertexV = vertexW;
+			vertexW = t;
+		}
+
+		long version = s;
+		Table t;
+		do {
+			if (s < 0)
+				version = this.version;
+			t = vertexV.incidence;
+		} while (t.purged > version);
+
+		for (int i = 0, size = t.size; i < size; i++) {
+			ConcurrentEdge edge = (ConcurrentEdge) t.items[i];
+			if (edge.visible(version) && ((edge.start == vertexV && edge.end == vertexW)
+					|| (edge.end == vertexV && edge.start == vertexW)))
+				return true;
+		}
+		return false;
+	}
+
+	@Override
+	public V replace(IVertex<V> v, V o) {
+		ConcurrentVertex vertex = vertex(v);
+		writer.lock();
+		try {
+			V temp = vertex.element();
+			setElement(vertex, o, 0);
+			return temp;
+		} finally {
+			writer.unlock();
+		}
+	}
+
+	@Override
+	public E replace(IEdge<E> e, E o) {
+		ConcurrentEdge edge = edge(e);
+		writer.lock();
+		try {
+			E temp = edge.element();
+			setElement(edge, o, o instanceof Number ? ((Number) o).doubleValue() : edge.element.weight);
+			return temp;
+		} finally {
+			writer.unlock();
+		}
+	}
+
+	@Override
+	public double weight(IEdge<E> e) {
+		return edge(e).element.weight;
+	}
+
+	@Override
+	public double setWeight(IEdge<E> e, double weight) {
+		ConcurrentEdge edge = edge(e);
+		writer.lock();
+		try {
+			Element current = edge.element;
+			setElement(edge, current.value, weight);
+			return current.weight;
+		} finally {
+			writer.unlock();
+		}
+	}
+
+	/**
+	 * Give {@code x} element {@code o} and {@code weight} in a new version,
+	 * keeping the elements that snapshots may still read. The caller must hold
+	 * the writer lock.
+	 */
+	private void setElement(Versioned x, Object o, double weight) {
+		long next = version + 1;
+		x.element = new Element(next, o, weight, x.element);
+		x.trim(horizon());
+		version = next;
+	}
+
+	@Override
+	public IVertex<V> insertVertex(V o) {
+		writer.lock();
+		try {
+			long next = version + 1;
+			ConcurrentVertex vertex = new ConcurrentVertex(o, next);
+			vertices = append(vertices, vertex);
+			version = next;
+			return vertex;
+		} finally {
+			writer.unlock();
+		}
+	}
+
+	@Override
+	public IEdge<E> insertEdge(IVertex<V> v, IVertex<V> w, E o) {
+		return insertEdge(v, w, o, WeightColumn.weightOf(o));
+	}
+
+	@Override
+	public IEdge<E> insertEdge(IVertex<V> v, IVertex<V> w, E o, double weight) {
+		ConcurrentVertex vertexV = vertex(v);
+		ConcurrentVertex vertexW = vertex(w);
+
+		writer.lock();
+		try {
+			if (vertexV.removed != ALIVE || vertexW.removed != ALIVE)
+				throw new RuntimeException("Error: cannot connect a removed vertex.");
+
+			long next = version + 1;
+			ConcurrentEdge edge = new ConcurrentEdge(vertexV, vertexW, o, weight, next);
+			edges = append(edges, edge);
+			vertexV.incidence = append(vertexV.incidence, edge);
+			vertexW.incidence = append(vertexW.incidence, edge);
+			version = next;
+			return edge;
+		} finally {
+			writer.unlock();
+		}
+	}
+
+	@Override
+	public V removeVertex(IVertex<V> v) {
+		ConcurrentVertex vertex = vertex(v);
+
+		writer.lock();
+		try {
+			if (vertex.removed != ALIVE)
+				throw new RuntimeException("Error: vertex was already removed.");
+
+			// stamp the vertex and all its edges with the same version, so
+			// readers see them all go at once
+			long next = version + 1;
+			Table t = vertex.incidence;
+			for (int i = 0, size = t.size; i < size; i++) {
+				ConcurrentEdge edge = (ConcurrentEdge) t.items[i];
+				if (edge.removed == ALIVE) {
+					edge.removed = next;
+					edges.dead++;
+					edge.start.incidence.dead++;
+					edge.end.incidence.dead++;
+				}
+			}
+			vertex.removed = next;
+			vertices.dead++;
+			version = next;
+
+			// drop what no snapshot can see any more
+			for (int i = 0, size = t.size; i < size; i++) {
+				ConcurrentEdge edge = (ConcurrentEdge) t.items[i];
+				ConcurrentVertex other = edge.start == vertex ? edge.end : edge.start;
+				other.incidence = purge(other.incidence);
+			}
+			edges = purge(edges);
+			vertices = purge(vertices);
+			return vertex.element();
+		} finally {
+			writer.unlock();
+		}
+	}
+
+	@Override
+	public E removeEdge(IEdge<E> e) {
+		ConcurrentEdge edge = edge(e);
+
+		writer.lock();
+		try {
+			if (edge.removed != ALIVE)
+				throw new RuntimeException("Error: edge was already removed.");
+
+			long next = version + 1;
+			edge.removed = next;
+			edges.dead++;
+			edge.start.incidence.dead++;
+			edge.end.incidence.dead++;
+			version = next;
+
+			edges = purge(edges);
+			edge.start.incidence = purge(edge.start.incidence);
+			edge.end.incidence = purge(edge.end.incidence);
+			return edge.element();
+		} finally {
+			writer.unlock();
+		}
+	}
+
+	/**
+	 * Append {@code x} to table {@code t}, replacing the table by a larger one
+	 * if it is full. The caller must hold the writer lock and store the result.
+	 */
+	private Table append(Table t, Versioned x) {
+		int size = t.size;
+		if (size == t.items.length)
+			t = copy(t, horizon());
+		size = t.size;
+		t.items[size] = x;
+		// publish the slot
+		t.size = size + 1;
+		return t;
+	}
+
+	/**
+	 * Replace table {@code t} by a copy without its dead entries, if at least
+	 * half of it is dead and some of them are older than every snapshot.
+	 */
+	private Table purge(Table t) {
+		if (t.dead < 8 || 2 * t.dead < t.size)
+			return t;
+		long horizon = horizon();
+		return horizon > t.purged ? copy(t, horizon) : t;
+	}
+
+	/**
+	 * Copy the entries of {@code t} that were not removed at or before version
+	 * {@code horizon} into a new table with room to grow, dropping the elements
+	 * they replaced before then.
+	 */
+	private static Table copy(Table t, long horizon) {
+		int size = t.size;
+		int keep = 0;
+		for (int i = 0; i < size; i++)
+			if (t.items[i].removed > horizon)
+				keep++;
+
+		Table copy = new Table(Math.max(4, 2 * keep), Math.max(horizon, t.purged));
+		int j = 0;
+		for (int i = 0; i < size; i++) {
+			Versioned x = t.items[i];
+			if (x.removed > horizon) {
+				x.trim(horizon);
+				copy.items[j++] = x;
+				if (x.removed != ALIVE)
+					copy.dead++;
+			}
+		}
+		copy.size = j;
+		return copy;
+	}
+
+	@Override
+	public IIterator<IEdge<E>> incidentEdges(IVertex<V> v) {
+		return incidentEdges(v, -1);
+	}
+
+	/**
+	 * Iterate over the edges incident on {@code v} at version {@code s}, or at
+	 * the current version if {@code s} is negative.
+	 */
+	private IIterator<IEdge<E>> incidentEdges(IVertex<V> v, long s) {
+		ConcurrentVertex vertex = vertex(v);
+		long version = s;
+		Table t;
+		do {
+			if (s < 0)
+				version = this.version;
+			t = vertex.incidence;
+		} while (t.purged > version);
+		return new TableIterator<IEdge<E>>(t, version, s);
+	}
+
+	@Override
+	public IIterator<IVertex<V>> vertices() {
+		return vertices(-1);
+	}
+
+	private IIterator<IVertex<V>> vertices(long s) {
+		long version = s;
+		Table t;
+		do {
+			if (s < 0)
+				version = this.version;
+			t = vertices;
+		} while (t.purged > version);
+		return new TableIterator<IVertex<V>>(t, version, s);
+	}
+
+	@Override
+	public IIterator<IEdge<E>> edges() {
+		return edges(-1);
+	}
+
+	private IIterator<IEdge<E>> edges(long s) {
+		long version = s;
+		Table t;
+		do {
+			if (s < 0)
+				version = this.version;
+			t = edges;
+		} while (t.purged > version);
+		return new TableIterator<IEdge<E>>(t, version, s);
+	}
+
+	/**
+	 * Iterator over the entries of a table that are visible at one version.
+	 */
+	private class TableIterator<T> implements IIterator<T> {
+		private final Versioned[] items;
+		private final int size;
+		private final long version;
+		// version of the snapshot that iterates, negative for the graph
+		private final long s;
+		private int i;
+
+		TableIterator(Table t, long version, long s) {
+			items = t.items;
+			size = t.size;
+			this.version = version;
+			this.s = s;
+			skip();
+		}
+
+		// move i to the next visible entry
+		private void skip() {
+			while (i < size && !items[i].visible(version))
+				i++;
+		}
+
+		public boolean hasNext() {
+			return i < size;
+		}
+
+		@SuppressWarnings("unchecked")
+		public T next() {
+			if (!hasNext())
+				return null;
+			T x = (T) handle(items[i++], s);
+			skip();
+			return x;
+		}
+	}
+
+	/**
+	 * Edge cursor over the incident edges table of a vertex. It reads the table
+	 * in place, so at the current version it never allocates; a snapshot's
+	 * cursor makes a handle for every edge and vertex it returns.
+	 */
+	private class ConcurrentEdgeCursor implements IEdgeCursor<V,E> {
+		// version to read at, negative for the current version
+		final long s;
+
+		// the vertex whose edges are visited, its table and the current position
+		ConcurrentVertex vertex;
+		Versioned[] items;
+		int size, i;
+		long version;
+
+		ConcurrentEdgeCursor(long s) {
+			this.s = s;
+		}
+
+		@Override
+		public void reset(IVertex<V> v) {
+			vertex = vertex(v);
+			version = s;
+			Table t;
+			do {
+				if (s < 0)
+					version = ConcurrentAdjacencyListGraph.this.version;
+				t = vertex.incidence;
+			} while (t.purged > version);
+			items = t.items;
+			size = t.size;
+			i = -1;
+		}
+
+		@Override
+		public boolean advance() {
+			while (++i < size)
+				if (items[i].visible(version))
+					return true;
+			i = size;
+			return false;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public IEdge<E> edge() {
+			return (IEdge<E>) handle(items[i], s);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public IVertex<V> opposite() {
+			ConcurrentEdge edge = (ConcurrentEdge) items[i];
+			return (IVertex<V>) handle(edge.start == vertex ? edge.end : edge.start, s);
+		}
+	}
+
+	/**
+	 * Vertex cursor over the vertex table.
+	 */
+	private class ConcurrentVertexCursor implements IVertexCursor<V> {
+		// version to read at, negative for the current version
+		final long s;
+
+		Versioned[] items;
+		int size, i;
+		long version;
+
+		ConcurrentVertexCursor(long s) {
+			this.s = s;
+			reset();
+		}
+
+		@Override
+		public void reset() {
+			version = s;
+			Table t;
+			do {
+				if (s < 0)
+					version = ConcurrentAdjacencyListGraph.this.version;
+				t = vertices;
+			} while (t.purged > version);
+			items = t.items;
+			size = t.size;
+			i = -1;
+		}
+
+		@Override
+		public boolean advance() {
+			while (++i < size)
+				if (items[i].visible(version))
+					return true;
+			i = size;
+			return false;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public IVertex<V> vertex() {
+			return (IVertex<V>) handle(items[i], s);
+		}
+	}
+
+	@Override
+	public IEdgeCursor<V,E> newEdgeCursor() {
+		return new ConcurrentEdgeCursor(-1);
+	}
+
+	@Override
+	public IVertexCursor<V> newVertexCursor() {
+		return new ConcurrentVertexCursor(-1);
+	}
+
+	/**
+	 * Read-only view of the graph at one version. It only holds the version;
+	 * every read goes to the shared tables and skips the entries that the
+	 * version can not see, and the vertices and edges it returns are handles
+	 * that read their elements at the version.
+	 */
+	private class Snapshot implements IGraphSnapshot<V,E>, IWeightedGraph<V,E> {
+		final long s;
+		boolean closed;
+
+		Snapshot(long s) {
+			this.s = s;
+		}
+
+		@Override
+		public long version() {
+			return s;
+		}
+
+		@Override
+		public void close() {
+			synchronized (pinned) {
+				if (closed)
+					return;
+				closed = true;
+				int count = pinned.get(s);
+				if (count == 1)
+					pinned.remove(s);
+				else
+					pinned.put(s, count - 1);
+			}
+		}
+
+		@Override
+		public IVertex<V>[] endVertices(IEdge<E> e) {
+			IVertex<V>[] endpoints = ConcurrentAdjacencyListGraph.this.endVertices(e);
+			endpoints[0] = new SnapshotVertex((ConcurrentVertex) endpoints[0], s);
+			endpoints[1] = new SnapshotVertex((ConcurrentVertex) endpoints[1], s);
+			return endpoints;
+		}
+
+		@Override
+		public IVertex<V> opposite(IVertex<V> v, IEdge<E> e) {
+			return new SnapshotVertex((ConcurrentVertex) ConcurrentAdjacencyListGraph.this.opposite(v, e), s);
+		}
+
+		@Override
+		public boolean areAdjacent(IVertex<V> v, IVertex<V> w) {
+			return ConcurrentAdjacencyListGraph.this.areAdjacent(v, w, s);
+		}
+
+		@Override
+		public V replace(IVertex<V> v, V o) {
+			throw new UnsupportedOperationException("Snapshot is read-only");
+		}
+
+		@Override
+		public E replace(IEdge<E> e, E o) {
+			throw new UnsupportedOperationException("Snapshot is read-only");
+		}
+
+		@Override
+		public IVertex<V> insertVertex(V o) {
+			throw new UnsupportedOperationException("Snapshot is read-only");
+		}
+
+		@Override
+		public IEdge<E> insertEdge(IVertex<V> v, IVertex<V> w, E o) {
+			throw new UnsupportedOperationException("Snapshot is read-only");
+		}
+
+		@Override
+		public IEdge<E> insertEdge(IVertex<V> v, IVertex<V> w, E o, double weight) {
+			throw new UnsupportedOperationException("Snapshot is read-only");
+		}
+
+		@Override
+		public double weight(IEdge<E> e) {
+			return edge(e).at(s).weight;
+		}
+
+		@Override
+		public double setWeight(IEdge<E> e, double weight) {
+			throw new UnsupportedOperationException("Snapshot is read-only");
+		}
+
+		@Override
+		public V removeVertex(IVertex<V> v) {
+			throw new UnsupportedOperationException("Snapshot is read-only");
+		}
+
+		@Override
+		public E removeEdge(IEdge<E> e) {
+			throw new UnsupportedOperationException("Snapshot is read-only");
+		}
+
+		@Override
+		public IIterator<IEdge<E>> incidentEdges(IVertex<V> v) {
+			return ConcurrentAdjacencyListGraph.this.incidentEdges(v, s);
+		}
+
+		@Override
+		public IIterator<IVertex<V>> vertices() {
+			return ConcurrentAdjacencyListGraph.this.vertices(s);
+		}
+
+		@Override
+		public IIterator<IEdge<E>> edges() {
+			return ConcurrentAdjacencyListGraph.this.edges(s);
+		}
+
+		@Override
+		public IEdgeCursor<V,E> newEdgeCursor() {
+			return new ConcurrentEdgeCursor(s);
+		}
+
+		@Override
+		public IVertexCursor<V> newVertexCursor() {
+			return new ConcurrentVertexCursor(s);
+		}
+	}
+}
@@ -0,0 +1,685 @@
+package graph.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.function.IntConsumer;
+
+import graph.core.IEdge;
+import graph.core.IEdgeCursor;
+import graph.core.IGraph;
+import graph.core.IIntGraph;
+import graph.core.IIterator;
+import graph.core.IVertex;
+import graph.core.IVertexCursor;
+import graph.core.IWeightedGraph;
+import graph.util.WeightColumn;
+
+/**
+ * Immutable graph stored in compressed sparse row (CSR) form.
+ *
+ * Vertices and edges are numbered 0..n-1 and 0..m-1. The incident edges of
+ * vertex {@code v} are stored in positions {@code offsets[v]} to
+ * {@code offsets[v+1]-1} of the {@code neighbors} and {@code incident} arrays,
+ * sorted by neighbor, so a neighbor scan is one sequential array read.
+ *
+ * All the methods that change the graph throw {@link UnsupportedOperationException}.
+ * The vertex and edge numbers of the {@link IIntGraph} view never change.
+ */
+public class CsrGraph<V,E> implements IGraph<V,E>, IIntGraph<V,E>, IWeightedGraph<V,E> {
+	/**
+	 * Inner class to represent a vertex in a CSR graph. It is only a
+	 * lightweight handle on the vertex number, so two handles for the same
+	 * vertex are equal.
+	 */
+	private class CsrVertex implements IVertex<V> {
+		// number of this vertex
+		final int id;
+
+		public CsrVertex(int id) {
+			this.id = id;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public V element() {
+			return (V) vertexElements[id];
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof CsrGraph.CsrVertex))
+				return false;
+			CsrVertex other = (CsrVertex) o;
+			return other.id == id && other.graph() == graph();
+		}
+
+		@Override
+		public int hashCode() {
+			return id;
+		}
+
+		private CsrGraph<V,E> graph() {
+			return CsrGraph.this;
+		}
+
+		public String toString() {
+			return String.valueOf(element());
+		}
+	}
+
+	/**
+	 * Inner class to represent an edge in a CSR graph. Like {@link CsrVertex}
+	 * it is only a handle on the edge number.
+	 */
+	private class CsrEdge implements IEdge<E> {
+		// number of this edge
+		final int id;
+
+		public CsrEdge(int id) {
+			this.id = id;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public E element() {
+			return (E) edgeElements[id];
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof CsrGraph.CsrEdge))
+				return false;
+			CsrEdge other = (CsrEdge) o;
+			return other.id == id && other.graph() == graph();
+		}
+
+		@Override
+		public int hashCode() {
+			return id;
+		}
+
+		private CsrGraph<V,E> graph() {
+			return CsrGraph.this;
+		}
+
+		public String toString() {
+			return String.valueOf(element());
+		}
+	}
+
+	// number of vertices and edges
+	private final int n, m;
+
+	// start of each vertex's slice in neighbors/incident (length n+1)
+	private final int[] offsets;
+
+	// opposite vertex and edge number of every incidence (length 2m)
+	private final int[] neighbors;
+	private final int[] incident;
+
+	// the start and end vertex of every edge (length m)
+	private final int[] edgeStart, edgeEnd;
+
+	// elements stored in the vertices and edges
+	private final Object[] vertexElements;
+	private final Object[] edgeElements;
+
+	// weights of the edges, or null if every edge has weight 1
+	private final double[] edgeWeights;
+
+	/**
+	 * Freeze graph {@code g} into CSR form. Vertices are numbered in the order
+	 * {@code g.vertices()} returns them, and edges in the order of {@code g.edges()}.
+	 * @param g The graph to copy.
+	 */
+	public CsrGraph(IGraph<V,E> g) {
+		// number the vertices
+		HashMap<IVertex<V>,Integer> ids = new HashMap<IVertex<V>,Integer>();
+		Object[] vElements = new Object[16];
+		int vCount = 0;
+		for (IIterator<IVertex<V>> it = g.vertices(); it.hasNext();) {
+			IVertex<V> v = it.next();
+			if (vCount == vElements.length)
+				vElements = Arrays.copyOf(vElements, vCount * 2);
+			ids.put(v, vCount);
+			vElements[vCount++] = v.element();
+		}
+
+		// find the end points of every edge
+		Object[] eElements = new Object[16];
+		double[] eWeights = new double[16];
+		int[] start = new int[16];
+		int[] end = new int[16];
+		int eCount = 0;
+		for (IIterator<IEdge<E>> it = g.edges(); it.hasNext();) {
+			IEdge<E> e = it.next();
+			if (eCount == eElements.length) {
+				eElements = Arrays.copyOf(eElements, eCount * 2);
+				eWeights = Arrays.copyOf(eWeights, eCount * 2);
+				start = Arrays.copyOf(start, eCount * 2);
+				end = Arrays.copyOf(end, eCount * 2);
+			}
+			IVertex<V>[] endpoints = g.endVertices(e);
+			start[eCount] = ids.get(endpoints[0]);
+			end[eCount] = ids.get(endpoints[1]);
+			eWeights[eCount] = g instanceof IWeightedGraph ? ((IWeightedGraph<V,E>) g).weight(e)
+					: WeightColumn.weightOf(e.element());
+			eElements[eCount++] = e.element();
+		}
+
+		n = vCount;
+		m = eCount;
+		vertexElements = Arrays.copyOf(vElements, n);
+		edgeElements = Arrays.copyOf(eElements, m);
+		edgeWeights = Arrays.copyOf(eWeights, m);
+		edgeStart = Arrays.copyOf(start, m);
+		edgeEnd = Arrays.copyOf(end, m);
+		offsets = new int[n + 1];
+		neighbors = new int[2 * m];
+		incident = new int[2 * m];
+		build();
+	}
+
+	/**
+	 * Build a CSR graph straight from numbered edges. Used by the other
+	 * implementations for their {@link IIntGraph} view, in which case the
+	 * element arrays may be {@code null}.
+	 */
+	CsrGraph(int n, int m, int[] edgeStart, int[] edgeEnd, Object[] vertexElements, Object[] edgeElements) {
+		this(n, m, edgeStart, edgeEnd, vertexElements, edgeElements, null);
+	}
+
+	private CsrGraph(int n, int m, int[] edgeStart, int[] edgeEnd, Object[] vertexElements, Object[] edgeElements,
+			double[] edgeWeights) {
+		this.n = n;
+		this.m = m;
+		this.edgeStart = edgeStart;
+		this.edgeEnd = edgeEnd;
+		this.vertexElements = vertexElements;
+		this.edgeElements = edgeElements;
+		this.edgeWeights = edgeWeights;
+		offsets = new int[n + 1];
+		neighbors = new int[2 * m];
+		incident = new int[2 * m];
+		build();
+	}
+
+	/**
+	 * Get a copy of this graph with the vertices renumbered: vertex
+	 * {@code order[i]} becomes vertex {@code i}. The edges are renumbered in
+	 * the order of their smaller new end vertex, so the edges of nearby
+	 * vertices are near each other as well.
+	 * @param order A permutation of the vertex numbers.
+	 * @return The renumbered graph.
+	 */
+	public CsrGraph<V,E> reorder(int[] order) {
+		if (order.length != n)
+			throw new IllegalArgumentException("Error: order must have " + n + " vertices.");
+		int[] rank = new int[n];
+		Arrays.fill(rank, -1);
+		for (int i = 0; i < n; i++) {
+			if (order[i] < 0 || order[i] >= n || rank[order[i]] >= 0)
+				throw new IllegalArgumentException("Error: order is not a permutation.");
+			rank[order[i]] = i;
+		}
+
+		// counting sort of the edges by their smaller new end vertex
+		int[] first = new int[n + 1];
+		for (int e = 0; e < m; e++)
+			first[Math.min(rank[edgeStart[e]], rank[edgeEnd[e]]) + 1]++;
+		for (int v = 0; v < n; v++)
+			first[v + 1] += first[v];
+		int[] edgeOrder = new int[m];
+		for (int e = 0; e < m; e++)
+			edgeOrder[first[Math.min(rank[edgeStart[e]], rank[edgeEnd[e]])]++] = e;
+
+		int[] start = new int[m];
+		int[] end = new int[m];
+		Object[] eElements = edgeElements == null ? null : new Object[m];
+		double[] eWeights = edgeWeights == null ? null : new double[m];
+		for (int i = 0; i < m; i++) {
+			int e = edgeOrder[i];
+			start[i] = rank[edgeStart[e]];
+			end[i] = rank[edgeEnd[e]];
+			if (eElements != null)
+				eElements[i] = edgeElements[e];
+			if (eWeights != null)
+				eWeights[i] = edgeWeights[e];
+		}
+		Object[] vElements = null;
+		if (vertexElements != null) {
+			vElements = new Object[n];
+			for (int i = 0; i < n; i++)
+				vElements[i] = vertexElements[order[i]];
+		}
+		return new CsrGraph<V,E>(n, m, start, end, vElements, eElements, eWeights);
+	}
+
+	/**
+	 * Get an {@link IIntGraph} view of graph {@code g}. If {@code g} already
+	 * provides one it is returned as it is, otherwise {@code g} is frozen into
+	 * a new CSR graph. Either way {@code vertex(i)} and {@code edge(i)} return
+	 * the vertices and edges of {@code g}.
+	 * @param g The graph.
+	 * @return A numbered view of {@code g}.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V,E> IIntGraph<V,E> intView(IGraph<V,E> g) {
+		if (g instanceof IIntGraph)
+			return (IIntGraph<V,E>) g;
+		return new FrozenView<V,E>(g);
+	}
+
+	/**
+	 * Numbered view of a graph that has none of its own: the structure is
+	 * frozen into a CSR graph, and the vertices and edges are mapped to and from
+	 * their numbers, like the views of the other implementations.
+	 */
+	private static class FrozenView<V,E> implements IIntGraph<V,E> {
+		private final CsrGraph<V,E> index;
+		private final IVertex<V>[] vertexById;
+		private final IEdge<E>[] edgeById;
+		private final HashMap<Object,Integer> ids = new HashMap<Object,Integer>();
+
+		@SuppressWarnings("unchecked")
+		FrozenView(IGraph<V,E> g) {
+			IVertex<V>[] vs = new IVertex[16];
+			int n = 0;
+			for (IIterator<IVertex<V>> it = g.vertices(); it.hasNext(); n++) {
+				if (n == vs.length)
+					vs = Arrays.copyOf(vs, n * 2);
+				vs[n] = it.next();
+				ids.put(vs[n], n);
+			}
+
+			IEdge<E>[] es = new IEdge[16];
+			int[] start = new int[16];
+			int[] end = new int[16];
+			int m = 0;
+			for (IIterator<IEdge<E>> it = g.edges(); it.hasNext(); m++) {
+				if (m == es.length) {
+					es = Arrays.copyOf(es, m * 2);
+					start = Arrays.copyOf(start, m * 2);
+					end = Arrays.copyOf(end, m * 2);
+				}
+				es[m] = it.next();
+				ids.put(es[m], m);
+				IVertex<V>[] endpoints = g.endVertices(es[m]);
+				start[m] = ids.get(endpoints[0]);
+				end[m] = ids.get(endpoints[1]);
+			}
+
+			vertexById = Arrays.copyOf(vs, n);
+			edgeById = Arrays.copyOf(es, m);
+			index = new CsrGraph<V,E>(n, m, Arrays.copyOf(start, m), Arrays.copyOf(end, m), null, null);
+		}
+
+		@Override
+		public int numVertices() {
+			return vertexById.length;
+		}
+
+		@Override
+		public int numEdges() {
+			return edgeById.length;
+		}
+
+		@Override
+		public int vertexId(IVertex<V> v) {
+			return ids.get(v);
+		}
+
+		@Override
+		public int edgeId(IEdge<E> e) {
+			return ids.get(e);
+		}
+
+		@Override
+		public IVertex<V> vertex(int v) {
+			return vertexById[v];
+		}
+
+		@Override
+		public IEdge<E> edge(int e) {
+			return edgeById[e];
+		}
+
+		@Override
+		public int degree(int v) {
+			return index.degree(v);
+		}
+
+		@Override
+		public int neighbor(int v, int i) {
+			return index.neighbor(v, i);
+		}
+
+		@Override
+		public int incidentEdge(int v, int i) {
+			return index.incidentEdge(v, i);
+		}
+
+		@Override
+		public int edgeSource(int e) {
+			return index.edgeSource(e);
+		}
+
+		@Override
+		public int edgeTarget(int e) {
+			return index.edgeTarget(e);
+		}
+
+		@Override
+		public int opposite(int v, int e) {
+			return index.opposite(v, e);
+		}
+
+		@Override
+		public void forEachNeighbor(int v, IntConsumer action) {
+			index.forEachNeighbor(v, action);
+		}
+	}
+
+	/**
+	 * Fill offsets, neighbors and incident from edgeStart and edgeEnd.
+	 */
+	private void build() {
+		// count the degree of every vertex (a self loop counts twice,
+		// the same as in the other implementations)
+		for (int e = 0; e < m; e++) {
+			offsets[edgeStart[e] + 1]++;
+			offsets[edgeEnd[e] + 1]++;
+		}
+		for (int v = 0; v < n; v++)
+			offsets[v + 1] += offsets[v];
+
+		// place every edge in the slices of both its end points
+		int[] next = Arrays.copyOf(offsets, n);
+		for (int e = 0; e < m; e++) {
+			int s = edgeStart[e], t = edgeEnd[e];
+			neighbors[next[s]] = t;
+			incident[next[s]++] = e;
+			neighbors[next[t]] = s;
+			incident[next[t]++] = e;
+		}
+
+		// sort every slice by neighbor so areAdjacent can binary search
+		long[] pairs = new long[16];
+		for (int v = 0; v < n; v++) {
+			int from = offsets[v], to = offsets[v + 1];
+			if (to - from < 2)
+				continue;
+			if (to - from > pairs.length)
+				pairs = new long[to - from];
+			for (int i = from; i < to; i++)
+				pairs[i - from] = ((long) neighbors[i] << 32) | incident[i];
+			Arrays.sort(pairs, 0, to - from);
+			for (int i = from; i < to; i++) {
+				neighbors[i] = (int) (pairs[i - from] >>> 32);
+				incident[i] = (int) pairs[i - from];
+			}
+		}
+	}
+
+	@Override
+	public IVertex<V>[] endVertices(IEdge<E> e) {
+		// need to cast Edge type to CsrEdge
+		CsrEdge edge = (CsrEdge) e;
+
+		@SuppressWarnings("unchecked")
+		IVertex<V>[] endpoints = new IVertex[2];
+		endpoints[0] = new CsrVertex(edgeStart[edge.id]);
+		endpoints[1] = new CsrVertex(edgeEnd[edge.id]);
+		return endpoints;
+	}
+
+	@Override
+	public IVertex<V> opposite(IVertex<V> v, IEdge<E> e) {
+		int id = ((CsrVertex) v).id;
+		int edge = ((CsrEdge) e).id;
+
+		// return the end point that is not v
+		if (edgeStart[edge] == id)
+			return new CsrVertex(edgeEnd[edge]);
+		if (edgeEnd[edge] == id)
+			return new CsrVertex(edgeStart[edge]);
+
+		// Problem! e is not connected to v.
+		throw new RuntimeException("Error: cannot find opposite vertex.");
+	}
+
+	@Override
+	public boolean areAdjacent(IVertex<V> v, IVertex<V> w) {
+		int a = ((CsrVertex) v).id;
+		int b = ((CsrVertex) w).id;
+
+		// search the smaller of the two sorted slices
+		if (offsets[a + 1] - offsets[a] > offsets[b + 1] - offsets[b]) {
+			int t = a;
+			a = b;
+			b = t;
+		}
+		return Arrays.binarySearch(neighbors, offsets[a], offsets[a + 1], b) >= 0;
+	}
+
+	@Override
+	public V replace(IVertex<V> v, V o) {
+		throw new UnsupportedOperationException("CsrGraph is immutable");
+	}
+
+	@Override
+	public E replace(IEdge<E> e, E o) {
+		throw new UnsupportedOperationException("CsrGraph is immutable");
+	}
+
+	@Override
+	public IVertex<V> insertVertex(V o) {
+		throw new UnsupportedOperationException("CsrGraph is immutable");
+	}
+
+	@Override
+	public IEdge<E> insertEdge(IVertex<V> v, IVertex<V> w, E o) {
+		throw new UnsupportedOperationException("CsrGraph is immutable");
+	}
+
+	@Override
+	public IEdge<E> insertEdge(IVertex<V> v, IVertex<V> w, E o, double weight) {
+		throw new UnsupportedOperationException("CsrGraph is immutable");
+	}
+
+	@Override
+	public double weight(IEdge<E> e) {
+		return edgeWeights == null ? 1 : edgeWeights[((CsrEdge) e).id];
+	}
+
+	@Override
+	public double setWeight(IEdge<E> e, double weight) {
+		throw new UnsupportedOperationException("CsrGraph is immutable");
+	}
+
+	@Override
+	public V removeVertex(IVertex<V> v) {
+		throw new UnsupportedOperationException("CsrGraph is immutable");
+	}
+
+	@Override
+	public E removeEdge(IEdge<E> e) {
+		throw new UnsupportedOperationException("CsrGraph is immutable");
+	}
+
+	@Override
+	public IIterator<IEdge<E>> incidentEdges(IVertex<V> v) {
+		final int id = ((CsrVertex) v).id;
+		return new IIterator<IEdge<E>>() {
+			int i = offsets[id];
+
+			public boolean hasNext() {
+				return i < offsets[id + 1];
+			}
+
+			public IEdge<E> next() {
+				return hasNext() ? new CsrEdge(incident[i++]) : null;
+			}
+		};
+	}
+
+	/**
+	 * Edge cursor over a vertex's slice of the CSR arrays. The edges and
+	 * vertices it returns are new handles; use the {@link IIntGraph} methods
+	 * for loops that must not create any objects.
+	 */
+	private class CsrGraphEdgeCursor implements IEdgeCursor<V,E> {
+		// current position and end of the slice
+		int i, end;
+
+		@Override
+		public void reset(IVertex<V> v) {
+			int id = ((CsrVertex) v).id;
+			i = offsets[id] - 1;
+			end = offsets[id + 1];
+		}
+
+		@Override
+		public boolean advance() {
+			return i < end && ++i < end;
+		}
+
+		@Override
+		public IEdge<E> edge() {
+			return new CsrEdge(incident[i]);
+		}
+
+		@Override
+		public IVertex<V> opposite() {
+			return new CsrVertex(neighbors[i]);
+		}
+	}
+
+	@Override
+	public IEdgeCursor<V,E> newEdgeCursor() {
+		return new CsrGraphEdgeCursor();
+	}
+
+	@Override
+	public IVertexCursor<V> newVertexCursor() {
+		return new IVertexCursor<V>() {
+			int i = -1;
+
+			public void reset() {
+				i = -1;
+			}
+
+			public boolean advance() {
+				return i < n && ++i < n;
+			}
+
+			public IVertex<V> vertex() {
+				return new CsrVertex(i);
+			}
+		};
+	}
+
+	@Override
+	public IIterator<IVertex<V>> vertices() {
+		return new IIterator<IVertex<V>>() {
+			int i = 0;
+
+			public boolean hasNext() {
+				return i < n;
+			}
+
+			public IVertex<V> next() {
+				return hasNext() ? new CsrVertex(i++) : null;
+			}
+		};
+	}
+
+	@Override
+	public IIterator<IEdge<E>> edges() {
+		return new IIterator<IEdge<E>>() {
+			int i = 0;
+
+			public boolean hasNext() {
+				return i < m;
+			}
+
+			public IEdge<E> next() {
+				return hasNext() ? new CsrEdge(i++) : null;
+			}
+		};
+	}
+
+	@Override
+	public int numVertices() {
+		return n;
+	}
+
+	@Override
+	public int numEdges() {
+		return m;
+	}
+
+	@Override
+	public int vertexId(IVertex<V> v) {
+		return ((CsrVertex) v).id;
+	}
+
+	@Override
+	public int edgeId(IEdge<E> e) {
+		return ((CsrEdge) e).id;
+	}
+
+	@Override
+	public IVertex<V> vertex(int v) {
+		return new CsrVertex(v);
+	}
+
+	@Override
+	public IEdge<E> edge(int e) {
+		return new CsrEdge(e);
+	}
+
+	@Override
+	public int degree(int v) {
+		return offsets[v + 1] - offsets[v];
+	}
+
+	@Override
+	public int neighbor(int v, int i) {
+		return neighbors[offsets[v] + i];
+	}
+
+	@Override
+	public int incidentEdge(int v, int i) {
+		return incident[offsets[v] + i];
+	}
+
+	@Override
+	public int edgeSource(int e) {
+		return edgeStart[e];
+	}
+
+	@Override
+	public int edgeTarget(int e) {
+		return edgeEnd[e];
+	}
+
+	@Override
+	public int opposite(int v, int e) {
+		if (edgeStart[e] == v)
+			return edgeEnd[e];
+		if (edgeEnd[e] == v)
+			return edgeStart[e];
+
+		// Problem! e is not connected to v.
+		throw new RuntimeException("Error: cannot find opposite vertex.");
+	}
+
+	@Override
+	public void forEachNeighbor(int v, IntConsumer action) {
+		for (int i = offsets[v], end = offsets[v + 1]; i < end; i++)
+			action.accept(neighbors[i]);
+	}
+}
@@ -1,18 +1,34 @@
 package graph.impl;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.IntConsumer;
 
 import graph.core.BFSLabel;
 import graph.core.DFSLabel;
+import graph.core.IBulkGraph;
 import graph.core.IEdge;
+import graph.core.IEdgeCursor;
 import graph.core.IGraph;
+import graph.core.IIntGraph;
 import graph.core.IIterator;
 import graph.core.IList;
 import graph.core.INode;
 import graph.core.IVertex;
+import graph.core.IVertexCursor;
+import graph.core.IWeightedGraph;
+import graph.io.GraphFile;
+import graph.io.IElementCodec;
+import graph.util.CursorIterator;
 import graph.util.DLinkedList;
+import graph.util.GraphMetrics;
+import graph.util.ListVertexCursor;
+import graph.util.WeightColumn;
 
-public class EdgeListGraph<V,E> implements IGraph<V,E> {
+public class EdgeListGraph<V,E> implements IBulkGraph<V,E>, IIntGraph<V,E>, IWeightedGraph<V,E> {
 
 	
 
@@ -26,11 +42,20 @@ public class EdgeListGraph<V,E> implements IGraph<V,E> {
 		// label for breath first search
 		BFSLabel bfsLabel;
 		
+		// epochs in which the labels were set (see dfsEpoch and bfsEpoch)
+		int dfsStamp, bfsStamp;
+		
 		// reference to a node in the vertex list
 		INode<IVertex<V>> node;
 
 		// element stored in this vertex
 		V element;
+		
+		// number of this vertex in the int view
+		int id;
+
+		// incident edges list (only when the incidence index is built)
+		IList<IEdge<E>> incidentEdges;
 
 		public EdgeListVertex(V element) {
 			this.element = element;
@@ -61,11 +86,21 @@ public class EdgeListGraph<V,E> implements IGraph<V,E> {
 		// label for breath first search
 		BFSLabel bfsLabel;
 		
-		// reference to a node in the edge list
-		INode<IEdge<E>> node;
+		// epochs in which the labels were set (see dfsEpoch and bfsEpoch)
+		int dfsStamp, bfsStamp;
+		
+		// reference to a node in the edge list and, when the incidence
+		// index is built, in the incident edges lists of its end vertices
+		INode<IEdge<E>> node, startIE, endIE;
 
 		// element stored in this edge
 		E element;
+		
+		// number of this edge in the int view
+		int id;
+		
+		// slot of this edge's weight in the weight column
+		int slot;
 
 		// the start and end vertices that this edge connects
 		EdgeListVertex start, end;
@@ -93,13 +128,60 @@ public class EdgeListGraph<V,E> implements IGraph<V,E> {
 	// edge list
 	private IList<IEdge<E>> edges;
 
+	// weights of the edges
+	private final WeightColumn weights = new WeightColumn();
+
+	// int view of this graph (rebuilt after the graph changes)
+	private CsrGraph<V,E> index;
+	private IVertex<V>[] vertexById;
+	private IEdge<E>[] edgeById;
+
+	// current DFS and BFS epochs; a label only counts if it was set in the
+	// current epoch, so a new epoch makes all labels UNEXPLORED at once
+	private int dfsEpoch = 1, bfsEpoch = 1;
+
+	// counters for searches and adjacency tests, or null when not measured
+	private GraphMetrics metrics;
+
+	// whether incidentEdges may use a per-vertex index of incident edges
+	private final boolean indexIncidence;
+
+	// whether the per-vertex incident edges lists have been built
+	private boolean indexed = false;
+
 	/**
 	 * Constructor
 	 */
 	public EdgeListGraph() {
+		this(false);
+	}
+
+	/**
+	 * Constructor. If {@code indexIncidence} is {@code true}, the first call to
+	 * {@link #incidentEdges(IVertex)} builds a list of incident edges for every
+	 * vertex, which is then kept up to date by the insert and remove methods.
+	 * Until then inserting stays as cheap as without the index.
+	 * @param indexIncidence Whether to index incident edges.
+	 */
+	public EdgeListGraph(boolean indexIncidence) {
 		// create new (empty) lists of edges and vertices
 		vertices = new DLinkedList<IVertex<V>>();
 		edges = new DLinkedList<IEdge<E>>();
+		this.indexIncidence = indexIncidence;
+	}
+
+	/**
+	 * Build the incident edges list of every vertex from the edge list.
+	 */
+	private void buildIncidenceIndex() {
+		for (IIterator<IVertex<V>> it = vertices.iterator(); it.hasNext();)
+			((EdgeListVertex) it.next()).incidentEdges = new DLinkedList<IEdge<E>>();
+		for (IIterator<IEdge<E>> it = edges.iterator(); it.hasNext();) {
+			EdgeListEdge edge = (EdgeListEdge) it.next();
+			edge.startIE = edge.start.incidentEdges.insertLast(edge);
+			edge.endIE = edge.end.incidentEdges.insertLast(edge);
+		}
+		indexed = true;
 	}
 
 	@Override
@@ -121,14 +203,15 @@ public class EdgeListGraph<V,E> implements IGraph<V,E> {
 
 	@Override
 	public IVertex<V> opposite(IVertex<V> v, IEdge<E> e) {
-		// find end points of Edge e
-		IVertex<V>[] endpoints = endVertices(e);
+		// need to cast Edge type to EdgeListEdge
+		EdgeListEdge edge = (EdgeListEdge) e;
 
 		// return the end point that is not v
-		if (endpoints[0].equals(v)) {
-			return endpoints[1];
-		} else if (endpoints[1].equals(v)) {
-			return endpoints[0];
+		// (read the fields directly rather than building the endVertices array)
+		if (edge.start.equals(v)) {
+			return edge.end;
+		} else if (edge.end.equals(v)) {
+			return edge.start;
 		}
 
 		// Problem! e is not connected to v.
@@ -137,23 +220,33 @@ public class EdgeListGraph<V,E> implements IGraph<V,E> {
 
 	@Override
 	public boolean areAdjacent(IVertex<V> v, IVertex<V> w) {
-		// iterate through all the edges in the graph
-		IIterator<IEdge<E>> it = edges.iterator();
+		IIterator<IEdge<E>> it;
+		if (indexed) {
+			// iterate through the smaller incident edges list
+			EdgeListVertex vertexV = (EdgeListVertex) v;
+			EdgeListVertex vertexW = (EdgeListVertex) w;
+			if (vertexV.incidentEdges.size() <= vertexW.incidentEdges.size())
+				it = vertexV.incidentEdges.iterator();
+			else
+				it = vertexW.incidentEdges.iterator();
+		} else {
+			// iterate through all the edges in the graph
+			it = edges.iterator();
+		}
 
-		while (it.hasNext()) {
+		int walked = 0;
+		boolean found = false;
+		while (!found && it.hasNext()) {
 			// must cast Object type to EdgeListEdge type
 			EdgeListEdge edge = (EdgeListEdge) it.next();
+			walked++;
 
-			// edge connects v -> w (so they are adjacent)
-			if ((edge.start.equals(v)) && (edge.end.equals(w)))
-				return true;
-
-			// edge connects w -> v (so they are adjacent)
-			if ((edge.end.equals(v)) && (edge.start.equals(w)))
-				return true;
+			// edge connects v -> w or w -> v (so they are adjacent)
+			found = (edge.start.equals(v) && edge.end.equals(w)) || (edge.end.equals(v) && edge.start.equals(w));
 		}
-		// no edge was found that connects v to w.
-		return false;
+		if (metrics != null)
+			metrics.adjacency(walked);
+		return found;
 	}
 
 	@Override
@@ -174,11 +267,27 @@ public class EdgeListGraph<V,E> implements IGraph<V,E> {
 		EdgeListEdge edge = (EdgeListEdge) e;
 		E temp = edge.element;
 		edge.element = x;
+		if (x instanceof Number)
+			weights.set(edge.slot, ((Number) x).doubleValue());
 		return temp;
 	}
 
+	@Override
+	public double weight(IEdge<E> e) {
+		return weights.get(((EdgeListEdge) e).slot);
+	}
+
+	@Override
+	public double setWeight(IEdge<E> e, double weight) {
+		return weights.set(((EdgeListEdge) e).slot, weight);
+	}
+
 	@Override
 	public IVertex<V> insertVertex(V v) {
+		// the int view is out of date
+		index = null;
+		vertexById = null;
+
 		// create new vertex
 		EdgeListVertex vertex = new EdgeListVertex(v);
 
@@ -190,29 +299,108 @@ public class EdgeListGraph<V,E> implements IGraph<V,E> {
 		// to make it easier to remove the vertex later.
 		vertex.node = node;
 
+		// keep the incidence index up to date
+		if (indexed)
+			vertex.incidentEdges = new DLinkedList<IEdge<E>>();
+
 		// return the new vertex that was created
 		return vertex;
 	}
 
 	@Override
 	public IEdge<E> insertEdge(IVertex<V> v, IVertex<V> w, E o) {
+		return insertEdge(v, w, o, WeightColumn.weightOf(o));
+	}
+
+	@Override
+	public IEdge<E> insertEdge(IVertex<V> v, IVertex<V> w, E o, double weight) {
+		// the int view is out of date
+		index = null;
+		vertexById = null;
+		return link((EdgeListVertex) v, (EdgeListVertex) w, o, weight);
+	}
+
+	/**
+	 * Create an edge between {@code v} and {@code w} and add it to the lists,
+	 * leaving the int view to the caller.
+	 */
+	private EdgeListEdge link(EdgeListVertex v, EdgeListVertex w, E o, double weight) {
 		// create new edge object
-		EdgeListEdge edge = new EdgeListEdge((EdgeListVertex) v, (EdgeListVertex) w, o);
+		EdgeListEdge edge = new EdgeListEdge(v, w, o);
+		edge.slot = weights.allocate(weight);
 
 		// insert into the edge list and store the reference to the node
 		// in the edge object
 		INode<IEdge<E>> n = edges.insertLast(edge);
 		edge.node = n;
+
+		// keep the incidence index up to date
+		if (indexed) {
+			edge.startIE = edge.start.incidentEdges.insertLast(edge);
+			edge.endIE = edge.end.incidentEdges.insertLast(edge);
+		}
 		return edge;
 	}
 
+	@SuppressWarnings("unchecked")
+	@Override
+	public IVertex<V>[] insertVertices(Collection<? extends V> elements) {
+		IVertex<V>[] created = new IVertex[elements.size()];
+		int i = 0;
+		for (V o : elements)
+			created[i++] = insertVertex(o);
+		return created;
+	}
+
+	@Override
+	public void insertEdges(int[] src, int[] dst, E[] elements) {
+		// look up all the end points before the first insert, and check them all
+		number();
+		BulkEdges.check(src, dst, elements, vertexById.length);
+		weights.ensureCapacity(src.length);
+
+		// the vertex numbers stay the same and the new edges are numbered after
+		// the old ones, so the numbering is extended instead of being redone
+		int m = edgeById.length;
+		IEdge<E>[] byId = Arrays.copyOf(edgeById, m + src.length);
+		for (int i = 0; i < src.length; i++) {
+			E o = elements == null ? null : elements[i];
+			EdgeListEdge edge = link((EdgeListVertex) vertexById[src[i]], (EdgeListVertex) vertexById[dst[i]], o,
+					WeightColumn.weightOf(o));
+			edge.id = m + i;
+			byId[m + i] = edge;
+		}
+		edgeById = byId;
+		index = null;
+	}
+
 	@Override
 	public V removeVertex(IVertex<V> v) {
+		// the int view is out of date
+		index = null;
+		vertexById = null;
+
+		// with the index, removing the incident edges takes them off the list
+		if (indexed) {
+			IList<IEdge<E>> incident = ((EdgeListVertex) v).incidentEdges;
+			while (!incident.isEmpty())
+				removeEdge(incident.first().element());
+			EdgeListVertex vertex = (EdgeListVertex) v;
+			vertices.remove(vertex.node);
+			return vertex.element;
+		}
+
 		// first find all incident edges and remove those
 		IList<IEdge<E>> incidentEdges = new DLinkedList<IEdge<E>>();
 		IIterator<IEdge<E>> it = incidentEdges(v);
-		while( it.hasNext() )
-			incidentEdges.insertLast(it.next());
+		IEdge<E> last = null;
+		while( it.hasNext() ) {
+			IEdge<E> e = it.next();
+			// a self loop is listed twice, but can only be removed once
+			if (e != last)
+				incidentEdges.insertLast(e);
+			last = e;
+		}
 		
 		while (!incidentEdges.isEmpty())
 			removeEdge(incidentEdges.remove(incidentEdges.first()));
@@ -227,30 +415,114 @@ public class EdgeListGraph<V,E> implements IGraph<V,E> {
 
 	@Override
 	public E removeEdge(IEdge<E> e) {
+		// the int view is out of date
+		index = null;
+		vertexById = null;
+
 		// remove edge from edge list and return its element
 		EdgeListEdge edge = (EdgeListEdge) e;
 		edges.remove(edge.node);
+		weights.release(edge.slot);
+
+		// keep the incidence index up to date
+		if (indexed) {
+			edge.start.incidentEdges.remove(edge.startIE);
+			edge.end.incidentEdges.remove(edge.endIE);
+		}
 		return edge.element;
 	}
 
 	@Override
 	public IIterator<IEdge<E>> incidentEdges(IVertex<V> v) {
-		// strategy:
-		// find all edges that are connected to v and
-		// add them to "list".
-		// Later, use the iterator() method in List to
-		// get an iterator over these edges.
-		IList<IEdge<E>> list = new DLinkedList<IEdge<E>>();
-
-		IIterator<IEdge<E>> it = edges.iterator();
-		while (it.hasNext()) {
-			EdgeListEdge edge = (EdgeListEdge) it.next();
-			if (edge.start.equals(v))
-				list.insertLast(edge);
-			if (edge.end.equals(v))
-				list.insertLast(edge);
+		// use the incidence index if it is enabled (building it the first time)
+		if (indexIncidence) {
+			if (!indexed)
+				buildIncidenceIndex();
+			return ((EdgeListVertex) v).incidentEdges.iterator();
 		}
-		return list.iterator();
+
+		// otherwise walk the edge list with a cursor, which picks out the
+		// edges that are connected to v as it goes (instead of copying
+		// them to a new list first)
+		return new CursorIterator<V,E>(new EdgeListEdgeCursor(), v);
+	}
+
+	/**
+	 * Edge cursor for an edge list graph. With the incidence index it walks the
+	 * vertex's incident edges list, otherwise it scans the whole edge list.
+	 */
+	private class EdgeListEdgeCursor implements IEdgeCursor<V,E> {
+		// the vertex whose edges are visited
+		EdgeListVertex vertex;
+
+		// the list being walked and the current node in it
+		IList<IEdge<E>> list;
+		INode<IEdge<E>> node;
+		boolean started;
+
+		// a self loop is visited twice, like in incidentEdges
+		boolean loopPending;
+
+		@Override
+		public void reset(IVertex<V> v) {
+			vertex = (EdgeListVertex) v;
+			if (indexIncidence) {
+				if (!indexed)
+					buildIncidenceIndex();
+				list = vertex.incidentEdges;
+			} else {
+				list = edges;
+			}
+			node = null;
+			started = false;
+			loopPending = false;
+		}
+
+		@Override
+		public boolean advance() {
+			if (loopPending) {
+				loopPending = false;
+				return true;
+			}
+			while (true) {
+				if (!started) {
+					node = list.first();
+					started = true;
+				} else if (node != null) {
+					node = list.next(node);
+				}
+				if (node == null || list != edges)
+					return node != null;
+
+				// scanning the edge list: skip edges that are not connected to vertex
+				EdgeListEdge edge = (EdgeListEdge) node.element();
+				if (edge.start == vertex || edge.end == vertex) {
+					loopPending = edge.start == edge.end;
+					return true;
+				}
+			}
+		}
+
+		@Override
+		public IEdge<E> edge() {
+			return node.element();
+		}
+
+		@Override
+		public IVertex<V> opposite() {
+			EdgeListEdge edge = (EdgeListEdge) node.element();
+			return edge.start == vertex ? edge.end : edge.start;
+		}
+	}
+
+	@Override
+	public IEdgeCursor<V,E> newEdgeCursor() {
+		return new EdgeListEdgeCursor();
+	}
+
+	@Override
+	public IVertexCursor<V> newVertexCursor() {
+		return new ListVertexCursor<V>(vertices);
 	}
 
 	@Override
@@ -262,24 +534,206 @@ public class EdgeListGraph<V,E> implements IGraph<V,E> {
 	public IIterator<IEdge<E>> edges() {
 		return edges.iterator();
 	}
+
+	/**
+	 * Number the vertices and edges in list order, if the graph changed
+	 * since they were last numbered.
+	 */
+	@SuppressWarnings("unchecked")
+	private void number() {
+		if (vertexById == null) {
+			IVertex<V>[] byId = new IVertex[vertices.size()];
+			int i = 0;
+			for (IIterator<IVertex<V>> it = vertices.iterator(); it.hasNext(); i++) {
+				EdgeListVertex vertex = (EdgeListVertex) it.next();
+				vertex.id = i;
+				byId[i] = vertex;
+			}
+
+			edgeById = new IEdge[edges.size()];
+			i = 0;
+			for (IIterator<IEdge<E>> it = edges.iterator(); it.hasNext(); i++) {
+				EdgeListEdge edge = (EdgeListEdge) it.next();
+				edge.id = i;
+				edgeById[i] = edge;
+			}
+			vertexById = byId;
+		}
+	}
+
+	/**
+	 * Get the int view of the graph, rebuilding it if the graph changed
+	 * since it was last built.
+	 */
+	private CsrGraph<V,E> index() {
+		if (index == null) {
+			number();
+			int m = edgeById.length;
+			int[] start = new int[m];
+			int[] end = new int[m];
+			for (int i = 0; i < m; i++) {
+				EdgeListEdge edge = (EdgeListEdge) edgeById[i];
+				start[i] = edge.start.id;
+				end[i] = edge.end.id;
+			}
+			index = new CsrGraph<V,E>(vertexById.length, m, start, end, null, null);
+			if (metrics != null)
+				metrics.indexRebuild();
+		}
+		return index;
+	}
+
+	@Override
+	public int numVertices() {
+		return vertices.size();
+	}
+
+	@Override
+	public int numEdges() {
+		return edges.size();
+	}
+
+	@Override
+	public int vertexId(IVertex<V> v) {
+		number();
+		return ((EdgeListVertex) v).id;
+	}
+
+	@Override
+	public int edgeId(IEdge<E> e) {
+		number();
+		return ((EdgeListEdge) e).id;
+	}
+
+	@Override
+	public IVertex<V> vertex(int v) {
+		number();
+		return vertexById[v];
+	}
+
+	@Override
+	public IEdge<E> edge(int e) {
+		number();
+		return edgeById[e];
+	}
+
+	@Override
+	public int degree(int v) {
+		return index().degree(v);
+	}
+
+	@Override
+	public int neighbor(int v, int i) {
+		return index().neighbor(v, i);
+	}
+
+	@Override
+	public int incidentEdge(int v, int i) {
+		return index().incidentEdge(v, i);
+	}
+
+	@Override
+	public int edgeSource(int e) {
+		// only needs the numbering, not the CSR arrays
+		number();
+		return ((EdgeListEdge) edgeById[e]).start.id;
+	}
+
+	@Override
+	public int edgeTarget(int e) {
+		number();
+		return ((EdgeListEdge) edgeById[e]).end.id;
+	}
+
+	@Override
+	public int opposite(int v, int e) {
+		return index().opposite(v, e);
+	}
+
+	@Override
+	public void forEachNeighbor(int v, IntConsumer action) {
+		index().forEachNeighbor(v, action);
+	}
+
+	/**
+	 * Write this graph to {@code path} in the binary format of {@link GraphFile},
+	 * so it can later be memory mapped with {@link GraphFile#open}.
+	 */
+	public void write(Path path, IElementCodec<? super V> vertexCodec, IElementCodec<? super E> edgeCodec)
+			throws IOException {
+		GraphFile.write(this, path, vertexCodec, edgeCodec);
+	}
 	
 	/**
-	 * labeling of the edges of g as discovery edges and back edges
+	 * Count the cost of searches, adjacency tests and int view rebuilds in
+	 * {@code metrics}, or stop counting if it is null.
 	 */
-	public void DFS(IGraph<V, E> g) {
-		for(IIterator<IVertex<V>> uIterator = g.vertices(); uIterator.hasNext();) {
-			IVertex<V> u = uIterator.next();
-			setDLabel(u, DFSLabel.UNEXPLORED);
+	public void setMetrics(GraphMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * The metrics this graph counts in, or null if it does not count.
+	 */
+	public GraphMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Make all DFS labels UNEXPLORED, in constant time, by starting a new
+	 * epoch. Call it before {@code DFS(g, v)} to search from {@code v} alone;
+	 * the search then only costs the part of the graph it reaches.
+	 */
+	public void resetDLabels() {
+		if (++dfsEpoch == 0) {
+			// the epoch wrapped around, so old stamps could match again
+			clearStamps(true);
+			dfsEpoch = 1;
 		}
-		for(IIterator<IEdge<E>> eIterator = g.edges(); eIterator.hasNext();) {
-			IEdge<E> e = eIterator.next();
-			setDLabel(e, DFSLabel.UNEXPLORED);
+	}
+
+	/**
+	 * Make all BFS labels UNEXPLORED, in constant time, by starting a new
+	 * epoch. Call it before {@code BFS(g, s)} to search from {@code s} alone.
+	 */
+	public void resetBLabels() {
+		if (++bfsEpoch == 0) {
+			clearStamps(false);
+			bfsEpoch = 1;
+		}
+	}
+
+	// set the DFS or BFS stamps of all vertices and edges back to 0
+	private void clearStamps(boolean dfs) {
+		for (IIterator<IVertex<V>> it = vertices.iterator(); it.hasNext();) {
+			EdgeListVertex v = (EdgeListVertex) it.next();
+			if (dfs)
+				v.dfsStamp = 0;
+			else
+				v.bfsStamp = 0;
+		}
+		for (IIterator<IEdge<E>> it = edges.iterator(); it.hasNext();) {
+			EdgeListEdge e = (EdgeListEdge) it.next();
+			if (dfs)
+				e.dfsStamp = 0;
+			else
+				e.bfsStamp = 0;
 		}
+	}
+
+	/**
+	 * labeling of the edges of g as discovery edges and back edges
+	 */
+	public void DFS(IGraph<V, E> g) {
+		long start = metrics != null ? System.nanoTime() : 0;
+		resetDLabels();
 		for(IIterator<IVertex<V>> vIterator = g.vertices(); vIterator.hasNext();) {
 			IVertex<V> v = vIterator.next();
 			if(getDLabel(v) == DFSLabel.UNEXPLORED)
-				DFS(g, v);
+				dfs(g, v);
 		}
+		if (metrics != null)
+			metrics.dfs(System.nanoTime() - start);
 	}
 		
 	/**
@@ -287,19 +741,31 @@ public class EdgeListGraph<V,E> implements IGraph<V,E> {
 	 * discovery edges and back edges
 	 */
 	public void DFS(IGraph<V, E> g, IVertex<V> v) {
+		long start = metrics != null ? System.nanoTime() : 0;
+		dfs(g, v);
+		if (metrics != null)
+			metrics.dfs(System.nanoTime() - start);
+	}
+
+	// the search of DFS(g, v), without the timing
+	private void dfs(IGraph<V, E> g, IVertex<V> v) {
 		setDLabel(v, DFSLabel.VISITED);
+		int scanned = 0;
 		for(IIterator<IEdge<E>> eIterator = g.incidentEdges(v); eIterator.hasNext();) {
 			IEdge<E> e = eIterator.next();
+			scanned++;
 			if(getDLabel(e) == DFSLabel.UNEXPLORED) {
 				IVertex<V> w = g.opposite(v, e);
 				if(getDLabel(w) == DFSLabel.UNEXPLORED) {
 					setDLabel(e, DFSLabel.DISCOVERY);
-					DFS(g, w);
+					dfs(g, w);
 				} else {
 					setDLabel(e, DFSLabel.BACK);
 				}
 			}
 		}
+		if (metrics != null)
+			metrics.visited(1, scanned);
 	}
 		
 	/**
@@ -310,6 +776,7 @@ public class EdgeListGraph<V,E> implements IGraph<V,E> {
 		// must cast to EdgeList vertex
 		EdgeListVertex v = (EdgeListVertex) u;
 		v.dfsLabel = l;
+		v.dfsStamp = dfsEpoch;
 	}
 		
 	/**
@@ -318,7 +785,8 @@ public class EdgeListGraph<V,E> implements IGraph<V,E> {
 	public void setDLabel(IEdge<E> e, DFSLabel l) {
 		// must cast to EdgeList edge
 		EdgeListEdge ed = (EdgeListEdge) e;
-		ed.dfsLabel = l;	
+		ed.dfsLabel = l;
+		ed.dfsStamp = dfsEpoch;
 	}
 		
 	/**
@@ -327,7 +795,7 @@ public class EdgeListGraph<V,E> implements IGraph<V,E> {
 	public DFSLabel getDLabel(IVertex<V> v) {
 		// must cast to EdgeList vertex
 		EdgeListVertex ve = (EdgeListVertex) v;
-		return ve.dfsLabel;
+		return ve.dfsStamp == dfsEpoch ? ve.dfsLabel : DFSLabel.UNEXPLORED;
 	}
 
 	/**
@@ -336,26 +804,22 @@ public class EdgeListGraph<V,E> implements IGraph<V,E> {
 	public DFSLabel getDLabel(IEdge<E> e) {
 		// must cast to EdgeList edge
 		EdgeListEdge ed = (EdgeListEdge) e;
-		return ed.dfsLabel;
+		return ed.dfsStamp == dfsEpoch ? ed.dfsLabel : DFSLabel.UNEXPLORED;
 	}
 	
 	/**
 	 * labeling of the edges of g as discovery edges and back edges
 	 */
 	public void BFS(IGraph<V, E> g) {
-		for(IIterator<IVertex<V>> uIterator = g.vertices(); uIterator.hasNext();) {
-			IVertex<V> u = uIterator.next();
-			setBLabel(u, BFSLabel.UNEXPLORED);
-		}
-		for(IIterator<IEdge<E>> eIterator = g.edges(); eIterator.hasNext();) {
-			IEdge<E> e = eIterator.next();
-			setBLabel(e, BFSLabel.UNEXPLORED);
-		}
+		long start = metrics != null ? System.nanoTime() : 0;
+		resetBLabels();
 		for(IIterator<IVertex<V>> vIterator = g.vertices(); vIterator.hasNext();) {
 			IVertex<V> v = vIterator.next();
 			if(getBLabel(v) == BFSLabel.UNEXPLORED)
-				DFS(g, v);
+				bfs(g, v);
 		}
+		if (metrics != null)
+			metrics.bfs(System.nanoTime() - start);
 	}
 	
 	/**
@@ -363,37 +827,43 @@ public class EdgeListGraph<V,E> implements IGraph<V,E> {
 	 * discovery edges and back edges
 	 */
 	public void BFS(IGraph<V, E> g, IVertex<V> s) {
-		IList<IVertex<V>>[] l = new DLinkedList[1];
-		l[0].insertLast(s);
+		long start = metrics != null ? System.nanoTime() : 0;
+		bfs(g, s);
+		if (metrics != null)
+			metrics.bfs(System.nanoTime() - start);
+	}
+
+	// the search of BFS(g, s), without the timing
+	private void bfs(IGraph<V, E> g, IVertex<V> s) {
+		// the vertices of the current level and of the next one
+		IList<IVertex<V>> level = new DLinkedList<IVertex<V>>();
+		level.insertLast(s);
 		setBLabel(s, BFSLabel.VISITED);
-		int i = 0;
-		while(!l[i].isEmpty()) {
-			IList<IVertex<V>>[] newL = new DLinkedList[i+2];
-			for(int j = 0; j <= i; j++) {
-				newL[j] = l[j];
-			}
-			l = newL;
-			
-			for(IIterator<IVertex<V>> vIterator = l[i].iterator(); vIterator.hasNext();) {
+		int visited = 0, scanned = 0;
+		while(!level.isEmpty()) {
+			IList<IVertex<V>> next = new DLinkedList<IVertex<V>>();
+			for(IIterator<IVertex<V>> vIterator = level.iterator(); vIterator.hasNext();) {
 				IVertex<V> v = vIterator.next();
+				visited++;
 				for(IIterator<IEdge<E>> eIterator = g.incidentEdges(v); eIterator.hasNext();) {
 					IEdge<E> e = eIterator.next();
+					scanned++;
 					if(getBLabel(e) == BFSLabel.UNEXPLORED) {
 						IVertex<V> w = opposite(v, e);
 						if(getBLabel(w) == BFSLabel.UNEXPLORED) {
 							setBLabel(e, BFSLabel.DISCOVERY);
 							setBLabel(w, BFSLabel.VISITED);
-							l[i+1].insertLast(w);
+							next.insertLast(w);
 						} else {
 							setBLabel(e, BFSLabel.CROSS);
 						}
 					}
 				}
 			}
-			i++;
+			level = next;
 		}
-		
-		
+		if (metrics != null)
+			metrics.visited(visited, scanned);
 	}
 	
 	/**
@@ -404,6 +874,7 @@ public class EdgeListGraph<V,E> implements IGraph<V,E> {
 		// must cast to EdgeList vertex
 		EdgeListVertex v = (EdgeListVertex) u;
 		v.bfsLabel = l;
+		v.bfsStamp = bfsEpoch;
 	}
 		
 	/**
@@ -412,7 +883,8 @@ public class EdgeListGraph<V,E> implements IGraph<V,E> {
 	public void setBLabel(IEdge<E> e, BFSLabel l) {
 		// must cast to EdgeList edge
 		EdgeListEdge ed = (EdgeListEdge) e;
-		ed.bfsLabel = l;	
+		ed.bfsLabel = l;
+		ed.bfsStamp = bfsEpoch;
 	}
 	
 	/**
@@ -421,7 +893,7 @@ public class EdgeListGraph<V,E> implements IGraph<V,E> {
 	public BFSLabel getBLabel(IVertex<V> v) {
 		// must cast to EdgeList vertex
 		EdgeListVertex ve = (EdgeListVertex) v;
-		return ve.bfsLabel;
+		return ve.bfsStamp == bfsEpoch ? ve.bfsLabel : BFSLabel.UNEXPLORED;
 	}
 
 	/**
@@ -430,6 +902,6 @@ public class EdgeListGraph<V,E> implements IGraph<V,E> {
 	public BFSLabel getBLabel(IEdge<E> e) {
 		// must cast to EdgeList edge
 		EdgeListEdge ed = (EdgeListEdge) e;
-		return ed.bfsLabel;
+		return ed.bfsStamp == bfsEpoch ? ed.bfsLabel : BFSLabel.UNEXPLORED;
 	}
 }
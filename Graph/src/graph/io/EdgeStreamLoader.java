@@ -0,0 +1,343 @@
+package graph.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import graph.core.IGraph;
+import graph.core.IIterator;
+import graph.core.IVertex;
+import graph.core.IWeightedGraph;
+
+/**
+ * Loads edge lists from text files into a graph without holding the text in
+ * memory. Every line holds one edge, {@code src dst [weight]}, separated by
+ * spaces or tabs; empty lines and lines starting with {@code #} are skipped.
+ * The vertices are keyed by their element: an edge to a key that has no vertex
+ * yet inserts one. If the graph is an {@link IWeightedGraph}, the third column
+ * is also parsed as a double and becomes the weight of the edge.
+ *
+ * The load is a pipeline of three stages:
+ * <ul>
+ * <li>a reader thread reads the file through a {@link FileChannel} in large
+ *     chunks cut at line ends;</li>
+ * <li>worker threads parse the chunks in parallel into batches of keys and
+ *     edge elements;</li>
+ * <li>the calling thread takes the batches in file order, resolves the keys
+ *     through a hash map of the vertex handles and inserts the edges.</li>
+ * </ul>
+ * The batches pass through a bounded queue, so the reader waits when the
+ * inserts fall behind and only a few chunks are in memory at any time. The
+ * graph is only ever changed by the calling thread, so it needs no locking,
+ * but nothing else may change it during a load.
+ */
+public class EdgeStreamLoader<E> {
+	public static final int CHUNK_BYTES = 1 << 22;
+
+	/**
+	 * Edges parsed from one chunk of the file.
+	 */
+	private static class Batch<E> {
+		final String[] src, dst;
+		final E[] elements;
+
+		// weights from the third column (only parsed for a weighted graph)
+		final double[] weights;
+		final boolean[] weighted;
+		int count;
+
+		// number of bytes of the chunk
+		final int bytes;
+
+		@SuppressWarnings("unchecked")
+		Batch(int capacity, int bytes, boolean weights) {
+			src = new String[capacity];
+			dst = new String[capacity];
+			elements = (E[]) new Object[capacity];
+			this.weights = weights ? new double[capacity] : null;
+			this.weighted = weights ? new boolean[capacity] : null;
+			this.bytes = bytes;
+		}
+	}
+
+	// marks the end of the file in the queue
+	private static final CompletableFuture<Batch<Object>> END = CompletableFuture.completedFuture(null);
+
+	private final IGraph<String,E> graph;
+
+	// the graph if it takes weights, otherwise null
+	private final IWeightedGraph<String,E> weighted;
+	private final Function<String,? extends E> weight;
+	private final int threads, chunkBytes, queueCapacity;
+
+	// the vertex of every key
+	private final HashMap<String,IVertex<String>> vertices = new HashMap<String,IVertex<String>>();
+
+	/**
+	 * Create a loader with a worker for every processor and chunks of
+	 * {@link #CHUNK_BYTES} bytes.
+	 * @param graph The graph to insert into. Its vertices are found by their elements.
+	 * @param weight Makes the edge element from the third column, or null to
+	 *        give the edges null elements. It is called on the worker threads.
+	 */
+	public EdgeStreamLoader(IGraph<String,E> graph, Function<String,? extends E> weight) {
+		this(graph, weight, Runtime.getRuntime().availableProcessors(), CHUNK_BYTES, 2 * Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Create a loader.
+	 * @param graph The graph to insert into. Its vertices are found by their elements.
+	 * @param weight Makes the edge element from the third column, or null to
+	 *        give the edges null elements. It is called on the worker threads.
+	 * @param threads The number of parsing threads.
+	 * @param chunkBytes The size of the chunks the file is read in.
+	 * @param queueCapacity The number of chunks that can wait to be inserted.
+	 */
+	@SuppressWarnings("unchecked")
+	public EdgeStreamLoader(IGraph<String,E> graph, Function<String,? extends E> weight, int threads, int chunkBytes,
+			int queueCapacity) {
+		if (threads < 1 || chunkBytes < 1 || queueCapacity < 1)
+			throw new IllegalArgumentException("Error: threads, chunk size and queue capacity must be positive.");
+		this.graph = graph;
+		this.weighted = graph instanceof IWeightedGraph ? (IWeightedGraph<String,E>) graph : null;
+		this.weight = weight;
+		this.threads = threads;
+		this.chunkBytes = chunkBytes;
+		this.queueCapacity = queueCapacity;
+		for (IIterator<IVertex<String>> it = graph.vertices(); it.hasNext();) {
+			IVertex<String> v = it.next();
+			vertices.put(v.element(), v);
+		}
+	}
+
+	/**
+	 * Get the vertex of {@code key}.
+	 * @return The vertex, or {@code null} if no vertex has this key.
+	 */
+	public IVertex<String> vertex(String key) {
+		return vertices.get(key);
+	}
+
+	/**
+	 * Load the edges of a file into the graph.
+	 * @param file The file.
+	 * @param listener Gets the progress after every batch, or null.
+	 * @return The number of edges inserted.
+	 * @throws IOException If the file cannot be read.
+	 * @throws IllegalArgumentException If a line has less than two columns,
+	 *         or a third column that is not a number when the graph is an
+	 *         {@link IWeightedGraph}; the edges before it in the file are inserted.
+	 */
+	public long load(Path file, ILoadListener listener) throws IOException {
+		long start = System.nanoTime();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long total = channel.size();
+			ExecutorService workers = Executors.newFixedThreadPool(threads, r -> {
+				Thread t = new Thread(r, "edge-stream-parser");
+				t.setDaemon(true);
+				return t;
+			});
+			BlockingQueue<CompletableFuture<Batch<E>>> queue = new ArrayBlockingQueue<CompletableFuture<Batch<E>>>(
+					queueCapacity);
+			Thread reader = new Thread(() -> read(channel, workers, queue), "edge-stream-reader");
+			reader.setDaemon(true);
+			reader.start();
+
+			long edges = 0, bytes = 0;
+			try {
+				while (true) {
+					Batch<E> batch = queue.take().get();
+					if (batch == null)
+						break;
+					insert(batch);
+					edges += batch.count;
+					bytes += batch.bytes;
+					if (listener != null)
+						listener.progress(edges, bytes, total, System.nanoTime() - start);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Error: load interrupted.");
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof IOException)
+					throw (IOException) cause;
+				if (cause instanceof RuntimeException)
+					throw (RuntimeException) cause;
+				throw new RuntimeException("Error: load failed.", cause);
+			} finally {
+				reader.interrupt();
+				workers.shutdownNow();
+			}
+			return edges;
+		}
+	}
+
+	/**
+	 * Read the file in chunks that end at a line end, hand every chunk to
+	 * a worker and queue the results in file order. Runs on the reader thread.
+	 */
+	@SuppressWarnings("unchecked")
+	private void read(FileChannel channel, ExecutorService workers, BlockingQueue<CompletableFuture<Batch<E>>> queue) {
+		try {
+			try {
+				byte[] buffer = new byte[chunkBytes];
+				int length = 0;
+				boolean eof = false;
+				while (!eof) {
+					// fill the buffer after the part line left from the last chunk
+					ByteBuffer target = ByteBuffer.wrap(buffer, length, buffer.length - length);
+					while (target.hasRemaining())
+						if (channel.read(target) < 0) {
+							eof = true;
+							break;
+						}
+					length = target.position();
+
+					int cut = length;
+					if (!eof) {
+						while (cut > 0 && buffer[cut - 1] != '\n')
+							cut--;
+						if (cut == 0) {
+							// a line longer than the buffer
+							buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+							continue;
+						}
+					}
+					final byte[] chunk = buffer;
+					final int end = cut;
+					queue.put(CompletableFuture.supplyAsync(() -> parse(chunk, end), workers));
+
+					buffer = new byte[Math.max(chunkBytes, length - cut)];
+					System.arraycopy(chunk, cut, buffer, 0, length - cut);
+					length -= cut;
+				}
+			} catch (IOException e) {
+				queue.put(CompletableFuture.failedFuture(e));
+				return;
+			}
+			queue.put((CompletableFuture<Batch<E>>) (CompletableFuture<?>) END);
+		} catch (InterruptedException e) {
+			// the load was stopped
+		}
+	}
+
+	/**
+	 * Parse the lines in {@code chunk[0..end-1]}. Runs on a worker thread.
+	 */
+	private Batch<E> parse(byte[] chunk, int end) {
+		int lines = 0;
+		for (int i = 0; i < end; i++)
+			if (chunk[i] == '\n')
+				lines++;
+		Batch<E> batch = new Batch<E>(lines + 1, end, weighted != null);
+		String[] columns = new String[3];
+		int i = 0;
+		while (i < end) {
+			int lineEnd = i;
+			while (lineEnd < end && chunk[lineEnd] != '\n')
+				lineEnd++;
+			int count = split(chunk, i, lineEnd, columns);
+			if (count == 1 || count > 3)
+				throw new IllegalArgumentException(
+						"Error: bad edge line: " + new String(chunk, i, lineEnd - i, StandardCharsets.UTF_8).trim());
+			if (count > 0) {
+				int k = batch.count++;
+				batch.src[k] = columns[0];
+				batch.dst[k] = columns[1];
+				batch.elements[k] = count == 3 && weight != null ? weight.apply(columns[2]) : null;
+				if (count == 3 && weighted != null) {
+					try {
+						batch.weights[k] = Double.parseDouble(columns[2]);
+					} catch (NumberFormatException e) {
+						throw new IllegalArgumentException("Error: bad edge weight: " + columns[2]);
+					}
+					batch.weighted[k] = true;
+				}
+			}
+			i = lineEnd + 1;
+		}
+		return batch;
+	}
+
+	/**
+	 * Split a line into its columns.
+	 * @return The number of columns (0 for an empty or comment line, 4 for too many).
+	 */
+	private static int split(byte[] chunk, int i, int end, String[] columns) {
+		int count = 0;
+		while (true) {
+			while (i < end && isSpace(chunk[i]))
+				i++;
+			if (i == end || (count == 0 && chunk[i] == '#'))
+				return count;
+			if (count == 3)
+				return 4;
+			int from = i;
+			while (i < end && !isSpace(chunk[i]))
+				i++;
+			columns[count++] = new String(chunk, from, i - from, StandardCharsets.UTF_8);
+		}
+	}
+
+	private static boolean isSpace(byte b) {
+		return b == ' ' || b == '\t' || b == '\r';
+	}
+
+	/**
+	 * Insert the edges of a batch, inserting vertices for new keys. An edge
+	 * without a third column gets the default weight of its element.
+	 */
+	private void insert(Batch<E> batch) {
+		for (int i = 0; i < batch.count; i++) {
+			IVertex<String> v = vertexFor(batch.src[i]), w = vertexFor(batch.dst[i]);
+			if (batch.weights != null && batch.weighted[i])
+				weighted.insertEdge(v, w, batch.elements[i], batch.weights[i]);
+			else
+				graph.insertEdge(v, w, batch.elements[i]);
+		}
+	}
+
+	private IVertex<String> vertexFor(String key) {
+		IVertex<String> v = vertices.get(key);
+		if (v == null) {
+			v = graph.insertVertex(key);
+			vertices.put(key, v);
+		}
+		return v;
+	}
+
+	/**
+	 * Get a listener that prints the progress and throughput to {@code out},
+	 * at most once a second and at the end of the file.
+	 */
+	public static ILoadListener printTo(PrintStream out) {
+		return new ILoadListener() {
+			long last = 0;
+
+			public void progress(long edges, long bytes, long totalBytes, long elapsedNanos) {
+				if (elapsedNanos - last < 1000000000L && bytes < totalBytes)
+					return;
+				last = elapsedNanos;
+				double seconds = Math.max(elapsedNanos, 1) / 1e9;
+				out.printf("%d edges, %.1f%% of %d bytes, %.0f edges/s, %.1f MB/s%n", edges,
+						totalBytes == 0 ? 100.0 : 100.0 * bytes / totalBytes, totalBytes, edges / seconds,
+						bytes / seconds / (1 << 20));
+			}
+		};
+	}
+}
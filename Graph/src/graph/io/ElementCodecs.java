@@ -0,0 +1,69 @@
+package graph.io;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Codecs for common element types.
+ */
+public class ElementCodecs {
+
+	private ElementCodecs() {
+	}
+
+	/**
+	 * Strings, stored as UTF-8.
+	 */
+	public static final IElementCodec<String> STRING = new IElementCodec<String>() {
+		public byte[] encode(String element) {
+			return element.getBytes(StandardCharsets.UTF_8);
+		}
+
+		public String decode(ByteBuffer data, int position, int length) {
+			byte[] bytes = new byte[length];
+			for (int i = 0; i < length; i++)
+				bytes[i] = data.get(position + i);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+
+	/**
+	 * Integers, stored as 4 little endian bytes.
+	 */
+	public static final IElementCodec<Integer> INTEGER = new IElementCodec<Integer>() {
+		public byte[] encode(Integer element) {
+			return ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(element).array();
+		}
+
+		public Integer decode(ByteBuffer data, int position, int length) {
+			return data.duplicate().order(ByteOrder.LITTLE_ENDIAN).getInt(position);
+		}
+	};
+
+	/**
+	 * Longs, stored as 8 little endian bytes.
+	 */
+	public static final IElementCodec<Long> LONG = new IElementCodec<Long>() {
+		public byte[] encode(Long element) {
+			return ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(element).array();
+		}
+
+		public Long decode(ByteBuffer data, int position, int length) {
+			return data.duplicate().order(ByteOrder.LITTLE_ENDIAN).getLong(position);
+		}
+	};
+
+	/**
+	 * Doubles, stored as 8 little endian bytes.
+	 */
+	public static final IElementCodec<Double> DOUBLE = new IElementCodec<Double>() {
+		public byte[] encode(Double element) {
+			return ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putDouble(element).array();
+		}
+
+		public Double decode(ByteBuffer data, int position, int length) {
+			return data.duplicate().order(ByteOrder.LITTLE_ENDIAN).getDouble(position);
+		}
+	};
+}
@@ -0,0 +1,298 @@
+package graph.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import graph.core.IEdge;
+import graph.core.IGraph;
+import graph.core.IIntGraph;
+import graph.core.IWeightedGraph;
+import graph.impl.CsrGraph;
+import graph.util.WeightColumn;
+
+/**
+ * Binary graph file, laid out so that it can be memory mapped and used as a
+ * read-only graph without copying it onto the heap.
+ *
+ * All numbers are little endian. The file holds, in this order:
+ * <ul>
+ * <li>a 32 byte header: magic number, version, n, m (ints) and the number of
+ *     bytes of vertex and of edge element data (longs)</li>
+ * <li>the start of every vertex element and of every edge element in the
+ *     element data (long[n], long[m])</li>
+ * <li>the CSR arrays: offsets (int[n+1]), neighbors and incident edges
+ *     (int[2m] each, sorted by neighbor within each vertex)</li>
+ * <li>the start and end vertex of every edge (int[m] each)</li>
+ * <li>the length of every vertex and edge element, -1 for {@code null} (int[n], int[m])</li>
+ * <li>the weight of every edge (double[m])</li>
+ * <li>the vertex element data, then the edge element data</li>
+ * </ul>
+ * Each section is mapped separately, so a single section can be at most 2GB.
+ */
+public class GraphFile {
+	// "GRPH" read as a little endian int
+	static final int MAGIC = 0x48505247;
+	static final int VERSION = 2;
+	static final int HEADER_BYTES = 32;
+
+	private GraphFile() {
+	}
+
+	/**
+	 * Positions of the sections of a file with {@code n} vertices and {@code m} edges.
+	 */
+	private static class Layout {
+		final long vertexStart, edgeStart, offsets, neighbors, incident, edgeSource,
+				edgeTarget, vertexLength, edgeLength, weights, vertexData;
+
+		Layout(long n, long m) {
+			vertexStart = HEADER_BYTES;
+			edgeStart = vertexStart + 8 * n;
+			offsets = edgeStart + 8 * m;
+			neighbors = offsets + 4 * (n + 1);
+			incident = neighbors + 8 * m;
+			edgeSource = incident + 8 * m;
+			edgeTarget = edgeSource + 4 * m;
+			vertexLength = edgeTarget + 4 * m;
+			edgeLength = vertexLength + 4 * n;
+			weights = edgeLength + 4 * m;
+			vertexData = weights + 8 * m;
+		}
+	}
+
+	/**
+	 * Buffered writer for one section of the file.
+	 */
+	private static class Section {
+		private final FileChannel channel;
+		private long position;
+		private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+		Section(FileChannel channel, long position) {
+			this.channel = channel;
+			this.position = position;
+		}
+
+		void putInt(int x) throws IOException {
+			if (buffer.remaining() < 4)
+				flush();
+			buffer.putInt(x);
+		}
+
+		void putLong(long x) throws IOException {
+			if (buffer.remaining() < 8)
+				flush();
+			buffer.putLong(x);
+		}
+
+		void putDouble(double x) throws IOException {
+			if (buffer.remaining() < 8)
+				flush();
+			buffer.putDouble(x);
+		}
+
+		void put(byte[] bytes) throws IOException {
+			if (buffer.remaining() < bytes.length) {
+				flush();
+				if (bytes.length > buffer.capacity()) {
+					ByteBuffer b = ByteBuffer.wrap(bytes);
+					while (b.hasRemaining())
+						position += channel.write(b, position);
+					return;
+				}
+			}
+			buffer.put(bytes);
+		}
+
+		void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining())
+				position += channel.write(buffer, position);
+			buffer.clear();
+		}
+	}
+
+	/**
+	 * Write graph {@code g} to {@code path}. Vertices and edges are numbered as
+	 * in the graph's {@link IIntGraph} view. The weights of the edges are
+	 * written too: those of an {@link IWeightedGraph}, and otherwise the
+	 * weights their elements give.
+	 * @param g The graph to write.
+	 * @param path The file to write; it is replaced if it exists.
+	 * @param vertexCodec Codec for the vertex elements.
+	 * @param edgeCodec Codec for the edge elements.
+	 * @throws IOException If the file can not be written.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V,E> void write(IGraph<V,E> g, Path path, IElementCodec<? super V> vertexCodec,
+			IElementCodec<? super E> edgeCodec) throws IOException {
+		IIntGraph<V,E> ig = CsrGraph.intView(g);
+		int n = ig.numVertices();
+		int m = ig.numEdges();
+		Layout l = new Layout(n, m);
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			// CSR arrays, with every vertex's incidences sorted by neighbor
+			Section offsets = new Section(channel, l.offsets);
+			Section neighbors = new Section(channel, l.neighbors);
+			Section incident = new Section(channel, l.incident);
+			long[] pairs = new long[16];
+			int offset = 0;
+			for (int v = 0; v < n; v++) {
+				offsets.putInt(offset);
+				int d = ig.degree(v);
+				if (d > pairs.length)
+					pairs = new long[Math.max(d, pairs.length * 2)];
+				for (int i = 0; i < d; i++)
+					pairs[i] = ((long) ig.neighbor(v, i) << 32) | ig.incidentEdge(v, i);
+				Arrays.sort(pairs, 0, d);
+				for (int i = 0; i < d; i++) {
+					neighbors.putInt((int) (pairs[i] >>> 32));
+					incident.putInt((int) pairs[i]);
+				}
+				offset += d;
+			}
+			offsets.putInt(offset);
+			offsets.flush();
+			neighbors.flush();
+			incident.flush();
+
+			// end vertices of the edges
+			Section source = new Section(channel, l.edgeSource);
+			Section target = new Section(channel, l.edgeTarget);
+			for (int e = 0; e < m; e++) {
+				source.putInt(ig.edgeSource(e));
+				target.putInt(ig.edgeTarget(e));
+			}
+			source.flush();
+			target.flush();
+
+			// weights of the edges
+			Section weights = new Section(channel, l.weights);
+			IWeightedGraph<V,E> wg = g instanceof IWeightedGraph ? (IWeightedGraph<V,E>) g : null;
+			for (int e = 0; e < m; e++) {
+				IEdge<E> edge = ig.edge(e);
+				weights.putDouble(wg != null ? wg.weight(edge) : WeightColumn.weightOf(edge.element()));
+			}
+			weights.flush();
+
+			// elements
+			Section starts = new Section(channel, l.vertexStart);
+			Section lengths = new Section(channel, l.vertexLength);
+			Section data = new Section(channel, l.vertexData);
+			long vertexBytes = 0;
+			for (int v = 0; v < n; v++)
+				vertexBytes += writeElement(ig.vertex(v).element(), vertexCodec, vertexBytes, starts, lengths, data);
+			starts.flush();
+			lengths.flush();
+			data.flush();
+
+			starts = new Section(channel, l.edgeStart);
+			lengths = new Section(channel, l.edgeLength);
+			data = new Section(channel, l.vertexData + vertexBytes);
+			long edgeBytes = 0;
+			for (int e = 0; e < m; e++)
+				edgeBytes += writeElement(ig.edge(e).element(), edgeCodec, edgeBytes, starts, lengths, data);
+			starts.flush();
+			lengths.flush();
+			data.flush();
+
+			// header last, so a file that was not completely written is not valid
+			Section header = new Section(channel, 0);
+			header.putInt(MAGIC);
+			header.putInt(VERSION);
+			header.putInt(n);
+			header.putInt(m);
+			header.putLong(vertexBytes);
+			header.putLong(edgeBytes);
+			header.flush();
+		}
+	}
+
+	/**
+	 * Write one element to the data section and its start and length to the index sections.
+	 * @return The number of data bytes written.
+	 */
+	private static <T> int writeElement(T element, IElementCodec<? super T> codec, long start, Section starts,
+			Section lengths, Section data) throws IOException {
+		starts.putLong(start);
+		if (element == null) {
+			lengths.putInt(-1);
+			return 0;
+		}
+		byte[] bytes = codec.encode(element);
+		lengths.putInt(bytes.length);
+		data.put(bytes);
+		return bytes.length;
+	}
+
+	/**
+	 * Memory map the graph file at {@code path} as a read-only graph. The file
+	 * is not read onto the heap; the operating system pages it in as needed and
+	 * shares the pages between all processes that map it.
+	 * @param path The file to map.
+	 * @param vertexCodec Codec for the vertex elements.
+	 * @param edgeCodec Codec for the edge elements.
+	 * @return The mapped graph.
+	 * @throws IOException If the file can not be read or is not a graph file.
+	 */
+	public static <V,E> MappedCsrGraph<V,E> open(Path path, IElementCodec<V> vertexCodec, IElementCodec<E> edgeCodec)
+			throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_BYTES)
+				throw new IOException("Error: " + path + " is not a graph file.");
+			ByteBuffer header = map(channel, 0, HEADER_BYTES);
+			if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION)
+				throw new IOException("Error: " + path + " is not a graph file.");
+			int n = header.getInt(8);
+			int m = header.getInt(12);
+			long vertexBytes = header.getLong(16);
+			long edgeBytes = header.getLong(24);
+			Layout l = new Layout(n, m);
+			if (channel.size() < l.vertexData + vertexBytes + edgeBytes)
+				throw new IOException("Error: " + path + " is truncated.");
+
+			return new MappedCsrGraph<V,E>(n, m,
+					ints(channel, l.offsets, n + 1L),
+					ints(channel, l.neighbors, 2L * m),
+					ints(channel, l.incident, 2L * m),
+					ints(channel, l.edgeSource, m),
+					ints(channel, l.edgeTarget, m),
+					longs(channel, l.vertexStart, n),
+					ints(channel, l.vertexLength, n),
+					map(channel, l.vertexData, vertexBytes),
+					longs(channel, l.edgeStart, m),
+					ints(channel, l.edgeLength, m),
+					doubles(channel, l.weights, m),
+					map(channel, l.vertexData + vertexBytes, edgeBytes),
+					vertexCodec, edgeCodec);
+		}
+	}
+
+	private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+		if (size > Integer.MAX_VALUE)
+			throw new IOException("Error: graph file section of " + size + " bytes is larger than 2GB.");
+		return channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private static IntBuffer ints(FileChannel channel, long position, long count) throws IOException {
+		return map(channel, position, 4 * count).asIntBuffer();
+	}
+
+	private static DoubleBuffer doubles(FileChannel channel, long position, long count) throws IOException {
+		return map(channel, position, 8 * count).asDoubleBuffer();
+	}
+
+	private static LongBuffer longs(FileChannel channel, long position, long count) throws IOException {
+		return map(channel, position, 8 * count).asLongBuffer();
+	}
+}
@@ -0,0 +1,26 @@
+package graph.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts vertex or edge elements to bytes and back, so they can be stored in
+ * a graph file (see {@link GraphFile}).
+ */
+public interface IElementCodec<T> {
+	/**
+	 * Convert an element to bytes.
+	 * @param element The element; never {@code null}.
+	 * @return The bytes that represent {@code element}.
+	 */
+	public byte[] encode(T element);
+
+	/**
+	 * Read an element back from {@code length} bytes of {@code data} starting
+	 * at {@code position}. The position and limit of {@code data} must not be changed.
+	 * @param data The buffer that holds the bytes.
+	 * @param position The index of the first byte.
+	 * @param length The number of bytes.
+	 * @return The element.
+	 */
+	public T decode(ByteBuffer data, int position, int length);
+}
@@ -0,0 +1,16 @@
+package graph.io;
+
+/**
+ * Gets the progress of an {@link EdgeStreamLoader} after every batch of edges
+ * it inserts, on the thread that inserts them.
+ */
+public interface ILoadListener {
+	/**
+	 * Report the progress of a load.
+	 * @param edges The number of edges inserted so far.
+	 * @param bytes The number of bytes of the file that these edges came from.
+	 * @param totalBytes The size of the file.
+	 * @param elapsedNanos The time since the load started.
+	 */
+	public void progress(long edges, long bytes, long totalBytes, long elapsedNanos);
+}
@@ -0,0 +1,415 @@
+package graph.io;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.function.IntConsumer;
+
+import graph.core.IEdge;
+import graph.core.IEdgeCursor;
+import graph.core.IGraph;
+import graph.core.IIntGraph;
+import graph.core.IIterator;
+import graph.core.IVertex;
+import graph.core.IVertexCursor;
+import graph.core.IWeightedGraph;
+
+/**
+ * Read-only CSR graph backed by a memory mapped {@link GraphFile}. It works
+ * like {@link graph.impl.CsrGraph}, but the arrays live in the mapped file
+ * and elements are decoded only when {@code element()} is called. The edge
+ * weights are read from the file as well.
+ *
+ * All the methods that change the graph throw {@link UnsupportedOperationException}.
+ */
+public class MappedCsrGraph<V,E> implements IGraph<V,E>, IIntGraph<V,E>, IWeightedGraph<V,E> {
+	/**
+	 * Inner class to represent a vertex in a mapped graph. It is only a
+	 * lightweight handle on the vertex number.
+	 */
+	private class MappedVertex implements IVertex<V> {
+		// number of this vertex
+		final int id;
+
+		public MappedVertex(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public V element() {
+			int length = vertexLength.get(id);
+			if (length < 0)
+				return null;
+			return vertexCodec.decode(vertexData, (int) vertexStart.get(id), length);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof MappedCsrGraph.MappedVertex))
+				return false;
+			MappedVertex other = (MappedVertex) o;
+			return other.id == id && other.graph() == graph();
+		}
+
+		@Override
+		public int hashCode() {
+			return id;
+		}
+
+		private MappedCsrGraph<V,E> graph() {
+			return MappedCsrGraph.this;
+		}
+
+		public String toString() {
+			return String.valueOf(element());
+		}
+	}
+
+	/**
+	 * Inner class to represent an edge in a mapped graph. Like
+	 * {@link MappedVertex} it is only a handle on the edge number.
+	 */
+	private class MappedEdge implements IEdge<E> {
+		// number of this edge
+		final int id;
+
+		public MappedEdge(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public E element() {
+			int length = edgeLength.get(id);
+			if (length < 0)
+				return null;
+			return edgeCodec.decode(edgeData, (int) edgeStart.get(id), length);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof MappedCsrGraph.MappedEdge))
+				return false;
+			MappedEdge other = (MappedEdge) o;
+			return other.id == id && other.graph() == graph();
+		}
+
+		@Override
+		public int hashCode() {
+			return id;
+		}
+
+		private MappedCsrGraph<V,E> graph() {
+			return MappedCsrGraph.this;
+		}
+
+		public String toString() {
+			return String.valueOf(element());
+		}
+	}
+
+	// number of vertices and edges
+	private final int n, m;
+
+	// CSR arrays (see CsrGraph)
+	private final IntBuffer offsets, neighbors, incident;
+
+	// the start and end vertex of every edge
+	private final IntBuffer edgeSource, edgeTarget;
+
+	// where the elements are in the element data, and how to decode them
+	private final LongBuffer vertexStart, edgeStart;
+	private final IntBuffer vertexLength, edgeLength;
+	private final ByteBuffer vertexData, edgeData;
+
+	// weights of the edges
+	private final DoubleBuffer weights;
+	private final IElementCodec<V> vertexCodec;
+	private final IElementCodec<E> edgeCodec;
+
+	MappedCsrGraph(int n, int m, IntBuffer offsets, IntBuffer neighbors, IntBuffer incident, IntBuffer edgeSource,
+			IntBuffer edgeTarget, LongBuffer vertexStart, IntBuffer vertexLength, ByteBuffer vertexData,
+			LongBuffer edgeStart, IntBuffer edgeLength, DoubleBuffer weights, ByteBuffer edgeData, IElementCodec<V> vertexCodec,
+			IElementCodec<E> edgeCodec) {
+		this.n = n;
+		this.m = m;
+		this.offsets = offsets;
+		this.neighbors = neighbors;
+		this.incident = incident;
+		this.edgeSource = edgeSource;
+		this.edgeTarget = edgeTarget;
+		this.vertexStart = vertexStart;
+		this.vertexLength = vertexLength;
+		this.vertexData = vertexData;
+		this.edgeStart = edgeStart;
+		this.edgeLength = edgeLength;
+		this.weights = weights;
+		this.edgeData = edgeData;
+		this.vertexCodec = vertexCodec;
+		this.edgeCodec = edgeCodec;
+	}
+
+	@Override
+	public IVertex<V>[] endVertices(IEdge<E> e) {
+		// need to cast Edge type to MappedEdge
+		MappedEdge edge = (MappedEdge) e;
+
+		@SuppressWarnings("unchecked")
+		IVertex<V>[] endpoints = new IVertex[2];
+		endpoints[0] = new MappedVertex(edgeSource.get(edge.id));
+		endpoints[1] = new MappedVertex(edgeTarget.get(edge.id));
+		return endpoints;
+	}
+
+	@Override
+	public IVertex<V> opposite(IVertex<V> v, IEdge<E> e) {
+		return new MappedVertex(opposite(((MappedVertex) v).id, ((MappedEdge) e).id));
+	}
+
+	@Override
+	public boolean areAdjacent(IVertex<V> v, IVertex<V> w) {
+		int a = ((MappedVertex) v).id;
+		int b = ((MappedVertex) w).id;
+
+		// binary search the smaller of the two sorted slices
+		if (degree(a) > degree(b)) {
+			int t = a;
+			a = b;
+			b = t;
+		}
+		int lo = offsets.get(a), hi = offsets.get(a + 1) - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			int x = neighbors.get(mid);
+			if (x < b)
+				lo = mid + 1;
+			else if (x > b)
+				hi = mid - 1;
+			else
+				return true;
+		}
+		return false;
+	}
+
+	@Override
+	public V replace(IVertex<V> v, V o) {
+		throw new UnsupportedOperationException("MappedCsrGraph is read-only");
+	}
+
+	@Override
+	public E replace(IEdge<E> e, E o) {
+		throw new UnsupportedOperationException("MappedCsrGraph is read-only");
+	}
+
+	@Override
+	public IVertex<V> insertVertex(V o) {
+		throw new UnsupportedOperationException("MappedCsrGraph is read-only");
+	}
+
+	@Override
+	public IEdge<E> insertEdge(IVertex<V> v, IVertex<V> w, E o) {
+		throw new UnsupportedOperationException("MappedCsrGraph is read-only");
+	}
+
+	@Override
+	public IEdge<E> insertEdge(IVertex<V> v, IVertex<V> w, E o, double weight) {
+		throw new UnsupportedOperationException("MappedCsrGraph is read-only");
+	}
+
+	@Override
+	public double weight(IEdge<E> e) {
+		return weights.get(((MappedEdge) e).id);
+	}
+
+	@Override
+	public double setWeight(IEdge<E> e, double weight) {
+		throw new UnsupportedOperationException("MappedCsrGraph is read-only");
+	}
+
+	@Override
+	public V removeVertex(IVertex<V> v) {
+		throw new UnsupportedOperationException("MappedCsrGraph is read-only");
+	}
+
+	@Override
+	public E removeEdge(IEdge<E> e) {
+		throw new UnsupportedOperationException("MappedCsrGraph is read-only");
+	}
+
+	@Override
+	public IIterator<IEdge<E>> incidentEdges(IVertex<V> v) {
+		final int id = ((MappedVertex) v).id;
+		return new IIterator<IEdge<E>>() {
+			int i = offsets.get(id);
+			final int end = offsets.get(id + 1);
+
+			public boolean hasNext() {
+				return i < end;
+			}
+
+			public IEdge<E> next() {
+				return hasNext() ? new MappedEdge(incident.get(i++)) : null;
+			}
+		};
+	}
+
+	/**
+	 * Edge cursor over a vertex's slice of the CSR arrays. The edges and
+	 * vertices it returns are new handles; use the {@link IIntGraph} methods
+	 * for loops that must not create any objects.
+	 */
+	private class MappedCsrGraphEdgeCursor implements IEdgeCursor<V,E> {
+		// current position and end of the slice
+		int i, end;
+
+		@Override
+		public void reset(IVertex<V> v) {
+			int id = ((MappedVertex) v).id;
+			i = offsets.get(id) - 1;
+			end = offsets.get(id + 1);
+		}
+
+		@Override
+		public boolean advance() {
+			return i < end && ++i < end;
+		}
+
+		@Override
+		public IEdge<E> edge() {
+			return new MappedEdge(incident.get(i));
+		}
+
+		@Override
+		public IVertex<V> opposite() {
+			return new MappedVertex(neighbors.get(i));
+		}
+	}
+
+	@Override
+	public IEdgeCursor<V,E> newEdgeCursor() {
+		return new MappedCsrGraphEdgeCursor();
+	}
+
+	@Override
+	public IVertexCursor<V> newVertexCursor() {
+		return new IVertexCursor<V>() {
+			int i = -1;
+
+			public void reset() {
+				i = -1;
+			}
+
+			public boolean advance() {
+				return i < n && ++i < n;
+			}
+
+			public IVertex<V> vertex() {
+				return new MappedVertex(i);
+			}
+		};
+	}
+
+	@Override
+	public IIterator<IVertex<V>> vertices() {
+		return new IIterator<IVertex<V>>() {
+			int i = 0;
+
+			public boolean hasNext() {
+				return i < n;
+			}
+
+			public IVertex<V> next() {
+				return hasNext() ? new MappedVertex(i++) : null;
+			}
+		};
+	}
+
+	@Override
+	public IIterator<IEdge<E>> edges() {
+		return new IIterator<IEdge<E>>() {
+			int i = 0;
+
+			public boolean hasNext() {
+				return i < m;
+			}
+
+			public IEdge<E> next() {
+				return hasNext() ? new MappedEdge(i++) : null;
+			}
+		};
+	}
+
+	@Override
+	public int numVertices() {
+		return n;
+	}
+
+	@Override
+	public int numEdges() {
+		return m;
+	}
+
+	@Override
+	public int vertexId(IVertex<V> v) {
+		return ((MappedVertex) v).id;
+	}
+
+	@Override
+	public int edgeId(IEdge<E> e) {
+		return ((MappedEdge) e).id;
+	}
+
+	@Override
+	public IVertex<V> vertex(int v) {
+		return new MappedVertex(v);
+	}
+
+	@Override
+	public IEdge<E> edge(int e) {
+		return new MappedEdge(e);
+	}
+
+	@Override
+	public int degree(int v) {
+		return offsets.get(v + 1) - offsets.get(v);
+	}
+
+	@Override
+	public int neighbor(int v, int i) {
+		return neighbors.get(offsets.get(v) + i);
+	}
+
+	@Override
+	public int incidentEdge(int v, int i) {
+		return incident.get(offsets.get(v) + i);
+	}
+
+	@Override
+	public int edgeSource(int e) {
+		return edgeSource.get(e);
+	}
+
+	@Override
+	public int edgeTarget(int e) {
+		return edgeTarget.get(e);
+	}
+
+	@Override
+	public int opposite(int v, int e) {
+		if (edgeSource.get(e) == v)
+			return edgeTarget.get(e);
+		if (edgeTarget.get(e) == v)
+			return edgeSource.get(e);
+
+		// Problem! e is not connected to v.
+		throw new RuntimeException("Error: cannot find opposite vertex.");
+	}
+
+	@Override
+	public void forEachNeighbor(int v, IntConsumer action) {
+		for (int i = offsets.get(v), end = offsets.get(v + 1); i < end; i++)
+			action.accept(neighbors.get(i));
+	}
+}
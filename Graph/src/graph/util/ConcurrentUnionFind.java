@@ -0,0 +1,81 @@
+package graph.util;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free union-find over the elements 0..n-1, which any number of threads
+ * can use at once.
+ *
+ * Two roots are linked by making the one with the larger index point to the
+ * one with the smaller index, with a compare-and-set that fails if another
+ * thread linked the root first (the operation is then retried). Links only
+ * ever point to smaller indices, so there can be no cycles, and the root of a
+ * set is always its smallest element. {@link #find} halves the path it walks,
+ * also with compare-and-set, so a lost race only means less compression.
+ */
+public class ConcurrentUnionFind {
+   private final AtomicIntegerArray parent;
+
+   public ConcurrentUnionFind( int n ) {
+      parent = new AtomicIntegerArray( n );
+      for ( int i = 0; i < n; i++ )
+         parent.set( i, i );
+   }
+
+   public int size() {
+      return parent.length();
+   }
+
+   /**
+    * Find the root of the set that contains {@code x}. While other threads
+    * call {@link #union}, the root may stop being a root right after it is returned.
+    */
+   public int find( int x ) {
+      while ( true ) {
+         int p = parent.get( x );
+         if ( p == x )
+            return x;
+         int gp = parent.get( p );
+         if ( gp != p )
+            // path halving: point x past its parent
+            parent.compareAndSet( x, p, gp );
+         x = gp;
+      }
+   }
+
+   /**
+    * Merge the sets that contain {@code a} and {@code b}.
+    * @return {@code true} if they were different sets.
+    */
+   public boolean union( int a, int b ) {
+      while ( true ) {
+         a = find( a );
+         b = find( b );
+         if ( a == b )
+            return false;
+         if ( a < b ) {
+            int t = a;
+            a = b;
+            b = t;
+         }
+         // a is the larger root; it fails to link only if it stopped being a root
+         if ( parent.compareAndSet( a, a, b ) )
+            return true;
+      }
+   }
+
+   /**
+    * Check whether {@code a} and {@code b} are in the same set.
+    */
+   public boolean connected( int a, int b ) {
+      while ( true ) {
+         a = find( a );
+         b = find( b );
+         if ( a == b )
+            return true;
+         // a root that is still a root after b was found was not linked in between
+         if ( parent.get( a ) == a )
+            return false;
+      }
+   }
+}
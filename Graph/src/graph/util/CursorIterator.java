@@ -0,0 +1,36 @@
+package graph.util;
+
+import graph.core.IEdge;
+import graph.core.IEdgeCursor;
+import graph.core.IIterator;
+import graph.core.IVertex;
+
+/**
+ * Iterator over the edges incident on a vertex, backed by an edge cursor
+ * instead of a list of the edges.
+ */
+public class CursorIterator<V,E> implements IIterator<IEdge<E>> {
+   private IEdgeCursor<V,E> cursor;
+   private boolean ready;
+   private boolean more;
+
+   public CursorIterator( IEdgeCursor<V,E> cursor, IVertex<V> v ) {
+      this.cursor = cursor;
+      cursor.reset( v );
+   }
+
+   public boolean hasNext() {
+      if ( !ready ) {
+         more = cursor.advance();
+         ready = true;
+      }
+      return more;
+   }
+
+   public IEdge<E> next() {
+      if ( !hasNext() )
+         return null;
+      ready = false;
+      return cursor.edge();
+   }
+}
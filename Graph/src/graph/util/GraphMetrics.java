@@ -0,0 +1,274 @@
+package graph.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counters for what graph operations cost: vertices visited and edges
+ * scanned by DFS and BFS, the incidence entries walked by {@code areAdjacent},
+ * matrix and int view rebuilds, and the time spent in each search. A search
+ * is timed as a whole, from the label reset to the last vertex; its phases
+ * are not timed apart.
+ *
+ * Metrics are opt-in: a graph only counts while one is attached with its
+ * {@code setMetrics} method, and otherwise pays a null check per call. One
+ * instance can be shared by many graphs and threads, since every counter is
+ * a {@link LongAdder}.
+ *
+ * The totals can be read with {@link #snapshot()} or through JMX after
+ * {@link #register(String)}. Neither is atomic across counters, so a
+ * snapshot taken while graphs are busy may be a few updates out of step.
+ */
+public class GraphMetrics implements GraphMetricsMBean {
+   /**
+    * Values of all the counters at one time.
+    */
+   public static class Snapshot {
+      private final long verticesVisited, edgesScanned;
+      private final long adjacencyChecks, adjacencyEntriesWalked;
+      private final long matrixRebuilds, indexRebuilds;
+      private final long dfsRuns, dfsNanos, bfsRuns, bfsNanos;
+
+      private Snapshot( long[] v ) {
+         verticesVisited = v[0];
+         edgesScanned = v[1];
+         adjacencyChecks = v[2];
+         adjacencyEntriesWalked = v[3];
+         matrixRebuilds = v[4];
+         indexRebuilds = v[5];
+         dfsRuns = v[6];
+         dfsNanos = v[7];
+         bfsRuns = v[8];
+         bfsNanos = v[9];
+      }
+
+      private long[] values() {
+         return new long[] { verticesVisited, edgesScanned, adjacencyChecks, adjacencyEntriesWalked,
+               matrixRebuilds, indexRebuilds, dfsRuns, dfsNanos, bfsRuns, bfsNanos };
+      }
+
+      public long verticesVisited() {
+         return verticesVisited;
+      }
+
+      public long edgesScanned() {
+         return edgesScanned;
+      }
+
+      public long adjacencyChecks() {
+         return adjacencyChecks;
+      }
+
+      public long adjacencyEntriesWalked() {
+         return adjacencyEntriesWalked;
+      }
+
+      public long matrixRebuilds() {
+         return matrixRebuilds;
+      }
+
+      public long indexRebuilds() {
+         return indexRebuilds;
+      }
+
+      public long dfsRuns() {
+         return dfsRuns;
+      }
+
+      public long dfsNanos() {
+         return dfsNanos;
+      }
+
+      public long bfsRuns() {
+         return bfsRuns;
+      }
+
+      public long bfsNanos() {
+         return bfsNanos;
+      }
+
+      /**
+       * The counts between {@code earlier} and this snapshot.
+       */
+      public Snapshot minus( Snapshot earlier ) {
+         long[] a = values(), b = earlier.values();
+         for ( int i = 0; i < a.length; i++ )
+            a[i] -= b[i];
+         return new Snapshot( a );
+      }
+
+      public String toString() {
+         return "verticesVisited=" + verticesVisited + ", edgesScanned=" + edgesScanned + ", adjacencyChecks="
+               + adjacencyChecks + ", adjacencyEntriesWalked=" + adjacencyEntriesWalked + ", matrixRebuilds="
+               + matrixRebuilds + ", indexRebuilds=" + indexRebuilds + ", dfsRuns=" + dfsRuns + ", dfsNanos="
+               + dfsNanos + ", bfsRuns=" + bfsRuns + ", bfsNanos=" + bfsNanos;
+      }
+   }
+
+   private final LongAdder verticesVisited = new LongAdder();
+   private final LongAdder edgesScanned = new LongAdder();
+   private final LongAdder adjacencyChecks = new LongAdder();
+   private final LongAdder adjacencyEntriesWalked = new LongAdder();
+   private final LongAdder matrixRebuilds = new LongAdder();
+   private final LongAdder indexRebuilds = new LongAdder();
+   private final LongAdder dfsRuns = new LongAdder();
+   private final LongAdder dfsNanos = new LongAdder();
+   private final LongAdder bfsRuns = new LongAdder();
+   private final LongAdder bfsNanos = new LongAdder();
+
+   /**
+    * Count {@code vertices} visited and {@code edges} scanned by a search.
+    */
+   public void visited( long vertices, long edges ) {
+      verticesVisited.add( vertices );
+      edgesScanned.add( edges );
+   }
+
+   /**
+    * Count one {@code areAdjacent} call that walked {@code entries} incidence entries.
+    */
+   public void adjacency( long entries ) {
+      adjacencyChecks.increment();
+      adjacencyEntriesWalked.add( entries );
+   }
+
+   /**
+    * Count one rebuild of an adjacency matrix.
+    */
+   public void matrixRebuild() {
+      matrixRebuilds.increment();
+   }
+
+   /**
+    * Count one rebuild of the int view of a graph.
+    */
+   public void indexRebuild() {
+      indexRebuilds.increment();
+   }
+
+   /**
+    * Count one DFS that took {@code nanos}.
+    */
+   public void dfs( long nanos ) {
+      dfsRuns.increment();
+      dfsNanos.add( nanos );
+   }
+
+   /**
+    * Count one BFS that took {@code nanos}.
+    */
+   public void bfs( long nanos ) {
+      bfsRuns.increment();
+      bfsNanos.add( nanos );
+   }
+
+   /**
+    * Read all the counters.
+    */
+   public Snapshot snapshot() {
+      return new Snapshot( new long[] { verticesVisited.sum(), edgesScanned.sum(), adjacencyChecks.sum(),
+            adjacencyEntriesWalked.sum(), matrixRebuilds.sum(), indexRebuilds.sum(), dfsRuns.sum(), dfsNanos.sum(),
+            bfsRuns.sum(), bfsNanos.sum() } );
+   }
+
+   /**
+    * Set all the counters back to 0. Updates made while it runs may be lost.
+    */
+   @Override
+   public void reset() {
+      verticesVisited.reset();
+      edgesScanned.reset();
+      adjacencyChecks.reset();
+      adjacencyEntriesWalked.reset();
+      matrixRebuilds.reset();
+      indexRebuilds.reset();
+      dfsRuns.reset();
+      dfsNanos.reset();
+      bfsRuns.reset();
+      bfsNanos.reset();
+   }
+
+   /**
+    * Register these metrics with the platform MBean server as
+    * {@code graph:type=GraphMetrics,name=<name>}, and return the name used.
+    */
+   public ObjectName register( String name ) {
+      try {
+         ObjectName objectName = objectName( name );
+         ManagementFactory.getPlatformMBeanServer().registerMBean( this, objectName );
+         return objectName;
+      } catch ( JMException e ) {
+         throw new RuntimeException( "Error: cannot register metrics " + name, e );
+      }
+   }
+
+   /**
+    * Remove the metrics registered as {@code name}, if there are any.
+    */
+   public static void unregister( String name ) {
+      try {
+         ObjectName objectName = objectName( name );
+         if ( ManagementFactory.getPlatformMBeanServer().isRegistered( objectName ) )
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean( objectName );
+      } catch ( JMException e ) {
+         throw new RuntimeException( "Error: cannot unregister metrics " + name, e );
+      }
+   }
+
+   private static ObjectName objectName( String name ) throws JMException {
+      return new ObjectName( "graph:type=GraphMetrics,name=" + ObjectName.quote( name ) );
+   }
+
+   @Override
+   public long getVerticesVisited() {
+      return verticesVisited.sum();
+   }
+
+   @Override
+   public long getEdgesScanned() {
+      return edgesScanned.sum();
+   }
+
+   @Override
+   public long getAdjacencyChecks() {
+      return adjacencyChecks.sum();
+   }
+
+   @Override
+   public long getAdjacencyEntriesWalked() {
+      return adjacencyEntriesWalked.sum();
+   }
+
+   @Override
+   public long getMatrixRebuilds() {
+      return matrixRebuilds.sum();
+   }
+
+   @Override
+   public long getIndexRebuilds() {
+      return indexRebuilds.sum();
+   }
+
+   @Override
+   public long getDfsRuns() {
+      return dfsRuns.sum();
+   }
+
+   @Override
+   public long getDfsNanos() {
+      return dfsNanos.sum();
+   }
+
+   @Override
+   public long getBfsRuns() {
+      return bfsRuns.sum();
+   }
+
+   @Override
+   public long getBfsNanos() {
+      return bfsNanos.sum();
+   }
+}
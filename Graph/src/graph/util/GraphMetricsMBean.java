@@ -0,0 +1,29 @@
+package graph.util;
+
+/**
+ * JMX view of a {@link GraphMetrics}. The attributes are running totals
+ * since the metrics were created or last reset.
+ */
+public interface GraphMetricsMBean {
+   long getVerticesVisited();
+
+   long getEdgesScanned();
+
+   long getAdjacencyChecks();
+
+   long getAdjacencyEntriesWalked();
+
+   long getMatrixRebuilds();
+
+   long getIndexRebuilds();
+
+   long getDfsRuns();
+
+   long getDfsNanos();
+
+   long getBfsRuns();
+
+   long getBfsNanos();
+
+   void reset();
+}
@@ -0,0 +1,130 @@
+package graph.util;
+
+import java.util.Arrays;
+
+/**
+ * Indexed d-ary min-heap of the items 0..n-1 with double keys. Because the
+ * heap knows where each item is, the key of an item can be lowered in place
+ * ({@link #decreaseKey}) instead of inserting the item again.
+ *
+ * A larger arity makes the heap shallower, so decrease-key moves fewer
+ * levels, at the cost of more comparisons per level when removing the minimum.
+ */
+public class IndexedDHeap {
+   private final int d;
+
+   // items in heap order, and the position of every item in heap (-1 if not in the heap)
+   private final int[] heap;
+   private final int[] pos;
+
+   // key of every item
+   private final double[] keys;
+   private int size = 0;
+
+   /**
+    * @param n The number of items; the items are 0..n-1.
+    * @param d The arity of the heap (at least 2).
+    */
+   public IndexedDHeap( int n, int d ) {
+      if ( d < 2 )
+         throw new IllegalArgumentException( "Error: heap arity must be at least 2." );
+      this.d = d;
+      heap = new int[n];
+      pos = new int[n];
+      keys = new double[n];
+      Arrays.fill( pos, -1 );
+   }
+
+   public int size() {
+      return size;
+   }
+
+   public boolean isEmpty() {
+      return size == 0;
+   }
+
+   public boolean contains( int item ) {
+      return pos[item] >= 0;
+   }
+
+   public double key( int item ) {
+      return keys[item];
+   }
+
+   /**
+    * Insert an item that is not in the heap.
+    */
+   public void insert( int item, double key ) {
+      if ( pos[item] >= 0 )
+         throw new IllegalArgumentException( "Error: item " + item + " is already in the heap." );
+      keys[item] = key;
+      heap[size] = item;
+      pos[item] = size;
+      siftUp( size++ );
+   }
+
+   /**
+    * Lower the key of an item that is in the heap.
+    */
+   public void decreaseKey( int item, double key ) {
+      if ( key > keys[item] )
+         throw new IllegalArgumentException( "Error: the new key is larger than the old one." );
+      keys[item] = key;
+      siftUp( pos[item] );
+   }
+
+   /**
+    * Remove the item with the smallest key.
+    * @return The item.
+    */
+   public int pollMin() {
+      int min = heap[0];
+      pos[min] = -1;
+      if ( --size > 0 ) {
+         heap[0] = heap[size];
+         pos[heap[0]] = 0;
+         siftDown( 0 );
+      }
+      return min;
+   }
+
+   private void siftUp( int i ) {
+      int item = heap[i];
+      double key = keys[item];
+      while ( i > 0 ) {
+         int parent = ( i - 1 ) / d;
+         if ( keys[heap[parent]] <= key )
+            break;
+         heap[i] = heap[parent];
+         pos[heap[i]] = i;
+         i = parent;
+      }
+      heap[i] = item;
+      pos[item] = i;
+   }
+
+   private void siftDown( int i ) {
+      int item = heap[i];
+      double key = keys[item];
+      while ( true ) {
+         int first = d * i + 1;
+         if ( first >= size )
+            break;
+         // find the smallest child
+         int best = first;
+         double bestKey = keys[heap[first]];
+         for ( int c = first + 1, end = Math.min( first + d, size ); c < end; c++ )
+            if ( keys[heap[c]] < bestKey ) {
+               best = c;
+               bestKey = keys[heap[c]];
+            }
+         if ( bestKey >= key )
+            break;
+         heap[i] = heap[best];
+         pos[heap[i]] = i;
+         i = best;
+      }
+      heap[i] = item;
+      pos[item] = i;
+   }
+}
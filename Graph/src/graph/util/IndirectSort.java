@@ -0,0 +1,63 @@
+package graph.util;
+
+import java.util.Arrays;
+
+/**
+ * Sorting of indices by primitive keys, without boxing the keys or the indices.
+ */
+public class IndirectSort {
+
+   private IndirectSort() {
+   }
+
+   /**
+    * Get the indices 0..n-1 of {@code keys} in order of increasing key. The
+    * sort is stable, so equal keys stay in index order.
+    *
+    * The keys are turned into longs that sort like the doubles and sorted with
+    * a least significant digit radix sort, one byte per pass; passes in which
+    * all keys have the same byte (common for small integer weights) are skipped.
+    * @param keys The keys; none may be NaN.
+    * @return The indices in key order.
+    */
+   public static int[] sort( double[] keys ) {
+      int n = keys.length;
+      long[] bits = new long[n];
+      int[] order = new int[n];
+      for ( int i = 0; i < n; i++ ) {
+         if ( Double.isNaN( keys[i] ) )
+            throw new IllegalArgumentException( "Error: key " + i + " is NaN." );
+         // flip all bits of negative numbers and the sign bit of the others,
+         // so the longs compare as unsigned numbers in the order of the doubles
+         long b = Double.doubleToLongBits( keys[i] + 0.0 );
+         bits[i] = b < 0 ? ~b : b | Long.MIN_VALUE;
+         order[i] = i;
+      }
+
+      long[] bitsTmp = new long[n];
+      int[] orderTmp = new int[n];
+      int[] count = new int[257];
+      for ( int shift = 0; shift < 64; shift += 8 ) {
+         Arrays.fill( count, 0 );
+         for ( int i = 0; i < n; i++ )
+            count[(int) ( bits[i] >>> shift & 0xFF ) + 1]++;
+         // skip the pass if every key has the same byte here
+         if ( n == 0 || count[(int) ( bits[0] >>> shift & 0xFF ) + 1] == n )
+            continue;
+         for ( int b = 0; b < 256; b++ )
+            count[b + 1] += count[b];
+         for ( int i = 0; i < n; i++ ) {
+            int j = count[(int) ( bits[i] >>> shift & 0xFF )]++;
+            bitsTmp[j] = bits[i];
+            orderTmp[j] = order[i];
+         }
+         long[] tb = bits;
+         bits = bitsTmp;
+         bitsTmp = tb;
+         int[] to = order;
+         order = orderTmp;
+         orderTmp = to;
+      }
+      return order;
+   }
+}
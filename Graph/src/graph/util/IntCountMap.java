@@ -0,0 +1,118 @@
+package graph.util;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from non-negative int keys to positive counts,
+ * stored in two int arrays so that nothing is boxed. Used as a multiset of
+ * neighbor keys: a key is present while its count is above zero.
+ *
+ * Collisions are resolved by linear probing, and removals shift the following
+ * entries back instead of leaving tombstones, so lookups stay short.
+ */
+public class IntCountMap {
+   // marks a free slot
+   private static final int FREE = -1;
+
+   private int[] keys;
+   private int[] counts;
+   private int size = 0;
+
+   public IntCountMap( int expected ) {
+      int capacity = 8;
+      while ( capacity < 2 * expected )
+         capacity <<= 1;
+      keys = new int[capacity];
+      counts = new int[capacity];
+      Arrays.fill( keys, FREE );
+   }
+
+   /**
+    * @return The number of distinct keys.
+    */
+   public int size() {
+      return size;
+   }
+
+   public boolean contains( int key ) {
+      return counts[slot( key )] > 0;
+   }
+
+   public int count( int key ) {
+      return counts[slot( key )];
+   }
+
+   /**
+    * Add one to the count of {@code key}.
+    */
+   public void increment( int key ) {
+      int i = slot( key );
+      if ( keys[i] == FREE ) {
+         if ( 2 * ( size + 1 ) > keys.length ) {
+            grow();
+            i = slot( key );
+         }
+         keys[i] = key;
+         size++;
+      }
+      counts[i]++;
+   }
+
+   /**
+    * Take one from the count of {@code key}, removing it when the count reaches zero.
+    */
+   public void decrement( int key ) {
+      int i = slot( key );
+      if ( keys[i] == FREE )
+         return;
+      if ( --counts[i] > 0 )
+         return;
+
+      // remove the entry and move back the entries that probed past it
+      int mask = keys.length - 1;
+      int j = i;
+      while ( true ) {
+         j = ( j + 1 ) & mask;
+         if ( keys[j] == FREE )
+            break;
+         int home = hash( keys[j] ) & mask;
+         // keys[j] can move to i if i lies cyclically in [home, j)
+         if ( ( j > i && ( home <= i || home > j ) ) || ( j < i && home <= i && home > j ) ) {
+            keys[i] = keys[j];
+            counts[i] = counts[j];
+            i = j;
+         }
+      }
+      keys[i] = FREE;
+      counts[i] = 0;
+      size--;
+   }
+
+   // slot that holds key, or the free slot where it would go
+   private int slot( int key ) {
+      int mask = keys.length - 1;
+      int i = hash( key ) & mask;
+      while ( keys[i] != FREE && keys[i] != key )
+         i = ( i + 1 ) & mask;
+      return i;
+   }
+
+   private void grow() {
+      int[] oldKeys = keys, oldCounts = counts;
+      keys = new int[oldKeys.length * 2];
+      counts = new int[oldKeys.length * 2];
+      Arrays.fill( keys, FREE );
+      for ( int i = 0; i < oldKeys.length; i++ )
+         if ( oldKeys[i] != FREE ) {
+            int j = slot( oldKeys[i] );
+            keys[j] = oldKeys[i];
+            counts[j] = oldCounts[i];
+         }
+   }
+
+   // spread sequential keys over the table
+   private static int hash( int key ) {
+      int h = key * 0x9E3779B9;
+      return h ^ ( h >>> 16 );
+   }
+}
@@ -0,0 +1,145 @@
+package graph.util;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from non-negative int keys to objects, with the
+ * keys in an int array so that they are not boxed. Used for the rows of a
+ * sparse adjacency matrix, keyed by column.
+ *
+ * Collisions are resolved by linear probing, and removals shift the following
+ * entries back instead of leaving tombstones, like in {@link IntCountMap}. The
+ * slots can be scanned with {@link #capacity}, {@link #keyAt} and {@link #valueAt}.
+ */
+public class IntObjectMap<T> {
+   // marks a free slot
+   private static final int FREE = -1;
+
+   private int[] keys;
+   private Object[] values;
+   private int size = 0;
+
+   public IntObjectMap( int expected ) {
+      int capacity = 4;
+      while ( capacity < 2 * expected )
+         capacity <<= 1;
+      keys = new int[capacity];
+      values = new Object[capacity];
+      Arrays.fill( keys, FREE );
+   }
+
+   public int size() {
+      return size;
+   }
+
+   /**
+    * @return The value of {@code key}, or {@code null} if it has none.
+    */
+   @SuppressWarnings( "unchecked" )
+   public T get( int key ) {
+      return (T) values[slot( key )];
+   }
+
+   /**
+    * Give {@code key} the value {@code value}, which must not be {@code null}.
+    * @return The old value of {@code key}, or {@code null} if it had none.
+    */
+   @SuppressWarnings( "unchecked" )
+   public T put( int key, T value ) {
+      int i = slot( key );
+      if ( keys[i] == FREE ) {
+         if ( 2 * ( size + 1 ) > keys.length ) {
+            grow();
+            i = slot( key );
+         }
+         keys[i] = key;
+         size++;
+      }
+      T old = (T) values[i];
+      values[i] = value;
+      return old;
+   }
+
+   /**
+    * Remove {@code key}.
+    * @return The value it had, or {@code null} if it had none.
+    */
+   @SuppressWarnings( "unchecked" )
+   public T remove( int key ) {
+      int i = slot( key );
+      if ( keys[i] == FREE )
+         return null;
+      T old = (T) values[i];
+
+      // remove the entry and move back the entries that probed past it
+      int mask = keys.length - 1;
+      int j = i;
+      while ( true ) {
+         j = ( j + 1 ) & mask;
+         if ( keys[j] == FREE )
+            break;
+         int home = hash( keys[j] ) & mask;
+         // keys[j] can move to i if i lies cyclically in [home, j)
+         if ( ( j > i && ( home <= i || home > j ) ) || ( j < i && home <= i && home > j ) ) {
+            keys[i] = keys[j];
+            values[i] = values[j];
+            i = j;
+         }
+      }
+      keys[i] = FREE;
+      values[i] = null;
+      size--;
+      return old;
+   }
+
+   /**
+    * @return The number of slots.
+    */
+   public int capacity() {
+      return keys.length;
+   }
+
+   /**
+    * @return The key in slot {@code i}, or -1 if the slot is free.
+    */
+   public int keyAt( int i ) {
+      return keys[i];
+   }
+
+   /**
+    * @return The value in slot {@code i}, or {@code null} if the slot is free.
+    */
+   @SuppressWarnings( "unchecked" )
+   public T valueAt( int i ) {
+      return (T) values[i];
+   }
+
+   // slot that holds key, or the free slot where it would go
+   private int slot( int key ) {
+      int mask = keys.length - 1;
+      int i = hash( key ) & mask;
+      while ( keys[i] != FREE && keys[i] != key )
+         i = ( i + 1 ) & mask;
+      return i;
+   }
+
+   private void grow() {
+      int[] oldKeys = keys;
+      Object[] oldValues = values;
+      keys = new int[oldKeys.length * 2];
+      values = new Object[oldKeys.length * 2];
+      Arrays.fill( keys, FREE );
+      for ( int i = 0; i < oldKeys.length; i++ )
+         if ( oldKeys[i] != FREE ) {
+            int j = slot( oldKeys[i] );
+            keys[j] = oldKeys[i];
+            values[j] = oldValues[i];
+         }
+   }
+
+   // spread sequential keys over the table
+   private static int hash( int key ) {
+      int h = key * 0x9E3779B9;
+      return h ^ ( h >>> 16 );
+   }
+}
@@ -0,0 +1,39 @@
+package graph.util;
+
+import graph.core.IList;
+import graph.core.INode;
+import graph.core.IVertex;
+import graph.core.IVertexCursor;
+
+/**
+ * Vertex cursor that walks the nodes of a vertex list.
+ */
+public class ListVertexCursor<V> implements IVertexCursor<V> {
+   private IList<IVertex<V>> list;
+   private INode<IVertex<V>> node;
+   private boolean started;
+
+   public ListVertexCursor( IList<IVertex<V>> list ) {
+      this.list = list;
+   }
+
+   public void reset() {
+      node = null;
+      started = false;
+   }
+
+   public boolean advance() {
+      if ( !started ) {
+         node = list.first();
+         started = true;
+      }
+      else if ( node != null ) {
+         node = list.next( node );
+      }
+      return node != null;
+   }
+
+   public IVertex<V> vertex() {
+      return node.element();
+   }
+}
@@ -0,0 +1,95 @@
+package graph.util;
+
+import java.util.Arrays;
+
+/**
+ * Monotone priority queue of int items with non-negative long keys, for
+ * algorithms (like Dijkstra's) that never insert a key smaller than the last
+ * one removed. Entries are kept in 65 buckets by the highest bit in which
+ * their key differs from the last removed key, so every entry is moved at
+ * most 64 times in total instead of being sifted through a heap.
+ *
+ * There is no decrease-key: an item is inserted again with its new key, and
+ * the caller skips the entries that are out of date when they come out.
+ */
+public class RadixHeap {
+   private final int[][] items = new int[65][];
+   private final long[][] keys = new long[65][];
+   private final int[] counts = new int[65];
+   private int size = 0;
+
+   // key of the last removed entry
+   private long last = 0;
+
+   public RadixHeap() {
+      for ( int b = 0; b < 65; b++ ) {
+         items[b] = new int[4];
+         keys[b] = new long[4];
+      }
+   }
+
+   public int size() {
+      return size;
+   }
+
+   public boolean isEmpty() {
+      return size == 0;
+   }
+
+   /**
+    * Get the key of the entry that was removed last.
+    */
+   public long lastKey() {
+      return last;
+   }
+
+   /**
+    * Insert an entry. Its key may not be smaller than {@link #lastKey()}.
+    */
+   public void push( int item, long key ) {
+      if ( key < last )
+         throw new IllegalArgumentException( "Error: key " + key + " is smaller than the last removed key." );
+      add( bucket( key ), item, key );
+      size++;
+   }
+
+   /**
+    * Remove an entry with the smallest key; its key is then {@link #lastKey()}.
+    * @return The item of the entry.
+    */
+   public int pop() {
+      if ( counts[0] == 0 ) {
+         // find the first bucket that is not empty and its smallest key
+         int b = 1;
+         while ( counts[b] == 0 )
+            b++;
+         long min = Long.MAX_VALUE;
+         for ( int i = 0; i < counts[b]; i++ )
+            min = Math.min( min, keys[b][i] );
+
+         // with that key as the new last key, all its entries move to lower buckets
+         last = min;
+         int count = counts[b];
+         counts[b] = 0;
+         for ( int i = 0; i < count; i++ )
+            add( bucket( keys[b][i] ), items[b][i], keys[b][i] );
+      }
+      size--;
+      return items[0][--counts[0]];
+   }
+
+   private int bucket( long key ) {
+      return key == last ? 0 : 64 - Long.numberOfLeadingZeros( key ^ last );
+   }
+
+   private void add( int b, int item, long key ) {
+      int c = counts[b];
+      if ( c == items[b].length ) {
+         items[b] = Arrays.copyOf( items[b], c * 2 );
+         keys[b] = Arrays.copyOf( keys[b], c * 2 );
+      }
+      items[b][c] = item;
+      keys[b][c] = key;
+      counts[b] = c + 1;
+   }
+}
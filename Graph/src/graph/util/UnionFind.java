@@ -0,0 +1,70 @@
+package graph.util;
+
+import java.util.Arrays;
+
+/**
+ * Union-find over the elements 0..n-1 for a single thread, with union by
+ * size and path halving. Elements can be added with {@link #add}. See
+ * {@link ConcurrentUnionFind} for the thread-safe version.
+ */
+public class UnionFind {
+   private int[] parent;
+   private int[] size;
+   private int n;
+
+   public UnionFind( int n ) {
+      parent = new int[Math.max( n, 1 )];
+      size = new int[parent.length];
+      while ( this.n < n )
+         add();
+   }
+
+   public int size() {
+      return n;
+   }
+
+   /**
+    * Add an element in a set of its own.
+    * @return The new element, which is the number of elements before.
+    */
+   public int add() {
+      if ( n == parent.length ) {
+         parent = Arrays.copyOf( parent, 2 * n );
+         size = Arrays.copyOf( size, 2 * n );
+      }
+      parent[n] = n;
+      size[n] = 1;
+      return n++;
+   }
+
+   /**
+    * Find the root of the set that contains {@code x}.
+    */
+   public int find( int x ) {
+      while ( parent[x] != x ) {
+         // path halving: point x past its parent
+         parent[x] = parent[parent[x]];
+         x = parent[x];
+      }
+      return x;
+   }
+
+   /**
+    * Merge the sets that contain {@code a} and {@code b}.
+    * @return {@code true} if they were different sets.
+    */
+   public boolean union( int a, int b ) {
+      a = find( a );
+      b = find( b );
+      if ( a == b )
+         return false;
+      if ( size[a] < size[b] ) {
+         int t = a;
+         a = b;
+         b = t;
+      }
+      parent[b] = a;
+      size[a] += size[b];
+      return true;
+   }
+}
@@ -0,0 +1,77 @@
+package graph.util;
+
+import java.util.Arrays;
+
+/**
+ * Column of edge weights stored as primitive doubles. Every edge owns one
+ * slot for as long as it is in the graph; the slots of removed edges are
+ * reused, so the column does not grow with the number of removals.
+ */
+public class WeightColumn {
+   private double[] weights = new double[16];
+
+   // slots that were released, used as a stack
+   private int[] free = new int[16];
+   private int freeCount = 0;
+
+   // slots handed out so far
+   private int used = 0;
+
+   /**
+    * Get the weight an edge gets by default: the value of its element if the
+    * element is a number, and 1 otherwise.
+    */
+   public static double weightOf( Object element ) {
+      return element instanceof Number ? ( (Number) element ).doubleValue() : 1;
+   }
+
+   /**
+    * Take a slot and store {@code weight} in it.
+    * @return The slot.
+    */
+   public int allocate( double weight ) {
+      int slot;
+      if ( freeCount > 0 )
+         slot = free[--freeCount];
+      else {
+         if ( used == weights.length )
+            weights = Arrays.copyOf( weights, used * 2 );
+         slot = used++;
+      }
+      weights[slot] = weight;
+      return slot;
+   }
+
+   /**
+    * Make room for {@code count} more slots, so that many edges can be
+    * inserted without the column growing in between.
+    */
+   public void ensureCapacity( int count ) {
+      int needed = used + Math.max( 0, count - freeCount );
+      if ( needed > weights.length )
+         weights = Arrays.copyOf( weights, Math.max( needed, weights.length * 2 ) );
+   }
+
+   /**
+    * Give back a slot, so it can be used for another edge.
+    */
+   public void release( int slot ) {
+      if ( freeCount == free.length )
+         free = Arrays.copyOf( free, freeCount * 2 );
+      free[freeCount++] = slot;
+   }
+
+   public double get( int slot ) {
+      return weights[slot];
+   }
+
+   /**
+    * Store a new weight in a slot.
+    * @return The old weight.
+    */
+   public double set( int slot, double weight ) {
+      double old = weights[slot];
+      weights[slot] = weight;
+      return old;
+   }
+}